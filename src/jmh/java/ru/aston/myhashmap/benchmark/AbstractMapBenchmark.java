@@ -0,0 +1,102 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The common state of the map benchmarks: a map of the requested implementation filled with {@code size} keys,
+ * the same keys in a shuffled order for lookups and the same number of keys which are absent from the map.
+ * The map is created with the {@code loadFactor} parameter, which MY_OPEN_HASH_MAP caps at 0.75;
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public abstract class AbstractMapBenchmark {
+    /**
+     * The number of keys generated for each trial, the missing keys are capped by this value as well;
+     */
+    private static final int MAX_MISSING_KEYS = 1 << 20;
+    private static final long SEED = 42;
+
+    @Param({"MY_HASH_MAP", "MY_OPEN_HASH_MAP", "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"STRING", "INTEGER", "COLLIDING"})
+    public KeyType keyType;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"0.5", "0.75", "0.9"})
+    public float loadFactor;
+
+    BenchmarkMap map;
+    /**
+     * The keys present in the map, shuffled so that lookups do not follow the insertion order;
+     */
+    Object[] keys;
+    /**
+     * The keys absent from the map;
+     */
+    Object[] missingKeys;
+    private int cursor;
+    private int missingCursor;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        keys = keyType.keys(0, size, SEED);
+        missingKeys = keyType.keys(size, Math.min(size, MAX_MISSING_KEYS), SEED + 1);
+        map = newMap();
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        shuffle(keys, new Random(SEED));
+    }
+
+    /**
+     * Creates an empty map of the benchmarked implementation with the default capacity;
+     */
+    BenchmarkMap newMap() {
+        return implementation.create(16, loadFactor);
+    }
+
+    Object nextKey() {
+        Object key = keys[cursor];
+        if (++cursor == keys.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    Object nextMissingKey() {
+        Object key = missingKeys[missingCursor];
+        if (++missingCursor == missingKeys.length) {
+            missingCursor = 0;
+        }
+        return key;
+    }
+
+    private static void shuffle(Object[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+        }
+    }
+}
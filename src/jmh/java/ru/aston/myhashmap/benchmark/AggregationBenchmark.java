@@ -0,0 +1,95 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.CountingMyMap;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMultiMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates {@code events} events over {@code keys} distinct keys into a fresh map per invocation:
+ * counting by get and put of a {@code MyHashMap<K, Integer>} against CountingMyMap.increment,
+ * and grouping by computeIfAbsent of a {@code MyHashMap<K, List<V>>} against MyMultiMap.put.
+ * gc.alloc.rate.norm reported by the gc profiler shows the allocations of one aggregation;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AggregationBenchmark {
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"100", "10000"})
+    public int keys;
+
+    @Param({"100000"})
+    public int events;
+
+    private Object[] stream;
+
+    @Setup(Level.Trial)
+    public void createEvents() {
+        Object[] distinct = keyType.keys(0, keys, 42);
+        stream = new Object[events];
+        Random random = new Random(42);
+        for (int i = 0; i < events; i++) {
+            stream[i] = distinct[random.nextInt(keys)];
+        }
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Integer> countBoxed() {
+        MyHashMap<Object, Integer> counts = new MyHashMap<>();
+        for (Object key : stream) {
+            Integer count = counts.get(key);
+            counts.put(key, count == null ? 1 : count + 1);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public CountingMyMap<Object> countInline() {
+        CountingMyMap<Object> counts = new CountingMyMap<>();
+        for (Object key : stream) {
+            counts.increment(key);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, List<Object>> groupIntoLists() {
+        MyHashMap<Object, List<Object>> groups = new MyHashMap<>();
+        for (int i = 0; i < stream.length; i++) {
+            groups.computeIfAbsent(stream[i], key -> new ArrayList<>()).add(stream[i]);
+        }
+        return groups;
+    }
+
+    @Benchmark
+    public MyMultiMap<Object, Object> groupInline() {
+        MyMultiMap<Object, Object> groups = new MyMultiMap<>();
+        for (int i = 0; i < stream.length; i++) {
+            groups.put(stream[i], stream[i]);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,267 @@
+package ru.aston.myhashmap.benchmark;
+
+import ru.aston.myhashmap.ConcurrentMyHashMap;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMap;
+import ru.aston.myhashmap.MyOpenHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A thin adapter which lets the same benchmark code drive {@link MyMap} implementations
+ * and the {@link java.util.Map} implementations they are compared against;
+ */
+public interface BenchmarkMap {
+
+    Object get(Object key);
+
+    Object put(Object key, Object value);
+
+    Object remove(Object key);
+
+    boolean containsKey(Object key);
+
+    boolean containsValue(Object value);
+
+    Object merge(Object key, Object value, BiFunction<Object, Object, Object> remappingFunction);
+
+    int size();
+
+    /**
+     * Walks every entry of the map and returns a value depending on all of them,
+     * so that the JIT cannot eliminate the traversal;
+     */
+    long iterate();
+
+    /**
+     * Does the same as iterate with a parallel stream over the entries;
+     */
+    long iterateParallel();
+
+    static BenchmarkMap of(MyMap<Object, Object> map) {
+        return new BenchmarkMap() {
+            @Override
+            public Object get(Object key) {
+                return map.get(key);
+            }
+
+            @Override
+            public Object put(Object key, Object value) {
+                return map.put(key, value);
+            }
+
+            @Override
+            public Object remove(Object key) {
+                return map.remove(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return map.containsKey(key);
+            }
+
+            @Override
+            public boolean containsValue(Object value) {
+                return map.containsValue(value);
+            }
+
+            @Override
+            public Object merge(Object key, Object value, BiFunction<Object, Object, Object> remappingFunction) {
+                return map.merge(key, value, remappingFunction);
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public long iterate() {
+                long result = 0;
+                for (MyMap.Entry<Object, Object> entry : map.entrySet()) {
+                    result += System.identityHashCode(entry.getKey()) ^ System.identityHashCode(entry.getValue());
+                }
+                return result;
+            }
+
+            @Override
+            public long iterateParallel() {
+                return map.parallelStream()
+                        .mapToLong(entry -> System.identityHashCode(entry.getKey())
+                                ^ System.identityHashCode(entry.getValue()))
+                        .sum();
+            }
+        };
+    }
+
+    /**
+     * Guards every operation on the map by one lock, the way a MyHashMap shared between threads has to be used;
+     */
+    static BenchmarkMap synchronizedOf(MyMap<Object, Object> map) {
+        BenchmarkMap delegate = of(map);
+        return new BenchmarkMap() {
+            @Override
+            public synchronized Object get(Object key) {
+                return delegate.get(key);
+            }
+
+            @Override
+            public synchronized Object put(Object key, Object value) {
+                return delegate.put(key, value);
+            }
+
+            @Override
+            public synchronized Object remove(Object key) {
+                return delegate.remove(key);
+            }
+
+            @Override
+            public synchronized boolean containsKey(Object key) {
+                return delegate.containsKey(key);
+            }
+
+            @Override
+            public synchronized boolean containsValue(Object value) {
+                return delegate.containsValue(value);
+            }
+
+            @Override
+            public synchronized Object merge(Object key, Object value,
+                                             BiFunction<Object, Object, Object> remappingFunction) {
+                return delegate.merge(key, value, remappingFunction);
+            }
+
+            @Override
+            public synchronized int size() {
+                return delegate.size();
+            }
+
+            @Override
+            public synchronized long iterate() {
+                return delegate.iterate();
+            }
+
+            @Override
+            public synchronized long iterateParallel() {
+                return delegate.iterateParallel();
+            }
+        };
+    }
+
+    static BenchmarkMap of(Map<Object, Object> map) {
+        return new BenchmarkMap() {
+            @Override
+            public Object get(Object key) {
+                return map.get(key);
+            }
+
+            @Override
+            public Object put(Object key, Object value) {
+                return map.put(key, value);
+            }
+
+            @Override
+            public Object remove(Object key) {
+                return map.remove(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return map.containsKey(key);
+            }
+
+            @Override
+            public boolean containsValue(Object value) {
+                return map.containsValue(value);
+            }
+
+            @Override
+            public Object merge(Object key, Object value, BiFunction<Object, Object, Object> remappingFunction) {
+                return map.merge(key, value, remappingFunction);
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public long iterate() {
+                long result = 0;
+                for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                    result += System.identityHashCode(entry.getKey()) ^ System.identityHashCode(entry.getValue());
+                }
+                return result;
+            }
+
+            @Override
+            public long iterateParallel() {
+                return map.entrySet().parallelStream()
+                        .mapToLong(entry -> System.identityHashCode(entry.getKey())
+                                ^ System.identityHashCode(entry.getValue()))
+                        .sum();
+            }
+        };
+    }
+
+    /**
+     * The map implementations under comparison;
+     */
+    enum Implementation {
+        MY_HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new MyHashMap<>(initialCapacity, loadFactor));
+            }
+        },
+        MY_HASH_MAP_INCREMENTAL {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new MyHashMap<>(initialCapacity, loadFactor, true));
+            }
+        },
+        MY_HASH_MAP_SHRINKING {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new MyHashMap<>(initialCapacity, loadFactor, false, null, true));
+            }
+        },
+        MY_OPEN_HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                // the capacity of MyOpenHashMap is an expected size, and its load factor must stay below 1
+                return of(new MyOpenHashMap<>((int) (initialCapacity * Math.min(loadFactor, 0.75f)),
+                        Math.min(loadFactor, 0.75f)));
+            }
+        },
+        SYNCHRONIZED_MY_HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return synchronizedOf(new MyHashMap<>(initialCapacity, loadFactor));
+            }
+        },
+        CONCURRENT_MY_HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new ConcurrentMyHashMap<>((int) (initialCapacity * loadFactor)));
+            }
+        },
+        HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new HashMap<>(initialCapacity, loadFactor));
+            }
+        },
+        CONCURRENT_HASH_MAP {
+            @Override
+            BenchmarkMap create(int initialCapacity, float loadFactor) {
+                return of(new ConcurrentHashMap<>(initialCapacity, loadFactor));
+            }
+        };
+
+        abstract BenchmarkMap create(int initialCapacity, float loadFactor);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.BoundedMyHashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a workload of skewed lookups interleaved with one-off scans against a BoundedMyHashMap, loading the missing keys,
+ * with and without the W-TinyLFU admission filter. Besides the time per lookup it reports the hits and misses
+ * as auxiliary counters, their ratio is the hit rate of the policy;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BoundedCacheBenchmark {
+
+    @Param({"false", "true"})
+    public boolean admissionFilter;
+
+    @Param({"10000"})
+    public int maximumSize;
+
+    private static final int TRACE_LENGTH = 1 << 20;
+
+    private BoundedMyHashMap<Integer, Integer> cache;
+    private int[] trace;
+    private int cursor;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createTrace() {
+        Random random = new Random(42);
+        trace = new int[TRACE_LENGTH];
+        int scanKey = Integer.MAX_VALUE / 2;
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            if (random.nextInt(4) == 0) {
+                /*
+                 *a quarter of the lookups are a scan of keys which are never repeated
+                 */
+                trace[i] = scanKey++;
+            } else {
+                /*
+                 *the rest follow an approximately Zipfian distribution over ten times the capacity
+                 */
+                trace[i] = (int) Math.pow(maximumSize * 10, random.nextDouble());
+            }
+        }
+        cache = new BoundedMyHashMap<>(maximumSize, admissionFilter);
+    }
+
+    @Benchmark
+    public Integer getOrLoad(HitCounters counters) {
+        Integer key = trace[cursor];
+        if (++cursor == TRACE_LENGTH) {
+            cursor = 0;
+        }
+        Integer value = cache.get(key);
+        if (value == null) {
+            counters.misses++;
+            value = key;
+            cache.put(key, value);
+        } else {
+            counters.hits++;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading {@code size} entries into an empty MyHashMap: put by put, going through every intermediate resize,
+ * against putAll, which presizes the table once and inserts the entries grouped by bucket.
+ * The sources are a java.util.HashMap and a MyHashMap, which are iterated in bucket order already,
+ * and a TreeMap, whose entries putAll has to sort by bucket first; run with -prof gc to compare the allocation;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BulkLoadBenchmark {
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Map<Object, Object> hashMap;
+    private MyHashMap<Object, Object> myHashMap;
+    private Map<Object, Object> treeMap;
+
+    @Setup(Level.Trial)
+    public void createSources() {
+        hashMap = new HashMap<>();
+        myHashMap = new MyHashMap<>();
+        treeMap = new TreeMap<>();
+        for (Object key : keyType.keys(0, size, 42)) {
+            hashMap.put(key, key);
+            myHashMap.put(key, key);
+            treeMap.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putEachFromHashMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        for (Map.Entry<Object, Object> entry : hashMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putAllFromHashMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        map.putAll(hashMap);
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putEachFromMyHashMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        for (MyMap.Entry<Object, Object> entry : myHashMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putAllFromMyHashMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        map.putAll(myHashMap);
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putEachFromTreeMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        for (Map.Entry<Object, Object> entry : treeMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<Object, Object> putAllFromTreeMap() {
+        MyHashMap<Object, Object> map = new MyHashMap<>();
+        map.putAll(treeMap);
+        return map;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures heavy remove/insert churn. steadyChurn slides a window of {@code size} keys over twice as many keys,
+ * every invocation removes the oldest key of the window and puts a new one, so the size stays the same.
+ * spikeAndDrain puts {@code size} keys into a map holding RESIDENT keys and removes them again: a shrinking map
+ * gives its table back after every drain and allocates it again for the next spike, which gc.alloc.rate.norm
+ * reported by the gc profiler shows, a map which does not shrink keeps the table of the peak;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ChurnBenchmark {
+
+    private static final int RESIDENT = 100;
+
+    @Param({"MY_HASH_MAP", "MY_HASH_MAP_SHRINKING", "HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Object[] keys;
+    private Object[] residentKeys;
+    private BenchmarkMap window;
+    private BenchmarkMap spiking;
+    private int oldest;
+
+    @Setup(Level.Trial)
+    public void createMaps() {
+        keys = keyType.keys(0, 2 * size, 42);
+        residentKeys = keyType.keys(2 * size, RESIDENT, 43);
+        window = implementation.create(16, 0.75f);
+        for (int i = 0; i < size; i++) {
+            window.put(keys[i], keys[i]);
+        }
+        spiking = implementation.create(16, 0.75f);
+        for (Object key : residentKeys) {
+            spiking.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Object steadyChurn() {
+        int newest = oldest + size;
+        if (newest >= keys.length) {
+            newest -= keys.length;
+        }
+        Object removed = window.remove(keys[oldest]);
+        window.put(keys[newest], removed);
+        if (++oldest == keys.length) {
+            oldest = 0;
+        }
+        return removed;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int spikeAndDrain() {
+        for (int i = 0; i < size; i++) {
+            spiking.put(keys[i], keys[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            spiking.remove(keys[i]);
+        }
+        return spiking.size();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.aston.myhashmap.benchmark;
+
+/**
+ * A key with a deliberately poor hashcode: every {@link #GROUP} consecutive ids share the same hash,
+ * which models skewed user input and makes every bucket hold a chain;
+ */
+final class CollidingKey implements Comparable<CollidingKey> {
+    /**
+     * The number of keys sharing one hashcode;
+     */
+    static final int GROUP = 8;
+
+    private final int id;
+
+    CollidingKey(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CollidingKey)) return false;
+        return id == ((CollidingKey) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id / GROUP;
+    }
+
+    @Override
+    public int compareTo(CollidingKey other) {
+        return Integer.compare(id, other.id);
+    }
+
+    @Override
+    public String toString() {
+        return "CollidingKey{" + id + '}';
+    }
+}
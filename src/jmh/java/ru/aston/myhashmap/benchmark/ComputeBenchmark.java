@@ -0,0 +1,29 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.function.BiFunction;
+
+/**
+ * Measures incrementing a counter of a present key: with get followed by put, which hashes the key and walks
+ * its bucket twice, and with a single merge;
+ */
+public class ComputeBenchmark extends AbstractMapBenchmark {
+    private static final Integer ONE = 1;
+    /**
+     * The values are the keys themselves until a key is incremented for the first time;
+     */
+    private static final BiFunction<Object, Object, Object> INCREMENT =
+            (oldValue, one) -> oldValue instanceof Integer ? (Integer) oldValue + 1 : one;
+
+    @Benchmark
+    public Object incrementWithGetAndPut() {
+        Object key = nextKey();
+        return map.put(key, INCREMENT.apply(map.get(key), ONE));
+    }
+
+    @Benchmark
+    public Object incrementWithMerge() {
+        return map.merge(nextKey(), ONE, INCREMENT);
+    }
+}
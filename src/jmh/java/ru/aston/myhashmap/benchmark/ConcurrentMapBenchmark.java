@@ -0,0 +1,94 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a map shared by all benchmark threads under a read-mostly and a write-heavy mix.
+ * Run {@link #main} to get the scaling from 1 to the number of available processors, doubling the number of threads;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ConcurrentMapBenchmark {
+
+    @Param({"CONCURRENT_MY_HASH_MAP", "SYNCHRONIZED_MY_HASH_MAP", "CONCURRENT_HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"100000"})
+    public int size;
+
+    private BenchmarkMap map;
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        keys = KeyType.STRING.keys(0, size, 42);
+        map = implementation.create(16, 0.75f);
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+    }
+
+    private Object randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    /**
+     * 90% of lookups and 10% of puts replacing the value of a present key;
+     */
+    @Benchmark
+    public Object readMostly() {
+        Object key = randomKey();
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+            return map.put(key, key);
+        }
+        return map.get(key);
+    }
+
+    /**
+     * Removes a present key and puts it back, so that the structure of the map changes on every call;
+     */
+    @Benchmark
+    public Object removeAndPutBack() {
+        Object key = randomKey();
+        Object value = map.remove(key);
+        map.put(key, key);
+        return value;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, processors)) {
+            new Runner(new OptionsBuilder()
+                    .include(ConcurrentMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build())
+                    .run();
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures {@code containsKey} for present and absent keys. The map values are the keys themselves,
+ * so {@code containsValue} of a key performs the full scan of the table which {@code containsKey} of MyHashMap
+ * used to do and serves as the baseline;
+ */
+public class ContainsKeyBenchmark extends AbstractMapBenchmark {
+
+    @Benchmark
+    public boolean containsKeyHit() {
+        return map.containsKey(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyMiss() {
+        return map.containsKey(nextMissingKey());
+    }
+
+    @Benchmark
+    public boolean scanHit() {
+        return map.containsValue(nextKey());
+    }
+
+    @Benchmark
+    public boolean scanMiss() {
+        return map.containsValue(nextMissingKey());
+    }
+}
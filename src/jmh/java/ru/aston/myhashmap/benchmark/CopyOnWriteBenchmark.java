@@ -0,0 +1,219 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.ConcurrentMyHashMap;
+import ru.aston.myhashmap.CopyOnWriteMyHashMap;
+import ru.aston.myhashmap.MyHashMap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Measures a read-mostly map shared by all benchmark threads: the cost of a lookup, of a single put and of a batch
+ * of BATCH puts, each of which replaces the value of a present key, for CopyOnWriteMyHashMap, a MyHashMap guarded
+ * by a ReadWriteLock, ConcurrentMyHashMap and a copy-on-write map which copies the whole MyHashMap on every write;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CopyOnWriteBenchmark {
+
+    private static final int BATCH = 64;
+
+    @Param({"COPY_ON_WRITE", "READ_WRITE_LOCK", "CONCURRENT", "FULL_COPY"})
+    public Implementation implementation;
+
+    @Param({"100000"})
+    public int size;
+
+    private SharedMap map;
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        keys = KeyType.STRING.keys(0, size, 42);
+        map = implementation.create();
+        map.putBatch(keys, keys, keys.length);
+    }
+
+    private Object randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    public Object get() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object put() {
+        return map.put(randomKey(), randomKey());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void putBatch() {
+        Object[] batch = new Object[BATCH];
+        Object[] values = new Object[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = randomKey();
+            values[i] = randomKey();
+        }
+        map.putBatch(batch, values, BATCH);
+    }
+
+    /**
+     * The operations the benchmark needs from a shared map;
+     */
+    interface SharedMap {
+        Object get(Object key);
+
+        Object put(Object key, Object value);
+
+        void putBatch(Object[] keys, Object[] values, int count);
+    }
+
+    public enum Implementation {
+        COPY_ON_WRITE {
+            @Override
+            SharedMap create() {
+                CopyOnWriteMyHashMap<Object, Object> map = new CopyOnWriteMyHashMap<>();
+                return new SharedMap() {
+                    @Override
+                    public Object get(Object key) {
+                        return map.get(key);
+                    }
+
+                    @Override
+                    public Object put(Object key, Object value) {
+                        return map.put(key, value);
+                    }
+
+                    @Override
+                    public void putBatch(Object[] keys, Object[] values, int count) {
+                        map.update(batch -> {
+                            for (int i = 0; i < count; i++) {
+                                batch.put(keys[i], values[i]);
+                            }
+                        });
+                    }
+                };
+            }
+        },
+        READ_WRITE_LOCK {
+            @Override
+            SharedMap create() {
+                MyHashMap<Object, Object> map = new MyHashMap<>();
+                ReadWriteLock lock = new ReentrantReadWriteLock();
+                return new SharedMap() {
+                    @Override
+                    public Object get(Object key) {
+                        lock.readLock().lock();
+                        try {
+                            return map.get(key);
+                        } finally {
+                            lock.readLock().unlock();
+                        }
+                    }
+
+                    @Override
+                    public Object put(Object key, Object value) {
+                        lock.writeLock().lock();
+                        try {
+                            return map.put(key, value);
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                    }
+
+                    @Override
+                    public void putBatch(Object[] keys, Object[] values, int count) {
+                        lock.writeLock().lock();
+                        try {
+                            for (int i = 0; i < count; i++) {
+                                map.put(keys[i], values[i]);
+                            }
+                        } finally {
+                            lock.writeLock().unlock();
+                        }
+                    }
+                };
+            }
+        },
+        CONCURRENT {
+            @Override
+            SharedMap create() {
+                ConcurrentMyHashMap<Object, Object> map = new ConcurrentMyHashMap<>();
+                return new SharedMap() {
+                    @Override
+                    public Object get(Object key) {
+                        return map.get(key);
+                    }
+
+                    @Override
+                    public Object put(Object key, Object value) {
+                        return map.put(key, value);
+                    }
+
+                    @Override
+                    public void putBatch(Object[] keys, Object[] values, int count) {
+                        for (int i = 0; i < count; i++) {
+                            map.put(keys[i], values[i]);
+                        }
+                    }
+                };
+            }
+        },
+        FULL_COPY {
+            @Override
+            SharedMap create() {
+                return new SharedMap() {
+                    private volatile MyHashMap<Object, Object> map = new MyHashMap<>();
+
+                    @Override
+                    public Object get(Object key) {
+                        return map.get(key);
+                    }
+
+                    @Override
+                    public synchronized Object put(Object key, Object value) {
+                        MyHashMap<Object, Object> copy = new MyHashMap<>();
+                        copy.putAll(map);
+                        Object oldValue = copy.put(key, value);
+                        map = copy;
+                        return oldValue;
+                    }
+
+                    @Override
+                    public synchronized void putBatch(Object[] keys, Object[] values, int count) {
+                        MyHashMap<Object, Object> copy = new MyHashMap<>();
+                        copy.putAll(map);
+                        for (int i = 0; i < count; i++) {
+                            copy.put(keys[i], values[i]);
+                        }
+                        map = copy;
+                    }
+                };
+            }
+        };
+
+        abstract SharedMap create();
+    }
+}
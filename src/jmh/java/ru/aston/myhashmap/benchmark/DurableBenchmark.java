@@ -0,0 +1,68 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.DurableMyHashMap;
+import ru.aston.myhashmap.Serializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the throughput of puts into a DurableMyHashMap under each fsync policy. With ALWAYS the writer threads
+ * wait for the disk, and the threads which arrive while a batch is forced are committed together by the next fsync,
+ * so the throughput grows with the number of threads instead of being bound by one fsync per put;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class DurableBenchmark {
+
+    @Param({"ALWAYS", "INTERVAL", "NEVER"})
+    public DurableMyHashMap.FsyncPolicy policy;
+
+    private Path directory;
+    private DurableMyHashMap<Integer, String> map;
+
+    @Setup(Level.Trial)
+    public void openMap() throws IOException {
+        directory = Files.createTempDirectory("durable");
+        map = new DurableMyHashMap<>(directory, Serializer.INTEGER, Serializer.STRING, policy,
+                DurableMyHashMap.DEFAULT_INTERVAL_MILLIS, 16L << 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteMap() throws IOException {
+        map.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String put() {
+        int key = ThreadLocalRandom.current().nextInt(1_000_000);
+        return map.put(key, "value");
+    }
+}
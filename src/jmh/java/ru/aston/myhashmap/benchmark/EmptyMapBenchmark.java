@@ -0,0 +1,68 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups and removals on an empty map, as in per-request maps which mostly stay empty:
+ * a FRESH map has no table yet, a DRAINED map has a table whose only key has been removed.
+ * Whether the fast path is inlined into get can be checked by appending
+ * {@code -jvmArgsAppend "-XX:+UnlockDiagnosticVMOptions -XX:+PrintInlining"} to the command line;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class EmptyMapBenchmark {
+
+    @Param({"MY_HASH_MAP", "HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"FRESH", "DRAINED"})
+    public String state;
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    private BenchmarkMap map;
+    private Object key;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        key = keyType.keys(0, 1, 42)[0];
+        map = implementation.create(16, 0.75f);
+        if ("DRAINED".equals(state)) {
+            map.put(key, key);
+            map.remove(key);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        return map.get(key);
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return map.containsKey(key);
+    }
+
+    @Benchmark
+    public Object remove() {
+        return map.remove(key);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures a full traversal of the map through its entry set, sequentially and with a parallel stream
+ * which splits the table among the workers of the common fork-join pool;
+ */
+public class EntrySetBenchmark extends AbstractMapBenchmark {
+
+    @Benchmark
+    public long iterateEntrySet() {
+        return map.iterate();
+    }
+
+    @Benchmark
+    public long iterateEntrySetParallel() {
+        return map.iterateParallel();
+    }
+}
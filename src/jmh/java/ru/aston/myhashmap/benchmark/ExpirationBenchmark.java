@@ -0,0 +1,84 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.ExpiringMyHashMap;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMap;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes keys with a time to live while a simulated clock advances by one millisecond per write and removes
+ * the expired entries every thousand writes. ExpiringMyHashMap does it with its timer wheel, the baseline keeps
+ * the deadlines in a MyHashMap and sweeps all of them;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ExpirationBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private static final long TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(60);
+    private static final long STEP = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int CLEANUP_PERIOD = 1_000;
+
+    private long now;
+    private int cursor;
+    private ExpiringMyHashMap<Integer, Integer> wheel;
+    private MyHashMap<Integer, Long> deadlines;
+
+    @Setup(Level.Iteration)
+    public void createMaps() {
+        now = 0;
+        cursor = 0;
+        wheel = new ExpiringMyHashMap<>(TIME_TO_LIVE, TimeUnit.NANOSECONDS, false, () -> now);
+        deadlines = new MyHashMap<>();
+    }
+
+    @Benchmark
+    public int timerWheel() {
+        Integer key = nextKey();
+        wheel.put(key, key);
+        if (cursor % CLEANUP_PERIOD == 0) {
+            wheel.cleanUp();
+        }
+        return wheel.size();
+    }
+
+    @Benchmark
+    public int fullSweep() {
+        Integer key = nextKey();
+        deadlines.put(key, now + TIME_TO_LIVE);
+        if (cursor % CLEANUP_PERIOD == 0) {
+            for (Iterator<MyMap.Entry<Integer, Long>> iterator = deadlines.entrySet().iterator(); iterator.hasNext(); ) {
+                if (iterator.next().getValue() - now <= 0) {
+                    iterator.remove();
+                }
+            }
+        }
+        return deadlines.size();
+    }
+
+    private Integer nextKey() {
+        now += STEP;
+        cursor++;
+        return (int) ((cursor * 0x9E3779B9L) % keys);
+    }
+}
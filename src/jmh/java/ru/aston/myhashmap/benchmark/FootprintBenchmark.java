@@ -0,0 +1,56 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the memory footprint of the map structures: a presized map is filled with keys generated in advance,
+ * so the gc.alloc.rate.norm reported by the gc profiler (bytes per operation) is the size of the table and the entries
+ * and nothing else. Cache-miss-driven lookup latency is measured by {@link GetBenchmark} on the larger sizes,
+ * run it with {@code -prof perfnorm} to see the cache misses per lookup;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FootprintBenchmark {
+
+    @Param({"MY_HASH_MAP", "MY_OPEN_HASH_MAP", "HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"INTEGER"})
+    public KeyType keyType;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+        keys = keyType.keys(0, size, 42);
+    }
+
+    @Benchmark
+    public BenchmarkMap fillPresized() {
+        BenchmarkMap map = implementation.create((int) (size / 0.75f) + 1, 0.75f);
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
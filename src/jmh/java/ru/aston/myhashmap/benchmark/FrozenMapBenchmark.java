@@ -0,0 +1,84 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a FrozenMyHashMap with the MyHashMap it was frozen from: lookups of present keys in a shuffled order,
+ * and a copy of the map, whose gc.alloc.rate.norm reported by the gc profiler is the footprint of the copy
+ * (a presized MyHashMap filled by putAll against freeze(), both allocate nothing but the copy);
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FrozenMapBenchmark {
+
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Object[] keys;
+    private MyHashMap<Object, Object> source;
+    private MyMap<Object, Object> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        keys = keyType.keys(0, size, 42);
+        source = new MyHashMap<>();
+        for (Object key : keys) {
+            source.put(key, key);
+        }
+        map = frozen ? source.freeze() : source;
+        Random random = new Random(42);
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+    }
+
+    @Benchmark
+    public Object getHit() {
+        Object key = keys[cursor];
+        if (++cursor == keys.length) {
+            cursor = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MyMap<Object, Object> copy() {
+        if (frozen) {
+            return source.freeze();
+        }
+        MyHashMap<Object, Object> copy = new MyHashMap<>((int) (size / 0.75f) + 1);
+        copy.putAll(source);
+        return copy;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures lookups of present and absent keys;
+ */
+public class GetBenchmark extends AbstractMapBenchmark {
+
+    @Benchmark
+    public Object getHit() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return map.get(nextMissingKey());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.HashingStrategy;
+import ru.aston.myhashmap.MyHashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a map with string keys from "external input" and looks them up, with String.hashCode() and with
+ * the seeded SipHash strategy. The flooding input consists of strings of "Aa" and "BB" blocks, which all have
+ * the same String.hashCode(), the ordinary input of random strings of the same length;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HashFloodingBenchmark {
+
+    @Param({"false", "true"})
+    public boolean seeded;
+
+    @Param({"false", "true"})
+    public boolean flooding;
+
+    private static final int BLOCKS = 14;
+
+    private String[] keys;
+    private MyHashMap<String, String> filled;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+        Random random = new Random(42);
+        keys = new String[1 << BLOCKS];
+        for (int i = 0; i < keys.length; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int bit = 0; bit < BLOCKS; bit++) {
+                if (flooding) {
+                    key.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+                } else {
+                    key.append((char) ('a' + random.nextInt(26))).append((char) ('a' + random.nextInt(26)));
+                }
+            }
+            keys[i] = key.toString();
+        }
+        filled = fill();
+    }
+
+    @Benchmark
+    public MyHashMap<String, String> fill() {
+        MyHashMap<String, String> map = seeded ? new MyHashMap<>(HashingStrategy.seededStrings()) : new MyHashMap<>();
+        for (String key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int getAll() {
+        int found = 0;
+        for (String key : keys) {
+            if (filled.get(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
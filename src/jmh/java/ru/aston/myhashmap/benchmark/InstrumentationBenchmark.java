@@ -0,0 +1,76 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.InstrumentedMyHashMap;
+import ru.aston.myhashmap.MyHashMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the statistics: lookups and filling of a plain MyHashMap, which records nothing,
+ * against an InstrumentedMyHashMap, which records the probe lengths, the hits and misses and the resizes;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class InstrumentationBenchmark {
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"100000"})
+    public int size;
+
+    private Object[] keys;
+    private MyHashMap<Object, Object> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createMap() {
+        keys = keyType.keys(0, size, 42);
+        map = newMap();
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        Object key = keys[cursor];
+        if (++cursor == keys.length) {
+            cursor = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MyHashMap<Object, Object> fill() {
+        MyHashMap<Object, Object> filled = newMap();
+        for (Object key : keys) {
+            filled.put(key, key);
+        }
+        return filled;
+    }
+
+    private MyHashMap<Object, Object> newMap() {
+        return instrumented ? new InstrumentedMyHashMap<>() : new MyHashMap<>();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.aston.myhashmap.benchmark;
+
+import java.util.Random;
+
+/**
+ * The kinds of keys the benchmarks are run with;
+ */
+public enum KeyType {
+    /**
+     * Random strings of 8-16 latin letters, i.e. keys with a realistic {@code String.hashCode()};
+     */
+    STRING {
+        @Override
+        Object key(int id, Random random) {
+            int length = 8 + random.nextInt(9);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ('A' + random.nextInt(26));
+            }
+            // the id suffix keeps the keys distinct without a set of already generated ones
+            return new String(chars) + id;
+        }
+    },
+    /**
+     * Sequential boxed integers, the best case for a power-of-two table;
+     */
+    INTEGER {
+        @Override
+        Object key(int id, Random random) {
+            return id;
+        }
+    },
+    /**
+     * Keys whose hashcodes collide in groups, see {@link CollidingKey};
+     */
+    COLLIDING {
+        @Override
+        Object key(int id, Random random) {
+            return new CollidingKey(id);
+        }
+    };
+
+    abstract Object key(int id, Random random);
+
+    /**
+     * Generates {@code count} distinct keys with ids starting from {@code firstId};
+     */
+    Object[] keys(int firstId, int count, long seed) {
+        Random random = new Random(seed);
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(firstId + i, random);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.OffHeapMyHashMap;
+import ru.aston.myhashmap.Serializer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a {@code MyHashMap<String, byte[]>} with an {@link OffHeapMyHashMap} of the same contents: the lookup latency,
+ * which for the off-heap map includes serializing the key and copying the value out, and, through the gc profiler,
+ * the garbage produced per lookup. The heap occupied by the on-heap map is what the off-heap map moves out of the GC's reach;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:MaxDirectMemorySize=4g"})
+public class OffHeapBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"100"})
+    public int valueSize;
+
+    private MyHashMap<String, byte[]> onHeap;
+    private OffHeapMyHashMap<String, byte[]> offHeap;
+    private String[] keys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createMaps() {
+        Random random = new Random(42);
+        keys = new String[size];
+        onHeap = new MyHashMap<>();
+        offHeap = new OffHeapMyHashMap<>(Serializer.STRING, Serializer.BYTE_ARRAY);
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key-" + random.nextLong();
+            byte[] value = new byte[valueSize];
+            random.nextBytes(value);
+            onHeap.put(keys[i], value);
+            offHeap.put(keys[i], value);
+        }
+    }
+
+    private String nextKey() {
+        String key = keys[cursor];
+        if (++cursor == keys.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public byte[] getOnHeap() {
+        return onHeap.get(nextKey());
+    }
+
+    @Benchmark
+    public byte[] getOffHeap() {
+        return offHeap.get(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKeyOffHeap() {
+        return offHeap.containsKey(nextKey());
+    }
+}
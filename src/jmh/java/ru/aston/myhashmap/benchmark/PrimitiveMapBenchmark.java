@@ -0,0 +1,84 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.IntIntMyHashMap;
+import ru.aston.myhashmap.MyHashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares int to int lookups and counter updates of IntIntMyHashMap with MyHashMap<Integer, Integer>.
+ * The keys are random ints outside of the Integer cache, so every boxing of MyHashMap allocates;
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveMapBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] keys;
+    private IntIntMyHashMap primitiveMap;
+    private MyHashMap<Integer, Integer> boxedMap;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void createMaps() {
+        Random random = new Random(42);
+        keys = new int[size];
+        primitiveMap = new IntIntMyHashMap(-1);
+        boxedMap = new MyHashMap<>();
+        for (int i = 0; i < size; i++) {
+            int key = 1024 + random.nextInt(Integer.MAX_VALUE - 1024);
+            keys[i] = key;
+            primitiveMap.put(key, i);
+            boxedMap.put(key, i);
+        }
+    }
+
+    private int nextKey() {
+        int key = keys[cursor];
+        if (++cursor == keys.length) {
+            cursor = 0;
+        }
+        return key;
+    }
+
+    @Benchmark
+    public int getPrimitive() {
+        return primitiveMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer getBoxed() {
+        return boxedMap.get(nextKey());
+    }
+
+    @Benchmark
+    public int incrementPrimitive() {
+        int key = nextKey();
+        return primitiveMap.put(key, primitiveMap.get(key) + 1);
+    }
+
+    @Benchmark
+    public Integer incrementBoxed() {
+        int key = nextKey();
+        return boxedMap.put(key, boxedMap.get(key) + 1);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures replacing the value of a present key, i.e. a put which does not change the structure of the map;
+ */
+public class PutBenchmark extends AbstractMapBenchmark {
+
+    @Benchmark
+    public Object putExisting() {
+        Object key = nextKey();
+        return map.put(key, key);
+    }
+}
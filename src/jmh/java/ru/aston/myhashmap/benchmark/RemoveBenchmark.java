@@ -0,0 +1,18 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Measures removal of a present key; the key is put back in the same invocation,
+ * so the map keeps its size during the whole trial;
+ */
+public class RemoveBenchmark extends AbstractMapBenchmark {
+
+    @Benchmark
+    public Object removeAndPutBack() {
+        Object key = nextKey();
+        Object value = map.remove(key);
+        map.put(key, key);
+        return value;
+    }
+}
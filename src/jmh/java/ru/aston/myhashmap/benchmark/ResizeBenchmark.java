@@ -0,0 +1,66 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filling an empty map with {@code size} keys: starting from the default capacity the map
+ * goes through every intermediate resize, while the presized map never resizes,
+ * so the difference between the two is the cost of growing the table;
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ResizeBenchmark {
+
+    @Param({"MY_HASH_MAP", "MY_HASH_MAP_INCREMENTAL", "MY_OPEN_HASH_MAP", "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    public BenchmarkMap.Implementation implementation;
+
+    @Param({"STRING", "INTEGER", "COLLIDING"})
+    public KeyType keyType;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"0.5", "0.75", "1.0"})
+    public float loadFactor;
+
+    private Object[] keys;
+
+    @Setup(Level.Trial)
+    public void createKeys() {
+        keys = keyType.keys(0, size, 42);
+    }
+
+    @Benchmark
+    public BenchmarkMap fillFromDefaultCapacity() {
+        return fill(implementation.create(16, loadFactor));
+    }
+
+    @Benchmark
+    public BenchmarkMap fillPresized() {
+        return fill(implementation.create((int) (size / loadFactor) + 1, loadFactor));
+    }
+
+    private BenchmarkMap fill(BenchmarkMap map) {
+        for (Object key : keys) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyMap;
+import ru.aston.myhashmap.ShardedMyHashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a ShardedMyHashMap with a single MyHashMap ({@code shards} = 0) of the same keys. putGrowing puts
+ * the keys one by one into a map which starts empty and is created again once it holds {@code size} keys, it runs
+ * in the sample time mode, so the high percentiles show the pauses of the resizes: the single map moves all its
+ * nodes at once, a shard moves its share of them only. getHit looks the present keys up in a shuffled order
+ * and sumValues sums the values by parallelStream;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ShardedMapBenchmark {
+
+    @Param({"0", "16", "64"})
+    public int shards;
+
+    @Param({"STRING", "INTEGER"})
+    public KeyType keyType;
+
+    @Param({"1000000"})
+    public int size;
+
+    private Object[] keys;
+    private Object[] shuffled;
+    private MyMap<Object, Object> map;
+    private MyMap<Object, Object> growing;
+    private int cursor;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createMaps() {
+        keys = keyType.keys(0, size, 42);
+        map = newMap();
+        for (Object key : keys) {
+            map.put(key, key.hashCode());
+        }
+        shuffled = keys.clone();
+        Random random = new Random(42);
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object key = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = key;
+        }
+        growing = newMap();
+    }
+
+    private MyMap<Object, Object> newMap() {
+        return shards == 0 ? new MyHashMap<>() : new ShardedMyHashMap<>(shards);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Object putGrowing() {
+        if (next == keys.length) {
+            growing = newMap();
+            next = 0;
+        }
+        Object key = keys[next++];
+        return growing.put(key, key);
+    }
+
+    @Benchmark
+    public Object getHit() {
+        Object key = shuffled[cursor];
+        if (++cursor == shuffled.length) {
+            cursor = 0;
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long sumValues() {
+        return map.parallelStream().mapToLong(entry -> (Integer) entry.getValue()).sum();
+    }
+}
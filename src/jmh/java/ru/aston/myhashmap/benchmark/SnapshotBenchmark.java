@@ -0,0 +1,78 @@
+package ru.aston.myhashmap.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.aston.myhashmap.MyHashMap;
+import ru.aston.myhashmap.MyHashMapSnapshot;
+import ru.aston.myhashmap.Serializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a {@code MyHashMap<String, String>} from a snapshot with rebuilding it by putting every entry,
+ * the keys and values of the rebuild are already in memory, so it measures the hashing and the resizes alone;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String[] keys;
+    private String[] values;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        Random random = new Random(42);
+        keys = new String[size];
+        values = new String[size];
+        MyHashMap<String, String> map = new MyHashMap<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key-" + random.nextLong();
+            values[i] = "value-" + random.nextLong();
+            map.put(keys[i], values[i]);
+        }
+        file = Files.createTempFile("snapshot", ".bin");
+        MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.STRING);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MyHashMap<String, String> rebuild() {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public MyHashMap<String, String> load() throws IOException {
+        return MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.STRING);
+    }
+}
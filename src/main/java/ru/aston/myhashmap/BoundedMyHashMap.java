@@ -0,0 +1,615 @@
+package ru.aston.myhashmap;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * This class is a MyHashMap which keeps the total weight of its entries under a maximum and evicts entries to stay there,
+ * so it can serve as a cache. By default every entry weighs 1 and the maximum is a number of entries,
+ * a weigher gives the entries their own weights. The nodes are linked into lists in the order of access through
+ * the node hooks of MyHashMap, the way LinkedHashMap does it in the JDK:
+ * <ul>
+ * <li>without the admission filter all the entries are in one list and the least recently used one is evicted (LRU);</li>
+ * <li>with the admission filter the entries follow W-TinyLFU: a new entry enters a small window list (1% of the weight),
+ * the entries leaving the window compete with the least recently used entry of the main space for their place,
+ * and the one which was used more often, according to a count-min sketch of the recent accesses, stays.
+ * The main space is split into the probation list of the entries admitted once and the protected list (80%)
+ * of the entries used again while on probation. One-off scans then pass through the window without flushing
+ * the frequently used entries, which raises the hit rate of scan-heavy workloads.</li>
+ * </ul>
+ * get, getOrDefault, put and the compute methods count as an access, containsKey does not. Evicted entries are passed
+ * to the eviction listener, and the hits, misses and evictions are counted. The weight of an entry is computed
+ * when its value is put or computed, a value set through an entry of entrySet keeps the previous weight.
+ * Like MyHashMap, this class is not thread-safe, even get changes the order of the entries;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public class BoundedMyHashMap<K, V> extends MyHashMap<K, V> {
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+    /**
+     * This constant is the share of the weight given to the window when the admission filter is on;
+     */
+    private static final double WINDOW_SHARE = 0.01;
+    /**
+     * This constant is the share of the main space given to the protected list;
+     */
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    /**
+     * This is the frequency sketch of the admission filter, null if the map is a plain LRU;
+     */
+    private final FrequencySketch sketch;
+    /**
+     * These are the least and the most recently used nodes and the total weight of each list;
+     */
+    private final LinkedNode<K, V>[] heads;
+    private final LinkedNode<K, V>[] tails;
+    private final long[] weights = new long[3];
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long evictionWeight;
+
+    /**
+     * This constructor creates a cache with the given maximum weight, weigher, admission filter and eviction listener;
+     *
+     * @param maximumWeight    the maximum total weight of the entries
+     * @param weigher          returns the weight of an entry, a non-negative number which must not change for the same
+     *                         key and value
+     * @param admissionFilter  whether the entries are admitted by the W-TinyLFU filter rather than evicted in LRU order
+     * @param evictionListener is called with the key and the value of every evicted entry, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedMyHashMap(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, boolean admissionFilter,
+                            BiConsumer<? super K, ? super V> evictionListener) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Illegal maximum weight: " + maximumWeight);
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        this.evictionListener = evictionListener;
+        if (admissionFilter) {
+            this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_SHARE));
+            this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_SHARE);
+            this.sketch = new FrequencySketch();
+        } else {
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+            this.sketch = null;
+        }
+        this.heads = (LinkedNode<K, V>[]) new LinkedNode[3];
+        this.tails = (LinkedNode<K, V>[]) new LinkedNode[3];
+    }
+
+    /**
+     * This constructor creates a cache of at most maximumSize entries with or without the admission filter;
+     *
+     * @param maximumSize     the maximum number of entries
+     * @param admissionFilter whether the entries are admitted by the W-TinyLFU filter rather than evicted in LRU order
+     */
+    public BoundedMyHashMap(long maximumSize, boolean admissionFilter) {
+        this(maximumSize, (key, value) -> 1, admissionFilter, null);
+    }
+
+    /**
+     * This constructor creates an LRU cache of at most maximumSize entries;
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public BoundedMyHashMap(long maximumSize) {
+        this(maximumSize, false);
+    }
+
+    /**
+     * This method returns the value of the key and marks the entry as used, or null if there is no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        onAccess((LinkedNode<K, V>) node);
+        return node.value;
+    }
+
+    /**
+     * This method returns the value of the key and marks the entry as used, or defaultValue if there is no such key;
+     *
+     * @param key
+     * @param defaultValue
+     * @return V
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            missCount++;
+            return defaultValue;
+        }
+        hitCount++;
+        onAccess((LinkedNode<K, V>) node);
+        return node.value;
+    }
+
+    /**
+     * This method puts every pair of the given map in its order, as put does, so the last pairs are the most recently
+     * used ones. The table is presized for at most maximumWeight entries rather than for the whole map,
+     * since the entries beyond it are evicted and the table is never shrunk;
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        presize((int) Math.min(map.size(), maximumWeight));
+        for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * This method puts every pair of the given java.util.Map in its order, see putAll(MyMap);
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(java.util.Map<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        presize((int) Math.min(map.size(), maximumWeight));
+        for (java.util.Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * This method replaces every value by the result of the function and weighs the entries again;
+     *
+     * @param function
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        super.replaceAll(function);
+        for (byte queue = WINDOW; queue <= PROTECTED; queue++) {
+            for (LinkedNode<K, V> node = heads[queue]; node != null; node = node.after) {
+                reweigh(node);
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Clears the map and its lists, the entries are not passed to the eviction listener;
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        for (int queue = WINDOW; queue <= PROTECTED; queue++) {
+            heads[queue] = tails[queue] = null;
+            weights[queue] = 0;
+        }
+    }
+
+    /**
+     * Returns the maximum total weight of the entries;
+     *
+     * @return long
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the total weight of the entries;
+     *
+     * @return long
+     */
+    public long weightedSize() {
+        return weights[WINDOW] + weights[PROBATION] + weights[PROTECTED];
+    }
+
+    /**
+     * Returns the number of lookups which found their key;
+     *
+     * @return long
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which did not find their key;
+     *
+     * @return long
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, 1.0 if there have been no lookups;
+     *
+     * @return double
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns the number of evicted entries;
+     *
+     * @return long
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the total weight of the evicted entries;
+     *
+     * @return long
+     */
+    public long evictionWeight() {
+        return evictionWeight;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters;
+     */
+    public void resetStats() {
+        hitCount = missCount = evictionCount = evictionWeight = 0;
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        WeighedNode<K, V> node = new WeighedNode<>(hash, key, value, next);
+        node.weight = weigh(key, value);
+        link(node, WINDOW);
+        if (sketch != null) {
+            sketch.increment(hash);
+        }
+        return node;
+    }
+
+    @Override
+    Node<K, V> replacementNode(Node<K, V> p, Node<K, V> next) {
+        LinkedNode<K, V> node = new WeighedNode<>(p.hash, p.key, p.value, next);
+        transferLinks((LinkedNode<K, V>) p, node);
+        return node;
+    }
+
+    @Override
+    TreeNode<K, V> newTreeNode(int hash, K key, V value, Node<K, V> next) {
+        WeighedTreeNode<K, V> node = new WeighedTreeNode<>(hash, key, value, next);
+        node.weight = weigh(key, value);
+        link(node, WINDOW);
+        if (sketch != null) {
+            sketch.increment(hash);
+        }
+        return node;
+    }
+
+    @Override
+    TreeNode<K, V> replacementTreeNode(Node<K, V> p, Node<K, V> next) {
+        TreeNode<K, V> node = new WeighedTreeNode<>(p.hash, p.key, p.value, next);
+        transferLinks((LinkedNode<K, V>) p, node);
+        return node;
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> p) {
+        LinkedNode<K, V> node = (LinkedNode<K, V>) p;
+        reweigh(node);
+        onAccess(node);
+        evict();
+    }
+
+    @Override
+    void afterNodeInsertion() {
+        if (sketch != null) {
+            sketch.ensureCapacity(size());
+        }
+        evict();
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> p) {
+        unlink((LinkedNode<K, V>) p);
+    }
+
+    private int weigh(K key, V value) {
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Illegal weight: " + weight);
+        }
+        return weight;
+    }
+
+    private void reweigh(LinkedNode<K, V> node) {
+        int weight = weigh(node.key, node.value);
+        weights[queueOf(node)] += weight - weightOf(node);
+        setWeight(node, weight);
+    }
+
+    /**
+     * Records the access in the sketch and moves the node to the most recently used end:
+     * a node on probation is promoted to the protected list, which demotes its least recently used nodes if it is full;
+     */
+    private void onAccess(LinkedNode<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.hash);
+        }
+        byte queue = queueOf(node);
+        unlink(node);
+        if (queue == PROBATION) {
+            link(node, PROTECTED);
+            while (weights[PROTECTED] > protectedMaximum && heads[PROTECTED] != node) {
+                LinkedNode<K, V> demoted = heads[PROTECTED];
+                unlink(demoted);
+                link(demoted, PROBATION);
+            }
+        } else {
+            link(node, queue);
+        }
+    }
+
+    /**
+     * Evicts entries until the total weight is within the maximum. With the admission filter the nodes leaving the window
+     * first move to probation, and while the main space is over its share each of them is compared with the least recently
+     * used node of the main space: the one with the lower frequency is evicted, the newcomer on a tie;
+     */
+    private void evict() {
+        if (sketch != null) {
+            long mainMaximum = maximumWeight - windowMaximum;
+            while (weights[WINDOW] > windowMaximum) {
+                LinkedNode<K, V> candidate = heads[WINDOW];
+                unlink(candidate);
+                link(candidate, PROBATION);
+                while (weights[PROBATION] + weights[PROTECTED] > mainMaximum) {
+                    LinkedNode<K, V> victim = heads[PROBATION] != candidate ? heads[PROBATION] : heads[PROTECTED];
+                    if (victim == null || sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                        evictNode(candidate);
+                        break;
+                    }
+                    evictNode(victim);
+                }
+            }
+        }
+        while (weightedSize() > maximumWeight) {
+            LinkedNode<K, V> victim = heads[PROBATION] != null ? heads[PROBATION]
+                    : heads[WINDOW] != null ? heads[WINDOW] : heads[PROTECTED];
+            evictNode(victim);
+        }
+    }
+
+    private void evictNode(LinkedNode<K, V> node) {
+        K key = node.key;
+        V value = node.value;
+        int weight = weightOf(node);
+        removeNode(node.hash, key, true);
+        evictionCount++;
+        evictionWeight += weight;
+        if (evictionListener != null) {
+            evictionListener.accept(key, value);
+        }
+    }
+
+    /**
+     * Links the node as the most recently used one of the list;
+     */
+    private void link(LinkedNode<K, V> node, byte queue) {
+        LinkedNode<K, V> last = tails[queue];
+        setQueue(node, queue);
+        node.before = last;
+        node.after = null;
+        tails[queue] = node;
+        if (last == null) {
+            heads[queue] = node;
+        } else {
+            last.after = node;
+        }
+        weights[queue] += weightOf(node);
+    }
+
+    private void unlink(LinkedNode<K, V> node) {
+        byte queue = queueOf(node);
+        LinkedNode<K, V> b = node.before, a = node.after;
+        node.before = node.after = null;
+        if (b == null) {
+            heads[queue] = a;
+        } else {
+            b.after = a;
+        }
+        if (a == null) {
+            tails[queue] = b;
+        } else {
+            a.before = b;
+        }
+        weights[queue] -= weightOf(node);
+    }
+
+    /**
+     * Puts the node dst into the place of the node src, which it replaces in the table;
+     */
+    private void transferLinks(LinkedNode<K, V> src, LinkedNode<K, V> dst) {
+        byte queue = queueOf(src);
+        setQueue(dst, queue);
+        setWeight(dst, weightOf(src));
+        LinkedNode<K, V> b = dst.before = src.before;
+        LinkedNode<K, V> a = dst.after = src.after;
+        if (b == null) {
+            heads[queue] = dst;
+        } else {
+            b.after = dst;
+        }
+        if (a == null) {
+            tails[queue] = dst;
+        } else {
+            a.before = dst;
+        }
+    }
+
+    /**
+     * Returns the weight of the node, which is a WeighedNode in a chain and a WeighedTreeNode in a tree bin;
+     */
+    private static int weightOf(LinkedNode<?, ?> node) {
+        return node instanceof WeighedNode ? ((WeighedNode<?, ?>) node).weight : ((WeighedTreeNode<?, ?>) node).weight;
+    }
+
+    private static void setWeight(LinkedNode<?, ?> node, int weight) {
+        if (node instanceof WeighedNode) {
+            ((WeighedNode<?, ?>) node).weight = weight;
+        } else {
+            ((WeighedTreeNode<?, ?>) node).weight = weight;
+        }
+    }
+
+    private static byte queueOf(LinkedNode<?, ?> node) {
+        return node instanceof WeighedNode ? ((WeighedNode<?, ?>) node).queue : ((WeighedTreeNode<?, ?>) node).queue;
+    }
+
+    private static void setQueue(LinkedNode<?, ?> node, byte queue) {
+        if (node instanceof WeighedNode) {
+            ((WeighedNode<?, ?>) node).queue = queue;
+        } else {
+            ((WeighedTreeNode<?, ?>) node).queue = queue;
+        }
+    }
+
+    /**
+     * This is a node of a chain with the weight of the entry and the number of the list holding the node;
+     */
+    static final class WeighedNode<K, V> extends LinkedNode<K, V> {
+        int weight;
+        byte queue;
+
+        WeighedNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    /**
+     * This is a node of a tree bin with the weight of the entry and the number of the list holding the node;
+     */
+    static final class WeighedTreeNode<K, V> extends TreeNode<K, V> {
+        int weight;
+        byte queue;
+
+        WeighedTreeNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    /**
+     * This is a count-min sketch of 4-bit counters estimating how often each hash has been accessed recently.
+     * A hash is counted in four counters of one 64-bit word selected by four seeds, and its frequency is the smallest of them.
+     * Once the number of increments reaches ten times the number of counter groups, all counters are halved,
+     * so that the old accesses age out;
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final long ONE_MASK = 0x1111111111111111L;
+        /**
+         * This constant is the largest number of words of the sketch, 8 MB;
+         */
+        private static final int MAXIMUM_WORDS = 1 << 20;
+        private long[] table = new long[16];
+        private int sampleSize = 10 * 16;
+        private int additions;
+
+        /**
+         * Enlarges the sketch to a word per entry for the given number of entries, forgetting the counts;
+         */
+        void ensureCapacity(long entries) {
+            if (entries <= table.length || table.length >= MAXIMUM_WORDS) {
+                return;
+            }
+            int words = (int) Math.min(MAXIMUM_WORDS, Long.highestOneBit(entries - 1) << 1);
+            table = new long[words];
+            sampleSize = 10 * words;
+            additions = 0;
+        }
+
+        /**
+         * Returns the estimated number of accesses of the hash, up to 15;
+         */
+        int frequency(int hash) {
+            int item = spread(hash);
+            int start = (item & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int offset = (start + i) << 2;
+                int count = (int) ((table[indexOf(item, i)] >>> offset) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        /**
+         * Counts an access of the hash;
+         */
+        void increment(int hash) {
+            int item = spread(hash);
+            int start = (item & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                added |= incrementAt(indexOf(item, i), start + i);
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        private boolean incrementAt(int index, int counter) {
+            int offset = counter << 2;
+            long mask = 0xFL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Halves all the counters, the halving of the odd counters is taken into account in the number of additions;
+         */
+        private void reset() {
+            int odd = 0;
+            for (int i = 0; i < table.length; i++) {
+                odd += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions = (additions >>> 1) - (odd >>> 2);
+        }
+
+        private int indexOf(int item, int i) {
+            long hash = (item + SEEDS[i]) * SEEDS[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & (table.length - 1);
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -0,0 +1,936 @@
+package ru.aston.myhashmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * This class is a thread-safe hash table with the same bucket layout as MyHashMap:
+ * <ul>
+ * <li>get never locks, it reads the buckets with acquire semantics through a VarHandle and follows volatile links;</li>
+ * <li>put and remove insert into an empty bucket with a CAS and otherwise lock only the first node of the bucket;</li>
+ * <li>the size is kept in a LongAdder, so writers do not contend on a single counter;</li>
+ * <li>the table is resized cooperatively: the thread which crosses the threshold starts the transfer into a table of twice
+ * the capacity, marking every migrated bucket of the old table with a forwarding node, and every writer which runs into
+ * a forwarding node helps by claiming the next range of buckets. Lookups follow forwarding nodes into the new table.</li>
+ * </ul>
+ * Neither keys nor values may be null, since a null returned by get must unambiguously mean that there is no such key.
+ * putIfAbsent, computeIfAbsent, computeIfPresent, compute and merge are atomic: the function is called once, under the lock
+ * of the bucket, and an empty bucket is locked by a reservation node for the time of the call.
+ * Buckets stay linked lists, the lock per bucket keeps long chains from blocking other writers;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public class ConcurrentMyHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible hash table capacity
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This constant is the smallest number of buckets a resizing thread claims at once;
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+    /**
+     * The number of bits of sizeCtl used for the stamp which identifies a resize of a table of a given capacity;
+     */
+    private static final int RESIZE_STAMP_BITS = 16;
+    /**
+     * The maximum number of threads which can help with one resize;
+     */
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+    /**
+     * This is the hash of forwarding nodes, the hashes of ordinary nodes are never negative;
+     */
+    private static final int MOVED = -1;
+    /**
+     * This is the hash of reservation nodes;
+     */
+    private static final int RESERVED = -3;
+    /**
+     * This mask clears the sign bit of the hashes of ordinary nodes;
+     */
+    private static final int HASH_BITS = 0x7fffffff;
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private static final VarHandle TAB = MethodHandles.arrayElementVarHandle(Node[].class);
+    private static final VarHandle SIZE_CTL;
+    private static final VarHandle TRANSFER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIZE_CTL = lookup.findVarHandle(ConcurrentMyHashMap.class, "sizeCtl", int.class);
+            TRANSFER_INDEX = lookup.findVarHandle(ConcurrentMyHashMap.class, "transferIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * This is the hash table itself, it is created lazily by the first insertion;
+     */
+    private volatile Node<K, V>[] table;
+    /**
+     * This is the table being filled by a resize, null otherwise;
+     */
+    private volatile Node<K, V>[] nextTable;
+    /**
+     * Controls the creation and the resizing of the table: -1 while the table is being created,
+     * a negative resize stamp plus the number of resizing threads while the table is being resized,
+     * otherwise the initial capacity before the table is created or the size at which the next resize starts;
+     */
+    private volatile int sizeCtl;
+    /**
+     * This is the upper bound (exclusive) of the buckets of the old table which have not been claimed by resizing threads yet;
+     */
+    private volatile int transferIndex;
+    /**
+     * It's the number of key-value pairs
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * This is a node of the table, its value and link are volatile, so readers see them without locking;
+     */
+    static class Node<K, V> implements MyMap.Entry<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * The nodes are not exposed to the users of the map, entrySet returns copies;
+         */
+        @Override
+        public V setValue(V newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Finds the node of the key in the chain starting at this node;
+         */
+        Node<K, V> find(int h, Object k) {
+            for (Node<K, V> e = this; e != null; e = e.next) {
+                if (e.hash == h && (e.key == k || k.equals(e.key))) {
+                    return e;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * This node replaces a migrated bucket of the old table and points to the table the bucket was moved into;
+     */
+    static final class ForwardingNode<K, V> extends Node<K, V> {
+        final Node<K, V>[] nextTable;
+
+        ForwardingNode(Node<K, V>[] nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+
+        @Override
+        Node<K, V> find(int h, Object k) {
+            Node<K, V>[] tab = nextTable;
+            /*
+             *the new table may have been resized as well, so forwarding nodes are followed in a loop rather than recursively
+             */
+            outer:
+            for (; ; ) {
+                Node<K, V> e = tabAt(tab, (tab.length - 1) & h);
+                if (e == null) {
+                    return null;
+                }
+                for (; ; ) {
+                    if (e instanceof ForwardingNode) {
+                        tab = ((ForwardingNode<K, V>) e).nextTable;
+                        continue outer;
+                    }
+                    if (e.hash == h && (e.key == k || k.equals(e.key))) {
+                        return e;
+                    }
+                    if ((e = e.next) == null) {
+                        return null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This node locks an empty bucket while compute or merge calculates the value to put there; it holds no entry,
+     * so lookups treat the bucket as empty and writers wait for its lock and then find the bucket changed;
+     */
+    static final class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+
+        @Override
+        Node<K, V> find(int h, Object k) {
+            return null;
+        }
+    }
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     */
+    public ConcurrentMyHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        this.sizeCtl = (initialCapacity >= (MAXIMUM_CAPACITY >>> 1))
+                ? MAXIMUM_CAPACITY
+                : tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1);
+    }
+
+    /**
+     * This constructor creates a map with the default capacity.
+     */
+    public ConcurrentMyHashMap() {
+    }
+
+    /**
+     * This method returns the value corresponding to the key or null if there is no such key, it never locks;
+     *
+     * @param key
+     * @return
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V>[] tab;
+        Node<K, V> e, p;
+        int n, eh;
+        int h = spread(key.hashCode());
+        if ((tab = table) != null && (n = tab.length) > 0 && (e = tabAt(tab, (n - 1) & h)) != null) {
+            if ((eh = e.hash) == h) {
+                K ek = e.key;
+                if (ek == key || key.equals(ek)) {
+                    return e.value;
+                }
+            } else if (eh < 0) {
+                return (p = e.find(h, key)) != null ? p.value : null;
+            }
+            while ((e = e.next) != null) {
+                if (e.hash == h && (e.key == key || key.equals(e.key))) {
+                    return e.value;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method places the value corresponding to the key and returns the replaced value or null if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * The implementation of put;
+     *
+     * @param onlyIfAbsent if true, the value of an existing key is not replaced
+     */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        int hash = spread(key.hashCode());
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length) == 0) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                /*
+                 *an empty bucket is filled without locking
+                 */
+                if (casTabAt(tab, i, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                V oldValue = null;
+                synchronized (f) {
+                    /*
+                     *the first node may have been removed or moved while we were waiting for the lock
+                     */
+                    if (tabAt(tab, i) == f) {
+                        binCount = 1;
+                        for (Node<K, V> e = f; ; binCount++) {
+                            if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                                oldValue = e.value;
+                                if (!onlyIfAbsent) {
+                                    e.value = value;
+                                }
+                                break;
+                            }
+                            Node<K, V> pred = e;
+                            if ((e = e.next) == null) {
+                                pred.next = new Node<>(hash, key, value, null);
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (oldValue != null) {
+                        return oldValue;
+                    }
+                    break;
+                }
+            }
+        }
+        addCount(1L, true);
+        return null;
+    }
+
+    /**
+     * This method deletes the value corresponding to the key and returns it;
+     *
+     * @param key
+     * @return removed value
+     */
+    @Override
+    public V remove(Object key) {
+        int hash = spread(key.hashCode());
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length) == 0 || (f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                return null;
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                V oldValue = null;
+                boolean validated = false;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        validated = true;
+                        for (Node<K, V> e = f, pred = null; e != null; pred = e, e = e.next) {
+                            if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                                oldValue = e.value;
+                                if (pred != null) {
+                                    pred.next = e.next;
+                                } else {
+                                    setTabAt(tab, i, e.next);
+                                }
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (validated) {
+                    if (oldValue != null) {
+                        addCount(-1L, false);
+                    }
+                    return oldValue;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method returns the value corresponding to the key, or defaultValue if there is no such key;
+     *
+     * @param key
+     * @param defaultValue
+     * @return
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V value;
+        return (value = get(key)) == null ? defaultValue : value;
+    }
+
+    /**
+     * This method atomically places the value if there is no such key and returns the current value or null;
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * This method returns the value of the key, if there is no such key it atomically places the value computed
+     * by the function unless that is null. The function is called at most once and must not modify this map;
+     *
+     * @param key
+     * @param mappingFunction
+     * @return the current value of the key
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V value;
+        /*
+         *a present key is found without locking
+         */
+        if ((value = get(key)) != null) {
+            return value;
+        }
+        return remap(key, (k, oldValue) -> oldValue != null ? oldValue : mappingFunction.apply(k), false);
+    }
+
+    /**
+     * This method atomically replaces the value of an existing key by the value computed by the function,
+     * or deletes the key if the function returns null. The function must not modify this map;
+     *
+     * @param key
+     * @param remappingFunction
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, remappingFunction, true);
+    }
+
+    /**
+     * This method atomically places the value computed from the key and its current value (null if there is no key),
+     * a null result deletes the key. The function must not modify this map;
+     *
+     * @param key
+     * @param remappingFunction
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, remappingFunction, false);
+    }
+
+    /**
+     * This method atomically places the value if there is no such key, otherwise replaces the current value by the result
+     * of the function applied to it and the given value, a null result deletes the key. The function must not modify this map;
+     *
+     * @param key
+     * @param value
+     * @param remappingFunction
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, (k, oldValue) -> oldValue == null ? value : remappingFunction.apply(oldValue, value), false);
+    }
+
+    /**
+     * The implementation of the compute methods: calls the function with the current value of the key (null if absent)
+     * under the lock of its bucket and places, replaces or deletes the mapping depending on the result;
+     *
+     * @param onlyIfPresent if true, the function is not called for an absent key
+     * @return the new value or null if there is none
+     */
+    private V remap(K key, BiFunction<? super K, ? super V, ? extends V> function, boolean onlyIfPresent) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        int hash = spread(key.hashCode());
+        V value = null;
+        int delta = 0;
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i;
+            if (tab == null || (n = tab.length) == 0) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                if (onlyIfPresent) {
+                    break;
+                }
+                /*
+                 *an empty bucket is locked by installing a reservation node locked beforehand
+                 */
+                Node<K, V> r = new ReservationNode<>();
+                synchronized (r) {
+                    if (casTabAt(tab, i, null, r)) {
+                        binCount = 1;
+                        Node<K, V> node = null;
+                        try {
+                            if ((value = function.apply(key, null)) != null) {
+                                delta = 1;
+                                node = new Node<>(hash, key, value, null);
+                            }
+                        } finally {
+                            setTabAt(tab, i, node);
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        binCount = 1;
+                        for (Node<K, V> e = f, pred = null; ; binCount++) {
+                            if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                                value = function.apply(key, e.value);
+                                if (value != null) {
+                                    e.value = value;
+                                } else {
+                                    delta = -1;
+                                    if (pred != null) {
+                                        pred.next = e.next;
+                                    } else {
+                                        setTabAt(tab, i, e.next);
+                                    }
+                                }
+                                break;
+                            }
+                            pred = e;
+                            if ((e = e.next) == null) {
+                                if (!onlyIfPresent && (value = function.apply(key, null)) != null) {
+                                    delta = 1;
+                                    pred.next = new Node<>(hash, key, value, null);
+                                }
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            }
+        }
+        if (delta != 0) {
+            addCount(delta, delta > 0);
+        }
+        return value;
+    }
+
+    /**
+     * Removes all entries, bucket by bucket; entries put concurrently into already cleared buckets stay in the map;
+     */
+    @Override
+    public void clear() {
+        long delta = 0L;
+        int i = 0;
+        Node<K, V>[] tab = table;
+        while (tab != null && i < tab.length) {
+            Node<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                i++;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+                i = 0;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        for (Node<K, V> e = f; e != null; e = e.next) {
+                            delta--;
+                        }
+                        setTabAt(tab, i++, null);
+                    }
+                }
+            }
+        }
+        if (delta != 0L) {
+            addCount(delta, false);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        return anyNode(node -> value.equals(node.value));
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in the map, every key is looked up
+     * on its own, so the result may mix the values from before and after a concurrent write;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new MyHashMap<>());
+    }
+
+    /**
+     * Returns the number of key value pairs, or Integer.MAX_VALUE if there are more;
+     *
+     * @return number of key value pairs (int)
+     */
+    @Override
+    public int size() {
+        long n = mappingCount();
+        return n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+
+    /**
+     * Returns the number of key value pairs as a long; the value is an estimate if the map is being modified concurrently;
+     *
+     * @return long
+     */
+    public long mappingCount() {
+        long n = count.sum();
+        return n < 0L ? 0L : n;
+    }
+
+    /**
+     * Returns a set of copies of the key-value pairs which reflects the state of each bucket at the time it was visited;
+     * setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> entries = new HashSet<>();
+        anyNode(node -> {
+            V value = node.value;
+            if (value != null) {
+                entries.add(new WriteThroughEntry(node.key, value));
+            }
+            return false;
+        });
+        return entries;
+    }
+
+    /**
+     * Returns true if the predicate matches any node of the map. Forwarding nodes are followed into the new table,
+     * where the bucket i of the old table was split into the buckets i and i + n;
+     */
+    private boolean anyNode(Predicate<Node<K, V>> predicate) {
+        Node<K, V>[] tab = table;
+        if (tab != null) {
+            for (int i = 0; i < tab.length; i++) {
+                if (anyNode(tab, i, predicate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static <K, V> boolean anyNode(Node<K, V>[] tab, int index, Predicate<Node<K, V>> predicate) {
+        Node<K, V> e = tabAt(tab, index);
+        if (e instanceof ForwardingNode) {
+            Node<K, V>[] next = ((ForwardingNode<K, V>) e).nextTable;
+            return anyNode(next, index, predicate) || anyNode(next, index + tab.length, predicate);
+        }
+        for (; e != null; e = e.next) {
+            if (e.hash >= 0 && predicate.test(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the table, only one thread does it while the others wait for it;
+     */
+    private Node<K, V>[] initTable() {
+        Node<K, V>[] tab;
+        int sc;
+        while ((tab = table) == null || tab.length == 0) {
+            if ((sc = sizeCtl) < 0) {
+                Thread.yield();
+            } else if (SIZE_CTL.compareAndSet(this, sc, -1)) {
+                try {
+                    if ((tab = table) == null || tab.length == 0) {
+                        int n = (sc > 0) ? sc : DEFAULT_CAPACITY;
+                        @SuppressWarnings("unchecked")
+                        Node<K, V>[] nt = (Node<K, V>[]) new Node<?, ?>[n];
+                        table = tab = nt;
+                        sc = n - (n >>> 2);
+                    }
+                } finally {
+                    sizeCtl = sc;
+                }
+                break;
+            }
+        }
+        return tab;
+    }
+
+    /**
+     * Adds to the count and, after an insertion, starts a resize or joins the one in progress
+     * if the size has reached the threshold;
+     *
+     * @param x     the delta
+     * @param check whether the resize has to be checked
+     */
+    private void addCount(long x, boolean check) {
+        count.add(x);
+        if (!check) {
+            return;
+        }
+        Node<K, V>[] tab, nt;
+        int n, sc;
+        long s = count.sum();
+        while (s >= (long) (sc = sizeCtl) && (tab = table) != null && (n = tab.length) < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+            if (sc < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 || (nt = nextTable) == null || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nt);
+                }
+            } else if (SIZE_CTL.compareAndSet(this, sc, rs + 2)) {
+                transfer(tab, null);
+            }
+            s = count.sum();
+        }
+    }
+
+    /**
+     * Helps with the resize in progress if the given node is a forwarding node and returns the table to retry with;
+     */
+    private Node<K, V>[] helpTransfer(Node<K, V>[] tab, Node<K, V> f) {
+        Node<K, V>[] nextTab;
+        int sc;
+        if (tab != null && (f instanceof ForwardingNode) && (nextTab = ((ForwardingNode<K, V>) f).nextTable) != null) {
+            int rs = resizeStamp(tab.length) << RESIZE_STAMP_SHIFT;
+            while (nextTab == nextTable && table == tab && (sc = sizeCtl) < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nextTab);
+                    break;
+                }
+            }
+            return nextTab;
+        }
+        return table;
+    }
+
+    /**
+     * Moves buckets of the table into the next table, which is created if it is null. Every thread claims ranges of
+     * stride buckets by decrementing transferIndex and splits each bucket into its lo and hi parts under the lock
+     * of its first node. The nodes before the last run of the same part are copied rather than relinked, so readers
+     * which are still walking the old chain are not disturbed. The last thread to finish publishes the new table;
+     */
+    private void transfer(Node<K, V>[] tab, Node<K, V>[] nextTab) {
+        int n = tab.length, stride;
+        if ((stride = (NCPU > 1) ? (n >>> 3) / NCPU : n) < MIN_TRANSFER_STRIDE) {
+            stride = MIN_TRANSFER_STRIDE;
+        }
+        if (nextTab == null) {
+            @SuppressWarnings("unchecked")
+            Node<K, V>[] nt = (Node<K, V>[]) new Node<?, ?>[n << 1];
+            nextTab = nt;
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextN = nextTab.length;
+        ForwardingNode<K, V> fwd = new ForwardingNode<>(nextTab);
+        boolean advance = true;
+        boolean finishing = false;
+        for (int i = 0, bound = 0; ; ) {
+            Node<K, V> f;
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing) {
+                    advance = false;
+                } else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                } else if (TRANSFER_INDEX.compareAndSet(this, nextIndex,
+                        nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextN) {
+                int sc;
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = (n << 1) - (n >>> 1);
+                    return;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc = sizeCtl, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT) {
+                        return;
+                    }
+                    /*
+                     *the last thread rechecks every bucket before publishing the new table
+                     */
+                    finishing = advance = true;
+                    i = n;
+                }
+            } else if ((f = tabAt(tab, i)) == null) {
+                advance = casTabAt(tab, i, null, fwd);
+            } else if (f.hash == MOVED) {
+                advance = true;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        int runBit = f.hash & n;
+                        Node<K, V> lastRun = f;
+                        for (Node<K, V> p = f.next; p != null; p = p.next) {
+                            int b = p.hash & n;
+                            if (b != runBit) {
+                                runBit = b;
+                                lastRun = p;
+                            }
+                        }
+                        Node<K, V> ln = (runBit == 0) ? lastRun : null;
+                        Node<K, V> hn = (runBit == 0) ? null : lastRun;
+                        for (Node<K, V> p = f; p != lastRun; p = p.next) {
+                            if ((p.hash & n) == 0) {
+                                ln = new Node<>(p.hash, p.key, p.value, ln);
+                            } else {
+                                hn = new Node<>(p.hash, p.key, p.value, hn);
+                            }
+                        }
+                        setTabAt(nextTab, i, ln);
+                        setTabAt(nextTab, i + n, hn);
+                        setTabAt(tab, i, fwd);
+                        advance = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the stamp of a resize of a table of the given capacity, it makes sizeCtl negative when shifted;
+     */
+    private static int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    /**
+     * Spreads the higher bits of the hashcode as MyHashMap.hash does and clears the sign bit reserved for forwarding nodes;
+     */
+    static int spread(int h) {
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    /**
+     * Returns the smallest power of two not less than the given capacity;
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> Node<K, V> tabAt(Node<K, V>[] tab, int i) {
+        return (Node<K, V>) TAB.getAcquire(tab, i);
+    }
+
+    static <K, V> boolean casTabAt(Node<K, V>[] tab, int i, Node<K, V> c, Node<K, V> v) {
+        return TAB.compareAndSet(tab, i, c, v);
+    }
+
+    static <K, V> void setTabAt(Node<K, V>[] tab, int i, Node<K, V> v) {
+        TAB.setRelease(tab, i, v);
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrentMyHashMap{");
+        anyNode(node -> {
+            sb.append("[Key:" + node.key + " /Value: " + node.value + "],");
+            return false;
+        });
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet, a copy of a key-value pair which writes a new value through to the map;
+     */
+    private final class WriteThroughEntry implements MyMap.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        WriteThroughEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            Objects.requireNonNull(newValue);
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+    }
+}
@@ -0,0 +1,754 @@
+package ru.aston.myhashmap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This class is a thread-safe map for read-mostly data, such as routing tables or configuration, which are read all
+ * the time and changed rarely:
+ * <ul>
+ * <li>the map publishes an immutable table through a single volatile reference, get reads the reference once
+ * and walks the table without locks, CAS or allocation, so readers never contend with each other or with writers;</li>
+ * <li>writers are serialized by a lock, every write copies what it changes into a private table and publishes
+ * the new table at once. update applies any number of changes as one write, readers see either none or all of them;</li>
+ * <li>the buckets are split into chunks of about the square root of the capacity, a write copies the array of chunks
+ * and the chunks it changes and shares the rest with the previous table. Within a chunk only the nodes in front of
+ * the changed node are copied, so a write of a few keys costs about the square root of the capacity, not the capacity;</li>
+ * <li>entrySet, getAll and toString see the table of one moment, they are never affected by later writes.</li>
+ * </ul>
+ * Null keys and values are allowed as in MyHashMap. The buckets stay linked lists, the hashes are spread as MyHashMap does;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public class CopyOnWriteMyHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible hash table capacity
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This is the load factor of the table, the capacity is doubled when the size exceeds capacity * LOAD_FACTOR;
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * This is the published table, it is never modified after it has been published;
+     */
+    private volatile Table<K, V> table;
+    /**
+     * Serializes the writers;
+     */
+    private final Object writeLock = new Object();
+    /**
+     * It's true while a write is in progress, guarded by writeLock. Since the lock is reentrant, it catches writes
+     * to the map from inside an update, which would otherwise be lost when the update publishes its table;
+     */
+    private boolean writing;
+
+    /**
+     * This is a node of a table, it is immutable and shared by all the tables in which its bucket did not change
+     * in front of it;
+     */
+    static final class Node<K, V> implements MyMap.Entry<K, V> {
+        final int hash;
+        final K key;
+        final V value;
+        final Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * The nodes are immutable, a value is changed by put;
+         */
+        @Override
+        public V setValue(V newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * This is an immutable version of the map: the bucket i is chunks[i >>> shift][i & slotMask];
+     */
+    static final class Table<K, V> {
+        final Node<K, V>[][] chunks;
+        final int shift;
+        final int slotMask;
+        final int mask;
+        final int size;
+
+        Table(Node<K, V>[][] chunks, int shift, int capacity, int size) {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.slotMask = (1 << shift) - 1;
+            this.mask = capacity - 1;
+            this.size = size;
+        }
+
+        /**
+         * Returns the node of the key or null if there is no such key;
+         */
+        Node<K, V> find(Object key) {
+            int h = MyHashMap.hash(key);
+            int i = h & mask;
+            for (Node<K, V> e = chunks[i >>> shift][i & slotMask]; e != null; e = e.next) {
+                K k;
+                if (e.hash == h && ((k = e.key) == key || (key != null && key.equals(k)))) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     */
+    public CopyOnWriteMyHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        this.table = emptyTable(tableSizeFor((int) Math.min(initialCapacity / LOAD_FACTOR + 1.0f, MAXIMUM_CAPACITY)));
+    }
+
+    /**
+     * This constructor creates a map with the default capacity.
+     */
+    public CopyOnWriteMyHashMap() {
+        this.table = emptyTable(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This method returns the value corresponding to the key or null if there is no such key,
+     * it never locks and never allocates;
+     *
+     * @param key
+     * @return
+     */
+    @Override
+    public V get(Object key) {
+        Node<K, V> e = table.find(key);
+        return e == null ? null : e.value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Node<K, V> e = table.find(key);
+        return e == null ? defaultValue : e.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.find(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return containsValue(table.chunks, value);
+    }
+
+    @Override
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Returns a new map of those of the given keys which are present in the map, all of them are looked up
+     * in the same table, so the result never mixes the values from before and after a write;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        Objects.requireNonNull(keys);
+        Table<K, V> t = table;
+        MyMap<K, V> result = (keys instanceof Collection)
+                ? new MyHashMap<>((int) (((Collection<?>) keys).size() / 0.75f) + 1) : new MyHashMap<>();
+        for (K key : keys) {
+            Node<K, V> e = t.find(key);
+            if (e != null) {
+                result.put(key, e.value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a set of the key-value pairs of the current table, later writes to the map do not change it;
+     * the entries are immutable, removal through the iterator removes the key from the map;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        return new TableEntrySet(table, this);
+    }
+
+    /**
+     * This method places the value corresponding to the key and returns the replaced value or null if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @Override
+    public V put(K key, V value) {
+        return write(editor -> editor.put(key, value));
+    }
+
+    @Override
+    public V remove(Object key) {
+        return write(editor -> editor.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        write(editor -> {
+            editor.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return write(editor -> editor.putIfAbsent(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        return write(editor -> editor.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return write(editor -> editor.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return write(editor -> editor.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        return write(editor -> editor.merge(key, value, remappingFunction));
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        write(editor -> {
+            editor.replaceAll(function);
+            return null;
+        });
+    }
+
+    /**
+     * Puts every key-value pair of the given map as one write;
+     */
+    @Override
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        write(editor -> {
+            editor.putAll(map);
+            return null;
+        });
+    }
+
+    /**
+     * Puts every key-value pair of the given java.util.Map as one write;
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        write(editor -> {
+            editor.putAll(map);
+            return null;
+        });
+    }
+
+    /**
+     * Removes the given keys as one write and returns the number of keys which were present;
+     */
+    @Override
+    public int removeAll(Iterable<?> keys) {
+        Objects.requireNonNull(keys);
+        return write(editor -> editor.removeAll(keys));
+    }
+
+    /**
+     * Applies all the changes the consumer makes to the given map as one write: the consumer reads and modifies
+     * a private copy of the table, which is published when it returns, so readers see either none or all of the changes,
+     * and every chunk is copied at most once however many keys of it are changed. If the consumer throws,
+     * nothing is published. The given map must not be used after the consumer returns, and the consumer
+     * must not modify this map itself;
+     *
+     * @param changes
+     */
+    public void update(Consumer<? super MyMap<K, V>> changes) {
+        Objects.requireNonNull(changes);
+        write(editor -> {
+            changes.accept(editor);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the change on an editor of the current table under the write lock and publishes the edited table
+     * if the change modified it;
+     */
+    private <R> R write(Function<Editor, R> change) {
+        synchronized (writeLock) {
+            if (writing) {
+                throw new IllegalStateException("The map can't be modified inside update, modify the given map instead");
+            }
+            writing = true;
+            Editor editor = new Editor(table);
+            try {
+                R result = change.apply(editor);
+                if (editor.modified) {
+                    table = editor.toTable();
+                }
+                return result;
+            } finally {
+                editor.closed = true;
+                writing = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the published table;
+     */
+    Table<K, V> table() {
+        return table;
+    }
+
+    /**
+     * This class is the private copy of a table a write works on. It starts sharing everything with the table it was
+     * created from and copies the array of chunks and every chunk before modifying them for the first time.
+     * The nodes are never modified, a changed node is replaced along with the nodes in front of it in its bucket;
+     */
+    private final class Editor implements MyMap<K, V> {
+        private Node<K, V>[][] chunks;
+        private int shift;
+        private int slotMask;
+        private int capacity;
+        private int size;
+        private int threshold;
+        /**
+         * Marks the chunks copied by this editor, null while the array of chunks itself is shared;
+         */
+        private boolean[] ownedChunks;
+        private boolean modified;
+        private boolean closed;
+
+        Editor(Table<K, V> base) {
+            this.chunks = base.chunks;
+            this.shift = base.shift;
+            this.slotMask = base.slotMask;
+            this.capacity = base.capacity();
+            this.size = base.size;
+            this.threshold = thresholdOf(capacity);
+        }
+
+        /**
+         * Returns the table of the current state and stops owning the chunks, so the table stays immutable
+         * when the editor goes on;
+         */
+        Table<K, V> toTable() {
+            ownedChunks = null;
+            return new Table<>(chunks, shift, capacity, size);
+        }
+
+        /**
+         * Returns the chunk with the given index, copying it and the array of chunks first if they are shared;
+         */
+        private Node<K, V>[] writableChunk(int c) {
+            if (ownedChunks == null) {
+                chunks = chunks.clone();
+                ownedChunks = new boolean[chunks.length];
+            }
+            if (!ownedChunks[c]) {
+                chunks[c] = chunks[c].clone();
+                ownedChunks[c] = true;
+            }
+            return chunks[c];
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("The update is over");
+            }
+        }
+
+        private Node<K, V> find(int h, Object key) {
+            int i = h & (capacity - 1);
+            for (Node<K, V> e = chunks[i >>> shift][i & slotMask]; e != null; e = e.next) {
+                K k;
+                if (e.hash == h && ((k = e.key) == key || (key != null && key.equals(k)))) {
+                    return e;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public V get(Object key) {
+            checkOpen();
+            Node<K, V> e = find(MyHashMap.hash(key), key);
+            return e == null ? null : e.value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            checkOpen();
+            return find(MyHashMap.hash(key), key) != null;
+        }
+
+        @Override
+        public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+            checkOpen();
+            return getAll(keys, new MyHashMap<>());
+        }
+
+        @Override
+        public V put(K key, V value) {
+            checkOpen();
+            int h = MyHashMap.hash(key);
+            int i = h & (capacity - 1);
+            int c = i >>> shift;
+            int s = i & slotMask;
+            Node<K, V> first = chunks[c][s];
+            Node<K, V> e = find(h, key);
+            if (e != null) {
+                V oldValue = e.value;
+                if (oldValue != value) {
+                    writableChunk(c)[s] = replace(first, e, new Node<>(h, e.key, value, e.next));
+                    modified = true;
+                }
+                return oldValue;
+            }
+            writableChunk(c)[s] = new Node<>(h, key, value, first);
+            modified = true;
+            if (++size > threshold) {
+                resize();
+            }
+            return null;
+        }
+
+        @Override
+        public V remove(Object key) {
+            checkOpen();
+            int h = MyHashMap.hash(key);
+            Node<K, V> e = find(h, key);
+            if (e == null) {
+                return null;
+            }
+            int i = h & (capacity - 1);
+            int c = i >>> shift;
+            int s = i & slotMask;
+            writableChunk(c)[s] = replace(chunks[c][s], e, e.next);
+            size--;
+            modified = true;
+            return e.value;
+        }
+
+        @Override
+        public void clear() {
+            checkOpen();
+            if (size > 0) {
+                chunks = newChunks(capacity, shift);
+                ownedChunks = owned(chunks);
+                size = 0;
+                modified = true;
+            }
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            checkOpen();
+            return CopyOnWriteMyHashMap.containsValue(chunks, value);
+        }
+
+        @Override
+        public int size() {
+            checkOpen();
+            return size;
+        }
+
+        /**
+         * Returns a set of the key-value pairs of the current state of the editor, later changes do not affect it;
+         */
+        @Override
+        public Set<MyMap.Entry<K, V>> entrySet() {
+            checkOpen();
+            return new TableEntrySet(toTable(), this);
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+            Objects.requireNonNull(function);
+            for (MyMap.Entry<K, V> entry : entrySet()) {
+                put(entry.getKey(), function.apply(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        /**
+         * Doubles the capacity, the nodes are copied into new chunks owned by the editor;
+         */
+        private void resize() {
+            if (capacity >= MAXIMUM_CAPACITY) {
+                threshold = Integer.MAX_VALUE;
+                return;
+            }
+            int newCapacity = capacity << 1;
+            int newShift = chunkShift(newCapacity);
+            int newSlotMask = (1 << newShift) - 1;
+            Node<K, V>[][] newChunks = newChunks(newCapacity, newShift);
+            for (Node<K, V>[] chunk : chunks) {
+                for (Node<K, V> e : chunk) {
+                    for (; e != null; e = e.next) {
+                        int i = e.hash & (newCapacity - 1);
+                        Node<K, V>[] target = newChunks[i >>> newShift];
+                        target[i & newSlotMask] = new Node<>(e.hash, e.key, e.value, target[i & newSlotMask]);
+                    }
+                }
+            }
+            chunks = newChunks;
+            ownedChunks = owned(newChunks);
+            shift = newShift;
+            slotMask = newSlotMask;
+            capacity = newCapacity;
+            threshold = thresholdOf(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the chain starting at first in which target is replaced by replacement, the nodes in front of target
+     * are copied and the nodes behind it are shared;
+     */
+    private static <K, V> Node<K, V> replace(Node<K, V> first, Node<K, V> target, Node<K, V> replacement) {
+        int k = 0;
+        for (Node<K, V> e = first; e != target; e = e.next) {
+            k++;
+        }
+        if (k == 0) {
+            return replacement;
+        }
+        @SuppressWarnings("unchecked")
+        Node<K, V>[] prefix = (Node<K, V>[]) new Node<?, ?>[k];
+        Node<K, V> e = first;
+        for (int j = 0; j < k; j++, e = e.next) {
+            prefix[j] = e;
+        }
+        Node<K, V> result = replacement;
+        for (int j = k - 1; j >= 0; j--) {
+            result = new Node<>(prefix[j].hash, prefix[j].key, prefix[j].value, result);
+        }
+        return result;
+    }
+
+    private static <K, V> boolean containsValue(Node<K, V>[][] chunks, Object value) {
+        for (Node<K, V>[] chunk : chunks) {
+            for (Node<K, V> e : chunk) {
+                for (; e != null; e = e.next) {
+                    if (Objects.equals(value, e.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the log2 of the length of the chunks of a table of the given capacity, the chunks get the larger half
+     * of the bits of the index;
+     */
+    static int chunkShift(int capacity) {
+        return (Integer.numberOfTrailingZeros(capacity) + 1) >>> 1;
+    }
+
+    private static <K, V> Table<K, V> emptyTable(int capacity) {
+        int shift = chunkShift(capacity);
+        return new Table<>(newChunks(capacity, shift), shift, capacity, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[][] newChunks(int capacity, int shift) {
+        Node<K, V>[][] chunks = (Node<K, V>[][]) new Node<?, ?>[capacity >>> shift][];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = (Node<K, V>[]) new Node<?, ?>[1 << shift];
+        }
+        return chunks;
+    }
+
+    private static boolean[] owned(Object[] chunks) {
+        boolean[] owned = new boolean[chunks.length];
+        Arrays.fill(owned, true);
+        return owned;
+    }
+
+    private static int thresholdOf(int capacity) {
+        return capacity >= MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the smallest power of two not less than the given capacity;
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 1) ? 2 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CopyOnWriteMyHashMap{");
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            sb.append("[Key:" + entry.getKey() + " /Value: " + entry.getValue() + "],");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is the set of the key-value pairs of an immutable table, removal goes to the map it was taken from;
+     */
+    private final class TableEntrySet extends AbstractSet<MyMap.Entry<K, V>> {
+        private final Table<K, V> t;
+        private final MyMap<K, V> owner;
+
+        TableEntrySet(Table<K, V> t, MyMap<K, V> owner) {
+            this.t = t;
+            this.owner = owner;
+        }
+
+        @Override
+        public int size() {
+            return t.size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof MyMap.Entry)) {
+                return false;
+            }
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            Node<K, V> e = t.find(entry.getKey());
+            return e != null && Objects.equals(e.value, entry.getValue());
+        }
+
+        @Override
+        public Iterator<MyMap.Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int chunk;
+                private int slot = -1;
+                private Node<K, V> next = advance(null);
+                private Node<K, V> current;
+
+                /**
+                 * Returns the node after e, going on to the next non-empty bucket at the end of a chain;
+                 */
+                private Node<K, V> advance(Node<K, V> e) {
+                    if (e != null && e.next != null) {
+                        return e.next;
+                    }
+                    Node<K, V>[][] chunks = t.chunks;
+                    while (chunk < chunks.length) {
+                        Node<K, V>[] c = chunks[chunk];
+                        while (++slot < c.length) {
+                            if (c[slot] != null) {
+                                return c[slot];
+                            }
+                        }
+                        chunk++;
+                        slot = -1;
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public MyMap.Entry<K, V> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    current = next;
+                    next = advance(next);
+                    return current;
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    owner.remove(current.key);
+                    current = null;
+                }
+            };
+        }
+    }
+}
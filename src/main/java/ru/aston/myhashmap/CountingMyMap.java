@@ -0,0 +1,206 @@
+package ru.aston.myhashmap;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * This class counts keys: every key has a primitive long counter kept in its node, so counting neither boxes
+ * the count nor looks the key up twice as get and then put of a {@code MyHashMap<K, Integer>} do.
+ * The nodes live in a MyHashMap, whose hashing, tree bins and resizing the counter reuses through the node hooks:
+ * <ul>
+ * <li>increment finds or creates the node of the key in one walk of its bin and adds to its counter in place,
+ * only the node of a new key is allocated;</li>
+ * <li>the counter of a node in a tree bin, which only keys with colliding hashes reach, is kept boxed in the value
+ * of the tree node, and moves back into the counter when the bin becomes a chain again.</li>
+ * </ul>
+ * A key stays in the map when its count drops to zero, remove takes it out. Null keys are allowed.
+ * The map is not thread-safe;
+ *
+ * @param <K> is the type of counted keys
+ * @see ObjLongMyHashMap
+ */
+public class CountingMyMap<K> {
+    private final Counters<K> counters;
+
+    /**
+     * This constructor creates a map able to hold the given number of keys before it is resized;
+     *
+     * @param initialCapacity
+     */
+    public CountingMyMap(int initialCapacity) {
+        this.counters = new Counters<>(initialCapacity);
+    }
+
+    /**
+     * This constructor creates a map with the default initial capacity;
+     */
+    public CountingMyMap() {
+        this(16);
+    }
+
+    /**
+     * This method adds the delta to the count of the key, a new key starts at zero, and returns the new count;
+     *
+     * @param key
+     * @param delta may be negative
+     * @return long
+     */
+    public long increment(K key, long delta) {
+        Counters<K> c = counters;
+        c.delta = delta;
+        c.putVal(c.hashOf(key), key, null, true);
+        return c.result;
+    }
+
+    /**
+     * This method adds one to the count of the key and returns the new count;
+     *
+     * @param key
+     * @return long
+     */
+    public long increment(K key) {
+        return increment(key, 1L);
+    }
+
+    /**
+     * Returns the count of the key, or zero if there is no such key;
+     *
+     * @param key
+     * @return long
+     */
+    public long count(Object key) {
+        MyHashMap.Node<K, Object> node = counters.getNode(key);
+        return node == null ? 0L : countOf(node);
+    }
+
+    /**
+     * This method removes the key and returns its count, or zero if there was no such key;
+     *
+     * @param key
+     * @return long
+     */
+    public long remove(Object key) {
+        if (counters.size() == 0) {
+            return 0L;
+        }
+        MyHashMap.Node<K, Object> node = counters.removeNode(counters.hashOf(key), key, true);
+        return node == null ? 0L : countOf(node);
+    }
+
+    public boolean containsKey(Object key) {
+        return counters.getNode(key) != null;
+    }
+
+    /**
+     * Returns the number of counted keys;
+     *
+     * @return int
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean isEmpty() {
+        return counters.size() == 0;
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Calls the action for every key and its count, the counts are not boxed;
+     *
+     * @param action
+     */
+    public void forEach(ObjLongConsumer<? super K> action) {
+        Objects.requireNonNull(action);
+        for (MyMap.Entry<K, Object> entry : counters.entrySet()) {
+            action.accept(entry.getKey(), countOf((MyHashMap.Node<K, Object>) entry));
+        }
+    }
+
+    /**
+     * Returns an unmodifiable live set of the counted keys;
+     *
+     * @return Set<K>
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(counters.keySet());
+    }
+
+    private static long countOf(MyHashMap.Node<?, Object> node) {
+        return node instanceof CounterNode ? ((CounterNode<?>) node).count : (Long) node.value;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CountingMyMap{");
+        forEach((key, count) -> sb.append("[Key:" + key + " /Count: " + count + "],"));
+        return sb.toString();
+    }
+
+    /**
+     * This is a node of a chain, whose value is unused;
+     */
+    private static final class CounterNode<K> extends MyHashMap.Node<K, Object> {
+        long count;
+
+        CounterNode(int hash, K key, long count, MyHashMap.Node<K, Object> next) {
+            super(hash, key, null, next);
+            this.count = count;
+        }
+    }
+
+    /**
+     * This is the table of the nodes. increment passes the delta in a field and puts a null value only if absent,
+     * so putVal never replaces the value: a new key gets its node from newNode, and afterNodeAccess adds the delta
+     * to the node of an existing key, both store the new count in result;
+     */
+    private static final class Counters<K> extends MyHashMap<K, Object> {
+        long delta;
+        long result;
+
+        Counters(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        @Override
+        Node<K, Object> newNode(int hash, K key, Object value, Node<K, Object> next) {
+            result = delta;
+            return new CounterNode<>(hash, key, delta, next);
+        }
+
+        @Override
+        Node<K, Object> replacementNode(Node<K, Object> p, Node<K, Object> next) {
+            return new CounterNode<>(p.hash, p.key, (Long) p.value, next);
+        }
+
+        @Override
+        TreeNode<K, Object> newTreeNode(int hash, K key, Object value, Node<K, Object> next) {
+            result = delta;
+            return new TreeNode<>(hash, key, delta, next);
+        }
+
+        @Override
+        TreeNode<K, Object> replacementTreeNode(Node<K, Object> p, Node<K, Object> next) {
+            return new TreeNode<>(p.hash, p.key, ((CounterNode<K>) p).count, next);
+        }
+
+        @Override
+        void afterNodeAccess(Node<K, Object> p) {
+            if (p instanceof CounterNode) {
+                CounterNode<K> node = (CounterNode<K>) p;
+                result = node.count += delta;
+            } else {
+                result = (Long) p.value + delta;
+                p.value = result;
+            }
+        }
+    }
+}
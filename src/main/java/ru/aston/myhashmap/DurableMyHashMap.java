@@ -0,0 +1,739 @@
+package ru.aston.myhashmap;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * This class is a MyHashMap whose mutations survive a crash. Every put, remove and clear is applied to the map
+ * and appended to a write-ahead log in the given directory; opening the directory again replays the log:
+ * <ul>
+ * <li>the records of the mutations are collected in a buffer and written to the log in batches (group commit):
+ * with FsyncPolicy.ALWAYS a mutation returns once its batch is forced to the disk, and the threads which mutate
+ * while a batch is being forced share the next write and the next fsync; with INTERVAL or NEVER a mutation returns at once
+ * and the batch is written by a background thread every interval;</li>
+ * <li>once the log grows beyond the compaction threshold, a background thread starts a new log and writes a checkpoint,
+ * a MyHashMapSnapshot of the map at the start of the new log, after which the older logs and checkpoints are deleted,
+ * so recovery reads at most one checkpoint and the logs written after it;</li>
+ * <li>every record carries its length and CRC32, a record torn by a crash at the end of the last log is dropped on recovery.</li>
+ * <li>once a write or force of the log fails, the map refuses all further mutations with the failure, since the records
+ * of the failed batch have been applied to the map but may never reach the log.</li>
+ * </ul>
+ * The files are named checkpoint-N.snapshot and wal-N.log, where the checkpoint N holds the state the log N starts from.
+ * The methods are synchronized on the map, like in a synchronized map, and the compound default methods are not atomic.
+ * Keys and values are converted by the given serializers, null keys and values are logged like the others;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ * @see MyHashMapSnapshot
+ */
+public class DurableMyHashMap<K, V> implements MyMap<K, V>, Closeable {
+    /**
+     * This enum determines when the written batches are forced to the disk;
+     */
+    public enum FsyncPolicy {
+        /**
+         * Every mutation waits until its batch is written and forced, a crash loses nothing that has returned;
+         */
+        ALWAYS,
+        /**
+         * The batch is written and forced every interval, a crash loses at most the mutations of the last interval;
+         */
+        INTERVAL,
+        /**
+         * The batch is written every interval but never forced, the operating system decides when it reaches the disk
+         * and a crash of the process alone loses nothing that has been written;
+         */
+        NEVER
+    }
+
+    /**
+     * This constant is a default size of the log which triggers a checkpoint;
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+    /**
+     * This constant is a default interval of the background writes, in milliseconds;
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 10;
+    /**
+     * The size of a batch at which the mutating thread writes it itself instead of waiting for the interval;
+     */
+    private static final int MAX_BATCH_BYTES = 1 << 20;
+    /**
+     * A record starts with the length of its body (int) and the CRC32 of the body (int);
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte CLEAR = 3;
+    private static final int NULL_LENGTH = -1;
+    private static final String LOG_PREFIX = "wal-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String CHECKPOINT_SUFFIX = ".snapshot";
+
+    private final Path directory;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final FsyncPolicy policy;
+    private final long compactionThreshold;
+    private final MyHashMap<K, V> map;
+    /**
+     * This is the buffer the records are appended to, guarded by the map together with crc and appendedCount;
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    /**
+     * This is the buffer which is being written or was written last, it replaces pending when pending is taken;
+     */
+    private ByteBuffer spare;
+    private final CRC32 crc = new CRC32();
+    private long appendedCount;
+    private boolean closed;
+    /**
+     * This lock guards the log channel and serializes the writes, it is taken before the map;
+     */
+    private final Object logLock = new Object();
+    private FileChannel log;
+    private long logGeneration;
+    private volatile long logSize;
+    private long writtenCount;
+    private volatile long durableCount;
+    /**
+     * This lock serializes the checkpoints, it is taken before logLock;
+     */
+    private final Object checkpointLock = new Object();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ScheduledExecutorService background;
+    /**
+     * This is the failure of a write or force of the log or of a background checkpoint, rethrown by every following
+     * mutation. A failed write closes the log, since the log may end in a torn record, so nothing is written after it;
+     */
+    private volatile IOException failure;
+
+    /**
+     * This constructor opens the map stored in the directory, creating the directory if necessary,
+     * with the given fsync policy, interval of the background writes and size of the log which triggers a checkpoint;
+     *
+     * @param directory           the directory of the log and the checkpoints
+     * @param keySerializer       serializer of the keys
+     * @param valueSerializer     serializer of the values
+     * @param policy              when the batches are forced to the disk
+     * @param intervalMillis      the interval of the background writes, used by INTERVAL and NEVER
+     * @param compactionThreshold the size of the log in bytes which triggers a checkpoint
+     * @throws IOException if the directory can't be read or holds a corrupt checkpoint or log
+     */
+    public DurableMyHashMap(Path directory, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                            FsyncPolicy policy, long intervalMillis, long compactionThreshold) throws IOException {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Illegal interval: " + intervalMillis);
+        }
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Illegal compaction threshold: " + compactionThreshold);
+        }
+        this.directory = Objects.requireNonNull(directory);
+        this.keySerializer = Objects.requireNonNull(keySerializer);
+        this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        this.policy = Objects.requireNonNull(policy);
+        this.compactionThreshold = compactionThreshold;
+        Files.createDirectories(directory);
+        this.map = recover();
+        this.background = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "DurableMyHashMap " + directory);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (policy != FsyncPolicy.ALWAYS) {
+            boolean force = policy == FsyncPolicy.INTERVAL;
+            background.scheduleWithFixedDelay(() -> {
+                try {
+                    flush(force);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * This constructor opens the map stored in the directory with FsyncPolicy.ALWAYS and the default compaction threshold;
+     *
+     * @param directory       the directory of the log and the checkpoints
+     * @param keySerializer   serializer of the keys
+     * @param valueSerializer serializer of the values
+     * @throws IOException if the directory can't be read or holds a corrupt checkpoint or log
+     */
+    public DurableMyHashMap(Path directory, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        this(directory, keySerializer, valueSerializer, FsyncPolicy.ALWAYS, DEFAULT_INTERVAL_MILLIS,
+                DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @Override
+    public V get(Object key) {
+        synchronized (this) {
+            return map.get(key);
+        }
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        synchronized (this) {
+            return map.getOrDefault(key, defaultValue);
+        }
+    }
+
+    /**
+     * Logs the pair and puts it into the map, with FsyncPolicy.ALWAYS returns once the record is on the disk.
+     * The map is not changed if the pair can't be serialized;
+     *
+     * @param key
+     * @param value
+     * @return the previous value or null
+     * @throws UncheckedIOException if the log can't be written
+     */
+    @Override
+    public V put(K key, V value) {
+        V oldValue;
+        long count;
+        synchronized (this) {
+            ensureOpen();
+            count = append(PUT, key, value);
+            oldValue = map.put(key, value);
+        }
+        afterAppend(count);
+        return oldValue;
+    }
+
+    /**
+     * Logs the removal and removes the key from the map, nothing is logged for an absent key;
+     *
+     * @param key
+     * @return the removed value or null
+     * @throws UncheckedIOException if the log can't be written
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        V oldValue;
+        long count;
+        synchronized (this) {
+            ensureOpen();
+            if (!map.containsKey(key)) {
+                return null;
+            }
+            count = append(REMOVE, (K) key, null);
+            oldValue = map.remove(key);
+        }
+        afterAppend(count);
+        return oldValue;
+    }
+
+    /**
+     * Logs the removal and removes all the pairs;
+     *
+     * @throws UncheckedIOException if the log can't be written
+     */
+    @Override
+    public void clear() {
+        long count;
+        synchronized (this) {
+            ensureOpen();
+            count = append(CLEAR, null, null);
+            map.clear();
+        }
+        afterAppend(count);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        synchronized (this) {
+            return map.containsKey(key);
+        }
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        synchronized (this) {
+            return map.containsValue(value);
+        }
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in the map, with their values;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        synchronized (this) {
+            return map.getAll(keys);
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (this) {
+            return map.size();
+        }
+    }
+
+    /**
+     * Returns a set of copies of the key-value pairs, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> entries = new HashSet<>();
+        synchronized (this) {
+            for (MyMap.Entry<K, V> entry : map.entrySet()) {
+                entries.add(new SimpleEntry(entry.getKey(), entry.getValue()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Writes all the logged mutations and forces them to the disk, whatever the fsync policy;
+     *
+     * @throws IOException if the log can't be written
+     */
+    public void sync() throws IOException {
+        flush(true);
+    }
+
+    /**
+     * Starts a new log and writes the checkpoint it starts from, then deletes the older logs and checkpoints.
+     * The map is copied while the mutations wait, the checkpoint itself is written from the copy without blocking them;
+     *
+     * @throws IOException if the log or the checkpoint can't be written
+     */
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            MyHashMap<K, V> image = new MyHashMap<>();
+            long generation;
+            synchronized (logLock) {
+                flush(true);
+                synchronized (this) {
+                    ensureOpen();
+                    for (MyMap.Entry<K, V> entry : map.entrySet()) {
+                        image.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                log.close();
+                generation = logGeneration + 1;
+                log = openLog(generation);
+                logGeneration = generation;
+                logSize = 0;
+            }
+            MyHashMapSnapshot.write(image, checkpointPath(generation), keySerializer, valueSerializer);
+            deleteOlderThan(generation);
+        }
+    }
+
+    /**
+     * Closes the map for mutations, then writes and forces the logged mutations and closes the log.
+     * A mutation which has not been appended before the map is closed fails, so every appended record is written;
+     *
+     * @throws IOException if the log can't be written, or a write of the log has failed before
+     */
+    @Override
+    public void close() throws IOException {
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (logLock) {
+            synchronized (this) {
+                closed = true;
+            }
+            flush(true);
+            log.close();
+        }
+    }
+
+    /**
+     * Returns the size of the current log in bytes;
+     *
+     * @return long
+     */
+    public long logSize() {
+        return logSize;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The map is closed");
+        }
+        IOException e = failure;
+        if (e != null) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the record of a mutation to the pending batch, growing the buffer if the record doesn't fit.
+     * If a serializer fails, the part of the record written so far is dropped, so the batch holds only whole records;
+     *
+     * @return the number of the record, which becomes durable once durableCount reaches it
+     */
+    private long append(byte operation, K key, V value) {
+        while (true) {
+            int start = pending.position();
+            try {
+                pending.putLong(0);
+                pending.put(operation);
+                if (operation != CLEAR) {
+                    writeValue(key, keySerializer);
+                }
+                if (operation == PUT) {
+                    writeValue(value, valueSerializer);
+                }
+                int length = pending.position() - start - RECORD_HEADER_BYTES;
+                crc.reset();
+                crc.update(pending.array(), start + RECORD_HEADER_BYTES, length);
+                pending.putInt(start, length);
+                pending.putInt(start + 4, (int) crc.getValue());
+                return ++appendedCount;
+            } catch (BufferOverflowException e) {
+                pending.position(start);
+                ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                pending = larger.put(pending);
+            } catch (RuntimeException e) {
+                pending.position(start);
+                throw e;
+            }
+        }
+    }
+
+    private <T> void writeValue(T value, Serializer<T> serializer) {
+        if (value == null) {
+            pending.putInt(NULL_LENGTH);
+            return;
+        }
+        int lengthIndex = pending.position();
+        pending.putInt(0);
+        serializer.write(value, pending);
+        pending.putInt(lengthIndex, pending.position() - lengthIndex - 4);
+    }
+
+    /**
+     * Makes the appended record durable according to the policy and starts a checkpoint if the log has grown too large;
+     */
+    private void afterAppend(long count) {
+        try {
+            if (policy == FsyncPolicy.ALWAYS) {
+                if (durableCount < count) {
+                    synchronized (logLock) {
+                        /*
+                         *the threads which waited for the lock while another one was forcing the log
+                         *find their records already forced or force them all with one call
+                         */
+                        if (durableCount < count) {
+                            flush(true);
+                        }
+                    }
+                    if (durableCount < count) {
+                        throw new IllegalStateException("The map was closed before the mutation was written");
+                    }
+                }
+            } else if (pendingBytes() >= MAX_BATCH_BYTES) {
+                flush(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (logSize > compactionThreshold && compacting.compareAndSet(false, true)) {
+            try {
+                background.execute(() -> {
+                    try {
+                        checkpoint();
+                    } catch (IOException e) {
+                        failure = e;
+                    } catch (IllegalStateException e) {
+                        /*
+                         *closed meanwhile
+                         */
+                    } finally {
+                        compacting.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                compacting.set(false);
+            }
+        }
+    }
+
+    private synchronized int pendingBytes() {
+        return pending.position();
+    }
+
+    /**
+     * Writes the pending batch to the log and forces the log if asked to. A failure of the write or the force
+     * is stored in failure and closes the log, every later flush rethrows it;
+     *
+     * @param force whether to force the written records to the disk
+     */
+    private void flush(boolean force) throws IOException {
+        synchronized (logLock) {
+            if (!log.isOpen()) {
+                IOException e = failure;
+                if (e != null) {
+                    throw e;
+                }
+                return;
+            }
+            ByteBuffer batch = null;
+            long count;
+            synchronized (this) {
+                count = appendedCount;
+                if (pending.position() > 0) {
+                    batch = pending;
+                    pending = spare == null ? ByteBuffer.allocate(batch.capacity()) : spare;
+                    spare = null;
+                }
+            }
+            try {
+                if (batch != null) {
+                    batch.flip();
+                    logSize += batch.remaining();
+                    while (batch.hasRemaining()) {
+                        log.write(batch);
+                    }
+                    batch.clear();
+                    synchronized (this) {
+                        spare = batch;
+                    }
+                }
+                writtenCount = count;
+                if (force && durableCount < writtenCount) {
+                    log.force(false);
+                    durableCount = writtenCount;
+                }
+            } catch (IOException e) {
+                failure = e;
+                try {
+                    log.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Loads the newest checkpoint and replays the logs written after it, then opens the newest log for appending;
+     *
+     * @return the recovered map
+     */
+    private MyHashMap<K, V> recover() throws IOException {
+        TreeSet<Long> logs = new TreeSet<>();
+        long checkpoint = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long generation;
+                if ((generation = generationOf(name, LOG_PREFIX, LOG_SUFFIX)) >= 0) {
+                    logs.add(generation);
+                } else if ((generation = generationOf(name, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX)) >= 0) {
+                    checkpoint = Math.max(checkpoint, generation);
+                } else if (name.endsWith(".tmp")) {
+                    /*
+                     *a checkpoint which was not finished
+                     */
+                    Files.delete(file);
+                }
+            }
+        }
+        MyHashMap<K, V> recovered = checkpoint == 0 ? new MyHashMap<>()
+                : MyHashMapSnapshot.read(checkpointPath(checkpoint), keySerializer, valueSerializer);
+        long last = logs.isEmpty() ? checkpoint : Math.max(checkpoint, logs.last());
+        for (long generation : logs.tailSet(checkpoint)) {
+            replay(recovered, logPath(generation), generation == last);
+        }
+        logGeneration = last;
+        log = openLog(last);
+        logSize = log.size();
+        deleteOlderThan(checkpoint);
+        return recovered;
+    }
+
+    /**
+     * Applies the records of the log to the map. A torn or corrupt record ends the log: it is cut off the last log,
+     * which is where a crash leaves it, and is reported for any other log;
+     */
+    private void replay(MyHashMap<K, V> target, Path file, boolean last) throws IOException {
+        long fileSize = Files.size(file);
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] record = new byte[256];
+            CRC32 crc = new CRC32();
+            while (fileSize - position >= RECORD_HEADER_BYTES) {
+                int length = in.readInt();
+                int expected = in.readInt();
+                if (length <= 0 || length > fileSize - position - RECORD_HEADER_BYTES) {
+                    break;
+                }
+                if (record.length < length) {
+                    record = new byte[Math.max(length, record.length * 2)];
+                }
+                in.readFully(record, 0, length);
+                crc.reset();
+                crc.update(record, 0, length);
+                if ((int) crc.getValue() != expected) {
+                    break;
+                }
+                apply(target, ByteBuffer.wrap(record, 0, length), file);
+                position += RECORD_HEADER_BYTES + length;
+            }
+        }
+        if (position < fileSize) {
+            if (!last) {
+                throw new IOException("Corrupt write-ahead log at " + position + ": " + file);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+    }
+
+    private void apply(MyHashMap<K, V> target, ByteBuffer record, Path file) throws IOException {
+        byte operation = record.get();
+        if (operation == CLEAR) {
+            target.clear();
+            return;
+        }
+        K key = readValue(record, keySerializer);
+        if (operation == PUT) {
+            target.put(key, readValue(record, valueSerializer));
+        } else if (operation == REMOVE) {
+            target.remove(key);
+        } else {
+            throw new IOException("Unknown operation " + operation + " in the write-ahead log: " + file);
+        }
+    }
+
+    private static <T> T readValue(ByteBuffer record, Serializer<T> serializer) {
+        int length = record.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        T value = serializer.read(record, record.position(), length);
+        record.position(record.position() + length);
+        return value;
+    }
+
+    /**
+     * Opens the log of the generation for appending, tests override it to inject a failing channel;
+     */
+    FileChannel openLog(long generation) throws IOException {
+        return FileChannel.open(logPath(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void deleteOlderThan(long generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long fileGeneration = Math.max(generationOf(name, LOG_PREFIX, LOG_SUFFIX),
+                        generationOf(name, CHECKPOINT_PREFIX, CHECKPOINT_SUFFIX));
+                if (fileGeneration >= 0 && fileGeneration < generation) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(LOG_PREFIX + generation + LOG_SUFFIX);
+    }
+
+    private Path checkpointPath(long generation) {
+        return directory.resolve(CHECKPOINT_PREFIX + generation + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * Returns the generation in the name of a log or a checkpoint, or -1 for other files;
+     */
+    private static long generationOf(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this) {
+            return map.toString();
+        }
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet, a copy of a key-value pair which writes a new value through to the map;
+     */
+    private final class SimpleEntry implements MyMap.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        SimpleEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package ru.aston.myhashmap;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This class is a MyHashMap whose entries expire after a time to live, the default one or one given per entry:
+ * <ul>
+ * <li>with expire-after-write the time to live starts when the value is written, with expire-after-access it starts anew
+ * on every read as well;</li>
+ * <li>expiration is lazy: a lookup of an expired key removes it and finds nothing;</li>
+ * <li>the other expired entries are removed by a hierarchical timer wheel, which is advanced by every operation
+ * and by cleanUp. Every node is linked into a bucket of the wheel covering its expiration time through the node hooks
+ * of MyHashMap: the buckets of the finest wheel span about a second, those of the coarser wheels a minute, an hour and a day.
+ * Advancing the wheel visits only the buckets whose time has passed; the nodes of a coarse bucket which are not yet due
+ * move down into the finer wheels. So the cleanup costs O(1) per expired entry instead of a scan of the whole map.</li>
+ * </ul>
+ * The time is read from the ticker, which tests can advance themselves. size and the views may still include entries
+ * which have expired within about a second and have not been removed yet, get, getOrDefault and containsKey never return them.
+ * put, putIfAbsent and the compute methods which write a value restart its time to live, replaceAll does not.
+ * Like MyHashMap, this class is not thread-safe, even get changes the wheel;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ * @see Ticker
+ */
+public class ExpiringMyHashMap<K, V> extends MyHashMap<K, V> {
+    /**
+     * These constants are the number of buckets of each wheel and the time span of a bucket of each wheel in nanoseconds:
+     * 2^30 is about a second, 2^36 a minute, 2^42 an hour and 2^47 a day, the last wheel is a single bucket of 2^49;
+     */
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final long[] SPANS = {1L << 30, 1L << 36, 1L << 42, 1L << 47, 1L << 49, 1L << 49};
+    private static final int[] SHIFTS = {30, 36, 42, 47, 49};
+    /**
+     * This constant is the longest time to live, about 146 years, longer ones are cut to it;
+     */
+    private static final long MAXIMUM_DURATION = 1L << 62;
+
+    private final long defaultDuration;
+    private final boolean expireAfterAccess;
+    private final Ticker ticker;
+    /**
+     * These are the sentinels of the buckets, each bucket is a circular list of the nodes linked by before and after;
+     */
+    private final LinkedNode<K, V>[][] wheel;
+    /**
+     * This is the sentinel of the list of the nodes taken out of the buckets which are being expired;
+     */
+    private final LinkedNode<K, V> expiring = sentinel();
+    /**
+     * This is the time the wheel has been advanced to, the current time of the running operation;
+     */
+    private long nanos;
+    /**
+     * This is the time to live given to put, 0 while the default one applies;
+     */
+    private long pendingDuration;
+    private long expirationCount;
+
+    /**
+     * This constructor creates a map whose entries expire after the given time, counted from the last write,
+     * or from the last read or write if expireAfterAccess is set, with the time read from the ticker;
+     *
+     * @param duration          the default time to live
+     * @param unit              the unit of the duration
+     * @param expireAfterAccess whether reading an entry restarts its time to live
+     * @param ticker            the source of time
+     */
+    @SuppressWarnings("unchecked")
+    public ExpiringMyHashMap(long duration, TimeUnit unit, boolean expireAfterAccess, Ticker ticker) {
+        this.defaultDuration = toNanos(duration, unit);
+        this.expireAfterAccess = expireAfterAccess;
+        this.ticker = Objects.requireNonNull(ticker);
+        this.nanos = ticker.read();
+        this.wheel = (LinkedNode<K, V>[][]) new LinkedNode[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = (LinkedNode<K, V>[]) new LinkedNode[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                wheel[i][j] = sentinel();
+            }
+        }
+    }
+
+    /**
+     * This constructor creates a map whose entries expire after the given time since they were written;
+     *
+     * @param duration the default time to live
+     * @param unit     the unit of the duration
+     */
+    public ExpiringMyHashMap(long duration, TimeUnit unit) {
+        this(duration, unit, false, Ticker.SYSTEM);
+    }
+
+    /**
+     * This method returns the value of the key, or null if there is no such key or it has expired;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V get(Object key) {
+        LinkedNode<K, V> node = liveNode(key);
+        if (node == null) {
+            return null;
+        }
+        if (expireAfterAccess) {
+            restart(node, durationOf(node));
+        }
+        return node.value;
+    }
+
+    /**
+     * This method returns the value of the key, or defaultValue if there is no such key or it has expired;
+     *
+     * @param key
+     * @param defaultValue
+     * @return V
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        LinkedNode<K, V> node = liveNode(key);
+        if (node == null) {
+            return defaultValue;
+        }
+        if (expireAfterAccess) {
+            restart(node, durationOf(node));
+        }
+        return node.value;
+    }
+
+    /**
+     * Checks whether the key is present and has not expired, it does not count as an access;
+     *
+     * @param key
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return liveNode(key) != null;
+    }
+
+    /**
+     * This method places the value with the default time to live, an expired previous value is not returned;
+     *
+     * @param key
+     * @param value
+     * @return the previous value or null
+     */
+    @Override
+    public V put(K key, V value) {
+        liveNode(key);
+        return super.put(key, value);
+    }
+
+    /**
+     * This method places the value with the given time to live, an expired previous value is not returned;
+     *
+     * @param key
+     * @param value
+     * @param duration the time to live of the entry
+     * @param unit     the unit of the duration
+     * @return the previous value or null
+     */
+    public V put(K key, V value, long duration, TimeUnit unit) {
+        long nanosToLive = toNanos(duration, unit);
+        liveNode(key);
+        pendingDuration = nanosToLive;
+        try {
+            return super.put(key, value);
+        } finally {
+            pendingDuration = 0;
+        }
+    }
+
+    /**
+     * This method places every pair of the given map with the default time to live. The wheel is advanced
+     * to the current time once before the batch, so the entries start their time to live now;
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        advance(ticker.read());
+        super.putAll(map);
+    }
+
+    /**
+     * This method places every pair of the given java.util.Map with the default time to live, see putAll(MyMap);
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(java.util.Map<? extends K, ? extends V> map) {
+        advance(ticker.read());
+        super.putAll(map);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        LinkedNode<K, V> node = liveNode(key);
+        if (node != null && node.value != null) {
+            if (expireAfterAccess) {
+                restart(node, durationOf(node));
+            }
+            return node.value;
+        }
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        LinkedNode<K, V> node = liveNode(key);
+        if (node != null && node.value != null) {
+            if (expireAfterAccess) {
+                restart(node, durationOf(node));
+            }
+            return node.value;
+        }
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        liveNode(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        liveNode(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        liveNode(key);
+        return super.merge(key, value, remappingFunction);
+    }
+
+    /**
+     * This method deletes the key and returns its value, or null if there is no such key or it has expired;
+     *
+     * @param key
+     * @return removed value
+     */
+    @Override
+    public V remove(Object key) {
+        return liveNode(key) == null ? null : super.remove(key);
+    }
+
+    /**
+     * This method deletes the given keys and returns the number of those which were present and had not expired,
+     * an expired one is counted as an expiration;
+     *
+     * @param keys
+     * @return int
+     */
+    @Override
+    public int removeAll(Iterable<?> keys) {
+        Objects.requireNonNull(keys);
+        advance(ticker.read());
+        int removed = 0;
+        for (Object key : keys) {
+            Node<K, V> node = removeNode(hashOf(key), key, true);
+            if (node == null) {
+                continue;
+            }
+            if (timeOf((LinkedNode<K, V>) node) - nanos > 0) {
+                removed++;
+            } else {
+                expirationCount++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Clears the map and the timer wheel;
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        for (LinkedNode<K, V>[] buckets : wheel) {
+            for (LinkedNode<K, V> sentinel : buckets) {
+                sentinel.before = sentinel.after = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Removes the entries which have expired by the current time of the ticker, as far as the buckets of the wheel
+     * which have passed reach: an entry is removed within about a second after it has expired;
+     */
+    public void cleanUp() {
+        advance(ticker.read());
+    }
+
+    /**
+     * Returns the number of entries removed because they expired;
+     *
+     * @return long
+     */
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        LinkedNode<K, V> node = new TimedNode<>(hash, key, value, next);
+        start(node);
+        return node;
+    }
+
+    @Override
+    Node<K, V> replacementNode(Node<K, V> p, Node<K, V> next) {
+        LinkedNode<K, V> node = new TimedNode<>(p.hash, p.key, p.value, next);
+        transferLinks((LinkedNode<K, V>) p, node);
+        return node;
+    }
+
+    @Override
+    TreeNode<K, V> newTreeNode(int hash, K key, V value, Node<K, V> next) {
+        TreeNode<K, V> node = new TimedTreeNode<>(hash, key, value, next);
+        start(node);
+        return node;
+    }
+
+    @Override
+    TreeNode<K, V> replacementTreeNode(Node<K, V> p, Node<K, V> next) {
+        TreeNode<K, V> node = new TimedTreeNode<>(p.hash, p.key, p.value, next);
+        transferLinks((LinkedNode<K, V>) p, node);
+        return node;
+    }
+
+    /**
+     * A write of an existing key restarts its time to live;
+     */
+    @Override
+    void afterNodeAccess(Node<K, V> p) {
+        restart((LinkedNode<K, V>) p, pendingDuration != 0 ? pendingDuration : defaultDuration);
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> p) {
+        unlink((LinkedNode<K, V>) p);
+    }
+
+    /**
+     * Advances the wheel to the current time and returns the node of the key, or null if there is none;
+     * an expired node is removed on the way;
+     */
+    private LinkedNode<K, V> liveNode(Object key) {
+        advance(ticker.read());
+        LinkedNode<K, V> node = (LinkedNode<K, V>) getNode(key);
+        if (node != null && timeOf(node) - nanos <= 0) {
+            expire(node);
+            return null;
+        }
+        return node;
+    }
+
+    private void start(LinkedNode<K, V> node) {
+        long duration = pendingDuration != 0 ? pendingDuration : defaultDuration;
+        setTime(node, nanos + duration, duration);
+        schedule(node);
+    }
+
+    private void restart(LinkedNode<K, V> node, long duration) {
+        setTime(node, nanos + duration, duration);
+        unlink(node);
+        schedule(node);
+    }
+
+    private void expire(LinkedNode<K, V> node) {
+        removeNode(node.hash, node.key, true);
+        expirationCount++;
+    }
+
+    /**
+     * Links the node into the bucket of the finest wheel whose buckets together still cover the remaining time;
+     */
+    private void schedule(LinkedNode<K, V> node) {
+        long remaining = timeOf(node) - nanos;
+        int i = 0;
+        while (i < BUCKETS.length - 1 && remaining >= SPANS[i + 1]) {
+            i++;
+        }
+        int index = (int) ((timeOf(node) >>> SHIFTS[i]) & (BUCKETS[i] - 1));
+        link(wheel[i][index], node);
+    }
+
+    /**
+     * Moves the time of the wheel forward. For every wheel whose tick has changed, the buckets between the previous
+     * and the current tick are emptied: their expired nodes are removed and the others are scheduled again,
+     * which moves them into finer wheels;
+     *
+     * @param currentTime the current time of the ticker
+     */
+    private void advance(long currentTime) {
+        long previous = nanos;
+        nanos = currentTime;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            long previousTicks = previous >>> SHIFTS[i];
+            long delta = (currentTime >>> SHIFTS[i]) - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+            LinkedNode<K, V>[] buckets = wheel[i];
+            int mask = buckets.length - 1;
+            int steps = (int) Math.min(1 + delta, buckets.length);
+            int start = (int) (previousTicks & mask);
+            for (int j = 0; j < steps; j++) {
+                expireBucket(buckets[(start + j) & mask]);
+            }
+        }
+    }
+
+    /**
+     * Moves the nodes of the bucket to the expiring list and processes them one by one from there, so that a node
+     * replaced while the previous one is removed from its tree bin is processed in place of the replaced one;
+     */
+    private void expireBucket(LinkedNode<K, V> sentinel) {
+        if (sentinel.after == sentinel) {
+            return;
+        }
+        expiring.after = sentinel.after;
+        expiring.before = sentinel.before;
+        expiring.after.before = expiring;
+        expiring.before.after = expiring;
+        sentinel.before = sentinel.after = sentinel;
+        LinkedNode<K, V> node;
+        while ((node = expiring.after) != expiring) {
+            unlink(node);
+            if (timeOf(node) - nanos <= 0) {
+                expire(node);
+            } else {
+                schedule(node);
+            }
+        }
+    }
+
+    private static <K, V> void link(LinkedNode<K, V> sentinel, LinkedNode<K, V> node) {
+        LinkedNode<K, V> last = sentinel.before;
+        node.before = last;
+        node.after = sentinel;
+        last.after = node;
+        sentinel.before = node;
+    }
+
+    private static <K, V> void unlink(LinkedNode<K, V> node) {
+        LinkedNode<K, V> b = node.before, a = node.after;
+        if (b != null) {
+            b.after = a;
+            a.before = b;
+            node.before = node.after = null;
+        }
+    }
+
+    /**
+     * Puts the node dst into the place of the node src in its bucket, dst replaces src in the table;
+     */
+    private static <K, V> void transferLinks(LinkedNode<K, V> src, LinkedNode<K, V> dst) {
+        setTime(dst, timeOf(src), durationOf(src));
+        LinkedNode<K, V> b = src.before, a = src.after;
+        if (b != null) {
+            dst.before = b;
+            dst.after = a;
+            b.after = dst;
+            a.before = dst;
+        }
+    }
+
+    /**
+     * Returns the expiration time of the node, which is a TimedNode in a chain and a TimedTreeNode in a tree bin;
+     */
+    private static long timeOf(LinkedNode<?, ?> node) {
+        return node instanceof TimedNode ? ((TimedNode<?, ?>) node).time : ((TimedTreeNode<?, ?>) node).time;
+    }
+
+    private static long durationOf(LinkedNode<?, ?> node) {
+        return node instanceof TimedNode ? ((TimedNode<?, ?>) node).duration : ((TimedTreeNode<?, ?>) node).duration;
+    }
+
+    private static void setTime(LinkedNode<?, ?> node, long time, long duration) {
+        if (node instanceof TimedNode) {
+            TimedNode<?, ?> timed = (TimedNode<?, ?>) node;
+            timed.time = time;
+            timed.duration = duration;
+        } else {
+            TimedTreeNode<?, ?> timed = (TimedTreeNode<?, ?>) node;
+            timed.time = time;
+            timed.duration = duration;
+        }
+    }
+
+    /**
+     * The sentinels of the buckets are plain LinkedNodes, they have no time;
+     */
+    private static <K, V> LinkedNode<K, V> sentinel() {
+        LinkedNode<K, V> sentinel = new LinkedNode<>(0, null, null, null);
+        sentinel.before = sentinel.after = sentinel;
+        return sentinel;
+    }
+
+    private static long toNanos(long duration, TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Illegal duration: " + duration);
+        }
+        return Math.min(unit.toNanos(duration), MAXIMUM_DURATION);
+    }
+
+    /**
+     * This is a node of a chain with its expiration time and the time to live it was given;
+     */
+    static final class TimedNode<K, V> extends LinkedNode<K, V> {
+        long time;
+        long duration;
+
+        TimedNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    /**
+     * This is a node of a tree bin with its expiration time and the time to live it was given;
+     */
+    static final class TimedTreeNode<K, V> extends TreeNode<K, V> {
+        long time;
+        long duration;
+
+        TimedTreeNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package ru.aston.myhashmap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * This class is an immutable map in a compact layout for data which never changes once it has been loaded.
+ * There are no nodes: the key-value pairs are packed bucket after bucket into one array of keys and values,
+ * with their hashes in a parallel array, and the bucket i spans the positions offsets[i] to offsets[i + 1]:
+ * <ul>
+ * <li>every position of the packed arrays is occupied, the only slack is one int per bucket, so a pair costs
+ * 16-20 bytes (with compressed references) instead of the node and the free buckets of MyHashMap;</li>
+ * <li>there are at least as many buckets as pairs, so most buckets hold a single pair and the lookup loop
+ * is as predictable as the chains of MyHashMap. A lookup reads two neighbouring offsets, then the hashes of the bucket,
+ * and reads the key and then the value, which share a cache line, only if a hash matches;</li>
+ * <li>iteration walks the packed arrays from the beginning to the end and allocates nothing but the entries.</li>
+ * </ul>
+ * The map is created by MyHashMap.freeze() or copyOf, it takes over the hashing strategy of a MyHashMap.
+ * Null keys and values are allowed, every method which would modify the map throws UnsupportedOperationException.
+ * The map is safe to share between threads;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public final class FrozenMyHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a maximum number of buckets
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The first and the last position of every bucket in the packed arrays, offsets[i] to offsets[i + 1];
+     */
+    private final int[] offsets;
+    /**
+     * The hashes of the pairs, in the order of the pairs;
+     */
+    private final int[] hashes;
+    /**
+     * The key of the pair j is at 2 * j, its value at 2 * j + 1;
+     */
+    private final Object[] entries;
+    private final int mask;
+    /**
+     * This is the hashing strategy of the keys, null if the keys' own hashCode() and equals() are used;
+     */
+    private final HashingStrategy<Object> strategy;
+
+    /**
+     * Creates the arrays for the given number of pairs with the smallest power of two not below it as the number
+     * of buckets;
+     */
+    private FrozenMyHashMap(int count, HashingStrategy<Object> strategy) {
+        int n = count <= 1 ? 1 : Math.min(Integer.highestOneBit(count - 1) << 1, MAXIMUM_CAPACITY);
+        this.offsets = new int[n + 1];
+        this.hashes = new int[count];
+        this.entries = new Object[count * 2];
+        this.mask = n - 1;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Creates a frozen copy of the map, the hashes of the nodes are taken as they are;
+     */
+    FrozenMyHashMap(MyHashMap<K, V> map) {
+        this(map.size(), map.hashingStrategy());
+        for (MyMap.Entry<K, V> entry : map.entrySet()) {
+            offsets[((MyHashMap.Node<K, V>) entry).hash & mask]++;
+        }
+        startPlacement();
+        for (MyMap.Entry<K, V> entry : map.entrySet()) {
+            MyHashMap.Node<K, V> node = (MyHashMap.Node<K, V>) entry;
+            place(node.hash, node.key, node.value);
+        }
+        finishPlacement();
+    }
+
+    /**
+     * Returns an immutable copy of the map. A MyHashMap is frozen with its hashing strategy, see MyHashMap.freeze(),
+     * a FrozenMyHashMap is returned as it is;
+     *
+     * @param map
+     * @return FrozenMyHashMap<K, V>
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> FrozenMyHashMap<K, V> copyOf(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        if (map instanceof FrozenMyHashMap) {
+            return (FrozenMyHashMap<K, V>) map;
+        }
+        if (map instanceof MyHashMap) {
+            return new FrozenMyHashMap<>((MyHashMap<K, V>) map);
+        }
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[keys.length];
+        int count = 0;
+        for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2 + 1);
+                values = Arrays.copyOf(values, keys.length);
+            }
+            keys[count] = entry.getKey();
+            values[count++] = entry.getValue();
+        }
+        FrozenMyHashMap<K, V> frozen = new FrozenMyHashMap<>(count, null);
+        int[] h = new int[count];
+        for (int i = 0; i < count; i++) {
+            h[i] = MyHashMap.hash(keys[i]);
+            frozen.offsets[h[i] & frozen.mask]++;
+        }
+        frozen.startPlacement();
+        for (int i = 0; i < count; i++) {
+            frozen.place(h[i], keys[i], values[i]);
+        }
+        frozen.finishPlacement();
+        return frozen;
+    }
+
+    /**
+     * Turns the numbers of pairs of the buckets, counted in offsets, into the first position of every bucket;
+     */
+    private void startPlacement() {
+        int position = 0;
+        for (int i = 0; i <= mask; i++) {
+            int count = offsets[i];
+            offsets[i] = position;
+            position += count;
+        }
+    }
+
+    /**
+     * Puts the pair at the next free position of its bucket, offsets[i] is moved to the position after it;
+     */
+    private void place(int h, Object key, Object value) {
+        int j = offsets[h & mask]++;
+        hashes[j] = h;
+        entries[2 * j] = key;
+        entries[2 * j + 1] = value;
+    }
+
+    /**
+     * Every offsets[i] holds the end of the bucket i after the placement, which is the start of the bucket i + 1;
+     */
+    private void finishPlacement() {
+        System.arraycopy(offsets, 0, offsets, 1, mask + 1);
+        offsets[0] = 0;
+    }
+
+    /**
+     * Returns the position of the pair of the key in the packed arrays, or -1 if there is no such key;
+     */
+    private int indexOf(Object key) {
+        int h = hashOf(key);
+        int i = h & mask;
+        int[] hs = hashes;
+        Object[] es = entries;
+        for (int j = offsets[i], end = offsets[i + 1]; j < end; j++) {
+            Object k;
+            if (hs[j] == h && ((k = es[2 * j]) == key || keyEquals(key, k))) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the hash of the key as MyHashMap.hashOf does for the same hashing strategy;
+     */
+    private int hashOf(Object key) {
+        HashingStrategy<Object> s = this.strategy;
+        if (s == null || key == null) {
+            return MyHashMap.hash(key);
+        }
+        int h = s.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private boolean keyEquals(Object key, Object other) {
+        if (key == null || other == null) {
+            return false;
+        }
+        HashingStrategy<Object> s = this.strategy;
+        return s == null ? key.equals(other) : s.equals(key, other);
+    }
+
+    /**
+     * This method returns the value corresponding to the key or null if there is no such key;
+     *
+     * @param key
+     * @return
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int j = indexOf(key);
+        return j < 0 ? null : (V) entries[2 * j + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int j = indexOf(key);
+        return j < 0 ? defaultValue : (V) entries[2 * j + 1];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int j = 1; j < entries.length; j += 2) {
+            if (Objects.equals(value, entries[j])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in the map, with their values;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new MyHashMap<>());
+    }
+
+    @Override
+    public int size() {
+        return hashes.length;
+    }
+
+    /**
+     * Calls the action for every key-value pair in the order of the packed arrays, it allocates nothing;
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Object[] es = entries;
+        for (int j = 0; j < es.length; j += 2) {
+            action.accept((K) es[j], (V) es[j + 1]);
+        }
+    }
+
+    /**
+     * Returns an immutable set of the key-value pairs;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return hashes.length;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof MyMap.Entry)) {
+                    return false;
+                }
+                MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+                int j = indexOf(entry.getKey());
+                return j >= 0 && Objects.equals(entries[2 * j + 1], entry.getValue());
+            }
+
+            @Override
+            public Iterator<MyMap.Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < hashes.length;
+                    }
+
+                    @Override
+                    public MyMap.Entry<K, V> next() {
+                        if (next >= hashes.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return new FrozenEntry<>(FrozenMyHashMap.this, next++);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw immutable();
+    }
+
+    @Override
+    public void clear() {
+        throw immutable();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        throw immutable();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        throw immutable();
+    }
+
+    @Override
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        throw immutable();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        throw immutable();
+    }
+
+    @Override
+    public int removeAll(Iterable<?> keys) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("FrozenMyHashMap is immutable");
+    }
+
+    /**
+     * Returns the number of buckets;
+     */
+    int bucketCount() {
+        return mask + 1;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("FrozenMyHashMap{");
+        forEach((key, value) -> sb.append("[Key:" + key + " /Value: " + value + "],"));
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet, the position of a pair in the packed arrays;
+     */
+    private static final class FrozenEntry<K, V> implements MyMap.Entry<K, V> {
+        private final FrozenMyHashMap<K, V> map;
+        private final int index;
+
+        FrozenEntry(FrozenMyHashMap<K, V> map, int index) {
+            this.map = map;
+            this.index = index;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey() {
+            return (K) map.entries[2 * index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V) map.entries[2 * index + 1];
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            throw immutable();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.aston.myhashmap;
+
+import java.util.Arrays;
+
+/**
+ * This interface supplies the hash codes and the equality of the keys of a MyHashMap instead of hashCode() and equals()
+ * of the keys themselves. It makes maps of keys compared by identity, of case-insensitive strings or of arrays compared
+ * by content without wrapping the keys, and seededStrings() protects a map of strings from external input against
+ * keys chosen to collide. The map never passes null to the strategy, the null key is handled by the map itself;
+ *
+ * @param <K> is the type of keys
+ * @see MyHashMap#MyHashMap(HashingStrategy)
+ */
+public interface HashingStrategy<K> {
+    /**
+     * Returns the hash code of the key, equal keys must have equal hash codes;
+     *
+     * @param key not null
+     * @return int
+     */
+    int hashCode(K key);
+
+    /**
+     * Returns whether the keys are equal;
+     *
+     * @param a not null
+     * @param b not null
+     * @return boolean
+     */
+    boolean equals(K a, K b);
+
+    /**
+     * Returns the strategy comparing the keys by reference and hashing them by System.identityHashCode;
+     *
+     * @return HashingStrategy<K>
+     */
+    static <K> HashingStrategy<K> identity() {
+        return new HashingStrategy<>() {
+            @Override
+            public int hashCode(K key) {
+                return System.identityHashCode(key);
+            }
+
+            @Override
+            public boolean equals(K a, K b) {
+                return a == b;
+            }
+        };
+    }
+
+    /**
+     * Returns the strategy comparing strings by String.equalsIgnoreCase;
+     *
+     * @return HashingStrategy<String>
+     */
+    static HashingStrategy<String> caseInsensitive() {
+        return new HashingStrategy<>() {
+            @Override
+            public int hashCode(String key) {
+                int h = 0;
+                for (int i = 0; i < key.length(); ) {
+                    /*
+                     *equalsIgnoreCase compares the upper case and then the lower case of the upper case of every code point,
+                     *so a surrogate pair is folded as one character
+                     */
+                    int codePoint = key.codePointAt(i);
+                    h = 31 * h + Character.toLowerCase(Character.toUpperCase(codePoint));
+                    i += Character.charCount(codePoint);
+                }
+                return h;
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+    }
+
+    /**
+     * Returns the strategy comparing byte arrays by content;
+     *
+     * @return HashingStrategy<byte[]>
+     */
+    static HashingStrategy<byte[]> byteArrays() {
+        return new HashingStrategy<>() {
+            @Override
+            public int hashCode(byte[] key) {
+                return Arrays.hashCode(key);
+            }
+
+            @Override
+            public boolean equals(byte[] a, byte[] b) {
+                return Arrays.equals(a, b);
+            }
+        };
+    }
+
+    /**
+     * Returns the strategy comparing char arrays by content;
+     *
+     * @return HashingStrategy<char[]>
+     */
+    static HashingStrategy<char[]> charArrays() {
+        return new HashingStrategy<>() {
+            @Override
+            public int hashCode(char[] key) {
+                return Arrays.hashCode(key);
+            }
+
+            @Override
+            public boolean equals(char[] a, char[] b) {
+                return Arrays.equals(a, b);
+            }
+        };
+    }
+
+    /**
+     * Returns a strategy hashing strings by SipHash-2-4 with a random secret seed drawn for every call,
+     * so every map gets its own seed. Unlike String.hashCode(), colliding keys cannot be computed without the seed,
+     * which protects the latency of a map filled from external input against hash flooding.
+     * The hash is not cached by the string, it costs a pass over the chars on every lookup;
+     *
+     * @return HashingStrategy<String>
+     */
+    static HashingStrategy<String> seededStrings() {
+        return SipHashStrategy.randomlySeeded();
+    }
+
+    /**
+     * Returns a strategy hashing strings by SipHash-2-4 with the given 128-bit seed, see seededStrings();
+     *
+     * @param k0 the low half of the seed
+     * @param k1 the high half of the seed
+     * @return HashingStrategy<String>
+     */
+    static HashingStrategy<String> seededStrings(long k0, long k1) {
+        return new SipHashStrategy(k0, k1);
+    }
+}
@@ -0,0 +1,372 @@
+package ru.aston.myhashmap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+
+/**
+ * This class is a MyHashMap which records statistics of its hot paths: the probe lengths of get and put,
+ * the hits and misses of lookups and the number and duration of the resizes. Together with the distribution
+ * of the bucket sizes, computed when a snapshot is taken, they are returned by stats() and exposed through JMX
+ * by registerMBean. A plain MyHashMap records nothing and pays nothing: the statistics are switched on by creating
+ * this class instead, which measures a probe by walking the bucket once more. put, putIfAbsent and putAll count
+ * as puts, every pair of putAll with the probe length it has before the batch; the compute and merge methods
+ * are not counted;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ * @see MyHashMapStats
+ */
+public class InstrumentedMyHashMap<K, V> extends MyHashMap<K, V> {
+    private long hitCount;
+    private long missCount;
+    private long getProbes;
+    private int maxGetProbeLength;
+    private long putCount;
+    private long putProbes;
+    private int maxPutProbeLength;
+    private long resizeCount;
+    private long resizeNanos;
+    private long maxResizeNanos;
+
+    /**
+     * This constructor creates an instrumented map with the given initial capacity, load factor
+     * and whether the table is resized incrementally, see MyHashMap;
+     *
+     * @param initialCapacity
+     * @param loadFactor
+     * @param incrementalResize
+     */
+    public InstrumentedMyHashMap(int initialCapacity, float loadFactor, boolean incrementalResize) {
+        super(initialCapacity, loadFactor, incrementalResize);
+    }
+
+    /**
+     * This constructor creates an instrumented map with the given initial capacity and load factor;
+     *
+     * @param initialCapacity
+     * @param loadFactor
+     */
+    public InstrumentedMyHashMap(int initialCapacity, float loadFactor) {
+        super(initialCapacity, loadFactor);
+    }
+
+    /**
+     * This constructor creates an instrumented map with the given initial capacity and the default load factor;
+     *
+     * @param initialCapacity
+     */
+    public InstrumentedMyHashMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * This constructor creates an instrumented map with the default load factor and without a table;
+     */
+    public InstrumentedMyHashMap() {
+        super();
+    }
+
+    /**
+     * This method returns the value of the key and records the lookup;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V get(Object key) {
+        int probes = probeLength(key);
+        Node<K, V> node = getNode(key);
+        recordGet(probes, node != null);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * This method returns the value of the key or defaultValue if there is no such key, and records the lookup;
+     *
+     * @param key
+     * @param defaultValue
+     * @return V
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int probes = probeLength(key);
+        Node<K, V> node = getNode(key);
+        recordGet(probes, node != null);
+        return node == null ? defaultValue : node.value;
+    }
+
+    /**
+     * This method checks whether the key is present and records the lookup;
+     *
+     * @param key
+     * @return boolean
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        int probes = probeLength(key);
+        boolean found = getNode(key) != null;
+        recordGet(probes, found);
+        return found;
+    }
+
+    /**
+     * This method places the value and records the probe length of the put;
+     *
+     * @param key
+     * @param value
+     * @return the previous value or null
+     */
+    @Override
+    public V put(K key, V value) {
+        recordPut(probeLength(key));
+        return super.put(key, value);
+    }
+
+    /**
+     * This method places the value if the key is absent and records the probe length of the put;
+     *
+     * @param key
+     * @param value
+     * @return the current value or null
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        recordPut(probeLength(key));
+        return super.putIfAbsent(key, value);
+    }
+
+    /**
+     * This method places every pair of the given map and records the probe length of each one;
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            recordPut(probeLength(entry.getKey()));
+        }
+        super.putAll(map);
+    }
+
+    /**
+     * This method places every pair of the given java.util.Map and records the probe length of each one;
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(java.util.Map<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        for (K key : map.keySet()) {
+            recordPut(probeLength(key));
+        }
+        super.putAll(map);
+    }
+
+    /**
+     * Returns a snapshot of the statistics, the distribution of the bucket sizes is computed by a scan of the table;
+     *
+     * @return MyHashMapStats
+     */
+    public MyHashMapStats stats() {
+        return new MyHashMapStats(size(), capacity(), threshold(), loadFactor(), bucketSizeHistogram(), treeBinCount(),
+                hitCount, missCount, getProbes, maxGetProbeLength, putCount, putProbes, maxPutProbeLength,
+                resizeCount, resizeNanos, maxResizeNanos);
+    }
+
+    /**
+     * Resets the counters of lookups, puts and resizes;
+     */
+    public void resetStats() {
+        hitCount = 0;
+        missCount = 0;
+        getProbes = 0;
+        maxGetProbeLength = 0;
+        putCount = 0;
+        putProbes = 0;
+        maxPutProbeLength = 0;
+        resizeCount = 0;
+        resizeNanos = 0;
+        maxResizeNanos = 0;
+    }
+
+    /**
+     * Registers the statistics of this map in the platform MBean server under the name
+     * "ru.aston.myhashmap:type=InstrumentedMyHashMap,name=" followed by the given name and returns the object name.
+     * The map is not thread-safe, so the attributes read from a JMX thread are approximate;
+     *
+     * @param name the name distinguishing this map
+     * @return ObjectName
+     * @throws JMException if the name is malformed or already registered
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("ru.aston.myhashmap:type=InstrumentedMyHashMap,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new StatsMXBean(), objectName);
+        return objectName;
+    }
+
+    @Override
+    long beforeResize() {
+        return System.nanoTime();
+    }
+
+    @Override
+    void afterResize(long started, int oldCapacity, int newCapacity) {
+        long elapsed = System.nanoTime() - started;
+        resizeCount++;
+        resizeNanos += elapsed;
+        if (elapsed > maxResizeNanos) {
+            maxResizeNanos = elapsed;
+        }
+    }
+
+    private void recordGet(int probes, boolean found) {
+        if (found) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        getProbes += probes;
+        if (probes > maxGetProbeLength) {
+            maxGetProbeLength = probes;
+        }
+    }
+
+    private void recordPut(int probes) {
+        putCount++;
+        putProbes += probes;
+        if (probes > maxPutProbeLength) {
+            maxPutProbeLength = probes;
+        }
+    }
+
+    /**
+     * This class is the MXBean of the map: the counters are read directly, every bucket attribute scans the table once.
+     * The scan runs on the JMX thread without any lock, so it is best-effort: it may see the table in the middle
+     * of a put or a resize, and a scan which fails then reports no buckets rather than an exception;
+     */
+    private final class StatsMXBean implements MyHashMapStatsMXBean {
+        @Override
+        public int getSize() {
+            return size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return capacity();
+        }
+
+        @Override
+        public int getThreshold() {
+            return threshold();
+        }
+
+        @Override
+        public double getOccupancy() {
+            int threshold = threshold();
+            return threshold == 0 ? 0.0 : (double) size() / threshold;
+        }
+
+        @Override
+        public long[] getBucketSizes() {
+            return bucketSizes();
+        }
+
+        @Override
+        public long getCollidingBuckets() {
+            long[] bucketSizes = bucketSizes();
+            long count = 0;
+            for (int i = 2; i < bucketSizes.length; i++) {
+                count += bucketSizes[i];
+            }
+            return count;
+        }
+
+        @Override
+        public int getMaxBucketSize() {
+            return Math.max(bucketSizes().length - 1, 0);
+        }
+
+        @Override
+        public int getTreeBinCount() {
+            try {
+                return treeBinCount();
+            } catch (RuntimeException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        @Override
+        public long getMissCount() {
+            return missCount;
+        }
+
+        @Override
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public double getAverageGetProbeLength() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 0.0 : (double) getProbes / requests;
+        }
+
+        @Override
+        public int getMaxGetProbeLength() {
+            return maxGetProbeLength;
+        }
+
+        @Override
+        public long getPutCount() {
+            return putCount;
+        }
+
+        @Override
+        public double getAveragePutProbeLength() {
+            return putCount == 0 ? 0.0 : (double) putProbes / putCount;
+        }
+
+        @Override
+        public int getMaxPutProbeLength() {
+            return maxPutProbeLength;
+        }
+
+        @Override
+        public long getResizeCount() {
+            return resizeCount;
+        }
+
+        @Override
+        public long getResizeNanos() {
+            return resizeNanos;
+        }
+
+        @Override
+        public long getMaxResizeNanos() {
+            return maxResizeNanos;
+        }
+
+        @Override
+        public void resetStats() {
+            InstrumentedMyHashMap.this.resetStats();
+        }
+
+        private long[] bucketSizes() {
+            try {
+                return bucketSizeHistogram();
+            } catch (RuntimeException e) {
+                return new long[0];
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package ru.aston.myhashmap;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a hash table specialized for int keys and int values: both are kept in plain int arrays with open addressing
+ * (linear probing and backward-shift deletion, as in MyOpenHashMap), so the primitive methods get(int), put(int, int)
+ * and remove(int) neither box nor allocate. Absence of a key is reported by the "no value" sentinel given to the constructor.
+ * The methods of MyMap are supported as well, they box their arguments and results;
+ *
+ * @see MyOpenHashMap
+ */
+public class IntIntMyHashMap implements MyMap<Integer, Integer> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible capacity
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This constant is a default load factor;
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * These are the keys, 0 marks a free slot, so the key 0 itself is kept in the zeroKey fields;
+     */
+    private int[] keys;
+    /**
+     * These are the values, stored at the same index as their keys;
+     */
+    private int[] values;
+    private boolean containsZeroKey;
+    private int zeroKeyValue;
+    private int mask;
+    private int threshold;
+    private final float loadFactor;
+    /**
+     * This is the value returned by the primitive methods when there is no such key;
+     */
+    private final int noValue;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     * @param loadFactor      must be less than 1
+     * @param noValue         the value returned by get(int), put(int, int) and remove(int) for an absent key
+     */
+    public IntIntMyHashMap(int initialCapacity, float loadFactor, int noValue) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " +
+                    loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.noValue = noValue;
+        allocate(capacityFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor and the given "no value" sentinel.
+     *
+     * @param noValue
+     */
+    public IntIntMyHashMap(int noValue) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, noValue);
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor, 0 is returned for absent keys.
+     */
+    public IntIntMyHashMap() {
+        this(0);
+    }
+
+    /**
+     * Returns the "no value" sentinel of this map;
+     *
+     * @return int
+     */
+    public int noValue() {
+        return noValue;
+    }
+
+    /**
+     * Returns the value of the key or the "no value" sentinel if there is no such key;
+     *
+     * @param key
+     * @return int
+     */
+    public int get(int key) {
+        if (key == 0) {
+            return containsZeroKey ? zeroKeyValue : noValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? noValue : values[slot];
+    }
+
+    /**
+     * Places the value of the key and returns the replaced value or the "no value" sentinel if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return int
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int oldValue = containsZeroKey ? zeroKeyValue : noValue;
+            if (!containsZeroKey) {
+                containsZeroKey = true;
+                size++;
+            }
+            zeroKeyValue = value;
+            return oldValue;
+        }
+        int[] ks = this.keys;
+        int m = this.mask;
+        int slot = index(key, m);
+        int current;
+        while ((current = ks[slot]) != 0) {
+            if (current == key) {
+                int oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & m;
+        }
+        ks[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
+        return noValue;
+    }
+
+    /**
+     * Deletes the key and returns its value or the "no value" sentinel if there was no such key;
+     *
+     * @param key
+     * @return int
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!containsZeroKey) {
+                return noValue;
+            }
+            containsZeroKey = false;
+            size--;
+            return zeroKeyValue;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return noValue;
+        }
+        int oldValue = values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? containsZeroKey : find(key) >= 0;
+    }
+
+    @Override
+    public Integer get(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int k = (Integer) key;
+        return containsKey(k) ? get(k) : null;
+    }
+
+    @Override
+    public Integer put(Integer key, Integer value) {
+        int k = key;
+        boolean existed = containsKey(k);
+        int oldValue = put(k, value.intValue());
+        return existed ? oldValue : null;
+    }
+
+    @Override
+    public Integer remove(Object key) {
+        if (!(key instanceof Integer)) {
+            return null;
+        }
+        int k = (Integer) key;
+        return containsKey(k) ? remove(k) : null;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = 0;
+            }
+            containsZeroKey = false;
+            size = 0;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (!(value instanceof Integer)) {
+            return false;
+        }
+        int v = (Integer) value;
+        if (containsZeroKey && zeroKeyValue == v) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && values[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new IntIntMyHashMap with the same "no value" of those of the given keys which are present in the map;
+     */
+    @Override
+    public MyMap<Integer, Integer> getAll(Iterable<? extends Integer> keys) {
+        return getAll(keys, new IntIntMyHashMap(noValue));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a set of boxed copies of the key-value pairs, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<Integer, Integer>> entrySet() {
+        Set<MyMap.Entry<Integer, Integer>> entries = new HashSet<>();
+        if (containsZeroKey) {
+            entries.add(new BoxedEntry(0, zeroKeyValue));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                entries.add(new BoxedEntry(keys[i], values[i]));
+            }
+        }
+        return entries;
+    }
+
+    private int find(int key) {
+        int[] ks = this.keys;
+        int m = this.mask;
+        int slot = index(key, m);
+        int current;
+        while ((current = ks[slot]) != 0) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & m;
+        }
+        return -1;
+    }
+
+    /**
+     * Frees the given slot moving back the following entries of the cluster, see MyOpenHashMap;
+     *
+     * @param slot
+     */
+    private void shiftBack(int slot) {
+        int[] ks = this.keys;
+        int[] vs = this.values;
+        int m = this.mask;
+        int free = slot;
+        int current = (free + 1) & m;
+        int key;
+        while ((key = ks[current]) != 0) {
+            int home = index(key, m);
+            boolean movable = (free <= current)
+                    ? (home <= free || home > current)
+                    : (home <= free && home > current);
+            if (movable) {
+                ks[free] = key;
+                vs[free] = vs[current];
+                free = current;
+            }
+            current = (current + 1) & m;
+        }
+        ks[free] = 0;
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("The map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        int[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        allocate(newCapacity);
+        int[] ks = this.keys;
+        int m = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = index(key, m);
+                while (ks[slot] != 0) {
+                    slot = (slot + 1) & m;
+                }
+                ks[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Calculates the home slot of the key, mixing it by the golden ratio as MyOpenHashMap does;
+     */
+    private static int index(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IntIntMyHashMap{");
+        if (containsZeroKey) {
+            sb.append("[Key:0 /Value: " + zeroKeyValue + "],");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                sb.append("[Key:" + keys[i] + " /Value: " + values[i] + "],");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet;
+     */
+    private final class BoxedEntry implements MyMap.Entry<Integer, Integer> {
+        private final int key;
+        private int value;
+
+        BoxedEntry(int key, int value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Integer getValue() {
+            return value;
+        }
+
+        @Override
+        public Integer setValue(Integer newValue) {
+            int oldValue = value;
+            value = newValue;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key ^ value;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package ru.aston.myhashmap;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a hash table specialized for long keys: the keys are kept in a plain long array next to an array of values
+ * with open addressing (linear probing and backward-shift deletion, as in MyOpenHashMap), so the primitive methods
+ * get(long), put(long, V) and remove(long) neither box the key nor allocate. The methods of MyMap are supported as well;
+ *
+ * @param <V> is the type of mapped values
+ * @see MyOpenHashMap
+ */
+public class LongObjMyHashMap<V> implements MyMap<Long, V> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible capacity
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This constant is a default load factor;
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * These are the keys, 0 marks a free slot, so the key 0 itself is kept in the zeroKey fields;
+     */
+    private long[] keys;
+    /**
+     * These are the values, stored at the same index as their keys;
+     */
+    private Object[] values;
+    private boolean containsZeroKey;
+    private V zeroKeyValue;
+    private int mask;
+    private int threshold;
+    private final float loadFactor;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     * @param loadFactor      must be less than 1
+     */
+    public LongObjMyHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " +
+                    loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor.
+     */
+    public LongObjMyHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the value of the key or null if there is no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroKeyValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Places the value of the key and returns the replaced value or null if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            V oldValue = zeroKeyValue;
+            if (!containsZeroKey) {
+                containsZeroKey = true;
+                size++;
+            }
+            zeroKeyValue = value;
+            return oldValue;
+        }
+        long[] ks = this.keys;
+        int m = this.mask;
+        int slot = index(key, m);
+        long current;
+        while ((current = ks[slot]) != 0) {
+            if (current == key) {
+                V oldValue = (V) values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & m;
+        }
+        ks[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the key and returns its value or null if there was no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V oldValue = zeroKeyValue;
+            if (containsZeroKey) {
+                containsZeroKey = false;
+                zeroKeyValue = null;
+                size--;
+            }
+            return oldValue;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = (V) values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? containsZeroKey : find(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Long ? get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public V put(Long key, V value) {
+        return put(key.longValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Long ? remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = 0;
+                values[i] = null;
+            }
+            containsZeroKey = false;
+            zeroKeyValue = null;
+            size = 0;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long && containsKey(((Long) key).longValue());
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (containsZeroKey && Objects.equals(zeroKeyValue, value)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new LongObjMyHashMap of those of the given keys which are present in the map, with their values;
+     */
+    @Override
+    public MyMap<Long, V> getAll(Iterable<? extends Long> keys) {
+        return getAll(keys, new LongObjMyHashMap<>());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a set of copies of the key-value pairs with boxed keys, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<MyMap.Entry<Long, V>> entrySet() {
+        Set<MyMap.Entry<Long, V>> entries = new HashSet<>();
+        if (containsZeroKey) {
+            entries.add(new BoxedEntry(0, zeroKeyValue));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                entries.add(new BoxedEntry(keys[i], (V) values[i]));
+            }
+        }
+        return entries;
+    }
+
+    private int find(long key) {
+        long[] ks = this.keys;
+        int m = this.mask;
+        int slot = index(key, m);
+        long current;
+        while ((current = ks[slot]) != 0) {
+            if (current == key) {
+                return slot;
+            }
+            slot = (slot + 1) & m;
+        }
+        return -1;
+    }
+
+    /**
+     * Frees the given slot moving back the following entries of the cluster, see MyOpenHashMap;
+     *
+     * @param slot
+     */
+    private void shiftBack(int slot) {
+        long[] ks = this.keys;
+        Object[] vs = this.values;
+        int m = this.mask;
+        int free = slot;
+        int current = (free + 1) & m;
+        long key;
+        while ((key = ks[current]) != 0) {
+            int home = index(key, m);
+            boolean movable = (free <= current)
+                    ? (home <= free || home > current)
+                    : (home <= free && home > current);
+            if (movable) {
+                ks[free] = key;
+                vs[free] = vs[current];
+                free = current;
+            }
+            current = (current + 1) & m;
+        }
+        ks[free] = 0;
+        vs[free] = null;
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("The map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        allocate(newCapacity);
+        long[] ks = this.keys;
+        int m = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0) {
+                int slot = index(key, m);
+                while (ks[slot] != 0) {
+                    slot = (slot + 1) & m;
+                }
+                ks[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Calculates the home slot of the key: folds the high half into the low one and mixes it by the golden ratio;
+     */
+    private static int index(long key, int mask) {
+        int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LongObjMyHashMap{");
+        if (containsZeroKey) {
+            sb.append("[Key:0 /Value: " + zeroKeyValue + "],");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                sb.append("[Key:" + keys[i] + " /Value: " + values[i] + "],");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet;
+     */
+    private final class BoxedEntry implements MyMap.Entry<Long, V> {
+        private final long key;
+        private V value;
+
+        BoxedEntry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Long getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(getKey(), entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key) ^ Objects.hashCode(value);
+        }
+    }
+}
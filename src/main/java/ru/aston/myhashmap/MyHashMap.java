@@ -1,9 +1,22 @@
 package ru.aston.myhashmap;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * This class is a tutorial project and represents my implementation of hash table,
@@ -19,13 +32,36 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
      */
     private static final int DEFAULT_CAPACITY = 16;
     /**
-     * This constant is a maximum possible hash table capacity
+     * This constant is a maximum possible hash table capacity, the largest power of two an int array can be indexed by;
+     * a map with more pairs keeps growing its chains, see ShardedMyHashMap for maps which outgrow one table
      */
-    private static final int MAXIMUM_CAPACITY = 1_073_741_823;
+    static final int MAXIMUM_CAPACITY = 1 << 30;
     /**
      * This constant is a default load factor;y
      */
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * This constant is the number of buckets which every put or remove migrates from the old table into the new one
+     * while an incremental resize is in progress;
+     */
+    private static final int TRANSFER_STEP = 16;
+    /**
+     * This constant is the chain length at which a bucket is converted into a tree bin;
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+    /**
+     * This constant is the number of nodes at which a tree bin is converted back into a chain when the table is resized;
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+    /**
+     * This constant is the smallest table capacity for which buckets are treeified,
+     * a smaller table is resized instead, since long chains there are caused by the table size rather than by collisions;
+     */
+    static final int MIN_TREEIFY_CAPACITY = 64;
+    /**
+     * This constant is the size from which containsValue scans the table in parallel in the common fork-join pool;
+     */
+    static final int PARALLEL_SCAN_THRESHOLD = 1 << 16;
     /**
      * the limit on the number of elements, upon reaching which the size of the hash table doubles.
      * Calculated using the formula (capacity * loadFactor);
@@ -47,6 +83,48 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
      * It's just a number of key-value pairs
      */
     private int size;
+    /**
+     * Determines whether the table grows incrementally: instead of moving all nodes at once when the threshold is crossed,
+     * the old table is kept next to the new one and its buckets are migrated a few at a time by subsequent puts and removes,
+     * so that no single operation pays for the whole table;
+     */
+    private final boolean incrementalResize;
+    /**
+     * Determines whether the table is halved when removals leave fewer pairs than a quarter of the threshold,
+     * so that a map which has grown for a peak gives the memory back once it is drained.
+     * The halved table is still less than half full, so a put right after a shrink never doubles it again;
+     */
+    private final boolean shrinkOnRemove;
+    /**
+     * This is the capacity below which the table is never shrunk by shrinkOnRemove or clear:
+     * the initial capacity of the map, but at least DEFAULT_CAPACITY;
+     */
+    private final int minimumCapacity;
+    /**
+     * This is the strategy which hashes and compares the keys instead of their hashCode() and equals(),
+     * null for a map using the keys' own methods, which is checked first so that such a map pays almost nothing for it;
+     */
+    private final HashingStrategy<Object> strategy;
+    /**
+     * This is the table which is being migrated into the table field while an incremental resize is in progress, otherwise null.
+     * Migrated buckets of the old table are set to null, so every node lives in exactly one of the two tables;
+     */
+    private Node<K, V>[] oldTable;
+    /**
+     * This is the index of the next bucket of the old table to be migrated;
+     */
+    private int transferIndex;
+    /**
+     * This is the number of structural modifications: insertions, removals, clearing and migrations of buckets
+     * between the tables. Iterators compare it with the value they saw to fail fast on a concurrent modification;
+     */
+    private int modCount;
+    /**
+     * These are the views returned by entrySet, keySet and values, created on the first call;
+     */
+    private Set<MyMap.Entry<K, V>> entrySet;
+    private Set<K> keySet;
+    private Collection<V> values;
 
     /**
      * This is a nested Node class describing our key-value pair
@@ -112,23 +190,674 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
             return oldValue;
         }
         /**
-         * An overridden method returns hashcode of an object of this class;
+         * An overridden method compares this node with an entry by the key and the value;
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        /**
+         * An overridden method returns hashcode of an object of this class, it does not allocate;
          */
         @Override
         public int hashCode() {
-            return Objects.hash(key, value);
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+    }
+
+    /**
+     * This is a node which is also linked into an order of the entries kept by a subclass, such as the access order
+     * of BoundedMyHashMap or the buckets of the timer wheel of ExpiringMyHashMap: the links are maintained by the subclass
+     * through the node hooks. Tree nodes extend it, so the bins of such a map can still become trees. It holds only the links,
+     * like the entry of LinkedHashMap, since every tree node pays for its fields: a subclass which needs more state
+     * per entry keeps it in its own subclasses of LinkedNode and TreeNode;
+     *
+     * @param <K> is the type of keys
+     * @param <V> is the type of value
+     */
+    static class LinkedNode<K, V> extends Node<K, V> {
+        LinkedNode<K, V> before;
+        LinkedNode<K, V> after;
+
+        LinkedNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+    }
+
+    /**
+     * This is a node of a tree bin. When a chain grows longer than TREEIFY_THRESHOLD its nodes are replaced by tree nodes
+     * which form a red-black tree ordered by the cached hash, then by the key's natural order if the keys are Comparable
+     * of the same class, and finally by an arbitrary but consistent tie-breaking order.
+     * The next links are kept as well, so the bin can still be walked as a chain and its first node is always the root.
+     * A subclass of the map which keeps its own state per entry extends it, see LinkedNode;
+     *
+     * @param <K> is the type of keys
+     * @param <V> is the type of value
+     */
+    static class TreeNode<K, V> extends LinkedNode<K, V> {
+        TreeNode<K, V> parent;
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        /**
+         * This is a link to the previous node of the chain, it is needed to unlink a node on removal;
+         */
+        TreeNode<K, V> prev;
+        boolean red;
+
+        TreeNode(int hash, K key, V value, Node<K, V> next) {
+            super(hash, key, value, next);
+        }
+
+        /**
+         * Returns the root of the tree containing this node;
+         */
+        TreeNode<K, V> root() {
+            for (TreeNode<K, V> r = this, p; ; ) {
+                if ((p = r.parent) == null) {
+                    return r;
+                }
+                r = p;
+            }
+        }
+
+        /**
+         * Makes the given root the first node of its bucket;
+         */
+        static <K, V> void moveRootToFront(Node<K, V>[] tab, TreeNode<K, V> root) {
+            int n;
+            if (root != null && tab != null && (n = tab.length) > 0) {
+                int index = (n - 1) & root.hash;
+                TreeNode<K, V> first = (TreeNode<K, V>) tab[index];
+                if (root != first) {
+                    Node<K, V> rn;
+                    tab[index] = root;
+                    TreeNode<K, V> rp = root.prev;
+                    if ((rn = root.next) != null) {
+                        ((TreeNode<K, V>) rn).prev = rp;
+                    }
+                    if (rp != null) {
+                        rp.next = rn;
+                    }
+                    if (first != null) {
+                        first.prev = root;
+                    }
+                    root.next = first;
+                    root.prev = null;
+                }
+            }
+        }
+
+        /**
+         * Finds the node with the given hash and key starting at this node;
+         *
+         * @param map the map whose hashing strategy compares the keys
+         * @param h  the hash of the key
+         * @param k  the key
+         * @param kc the comparable class of the key, if it has already been looked up, otherwise null
+         * @return the node or null if there is no such key
+         */
+        TreeNode<K, V> find(MyHashMap<K, V> map, int h, Object k, Class<?> kc) {
+            TreeNode<K, V> p = this;
+            do {
+                int ph, dir;
+                K pk;
+                TreeNode<K, V> pl = p.left, pr = p.right, q;
+                if ((ph = p.hash) > h) {
+                    p = pl;
+                } else if (ph < h) {
+                    p = pr;
+                } else if ((pk = p.key) == k || (k != null && map.keyEquals(k, pk))) {
+                    return p;
+                } else if (pl == null) {
+                    p = pr;
+                } else if (pr == null) {
+                    p = pl;
+                } else if ((kc != null || (kc = map.comparableClassOf(k)) != null)
+                        && (dir = compareComparables(kc, k, pk)) != 0) {
+                    p = (dir < 0) ? pl : pr;
+                } else if ((q = pr.find(map, h, k, kc)) != null) {
+                    return q;
+                } else {
+                    p = pl;
+                }
+            } while (p != null);
+            return null;
+        }
+
+        /**
+         * Finds the node with the given hash and key in the tree of this node;
+         */
+        TreeNode<K, V> getTreeNode(MyHashMap<K, V> map, int h, Object k) {
+            return ((parent != null) ? root() : this).find(map, h, k, null);
+        }
+
+        /**
+         * Orders keys which have equal hashes and are not mutually comparable;
+         */
+        static int tieBreakOrder(Object a, Object b) {
+            int d;
+            if (a == null || b == null || (d = a.getClass().getName().compareTo(b.getClass().getName())) == 0) {
+                d = (System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1);
+            }
+            return d;
+        }
+
+        /**
+         * Builds a tree from the chain of tree nodes starting at this node and puts its root first into the bucket;
+         */
+        void treeify(MyHashMap<K, V> map, Node<K, V>[] tab) {
+            TreeNode<K, V> root = null;
+            for (TreeNode<K, V> x = this, next; x != null; x = next) {
+                next = (TreeNode<K, V>) x.next;
+                x.left = x.right = null;
+                if (root == null) {
+                    x.parent = null;
+                    x.red = false;
+                    root = x;
+                } else {
+                    K k = x.key;
+                    int h = x.hash;
+                    Class<?> kc = null;
+                    for (TreeNode<K, V> p = root; ; ) {
+                        int dir, ph;
+                        K pk = p.key;
+                        if ((ph = p.hash) > h) {
+                            dir = -1;
+                        } else if (ph < h) {
+                            dir = 1;
+                        } else if ((kc == null && (kc = map.comparableClassOf(k)) == null)
+                                || (dir = compareComparables(kc, k, pk)) == 0) {
+                            dir = tieBreakOrder(k, pk);
+                        }
+                        TreeNode<K, V> xp = p;
+                        if ((p = (dir <= 0) ? p.left : p.right) == null) {
+                            x.parent = xp;
+                            if (dir <= 0) {
+                                xp.left = x;
+                            } else {
+                                xp.right = x;
+                            }
+                            root = balanceInsertion(root, x);
+                            break;
+                        }
+                    }
+                }
+            }
+            moveRootToFront(tab, root);
+        }
+
+        /**
+         * Returns a chain of plain nodes replacing the tree nodes starting at this node;
+         *
+         * @param map the map which creates the replacement nodes
+         */
+        Node<K, V> untreeify(MyHashMap<K, V> map) {
+            Node<K, V> head = null, tail = null;
+            for (Node<K, V> q = this; q != null; q = q.next) {
+                Node<K, V> p = map.replacementNode(q, null);
+                if (tail == null) {
+                    head = p;
+                } else {
+                    tail.next = p;
+                }
+                tail = p;
+            }
+            return head;
+        }
+
+        /**
+         * The tree version of put: returns the node of an existing key or inserts a new node and returns null;
+         */
+        TreeNode<K, V> putTreeVal(MyHashMap<K, V> map, Node<K, V>[] tab, int h, K k, V v) {
+            Class<?> kc = null;
+            boolean searched = false;
+            TreeNode<K, V> root = (parent != null) ? root() : this;
+            for (TreeNode<K, V> p = root; ; ) {
+                int dir, ph;
+                K pk;
+                if ((ph = p.hash) > h) {
+                    dir = -1;
+                } else if (ph < h) {
+                    dir = 1;
+                } else if ((pk = p.key) == k || (k != null && map.keyEquals(k, pk))) {
+                    return p;
+                } else if ((kc == null && (kc = map.comparableClassOf(k)) == null)
+                        || (dir = compareComparables(kc, k, pk)) == 0) {
+                    /*
+                     *the order cannot tell where the key is, so both subtrees are searched once before inserting
+                     */
+                    if (!searched) {
+                        TreeNode<K, V> q, ch;
+                        searched = true;
+                        if (((ch = p.left) != null && (q = ch.find(map, h, k, kc)) != null)
+                                || ((ch = p.right) != null && (q = ch.find(map, h, k, kc)) != null)) {
+                            return q;
+                        }
+                    }
+                    dir = tieBreakOrder(k, pk);
+                }
+                TreeNode<K, V> xp = p;
+                if ((p = (dir <= 0) ? p.left : p.right) == null) {
+                    Node<K, V> xpn = xp.next;
+                    TreeNode<K, V> x = map.newTreeNode(h, k, v, xpn);
+                    if (dir <= 0) {
+                        xp.left = x;
+                    } else {
+                        xp.right = x;
+                    }
+                    xp.next = x;
+                    x.parent = x.prev = xp;
+                    if (xpn != null) {
+                        ((TreeNode<K, V>) xpn).prev = x;
+                    }
+                    moveRootToFront(tab, balanceInsertion(root, x));
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * Removes this node from its tree bin. A tree which became too small is converted back into a chain;
+         *
+         * @param map     the map which creates the replacement nodes
+         * @param tab     the table holding the bin
+         * @param movable false if the root must not be moved to the front of the bucket
+         */
+        void removeTreeNode(MyHashMap<K, V> map, Node<K, V>[] tab, boolean movable) {
+            int n;
+            if (tab == null || (n = tab.length) == 0) {
+                return;
+            }
+            int index = (n - 1) & hash;
+            TreeNode<K, V> first = (TreeNode<K, V>) tab[index], root = first, rl;
+            TreeNode<K, V> succ = (TreeNode<K, V>) next, pred = prev;
+            if (pred == null) {
+                tab[index] = first = succ;
+            } else {
+                pred.next = succ;
+            }
+            if (succ != null) {
+                succ.prev = pred;
+            }
+            if (first == null) {
+                return;
+            }
+            if (root.parent != null) {
+                root = root.root();
+            }
+            if (root == null || (movable && (root.right == null || (rl = root.left) == null || rl.left == null))) {
+                tab[index] = first.untreeify(map);
+                return;
+            }
+            TreeNode<K, V> p = this, pl = left, pr = right, replacement;
+            if (pl != null && pr != null) {
+                /*
+                 *swaps this node with its successor, then removes it from the successor's position
+                 */
+                TreeNode<K, V> s = pr, sl;
+                while ((sl = s.left) != null) {
+                    s = sl;
+                }
+                boolean c = s.red;
+                s.red = p.red;
+                p.red = c;
+                TreeNode<K, V> sr = s.right;
+                TreeNode<K, V> pp = p.parent;
+                if (s == pr) {
+                    p.parent = s;
+                    s.right = p;
+                } else {
+                    TreeNode<K, V> sp = s.parent;
+                    if ((p.parent = sp) != null) {
+                        if (s == sp.left) {
+                            sp.left = p;
+                        } else {
+                            sp.right = p;
+                        }
+                    }
+                    if ((s.right = pr) != null) {
+                        pr.parent = s;
+                    }
+                }
+                p.left = null;
+                if ((p.right = sr) != null) {
+                    sr.parent = p;
+                }
+                if ((s.left = pl) != null) {
+                    pl.parent = s;
+                }
+                if ((s.parent = pp) == null) {
+                    root = s;
+                } else if (p == pp.left) {
+                    pp.left = s;
+                } else {
+                    pp.right = s;
+                }
+                replacement = (sr != null) ? sr : p;
+            } else if (pl != null) {
+                replacement = pl;
+            } else if (pr != null) {
+                replacement = pr;
+            } else {
+                replacement = p;
+            }
+            if (replacement != p) {
+                TreeNode<K, V> pp = replacement.parent = p.parent;
+                if (pp == null) {
+                    (root = replacement).red = false;
+                } else if (p == pp.left) {
+                    pp.left = replacement;
+                } else {
+                    pp.right = replacement;
+                }
+                p.left = p.right = p.parent = null;
+            }
+            TreeNode<K, V> r = p.red ? root : balanceDeletion(root, replacement);
+            if (replacement == p) {
+                TreeNode<K, V> pp = p.parent;
+                p.parent = null;
+                if (pp != null) {
+                    if (p == pp.left) {
+                        pp.left = null;
+                    } else if (p == pp.right) {
+                        pp.right = null;
+                    }
+                }
+            }
+            if (movable) {
+                moveRootToFront(tab, r);
+            }
+        }
+
+        /**
+         * The tree version of the lo/hi split done on resize: divides the bin into the nodes staying at the same index
+         * and the nodes moving by bit, converting each part back into a chain if it is small enough;
+         *
+         * @param map   the map which creates the replacement nodes
+         * @param tab   the new table
+         * @param index the index of the bin in the old table
+         * @param bit   the capacity of the old table
+         */
+        void split(MyHashMap<K, V> map, Node<K, V>[] tab, int index, int bit) {
+            TreeNode<K, V> loHead = null, loTail = null;
+            TreeNode<K, V> hiHead = null, hiTail = null;
+            int lc = 0, hc = 0;
+            for (TreeNode<K, V> e = this, next; e != null; e = next) {
+                next = (TreeNode<K, V>) e.next;
+                e.next = null;
+                if ((e.hash & bit) == 0) {
+                    if ((e.prev = loTail) == null) {
+                        loHead = e;
+                    } else {
+                        loTail.next = e;
+                    }
+                    loTail = e;
+                    ++lc;
+                } else {
+                    if ((e.prev = hiTail) == null) {
+                        hiHead = e;
+                    } else {
+                        hiTail.next = e;
+                    }
+                    hiTail = e;
+                    ++hc;
+                }
+            }
+            if (loHead != null) {
+                if (lc <= UNTREEIFY_THRESHOLD) {
+                    tab[index] = loHead.untreeify(map);
+                } else {
+                    tab[index] = loHead;
+                    /*
+                     *if all nodes stay together the tree is still valid
+                     */
+                    if (hiHead != null) {
+                        loHead.treeify(map, tab);
+                    }
+                }
+            }
+            if (hiHead != null) {
+                if (hc <= UNTREEIFY_THRESHOLD) {
+                    tab[index + bit] = hiHead.untreeify(map);
+                } else {
+                    tab[index + bit] = hiHead;
+                    if (loHead != null) {
+                        hiHead.treeify(map, tab);
+                    }
+                }
+            }
+        }
+
+        static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> root, TreeNode<K, V> p) {
+            TreeNode<K, V> r, pp, rl;
+            if (p != null && (r = p.right) != null) {
+                if ((rl = p.right = r.left) != null) {
+                    rl.parent = p;
+                }
+                if ((pp = r.parent = p.parent) == null) {
+                    (root = r).red = false;
+                } else if (pp.left == p) {
+                    pp.left = r;
+                } else {
+                    pp.right = r;
+                }
+                r.left = p;
+                p.parent = r;
+            }
+            return root;
+        }
+
+        static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> root, TreeNode<K, V> p) {
+            TreeNode<K, V> l, pp, lr;
+            if (p != null && (l = p.left) != null) {
+                if ((lr = p.left = l.right) != null) {
+                    lr.parent = p;
+                }
+                if ((pp = l.parent = p.parent) == null) {
+                    (root = l).red = false;
+                } else if (pp.right == p) {
+                    pp.right = l;
+                } else {
+                    pp.left = l;
+                }
+                l.right = p;
+                p.parent = l;
+            }
+            return root;
+        }
+
+        /**
+         * Restores the red-black properties after the insertion of x and returns the new root;
+         */
+        static <K, V> TreeNode<K, V> balanceInsertion(TreeNode<K, V> root, TreeNode<K, V> x) {
+            x.red = true;
+            for (TreeNode<K, V> xp, xpp, xppl, xppr; ; ) {
+                if ((xp = x.parent) == null) {
+                    x.red = false;
+                    return x;
+                } else if (!xp.red || (xpp = xp.parent) == null) {
+                    return root;
+                }
+                if (xp == (xppl = xpp.left)) {
+                    if ((xppr = xpp.right) != null && xppr.red) {
+                        xppr.red = false;
+                        xp.red = false;
+                        xpp.red = true;
+                        x = xpp;
+                    } else {
+                        if (x == xp.right) {
+                            root = rotateLeft(root, x = xp);
+                            xpp = (xp = x.parent) == null ? null : xp.parent;
+                        }
+                        if (xp != null) {
+                            xp.red = false;
+                            if (xpp != null) {
+                                xpp.red = true;
+                                root = rotateRight(root, xpp);
+                            }
+                        }
+                    }
+                } else {
+                    if (xppl != null && xppl.red) {
+                        xppl.red = false;
+                        xp.red = false;
+                        xpp.red = true;
+                        x = xpp;
+                    } else {
+                        if (x == xp.left) {
+                            root = rotateRight(root, x = xp);
+                            xpp = (xp = x.parent) == null ? null : xp.parent;
+                        }
+                        if (xp != null) {
+                            xp.red = false;
+                            if (xpp != null) {
+                                xpp.red = true;
+                                root = rotateLeft(root, xpp);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Restores the red-black properties after a removal, x is the node which took the removed node's place;
+         */
+        static <K, V> TreeNode<K, V> balanceDeletion(TreeNode<K, V> root, TreeNode<K, V> x) {
+            for (TreeNode<K, V> xp, xpl, xpr; ; ) {
+                if (x == null || x == root) {
+                    return root;
+                } else if ((xp = x.parent) == null) {
+                    x.red = false;
+                    return x;
+                } else if (x.red) {
+                    x.red = false;
+                    return root;
+                } else if ((xpl = xp.left) == x) {
+                    if ((xpr = xp.right) != null && xpr.red) {
+                        xpr.red = false;
+                        xp.red = true;
+                        root = rotateLeft(root, xp);
+                        xpr = (xp = x.parent) == null ? null : xp.right;
+                    }
+                    if (xpr == null) {
+                        x = xp;
+                    } else {
+                        TreeNode<K, V> sl = xpr.left, sr = xpr.right;
+                        if ((sr == null || !sr.red) && (sl == null || !sl.red)) {
+                            xpr.red = true;
+                            x = xp;
+                        } else {
+                            if (sr == null || !sr.red) {
+                                if (sl != null) {
+                                    sl.red = false;
+                                }
+                                xpr.red = true;
+                                root = rotateRight(root, xpr);
+                                xpr = (xp = x.parent) == null ? null : xp.right;
+                            }
+                            if (xpr != null) {
+                                xpr.red = (xp != null) && xp.red;
+                                if ((sr = xpr.right) != null) {
+                                    sr.red = false;
+                                }
+                            }
+                            if (xp != null) {
+                                xp.red = false;
+                                root = rotateLeft(root, xp);
+                            }
+                            x = root;
+                        }
+                    }
+                } else {
+                    if (xpl != null && xpl.red) {
+                        xpl.red = false;
+                        xp.red = true;
+                        root = rotateRight(root, xp);
+                        xpl = (xp = x.parent) == null ? null : xp.left;
+                    }
+                    if (xpl == null) {
+                        x = xp;
+                    } else {
+                        TreeNode<K, V> sl = xpl.left, sr = xpl.right;
+                        if ((sl == null || !sl.red) && (sr == null || !sr.red)) {
+                            xpl.red = true;
+                            x = xp;
+                        } else {
+                            if (sl == null || !sl.red) {
+                                if (sr != null) {
+                                    sr.red = false;
+                                }
+                                xpl.red = true;
+                                root = rotateLeft(root, xpl);
+                                xpl = (xp = x.parent) == null ? null : xp.left;
+                            }
+                            if (xpl != null) {
+                                xpl.red = (xp != null) && xp.red;
+                                if ((sl = xpl.left) != null) {
+                                    sl.red = false;
+                                }
+                            }
+                            if (xp != null) {
+                                xp.red = false;
+                                root = rotateRight(root, xp);
+                            }
+                            x = root;
+                        }
+                    }
+                }
+            }
         }
+    }
+
+    /**
+     * This constructor creates a hash map with the given parameters: initial capacity, load factor
+     * and whether the table is resized incrementally.
+     *
+     * @param initialCapacity
+     * @param loadFactor
+     * @param incrementalResize
+     */
 
+    public MyHashMap(int initialCapacity, float loadFactor, boolean incrementalResize) {
+        this(initialCapacity, loadFactor, incrementalResize, null);
     }
 
     /**
-     * This constructor creates a hash map with the given parameters: initial capacity and load factor.
+     * This constructor creates a hash map with the given initial capacity, load factor, whether the table is resized
+     * incrementally and the strategy which hashes and compares the keys instead of their hashCode() and equals();
      *
      * @param initialCapacity
      * @param loadFactor
+     * @param incrementalResize
+     * @param strategy          the hashing strategy, null for the keys' own methods
      */
+    @SuppressWarnings("unchecked")
+    public MyHashMap(int initialCapacity, float loadFactor, boolean incrementalResize,
+                     HashingStrategy<? super K> strategy) {
+        this(initialCapacity, loadFactor, incrementalResize, strategy, false);
+    }
 
-    public MyHashMap(int initialCapacity, float loadFactor) {
+    /**
+     * This constructor creates a hash map with the given initial capacity, load factor, whether the table is resized
+     * incrementally, the hashing strategy and whether the table shrinks when the map is drained. A shrinking map halves
+     * its table when removals leave fewer pairs than a quarter of the threshold and releases the table on clear,
+     * but never goes below the initial capacity, which is at least 16;
+     *
+     * @param initialCapacity
+     * @param loadFactor
+     * @param incrementalResize
+     * @param strategy          the hashing strategy, null for the keys' own methods
+     * @param shrinkOnRemove    true if the table is shrunk when the map is drained
+     */
+    @SuppressWarnings("unchecked")
+    public MyHashMap(int initialCapacity, float loadFactor, boolean incrementalResize,
+                     HashingStrategy<? super K> strategy, boolean shrinkOnRemove) {
         if (initialCapacity < 0) {
             throw new IllegalArgumentException("Illegal initial capacity: " +
                     initialCapacity);
@@ -140,8 +869,22 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
             throw new IllegalArgumentException("Illegal load factor: " +
                     loadFactor);
         this.loadFactor = loadFactor;
-        this.threshold = sizeCalculation(initialCapacity);
+        this.threshold = tableSizeFor(initialCapacity);
+        this.incrementalResize = incrementalResize;
+        this.strategy = (HashingStrategy<Object>) strategy;
+        this.shrinkOnRemove = shrinkOnRemove;
+        this.minimumCapacity = Math.max(DEFAULT_CAPACITY, this.threshold);
+    }
 
+    /**
+     * This constructor creates a hash map with the given parameters: initial capacity and load factor,
+     * the table is resized all at once.
+     *
+     * @param initialCapacity
+     * @param loadFactor
+     */
+    public MyHashMap(int initialCapacity, float loadFactor) {
+        this(initialCapacity, loadFactor, false);
     }
 
     /**
@@ -159,38 +902,33 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
      */
     public MyHashMap() {
         this.loadFactor = DEFAULT_LOAD_FACTOR;
+        this.incrementalResize = false;
+        this.strategy = null;
+        this.shrinkOnRemove = false;
+        this.minimumCapacity = DEFAULT_CAPACITY;
+    }
+
+    /**
+     * This constructor creates a hash map with the default load factor and empty capacity, whose keys are hashed
+     * and compared by the given strategy, for example HashingStrategy.seededStrings() for keys from external input;
+     *
+     * @param strategy
+     */
+    public MyHashMap(HashingStrategy<? super K> strategy) {
+        this(0, DEFAULT_LOAD_FACTOR, false, Objects.requireNonNull(strategy));
     }
 
     /**
-     * This method returns a value from our hash table corresponding to the key passed into the arguments of this method;
+     * This method returns a value from our hash table corresponding to the key passed into the arguments of this method,
+     * or null if there is no such key. An empty map, with or without a table, answers without hashing the key;
      *
      * @param inputKey
      * @return
      */
     @Override
     public V get(Object inputKey) {
-        Node<K, V>[] tab = this.table;
-        int n = tab.length;
-        int hash = hash(inputKey);
-        int index = calculateIndex(inputKey, n);
-        if (n != 0) {
-            Node<K, V> first = tab[index];
-            if (first != null) {
-                if (first.hash == hash && (inputKey != null && inputKey.equals(first.key))) {
-                    return first.value;
-                }
-                if (first.next != null) {
-                    Node<K, V> temp = first.next;
-                    while (temp != null) {
-                        if (temp.hash == hash && (inputKey != null && temp.key.equals(inputKey))) {
-                            return temp.value;
-                        }
-                        temp = temp.next;
-                    }
-                }
-            }
-        }
-        return null;
+        Node<K, V> node = getNode(inputKey);
+        return node == null ? null : node.value;
     }
 
     /**
@@ -204,236 +942,1679 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        Node<K, V>[] tab;
-        int n, index;
-        if ((tab = table) == null || (n = tab.length) == 0) {
-            n = (tab = increaseSize()).length;
+        return putVal(hashOf(key), key, value, false);
+    }
+
+    /**
+     * This method puts every key-value pair of the given map into this map. The table is resized once for the whole batch,
+     * and the pairs are inserted grouped by bucket, so the table is written in the order of its memory.
+     * Another MyHashMap with the same hashing is already iterated in that order and its nodes carry their hashes,
+     * so they are put directly. The pairs go through putVal rather than put, so a subclass whose put does more
+     * than putVal overrides putAll as well;
+     *
+     * @param map
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        if (map instanceof MyHashMap && ((MyHashMap<?, ?>) map).strategy == this.strategy) {
+            presize(map.size());
+            for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+                Node<K, V> node = (Node<K, V>) entry;
+                putVal(node.hash, node.key, node.value, false);
+            }
+            return;
         }
-        /*
-         *calculates the key hashcode
-         */
-        int hash = hash(key);
-        /*
-         *calculates the index in hash table
-         */
-        index = calculateIndex(key, n);
-        Node<K, V> node = this.table[index];
-        /*
-         *check if there is an entry in the cell with this index
-         */
-        if (node != null) {
-            if (node.key.equals(key)) {
-                /*
-                 if yes, then we check the equality of the entry key to the one passed in the arguments,
-                 if true, then we replace it with a new one and return the old one
-                 */
-                return node.setValue(value);
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[keys.length];
+        int count = 0;
+        for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2 + 1);
+                values = Arrays.copyOf(values, keys.length);
+            }
+            keys[count] = entry.getKey();
+            values[count++] = entry.getValue();
+        }
+        putBatch(keys, values, count);
+    }
+
+    /**
+     * This method puts every key-value pair of the given java.util.Map into this map, see putAll(MyMap).
+     * A java.util.HashMap spreads the hash codes as this map does and is iterated by bucket, so its pairs are put directly;
+     *
+     * @param map
+     */
+    @Override
+    public void putAll(java.util.Map<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        if (map.getClass() == java.util.HashMap.class && strategy == null) {
+            presize(map.size());
+            for (java.util.Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+                K key = entry.getKey();
+                putVal(hashOf(key), key, entry.getValue(), false);
+            }
+            return;
+        }
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[keys.length];
+        int count = 0;
+        for (java.util.Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2 + 1);
+                values = Arrays.copyOf(values, keys.length);
+            }
+            keys[count] = entry.getKey();
+            values[count++] = entry.getValue();
+        }
+        putBatch(keys, values, count);
+    }
+
+    /**
+     * Puts the first count pairs of the arrays. After the table is presized the pairs are ordered by a counting sort
+     * on the high bits of their bucket indexes, about one group per pair, and put in that order:
+     * consecutive puts then touch neighbouring buckets instead of cache lines scattered over the whole table;
+     *
+     * @param keys
+     * @param values
+     * @param count
+     */
+    @SuppressWarnings("unchecked")
+    private void putBatch(Object[] keys, Object[] values, int count) {
+        if (count == 0) {
+            return;
+        }
+        presize(count);
+        Node<K, V>[] tab;
+        if ((tab = table) == null || tab.length == 0) {
+            tab = increaseSize();
+        }
+        int n = tab.length;
+        int groups = Math.min(Integer.highestOneBit(count), n);
+        int shift = Integer.numberOfTrailingZeros(n) - Integer.numberOfTrailingZeros(groups);
+        int[] hashes = new int[count];
+        int[] starts = new int[groups + 1];
+        for (int i = 0; i < count; i++) {
+            int hash = hashes[i] = hashOf(keys[i]);
+            starts[(((n - 1) & hash) >>> shift) + 1]++;
+        }
+        for (int group = 0; group < groups; group++) {
+            starts[group + 1] += starts[group];
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[starts[((n - 1) & hashes[i]) >>> shift]++] = i;
+        }
+        for (int i : order) {
+            putVal(hashes[i], (K) keys[i], (V) values[i], false);
+        }
+    }
+
+    /**
+     * This method puts the value into the bucket of the given hash. If the key already exists its value is replaced,
+     * unless onlyIfAbsent is set and the current value is not null, and the old value is returned, otherwise null;
+     *
+     * @param hash         the hash of the key
+     * @param key
+     * @param value
+     * @param onlyIfAbsent if true, an existing non-null value is kept
+     * @return null if there is no key, or the value corresponding to the key;
+     */
+    final V putVal(int hash, K key, V value, boolean onlyIfAbsent) {
+        Node<K, V>[] tab;
+        int n, index;
+        if ((tab = table) == null || (n = tab.length) == 0) {
+            n = (tab = increaseSize()).length;
+        }
+        /*
+         *moves the key's bucket out of the old table, if the table is being resized. Migrating buckets counts
+         *as a modification, so a key which is already there gets its value in place and nothing is migrated,
+         *as replacing a value must not fail the iterators
+         */
+        if (oldTable != null) {
+            Node<K, V> existing = getNode(hash, key);
+            if (existing != null) {
+                V oldValue = existing.value;
+                if (!onlyIfAbsent || oldValue == null) {
+                    existing.value = value;
+                }
+                afterNodeAccess(existing);
+                return oldValue;
+            }
+            helpTransfer(hash);
+        }
+        /*
+         *calculates the index in hash table
+         */
+        index = (n - 1) & hash;
+        Node<K, V> node = tab[index];
+        /*
+         *check if there is an entry in the cell with this index
+         */
+        if (node == null) {
+            tab[index] = newNode(hash, key, value, null);
+        } else {
+            Node<K, V> existing;
+            if (node.hash == hash && (node.key == key || (key != null && keyEquals(key, node.key)))) {
+                existing = node;
+            } else if (node instanceof TreeNode) {
+                existing = ((TreeNode<K, V>) node).putTreeVal(this, tab, hash, key, value);
             } else {
                 /*
-                 *If the keys are not equal, then we move through the singly linked list until we find a null link to the next element
+                 *we move through the singly linked list until we find the same key or a null link to the next element,
+                 *counting the nodes to know when the chain has to become a tree
                  */
-                while (node.next != null) {
-                    node = node.next;
+                for (int binCount = 0; ; binCount++) {
+                    if ((existing = node.next) == null) {
+                        node.next = newNode(hash, key, value, null);
+                        if (binCount >= TREEIFY_THRESHOLD - 1) {
+                            treeifyBin(tab, hash);
+                        }
+                        break;
+                    }
+                    if (existing.hash == hash && (existing.key == key || (key != null && keyEquals(key, existing.key)))) {
+                        break;
+                    }
+                    node = existing;
                 }
+            }
+            if (existing != null) {
                 /*
-                 *We put entry there
+                 if the key is already there, then we replace the value with a new one and return the old one
                  */
-                Node<K, V> nodeInOldBucket = new Node<>(hash, key, value,null);
-                node.next = nodeInOldBucket;
-                this.size++;
-                return null;
+                V oldValue = existing.value;
+                if (!onlyIfAbsent || oldValue == null) {
+                    existing.value = value;
+                }
+                afterNodeAccess(existing);
+                return oldValue;
+            }
+        }
+        ++modCount;
+        if (++size > threshold) {
+            increaseSize();
+        }
+        afterNodeInsertion();
+        return null;
+    }
+
+    /**
+     * This method deletes the value corresponding to the key passed as a parameter, returns the deleted valueж
+     *
+     * @param key
+     * @return removed value
+     */
+    @Override
+    public V remove(Object key) {
+        if (size == 0) {
+            return null;
+        }
+        Node<K, V> node = removeNode(hashOf(key), key, true);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * This method unlinks the node of the key from the bucket of the given hash and returns it, or null if there is no such key;
+     *
+     * @param keyHash the hash of the key
+     * @param key
+     * @param movable false if the other nodes must stay where they are, because an iterator is walking the tables:
+     *                then no buckets are migrated and a tree bin is neither restructured nor converted into a chain
+     * @return removed node
+     */
+    final Node<K, V> removeNode(int keyHash, Object key, boolean movable) {
+        Node<K, V>[] tab;
+        if (!movable) {
+            tab = tableFor(keyHash);
+        } else {
+            if (oldTable != null) {
+                /*
+                 *nothing is migrated for an absent key, see putVal
+                 */
+                if (getNode(keyHash, key) == null) {
+                    return null;
+                }
+                helpTransfer(keyHash);
+            }
+            tab = this.table;
+        }
+        Node<K, V> previous;
+        int n;
+        int index = 0;
+        if (tab == null || (n = tab.length) == 0 || (previous = tab[index = (n - 1) & keyHash]) == null) {
+            return null;
+        }
+        Node<K, V> node = null;
+        Node<K, V> temp;
+        if (previous.hash == keyHash && (previous.key == key || (key != null && keyEquals(key, previous.key)))) {
+            node = previous;
+        } else if ((temp = previous.next) != null) {
+            if (previous instanceof TreeNode) {
+                node = ((TreeNode<K, V>) previous).getTreeNode(this, keyHash, key);
+            } else {
+                do {
+                    if (temp.hash == keyHash && (temp.key == key || (key != null && keyEquals(key, temp.key)))) {
+                        node = temp;
+                        break;
+                    }
+                    previous = temp;
+                } while ((temp = temp.next) != null);
+            }
+        }
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof TreeNode) {
+            ((TreeNode<K, V>) node).removeTreeNode(this, tab, movable);
+        } else if (node == previous) {
+            tab[index] = node.next;
+        } else {
+            previous.next = node.next;
+        }
+        ++modCount;
+        size--;
+        afterNodeRemoval(node);
+        if (shrinkOnRemove && movable && size < (threshold >>> 2)) {
+            shrinkIfSparse();
+        }
+        return node;
+    }
+
+    /**
+     * This method returns the value corresponding to the key, or defaultValue if there is no such key;
+     *
+     * @param key
+     * @param defaultValue
+     * @return V
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Node<K, V> node = getNode(key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    /**
+     * This method places the value if the key is absent or mapped to null and returns the current value,
+     * the bucket is walked only once;
+     *
+     * @param key
+     * @param value
+     * @return null if there was no key, or the value corresponding to the key;
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(hashOf(key), key, value, true);
+    }
+
+    /**
+     * This method returns the value of the key, and if the key is absent or mapped to null it places the value computed
+     * by the function unless that is null. The hash is calculated once and the bucket is walked once,
+     * the new node is linked into the position found by that walk;
+     *
+     * @param key
+     * @param mappingFunction it must not modify this map, otherwise ConcurrentModificationException is thrown
+     * @return the current value of the key
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        int hash = hashOf(key);
+        Node<K, V>[] tab = tableForUpdate(hash);
+        int index = (tab.length - 1) & hash;
+        Node<K, V> first = tab[index], node = null;
+        TreeNode<K, V> tree = null;
+        int binCount = 0;
+        if (first instanceof TreeNode) {
+            node = (tree = (TreeNode<K, V>) first).getTreeNode(this, hash, key);
+        } else {
+            for (Node<K, V> e = first; e != null; e = e.next, binCount++) {
+                if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                    node = e;
+                    break;
+                }
+            }
+        }
+        V oldValue;
+        if (node != null && (oldValue = node.value) != null) {
+            afterNodeAccess(node);
+            return oldValue;
+        }
+        int mc = modCount;
+        V value = mappingFunction.apply(key);
+        if (mc != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value == null) {
+            return null;
+        }
+        if (node != null) {
+            node.value = value;
+            afterNodeAccess(node);
+        } else {
+            linkNode(tab, index, first, tree, binCount, hash, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * This method replaces a non-null value of the key by the value computed by the function,
+     * or deletes the key if the function returns null;
+     *
+     * @param key
+     * @param remappingFunction it must not modify this map, otherwise ConcurrentModificationException is thrown
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int hash = hashOf(key);
+        Node<K, V>[] tab = table;
+        if (tab == null || tab.length == 0) {
+            return null;
+        }
+        tab = tableForUpdate(hash);
+        Node<K, V> node = findNode(tab, hash, key);
+        V oldValue;
+        if (node == null || (oldValue = node.value) == null) {
+            return null;
+        }
+        int mc = modCount;
+        V value = remappingFunction.apply(key, oldValue);
+        if (mc != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (value != null) {
+            node.value = value;
+            afterNodeAccess(node);
+        } else {
+            removeNode(hash, key, true);
+        }
+        return value;
+    }
+
+    /**
+     * This method places the value computed from the key and its current value (null if there is no key),
+     * a null result deletes the key. The bucket is walked once unless the key has to be deleted;
+     *
+     * @param key
+     * @param remappingFunction it must not modify this map, otherwise ConcurrentModificationException is thrown
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        int hash = hashOf(key);
+        Node<K, V>[] tab = tableForUpdate(hash);
+        int index = (tab.length - 1) & hash;
+        Node<K, V> first = tab[index], node = null;
+        TreeNode<K, V> tree = null;
+        int binCount = 0;
+        if (first instanceof TreeNode) {
+            node = (tree = (TreeNode<K, V>) first).getTreeNode(this, hash, key);
+        } else {
+            for (Node<K, V> e = first; e != null; e = e.next, binCount++) {
+                if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                    node = e;
+                    break;
+                }
+            }
+        }
+        V oldValue = (node == null) ? null : node.value;
+        int mc = modCount;
+        V value = remappingFunction.apply(key, oldValue);
+        if (mc != modCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (node != null) {
+            if (value != null) {
+                node.value = value;
+                afterNodeAccess(node);
+            } else {
+                removeNode(hash, key, true);
+            }
+        } else if (value != null) {
+            linkNode(tab, index, first, tree, binCount, hash, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * This method places the value if the key is absent or mapped to null, otherwise replaces the current value
+     * by the result of the function applied to it and the given value, a null result deletes the key.
+     * This is the single-walk way to update a counter: merge(key, 1, Integer::sum);
+     *
+     * @param key
+     * @param value             must not be null
+     * @param remappingFunction it must not modify this map, otherwise ConcurrentModificationException is thrown
+     * @return the new value or null if there is none
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        int hash = hashOf(key);
+        Node<K, V>[] tab = tableForUpdate(hash);
+        int index = (tab.length - 1) & hash;
+        Node<K, V> first = tab[index], node = null;
+        TreeNode<K, V> tree = null;
+        int binCount = 0;
+        if (first instanceof TreeNode) {
+            node = (tree = (TreeNode<K, V>) first).getTreeNode(this, hash, key);
+        } else {
+            for (Node<K, V> e = first; e != null; e = e.next, binCount++) {
+                if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                    node = e;
+                    break;
+                }
+            }
+        }
+        if (node == null) {
+            linkNode(tab, index, first, tree, binCount, hash, key, value);
+            return value;
+        }
+        V newValue;
+        if (node.value == null) {
+            newValue = value;
+        } else {
+            int mc = modCount;
+            newValue = remappingFunction.apply(node.value, value);
+            if (mc != modCount) {
+                throw new ConcurrentModificationException();
             }
+        }
+        if (newValue != null) {
+            node.value = newValue;
+            afterNodeAccess(node);
         } else {
-            Node<K, V> nodeInNewBucket = new Node<>(hash, key, value,null);
-            this.table[index] = nodeInNewBucket;
-            this.size++;
+            removeNode(hash, key, true);
+        }
+        return newValue;
+    }
+
+    /**
+     * Returns the node of the key in the given table or null if there is no such key;
+     *
+     * @param tab  a non-empty table holding the bucket of the hash
+     * @param hash the hash of the key
+     * @param key
+     * @return Node<K, V>
+     */
+    private Node<K, V> findNode(Node<K, V>[] tab, int hash, Object key) {
+        Node<K, V> first = tab[(tab.length - 1) & hash];
+        if (first instanceof TreeNode) {
+            return ((TreeNode<K, V>) first).getTreeNode(this, hash, key);
         }
-        if (size > threshold) {
-            this.table = increaseSize();
+        for (Node<K, V> e = first; e != null; e = e.next) {
+            if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                return e;
+            }
         }
         return null;
     }
 
     /**
-     * This method deletes the value corresponding to the key passed as a parameter, returns the deleted valueж
+     * Returns the table which an update of the key can work with: allocates the table if there is none yet
+     * and moves the key's bucket out of the old table, if the table is being resized;
+     *
+     * @param hash
+     * @return Node<K, V>[]
+     */
+    private Node<K, V>[] tableForUpdate(int hash) {
+        Node<K, V>[] tab;
+        if ((tab = table) == null || tab.length == 0) {
+            tab = increaseSize();
+        }
+        if (oldTable != null) {
+            helpTransfer(hash);
+        }
+        return tab;
+    }
+
+    /**
+     * Links a new node of a key which the caller has just looked for and not found: it becomes the first node
+     * of a chain bucket or is inserted into the tree bin. Then the chain is treeified or the table resized if needed;
+     *
+     * @param tab      the table the bucket was looked up in
+     * @param index    the index of the bucket
+     * @param first    the first node of the bucket
+     * @param tree     the root of the bucket if it is a tree bin, otherwise null
+     * @param binCount the number of nodes in the chain
+     */
+    private void linkNode(Node<K, V>[] tab, int index, Node<K, V> first, TreeNode<K, V> tree, int binCount,
+                          int hash, K key, V value) {
+        if (tree != null) {
+            tree.putTreeVal(this, tab, hash, key, value);
+        } else {
+            tab[index] = newNode(hash, key, value, first);
+            if (binCount >= TREEIFY_THRESHOLD - 1) {
+                treeifyBin(tab, hash);
+            }
+        }
+        ++modCount;
+        if (++size > threshold) {
+            increaseSize();
+        }
+        afterNodeInsertion();
+    }
+
+    /**
+     * Clears our table;
+     */
+    @Override
+    public void clear() {
+        Node<K, V>[] tab = this.table;
+        if (tab != null && this.size > 0) {
+            for (int i = 0; i < tab.length; i++) {
+                tab[i] = null;
+            }
+        }
+        this.oldTable = null;
+        this.size = 0;
+        this.modCount++;
+        if (shrinkOnRemove && tab != null && tab.length > minimumCapacity) {
+            /*
+             *the next put allocates a table of the minimum capacity, as in a new map
+             */
+            this.table = null;
+            this.threshold = minimumCapacity;
+        }
+    }
+
+    /**
+     * Checks whether the hash table contains the key passed as a parameter,
+     * only the bucket of the key is searched, as get does;
+     *
+     * @param key
+     * @return true if key is exist or false if key is not exist
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return getNode(key) != null;
+    }
+
+    /**
+     * Checks whether the hash table contains the value passed as a parameter. A map of at least PARALLEL_SCAN_THRESHOLD
+     * entries is scanned by a parallel stream over the values, so it must not be modified during the call;
+     *
+     * @param value
+     * @return true if key is exist or false if key is not exist
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (size == 0) {
+            return false;
+        }
+        if (size >= PARALLEL_SCAN_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return values().parallelStream().anyMatch(v -> v == value || (value != null && value.equals(v)));
+        }
+        return containsValue(this.oldTable, value) || containsValue(this.table, value);
+    }
+
+    private static boolean containsValue(Node<?, ?>[] tab, Object value) {
+        if (tab != null) {
+            for (int i = 0; i < tab.length; i++) {
+                Node<?, ?> temp = tab[i];
+                while (temp != null) {
+                    Object v;
+                    if ((v = temp.value) == value || (value != null && value.equals(v))) {
+                        return true;
+                    }
+                    temp = temp.next;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method calls the action for every key-value pair, walking the table directly;
+     *
+     * @param action
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        if (size > 0) {
+            int mc = modCount;
+            forEach(this.oldTable, action);
+            forEach(this.table, action);
+            if (modCount != mc) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private static <K, V> void forEach(Node<K, V>[] tab, BiConsumer<? super K, ? super V> action) {
+        if (tab != null) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    action.accept(node.key, node.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method replaces the value of every key by the result of the function applied to the key and the value;
+     *
+     * @param function
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        if (size > 0) {
+            int mc = modCount;
+            replaceAll(this.oldTable, function);
+            replaceAll(this.table, function);
+            if (modCount != mc) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private static <K, V> void replaceAll(Node<K, V>[] tab, BiFunction<? super K, ? super V, ? extends V> function) {
+        if (tab != null) {
+            for (Node<K, V> node : tab) {
+                for (; node != null; node = node.next) {
+                    node.value = function.apply(node.key, node.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in this map, with their values,
+     * sized for all the keys if they are a collection;
+     *
+     * @param keys
+     * @return MyMap<K, V>
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        MyHashMap<K, V> result = (keys instanceof Collection)
+                ? new MyHashMap<>((int) (((Collection<?>) keys).size() / DEFAULT_LOAD_FACTOR) + 1) : new MyHashMap<>();
+        return getAll(keys, result);
+    }
+
+    /**
+     * This method removes the given keys and returns the number of keys which were present,
+     * every key is looked up once;
+     *
+     * @param keys
+     * @return int
+     */
+    @Override
+    public int removeAll(Iterable<?> keys) {
+        Objects.requireNonNull(keys);
+        int removed = 0;
+        for (Object key : keys) {
+            if (size == 0) {
+                break;
+            }
+            if (removeNode(hashOf(key), key, true) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of key value pairs
+     *
+     * @return number of key value pairs (int)
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a set view of the key-value pairs: it is backed by the table, so changes of the map are visible through it,
+     * and removing from the set or from its iterator removes from the map. The entries are the nodes themselves,
+     * setting a value of an entry sets it in the map. Iterating allocates nothing but the iterator;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySet()) : es;
+    }
+
+    /**
+     * Returns a set view of the keys backed by the table, see entrySet;
+     *
+     * @return set
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> ks;
+        return (ks = keySet) == null ? (keySet = new KeySet()) : ks;
+    }
+
+    /**
+     * Returns a collection view of the values backed by the table, see entrySet;
+     *
+     * @return collection
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vs;
+        return (vs = values) == null ? (values = new Values()) : vs;
+    }
+
+    /**
+     * This is the iterator of the views: it walks the buckets of the old table, if an incremental resize is in progress,
+     * and then the buckets of the table, following the chain of every bucket. Since migrating a bucket counts as
+     * a modification, the two tables cannot change under the iterator without it noticing. Buckets are migrated
+     * only by an insertion or a removal, so replacing a value or removing an absent key does not fail the iterator;
+     */
+    private abstract class HashIterator {
+        private Node<K, V> next;
+        private Node<K, V> current;
+        private Node<K, V>[] tab;
+        private int index;
+        private int expectedModCount;
+
+        HashIterator() {
+            expectedModCount = modCount;
+            Node<K, V>[] oldTab = oldTable;
+            tab = (oldTab != null) ? oldTab : table;
+            if (size > 0) {
+                advanceBucket();
+            }
+        }
+
+        /**
+         * Finds the first node of the next non-empty bucket, moving from the old table to the table when it is exhausted;
+         */
+        private void advanceBucket() {
+            for (Node<K, V>[] t = tab; t != null; ) {
+                while (index < t.length) {
+                    if ((next = t[index++]) != null) {
+                        return;
+                    }
+                }
+                t = tab = (t == table) ? null : table;
+                index = 0;
+            }
+            next = null;
+        }
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final Node<K, V> nextNode() {
+            Node<K, V> e = next;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            current = e;
+            if ((next = e.next) == null) {
+                advanceBucket();
+            }
+            return e;
+        }
+
+        public final void remove() {
+            Node<K, V> p = current;
+            if (p == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            current = null;
+            removeNode(p.hash, p.key, false);
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class EntryIterator extends HashIterator implements Iterator<MyMap.Entry<K, V>> {
+        @Override
+        public MyMap.Entry<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    private final class KeyIterator extends HashIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private final class ValueIterator extends HashIterator implements Iterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    /**
+     * This is the spliterator of the views. The buckets of the old table, if an incremental resize is in progress,
+     * followed by the buckets of the table form one range of indexes, which is split in halves, so every part walks
+     * whole buckets. The tables are bound when the spliterator is first used; the size is exact only for a spliterator
+     * which has not been split, the parts report half of the estimate of their parent;
+     *
+     * @param <T> is the type of the elements
+     */
+    private abstract class HashSpliterator<T> implements Spliterator<T> {
+        private final int characteristics;
+        private Node<K, V>[] oldTab;
+        private Node<K, V>[] tab;
+        /**
+         * This is the node to return next from the current bucket;
+         */
+        private Node<K, V> current;
+        private int index;
+        /**
+         * This is the end of the range of buckets, -1 until the tables are bound;
+         */
+        private int fence = -1;
+        private int est;
+        private int expectedModCount;
+
+        HashSpliterator(int characteristics) {
+            this.characteristics = characteristics;
+        }
+
+        /**
+         * Returns the element of the view the node stands for;
+         */
+        abstract T element(Node<K, V> node);
+
+        /**
+         * Returns an unbound spliterator of the same view;
+         */
+        abstract HashSpliterator<T> newSpliterator();
+
+        private int getFence() {
+            int hi;
+            if ((hi = fence) < 0) {
+                Node<K, V>[] o = oldTab = oldTable;
+                Node<K, V>[] t = tab = table;
+                est = size;
+                expectedModCount = modCount;
+                hi = fence = (o == null ? 0 : o.length) + (t == null ? 0 : t.length);
+            }
+            return hi;
+        }
+
+        /**
+         * Returns the first node of the bucket with the given index of the whole range;
+         */
+        private Node<K, V> bucket(int i) {
+            Node<K, V>[] o = oldTab;
+            int oldCap = (o == null) ? 0 : o.length;
+            return (i < oldCap) ? o[i] : tab[i - oldCap];
+        }
+
+        @Override
+        public final Spliterator<T> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            if (lo >= mid || current != null) {
+                return null;
+            }
+            HashSpliterator<T> prefix = newSpliterator();
+            prefix.oldTab = oldTab;
+            prefix.tab = tab;
+            prefix.index = lo;
+            prefix.fence = index = mid;
+            prefix.est = est >>>= 1;
+            prefix.expectedModCount = expectedModCount;
+            return prefix;
+        }
+
+        @Override
+        public final boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            while (current != null || index < hi) {
+                if (current == null) {
+                    current = bucket(index++);
+                } else {
+                    Node<K, V> node = current;
+                    current = node.next;
+                    action.accept(element(node));
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public final void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence(), i = index;
+            Node<K, V> node = current;
+            current = null;
+            index = hi;
+            while (node != null || i < hi) {
+                if (node == null) {
+                    node = bucket(i++);
+                } else {
+                    action.accept(element(node));
+                    node = node.next;
+                }
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public final long estimateSize() {
+            getFence();
+            return est;
+        }
+
+        @Override
+        public final int characteristics() {
+            return (fence < 0 || est == size ? Spliterator.SIZED : 0) | characteristics;
+        }
+    }
+
+    private final class EntrySpliterator extends HashSpliterator<MyMap.Entry<K, V>> {
+        EntrySpliterator() {
+            super(Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        MyMap.Entry<K, V> element(Node<K, V> node) {
+            return node;
+        }
+
+        @Override
+        HashSpliterator<MyMap.Entry<K, V>> newSpliterator() {
+            return new EntrySpliterator();
+        }
+    }
+
+    private final class KeySpliterator extends HashSpliterator<K> {
+        KeySpliterator() {
+            super(Spliterator.DISTINCT);
+        }
+
+        @Override
+        K element(Node<K, V> node) {
+            return node.key;
+        }
+
+        @Override
+        HashSpliterator<K> newSpliterator() {
+            return new KeySpliterator();
+        }
+    }
+
+    private final class ValueSpliterator extends HashSpliterator<V> {
+        ValueSpliterator() {
+            super(0);
+        }
+
+        @Override
+        V element(Node<K, V> node) {
+            return node.value;
+        }
+
+        @Override
+        HashSpliterator<V> newSpliterator() {
+            return new ValueSpliterator();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<MyMap.Entry<K, V>> {
+        @Override
+        public Iterator<MyMap.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public Spliterator<MyMap.Entry<K, V>> spliterator() {
+            return new EntrySpliterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof MyMap.Entry)) {
+                return false;
+            }
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            Object key = entry.getKey();
+            Node<K, V>[] tab;
+            int hash = hashOf(key);
+            if (size == 0 || (tab = tableFor(hash)) == null) {
+                return false;
+            }
+            Node<K, V> node = findNode(tab, hash, key);
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            Object key = ((MyMap.Entry<?, ?>) o).getKey();
+            removeNode(hashOf(key), key, true);
+            return true;
+        }
+    }
+
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            return new KeySpliterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            return size > 0 && removeNode(hashOf(key), key, true) != null;
+        }
+    }
+
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            return new ValueSpliterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return containsValue(value);
+        }
+    }
+
+    /**
+     * calculates the hash code of the key;
+     *
+     * @param key
+     * @return int
+     */
+    static final int hash(Object key) {
+        int h;
+        return (key == null) ? 0 : (h = key.hashCode()) ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the hash of the key by the hashing strategy of the map, spread as hash(key) does,
+     * or hash(key) if there is no strategy;
+     *
+     * @param key
+     * @return int
+     */
+    final int hashOf(Object key) {
+        HashingStrategy<Object> s = this.strategy;
+        if (s == null || key == null) {
+            return hash(key);
+        }
+        int h = s.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns whether the not null key is equal to the other key by the hashing strategy of the map, or by equals();
+     *
+     * @param key
+     * @param other
+     * @return boolean
+     */
+    final boolean keyEquals(Object key, Object other) {
+        HashingStrategy<Object> s = this.strategy;
+        return s == null ? key.equals(other) : other != null && s.equals(key, other);
+    }
+
+    /**
+     * Returns the comparable class of the key which orders a tree bin, see comparableClassFor.
+     * With a hashing strategy it is always null: the natural order of the keys may disagree with the equality
+     * of the strategy, so equal hashes are searched on both sides instead;
+     *
+     * @param key
+     * @return Class<?>
+     */
+    final Class<?> comparableClassOf(Object key) {
+        return this.strategy == null ? comparableClassFor(key) : null;
+    }
+
+    /**
+     * Returns the hashing strategy of the map, null if the keys' own methods are used;
+     *
+     * @return HashingStrategy<Object>
+     */
+    final HashingStrategy<Object> hashingStrategy() {
+        return this.strategy;
+    }
+
+    /**
+     * calculates the index code of the hash table;
+     *
+     * @param key
+     * @return int
+     */
+    static final int calculateIndex(Object key, int tabSize) {
+        if (tabSize < 0) {
+            throw new IllegalArgumentException("The negative table size " + tabSize);
+        }
+        return (tabSize - 1) & hash(key);
+    }
+
+    /**
+     * Returns the class of the given object if it is declared as "class C implements Comparable<C>", otherwise null;
+     *
+     * @param x
+     * @return Class<?>
+     */
+    static Class<?> comparableClassFor(Object x) {
+        if (x instanceof Comparable) {
+            Class<?> c;
+            if ((c = x.getClass()) == String.class) {
+                return c;
+            }
+            for (Type t : c.getGenericInterfaces()) {
+                if (t instanceof ParameterizedType) {
+                    ParameterizedType p = (ParameterizedType) t;
+                    Type[] as = p.getActualTypeArguments();
+                    if (p.getRawType() == Comparable.class && as.length == 1 && as[0] == c) {
+                        return c;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares k with x if x has the comparable class kc of k, otherwise returns 0;
+     *
+     * @param kc
+     * @param k
+     * @param x
+     * @return int
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static int compareComparables(Class<?> kc, Object k, Object x) {
+        return (x == null || x.getClass() != kc ? 0 : ((Comparable) k).compareTo(x));
+    }
+
+    /**
+     * Converts the chain of the bucket of the given hash into a tree bin,
+     * or resizes the table instead if it is smaller than MIN_TREEIFY_CAPACITY;
+     *
+     * @param tab
+     * @param hash
+     */
+    private void treeifyBin(Node<K, V>[] tab, int hash) {
+        int n, index;
+        Node<K, V> node;
+        if ((n = tab.length) < MIN_TREEIFY_CAPACITY) {
+            increaseSize();
+        } else if ((node = tab[index = (n - 1) & hash]) != null) {
+            TreeNode<K, V> head = null, tail = null;
+            do {
+                TreeNode<K, V> p = replacementTreeNode(node, null);
+                if ((p.prev = tail) == null) {
+                    head = p;
+                } else {
+                    tail.next = p;
+                }
+                tail = p;
+            } while ((node = node.next) != null);
+            tab[index] = head;
+            head.treeify(this, tab);
+        }
+    }
+
+    /**
+     * Returns the node of the key or null if there is no such key, subclasses use it to look up without the hooks.
+     * This is the fast path of get, getOrDefault and containsKey, kept small enough for the JIT to inline it into them:
+     * an empty map returns before the key is hashed, the hash is computed once and the head of the bucket, which is
+     * the only node of most buckets, is checked in place. Longer chains and tree bins are searched by findAfterHead;
+     *
+     * @param key
+     * @return Node<K, V>
+     */
+    final Node<K, V> getNode(Object key) {
+        /*
+         *an empty map also covers a map whose table is not allocated yet, since a map with pairs always has a table
+         */
+        return size == 0 ? null : getNode(hashOf(key), key);
+    }
+
+    /**
+     * Returns the node of the key whose hash has already been computed by hashOf, or null if there is no such key;
+     *
+     * @param hash the hash of the key
+     * @param key
+     * @return Node<K, V>
+     */
+    final Node<K, V> getNode(int hash, Object key) {
+        if (size == 0) {
+            return null;
+        }
+        Node<K, V>[] tab = tableFor(hash);
+        Node<K, V> first = tab[(tab.length - 1) & hash];
+        if (first == null || (first.hash == hash && (first.key == key || (key != null && keyEquals(key, first.key))))) {
+            return first;
+        }
+        return first.next == null ? null : findAfterHead(first, hash, key);
+    }
+
+    /**
+     * Returns the node of the key in the bin after its head, which does not match the key, or null if there is no such key;
+     *
+     * @param first the head of a bin of at least two nodes
+     * @param hash  the hash of the key
+     * @param key
+     * @return Node<K, V>
+     */
+    private Node<K, V> findAfterHead(Node<K, V> first, int hash, Object key) {
+        if (first instanceof TreeNode) {
+            return ((TreeNode<K, V>) first).getTreeNode(this, hash, key);
+        }
+        for (Node<K, V> e = first.next; e != null; e = e.next) {
+            if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /*
+     *the hooks below let a subclass create its own nodes and keep them in its own order, as BoundedMyHashMap does:
+     *every node of the map is created by newNode, replacementNode or their tree versions,
+     *and every insertion, update and removal is reported after the table has been changed
+     */
+
+    /**
+     * Creates a node of a new key;
+     */
+    Node<K, V> newNode(int hash, K key, V value, Node<K, V> next) {
+        return new Node<>(hash, key, value, next);
+    }
+
+    /**
+     * Creates a plain node replacing the tree node p when a tree bin becomes a chain;
+     */
+    Node<K, V> replacementNode(Node<K, V> p, Node<K, V> next) {
+        return new Node<>(p.hash, p.key, p.value, next);
+    }
+
+    /**
+     * Creates a tree node of a new key inserted into a tree bin;
+     */
+    TreeNode<K, V> newTreeNode(int hash, K key, V value, Node<K, V> next) {
+        return new TreeNode<>(hash, key, value, next);
+    }
+
+    /**
+     * Creates a tree node replacing the plain node p when a chain becomes a tree bin;
+     */
+    TreeNode<K, V> replacementTreeNode(Node<K, V> p, Node<K, V> next) {
+        return new TreeNode<>(p.hash, p.key, p.value, next);
+    }
+
+    /**
+     * Is called after a put or a compute found the node of an existing key, whose value may have been replaced;
+     */
+    void afterNodeAccess(Node<K, V> p) {
+    }
+
+    /**
+     * Is called after a node of a new key has been linked and the table resized if needed;
+     */
+    void afterNodeInsertion() {
+    }
+
+    /**
+     * Is called after the node has been unlinked from the table;
+     */
+    void afterNodeRemoval(Node<K, V> p) {
+    }
+
+    /**
+     * Is called before the table is allocated, doubled or shrunk, returns a value which is passed to afterResize;
+     *
+     * @return long
+     */
+    long beforeResize() {
+        return 0L;
+    }
+
+    /**
+     * Is called after the table has been allocated, doubled or shrunk;
+     *
+     * @param started     the value returned by beforeResize
+     * @param oldCapacity the length of the previous table, 0 if there was none
+     * @param newCapacity the length of the new table
+     */
+    void afterResize(long started, int oldCapacity, int newCapacity) {
+    }
+
+    /**
+     * Returns the number of nodes a lookup of the key compares with it: the position of the key in its chain
+     * or the length of the chain if the key is absent, in a tree bin the depth of the node of the key
+     * or of the leaf where the search by hash ends. It walks the bucket once more, so only instrumented maps call it;
      *
      * @param key
-     * @return removed value
+     * @return int
      */
-    @Override
-    public V remove(Object key) {
-        Node<K, V>[] tab = this.table;
-        Node<K, V> node = null;
-        int n = table.length;
-        int index = 0;
-        int keyHash = hash(key);
-        if (n > 0) {
-            index = calculateIndex(key, n);
-            node = tab[index];
+    final int probeLength(Object key) {
+        Node<K, V>[] tab;
+        int hash = hashOf(key);
+        if ((tab = tableFor(hash)) == null || tab.length == 0) {
+            return 0;
         }
-        if (node != null) {
-            if (node.hash == keyHash && (key != null && key.equals(node.key))) {
-                tab[index] = null;
-                size--;
-                return node.value;
-            } else if (node.next != null) {
-                Node<K, V> temp = node.next;
-                while (temp != null) {
-                    if (temp.hash == keyHash && (key != null && key.equals(temp.key))) {
-                        node.next = temp.next;
-                        V value = temp.value;
-                        temp = null;
-                        size--;
-                        return value;
-                    }
+        Node<K, V> first = tab[(tab.length - 1) & hash];
+        if (first instanceof TreeNode) {
+            TreeNode<K, V> node = ((TreeNode<K, V>) first).getTreeNode(this, hash, key);
+            int depth = 0;
+            if (node != null) {
+                for (; node != null; node = node.parent) {
+                    depth++;
+                }
+                return depth;
+            }
+            for (TreeNode<K, V> p = ((TreeNode<K, V>) first).root(); p != null; p = (hash < p.hash) ? p.left : p.right) {
+                depth++;
+                if (p.hash == hash) {
+                    break;
                 }
             }
+            return depth;
         }
-        return null;
+        int probes = 0;
+        for (Node<K, V> e = first; e != null; e = e.next) {
+            probes++;
+            if (e.hash == hash && (e.key == key || (key != null && keyEquals(key, e.key)))) {
+                break;
+            }
+        }
+        return probes;
     }
 
     /**
-     * Clears our table;
+     * Returns the distribution of the bucket sizes: the element i is the number of buckets holding i nodes,
+     * so the length of the array is the size of the largest bucket plus one. A tree bin is counted by its nodes.
+     * While an incremental resize is in progress, a bucket of the old table which has not been migrated yet
+     * is counted as the two buckets of the new table it will be split into, whose places are still empty;
+     *
+     * @return long[]
      */
-    @Override
-    public void clear() {
+    final long[] bucketSizeHistogram() {
+        long[] histogram = new long[TREEIFY_THRESHOLD + 1];
         Node<K, V>[] tab = this.table;
-        if (tab != null && this.size > 0) {
+        Node<K, V>[] oldTab = this.oldTable;
+        if (tab != null) {
+            int oldCap = oldTab == null ? 0 : oldTab.length;
             for (int i = 0; i < tab.length; i++) {
-                tab[i] = null;
+                Node<K, V> first = oldTab == null ? null : oldTab[i & (oldCap - 1)];
+                if (first == null) {
+                    int length = 0;
+                    for (Node<K, V> node = tab[i]; node != null; node = node.next) {
+                        length++;
+                    }
+                    histogram = countBucket(histogram, length);
+                } else if (i < oldCap) {
+                    int lo = 0, hi = 0;
+                    for (Node<K, V> node = first; node != null; node = node.next) {
+                        if ((node.hash & oldCap) == 0) {
+                            lo++;
+                        } else {
+                            hi++;
+                        }
+                    }
+                    histogram = countBucket(countBucket(histogram, lo), hi);
+                }
             }
         }
-        this.size = 0;
+        int last = histogram.length - 1;
+        while (last > 0 && histogram[last] == 0) {
+            last--;
+        }
+        return Arrays.copyOf(histogram, last + 1);
+    }
+
+    private static long[] countBucket(long[] histogram, int length) {
+        if (length >= histogram.length) {
+            histogram = Arrays.copyOf(histogram, length + 1);
+        }
+        histogram[length]++;
+        return histogram;
     }
 
     /**
-     * Checks whether the hash table contains the key passed as a parameter;
+     * Returns the number of the buckets which are tree bins;
      *
-     * @param key
-     * @return true if key is exist or false if key is not exist
+     * @return int
      */
-    @Override
-    public boolean containsKey(Object key) {
-        Node<K, V>[] tab = this.table;
-        if (tab != null && size > 0) {
-            for (int i = 0; i < tab.length; i++) {
-                Node<K, V> temp = tab[i];
-                while (temp != null) {
-                    if (temp.key.equals(key)) {
-                        return true;
+    @SuppressWarnings("unchecked")
+    final int treeBinCount() {
+        int count = 0;
+        for (Node<K, V>[] tab : new Node[][]{this.table, this.oldTable}) {
+            if (tab != null) {
+                for (Node<K, V> first : tab) {
+                    if (first instanceof TreeNode) {
+                        count++;
                     }
-                    temp = temp.next;
                 }
             }
         }
-        return false;
+        return count;
     }
 
     /**
-     * Checks whether the hash table contains the value passed as a parameter;
+     * Returns the size at which the table is doubled;
      *
-     * @param value
-     * @return true if key is exist or false if key is not exist
+     * @return int
      */
-    @Override
-    public boolean containsValue(Object value) {
+    int threshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Returns the length of the table, 0 if it is not allocated yet;
+     *
+     * @return int
+     */
+    int capacity() {
         Node<K, V>[] tab = this.table;
-        if (tab != null && size > 0) {
-            for (int i = 0; i < tab.length; i++) {
-                Node<K, V> temp = tab[i];
-                while (temp != null) {
-                    if (temp.value.equals(value)) {
-                        return true;
-                    }
-                    temp = temp.next;
-                }
-            }
-        }
-        return false;
+        return tab == null ? 0 : tab.length;
     }
 
     /**
-     * Returns the number of key value pairs
+     * Returns whether the table of the map is shrunk when the map is drained;
      *
-     * @return number of key value pairs (int)
+     * @return boolean
      */
-    @Override
-    public int size() {
-        return this.size;
+    boolean isShrinkOnRemove() {
+        return this.shrinkOnRemove;
     }
 
     /**
-     * Returns a set containing key-value pairs
+     * Returns the load factor of the map;
      *
-     * @return set
+     * @return float
      */
-    @Override
-    public Set<MyMap.Entry<K, V>> entrySet() {
+    float loadFactor() {
+        return this.loadFactor;
+    }
+
+    /**
+     * Returns whether the table of the map is resized incrementally;
+     *
+     * @return boolean
+     */
+    boolean isIncrementalResize() {
+        return this.incrementalResize;
+    }
+
+    /**
+     * Allocates the table of the given capacity for restoring a snapshot into this map, which must be empty.
+     * The nodes are then added by restoreNode and the restore is completed by finishRestore;
+     *
+     * @param capacity a power of two not greater than MAXIMUM_CAPACITY, or 0 for a map without a table
+     * @see MyHashMapSnapshot
+     */
+    @SuppressWarnings("unchecked")
+    void restoreTable(int capacity) {
+        if (capacity == 0) {
+            return;
+        }
+        float ft = (float) capacity * loadFactor;
+        this.table = (Node<K, V>[]) new Node[capacity];
+        this.threshold = (capacity < MAXIMUM_CAPACITY && ft < (float) MAXIMUM_CAPACITY ? (int) ft : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Links a node of a snapshot into its bucket by the cached hash, without calling hashCode() or equals():
+     * the snapshot holds every key once;
+     *
+     * @param hash  the hash the node had in the snapshotted map
+     * @param key
+     * @param value
+     */
+    void restoreNode(int hash, K key, V value) {
         Node<K, V>[] tab = this.table;
-        Set<MyMap.Entry<K, V>> entries = new HashSet<>();
-        if (size > 0) {
-            for (int i = 0; i < tab.length; i++) {
-                Node<K, V> node = tab[i];
-                if (node != null && node.next == null) {
-                    entries.add(node);
-                } else if (node != null && node.next != null) {
-                    entries.add(node);
-                    Node<K, V> temp = node.next;
-                    while (temp != null) {
-                        entries.add(temp);
-                        temp = temp.next;
-                    }
+        int index = (tab.length - 1) & hash;
+        tab[index] = newNode(hash, key, value, tab[index]);
+        ++size;
+    }
+
+    /**
+     * Converts the restored chains which the snapshotted map kept as tree bins back into tree bins.
+     * A table smaller than MIN_TREEIFY_CAPACITY keeps its long chains, as the snapshotted map did;
+     */
+    void finishRestore() {
+        Node<K, V>[] tab = this.table;
+        if (tab != null && tab.length >= MIN_TREEIFY_CAPACITY) {
+            for (Node<K, V> first : tab) {
+                int binCount = 0;
+                for (Node<K, V> node = first; node != null && binCount < TREEIFY_THRESHOLD; node = node.next) {
+                    ++binCount;
+                }
+                if (binCount >= TREEIFY_THRESHOLD) {
+                    treeifyBin(tab, first.hash);
                 }
             }
         }
-        return entries;
+        ++modCount;
     }
 
     /**
-     * calculates the hash code of the key;
+     * An auxiliary method that calculates the capacity of a hash table: the smallest power of two not less than
+     * the given capacity, at least 2 and at most MAXIMUM_CAPACITY. All bits below the highest one bit of capacity - 1
+     * are set by a shift of numberOfLeadingZeros, so no loop or floating point is needed;
      *
-     * @param key
+     * @param capacity
      * @return int
      */
-    static final int hash(Object key) {
-        int h;
-        return (key == null) ? 0 : (h = key.hashCode()) ^ (h >>> 16);
+    static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 1) ? 2 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
     }
 
     /**
-     * calculates the index code of the hash table;
+     * Grows the table for a batch of the given number of keys before it is inserted. A map without a table gets
+     * the final capacity at once; a filled table is doubled until the batch fits, as its nodes are split
+     * without rehashing. The existing keys are not counted, since the batch may replace their values only;
      *
-     * @param key
-     * @return int
+     * @param expected the number of keys in the batch
      */
-    static final int calculateIndex(Object key, int tabSize) {
-        if (tabSize < 0) {
-            throw new IllegalArgumentException("The negative table size " + tabSize);
+    final void presize(int expected) {
+        Node<K, V>[] tab = this.table;
+        if (tab == null || tab.length == 0) {
+            float ft = (float) expected / loadFactor + 1.0f;
+            int capacity = tableSizeFor(ft < (float) MAXIMUM_CAPACITY ? (int) ft : MAXIMUM_CAPACITY);
+            if (capacity > this.threshold) {
+                this.threshold = capacity;
+            }
+        } else {
+            while (expected > this.threshold && this.table.length < MAXIMUM_CAPACITY) {
+                increaseSize();
+            }
         }
-        return (tabSize - 1) & hash(key);
     }
 
     /**
-     * An auxiliary method that calculates the capacity of a hash table
+     * Increases the capacity of the hash table and transfers values from the old one there,
+     * reporting the resize to beforeResize and afterResize;
      *
-     * @param capacity
-     * @return int
+     * @return Node<K, V>[]
      */
-    private int sizeCalculation(int capacity) {
-        int x = 2;
-        int power = 1;
-        while (Math.pow(x, power) < capacity) {
-            power++;
-        }
-        return (int) Math.pow(x, power);
+    private Node<K, V>[] increaseSize() {
+        long started = beforeResize();
+        int oldCap = capacity();
+        Node<K, V>[] newTab = resize();
+        afterResize(started, oldCap, newTab.length);
+        return newTab;
     }
 
     /**
-     * Increases the capacity of the hash table and transfers values from the old one there
+     * Allocates the table of the doubled capacity, or the initial one, and transfers the values from the old table there.
+     * In the incremental mode only the new table is allocated here, the nodes are migrated later by helpTransfer;
      *
      * @return Node<K, V>[]
      */
-    private final Node<K, V>[] increaseSize() {
+    private Node<K, V>[] resize() {
+        if (this.oldTable != null) {
+            /*
+             *the previous incremental resize must be finished before the table doubles again
+             */
+            completeTransfer();
+        }
         Node<K, V>[] oldTab = this.table;
         int oldCap = (oldTab == null) ? 0 : oldTab.length;
         int oldThr = this.threshold;
@@ -458,34 +2639,254 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
         this.threshold = newThr;
         Node<K, V>[] newTab = (Node<K, V>[]) new Node[newCap];
         this.table = newTab;
-        for (int i = 0; i < oldCap; i++) {
-            Node<K, V> node;
-            if ((node = oldTab[i]) != null) {
-                oldTab[i] = null;
-                newTab[calculateIndex(node.key, newCap)] = node;
+        if (oldCap > 0) {
+            if (incrementalResize) {
+                this.oldTable = oldTab;
+                this.transferIndex = 0;
+            } else {
+                for (int i = 0; i < oldCap; i++) {
+                    transferBucket(oldTab, newTab, i);
+                }
             }
         }
         return newTab;
     }
 
     /**
-     * An overridden method compares two objects of a given class;
+     * This method shrinks the table to the smallest capacity which keeps the current number of pairs within
+     * the threshold, regardless of the shrinkOnRemove policy, for example after a bulk removal from a long-lived map.
+     * The table is halved step by step, each step merges the buckets i and i + capacity / 2 without rehashing the keys;
+     */
+    public void trimToSize() {
+        Node<K, V>[] tab = this.table;
+        if (tab == null || tab.length <= 2 || size > thresholdFor(tab.length >>> 1)) {
+            return;
+        }
+        long started = beforeResize();
+        if (this.oldTable != null) {
+            completeTransfer();
+        }
+        while (this.table.length > 2 && size <= thresholdFor(this.table.length >>> 1)) {
+            halveTable();
+        }
+        afterResize(started, tab.length, this.table.length);
+    }
+
+    /**
+     * Halves the table after a removal if the pairs fill less than a quarter of the threshold, but not below
+     * minimumCapacity. A table which is being migrated by an incremental resize is left alone until the migration ends;
+     */
+    private void shrinkIfSparse() {
+        Node<K, V>[] tab = this.table;
+        if (this.oldTable == null && tab.length > minimumCapacity) {
+            long started = beforeResize();
+            halveTable();
+            afterResize(started, tab.length, this.table.length);
+        }
+    }
+
+    /**
+     * Replaces the table with a table half as large: the bucket i of the new table gets the chain of the bucket i
+     * followed by the chain of the bucket i + newCap, as the nodes of both differ only in the bit which the mask drops;
+     */
+    @SuppressWarnings("unchecked")
+    private void halveTable() {
+        Node<K, V>[] oldTab = this.table;
+        int newCap = oldTab.length >>> 1;
+        Node<K, V>[] newTab = (Node<K, V>[]) new Node[newCap];
+        for (int i = 0; i < newCap; i++) {
+            mergeBuckets(newTab, i, oldTab[i], oldTab[i + newCap]);
+        }
+        this.table = newTab;
+        this.threshold = thresholdFor(newCap);
+        ++modCount;
+    }
+
+    /**
+     * Links the two chains into the bucket of the new table. A single chain or tree bin is taken as it is,
+     * since a tree bin is ordered by the hashes and stays valid in any bucket. Two bins of which one is a tree
+     * are merged as chains, and the merged chain is converted into a tree bin again if it is long enough;
+     *
+     * @param tab   the new table
+     * @param index the index of the bucket in the new table
+     * @param lo    the bin of the bucket index in the old table
+     * @param hi    the bin of the bucket index + tab.length in the old table
+     */
+    private void mergeBuckets(Node<K, V>[] tab, int index, Node<K, V> lo, Node<K, V> hi) {
+        if (lo == null || hi == null) {
+            tab[index] = lo != null ? lo : hi;
+            return;
+        }
+        if (lo instanceof TreeNode) {
+            lo = ((TreeNode<K, V>) lo).untreeify(this);
+        }
+        if (hi instanceof TreeNode) {
+            hi = ((TreeNode<K, V>) hi).untreeify(this);
+        }
+        int binCount = 1;
+        Node<K, V> tail = lo;
+        for (; tail.next != null; tail = tail.next) {
+            ++binCount;
+        }
+        tail.next = hi;
+        tab[index] = lo;
+        for (Node<K, V> node = hi; node != null && binCount < TREEIFY_THRESHOLD; node = node.next) {
+            ++binCount;
+        }
+        if (binCount >= TREEIFY_THRESHOLD && tab.length >= MIN_TREEIFY_CAPACITY) {
+            treeifyBin(tab, lo.hash);
+        }
+    }
+
+    /**
+     * Returns the threshold of a table of the given capacity;
+     *
+     * @param capacity
+     * @return int
+     */
+    private int thresholdFor(int capacity) {
+        float ft = (float) capacity * loadFactor;
+        return capacity < MAXIMUM_CAPACITY && ft < (float) MAXIMUM_CAPACITY ? (int) ft : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Moves the chain of the given bucket of the old table into the new table, which is twice as large.
+     * Every node either stays at the same index (lo list) or moves by oldCap (hi list), depending on the bit of its cached hash
+     * which the new mask adds, so the chain is split without calling hashCode() and keeps its order;
+     *
+     * @param oldTab
+     * @param newTab
+     * @param index  the index of the bucket in the old table
+     */
+    private void transferBucket(Node<K, V>[] oldTab, Node<K, V>[] newTab, int index) {
+        Node<K, V> node = oldTab[index];
+        if (node == null) {
+            return;
+        }
+        oldTab[index] = null;
+        int oldCap = oldTab.length;
+        if (node instanceof TreeNode) {
+            ((TreeNode<K, V>) node).split(this, newTab, index, oldCap);
+            return;
+        }
+        Node<K, V> loHead = null, loTail = null;
+        Node<K, V> hiHead = null, hiTail = null;
+        Node<K, V> next;
+        do {
+            next = node.next;
+            if ((node.hash & oldCap) == 0) {
+                if (loTail == null) {
+                    loHead = node;
+                } else {
+                    loTail.next = node;
+                }
+                loTail = node;
+            } else {
+                if (hiTail == null) {
+                    hiHead = node;
+                } else {
+                    hiTail.next = node;
+                }
+                hiTail = node;
+            }
+        } while ((node = next) != null);
+        if (loTail != null) {
+            loTail.next = null;
+            newTab[index] = loHead;
+        }
+        if (hiTail != null) {
+            hiTail.next = null;
+            newTab[index + oldCap] = hiHead;
+        }
+    }
+
+    /**
+     * Migrates the bucket of the given hash and the next TRANSFER_STEP buckets of the old table into the new one,
+     * so that the caller can work with the new table only. Lookups do not migrate anything, they use tableFor;
+     *
+     * @param hash
+     */
+    private void helpTransfer(int hash) {
+        modCount++;
+        Node<K, V>[] oldTab = this.oldTable;
+        Node<K, V>[] newTab = this.table;
+        transferBucket(oldTab, newTab, hash & (oldTab.length - 1));
+        int i = this.transferIndex;
+        int end = Math.min(i + TRANSFER_STEP, oldTab.length);
+        for (; i < end; i++) {
+            transferBucket(oldTab, newTab, i);
+        }
+        this.transferIndex = i;
+        if (i == oldTab.length) {
+            this.oldTable = null;
+        }
+    }
+
+    /**
+     * Migrates all remaining buckets of the old table;
+     */
+    private void completeTransfer() {
+        Node<K, V>[] oldTab = this.oldTable;
+        for (int i = this.transferIndex; i < oldTab.length; i++) {
+            transferBucket(oldTab, this.table, i);
+        }
+        this.oldTable = null;
+    }
+
+    /**
+     * Returns the table holding the bucket of the given hash: while an incremental resize is in progress,
+     * a bucket which has not been migrated yet is still in the old table;
+     *
+     * @param hash
+     * @return Node<K, V>[]
+     */
+    private Node<K, V>[] tableFor(int hash) {
+        Node<K, V>[] oldTab = this.oldTable;
+        if (oldTab != null && oldTab[hash & (oldTab.length - 1)] != null) {
+            return oldTab;
+        }
+        return this.table;
+    }
+
+    /**
+     * Returns an immutable copy of the map in a compact layout without nodes, which takes less memory and finds keys
+     * with fewer cache misses, see FrozenMyHashMap. The hashing strategy is kept, this map does not change;
+     *
+     * @return FrozenMyHashMap<K, V>
+     */
+    public FrozenMyHashMap<K, V> freeze() {
+        return new FrozenMyHashMap<>(this);
+    }
+
+    /**
+     * An overridden method compares this map with another MyHashMap by their key-value pairs, as AbstractMap does:
+     * the maps are equal if they have the same size and every key of this map is mapped to an equal value
+     * in the other one. The capacity, the load factor and the order of the nodes do not matter;
      */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof MyHashMap)) return false;
-        MyHashMap<?, ?> myHashMap = (MyHashMap<?, ?>) o;
-        return threshold == myHashMap.threshold && Float.compare(myHashMap.loadFactor, loadFactor) == 0 && size == myHashMap.size && Arrays.equals(table, myHashMap.table);
+        MyHashMap<?, ?> other = (MyHashMap<?, ?>) o;
+        if (size != other.size) return false;
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            Node<?, ?> node = other.getNode(entry.getKey());
+            if (node == null || !Objects.equals(entry.getValue(), node.value)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * An overridden method returns hashcode of an object of this class;
+     * An overridden method returns the sum of the hashcodes of the key-value pairs, so equal maps have equal hashcodes;
      */
     @Override
     public int hashCode() {
-        int result = Objects.hash(threshold, loadFactor, size);
-        result = 31 * result + Arrays.hashCode(table);
+        int result = 0;
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            result += entry.hashCode();
+        }
         return result;
     }
 
@@ -494,8 +2895,18 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
      */
     @Override
     public String toString() {
-        Node<K, V>[] tab = this.table;
         final StringBuilder sb = new StringBuilder("MyHashMap{");
+        if (this.oldTable != null) {
+            appendNodes(this.oldTable, sb);
+        }
+        appendNodes(this.table, sb);
+        return sb.toString();
+    }
+
+    private void appendNodes(Node<K, V>[] tab, StringBuilder sb) {
+        if (tab == null) {
+            return;
+        }
         for (Node<K, V> node : tab) {
             if (node != null) {
                 if (node.next == null) {
@@ -510,6 +2921,5 @@ public class MyHashMap<K, V> implements MyMap<K, V> {
                 }
             }
         }
-        return sb.toString();
     }
 }
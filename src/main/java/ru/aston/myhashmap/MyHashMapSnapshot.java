@@ -0,0 +1,286 @@
+package ru.aston.myhashmap;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class writes a MyHashMap into a binary file and loads it back. The file keeps the capacity of the table
+ * and the cached hash of every node, so loading places the nodes straight into their buckets without calling hashCode()
+ * or equals() of the keys. Keys and values are converted into bytes by serializers, null keys and values are kept.
+ * <p>
+ * The file starts with a header:
+ * <pre>
+ * [int magic][int version][int capacity][int size][float loadFactor][int flags][long payloadLength][long crc]
+ * </pre>
+ * followed by the records of the nodes:
+ * <pre>
+ * [int hash][int keyLength][key bytes][int valueLength][value bytes]
+ * </pre>
+ * where the length -1 stands for null. The CRC32 covers the records and the header before the crc field, so a corrupt,
+ * truncated or foreign file is rejected with an IOException, after which the caller is expected to rebuild the map
+ * from its source;
+ */
+public final class MyHashMapSnapshot {
+    /**
+     * The first four bytes of every snapshot, "MYHM";
+     */
+    static final int MAGIC = 0x4D59484D;
+    /**
+     * The version of the format written by this class, the only one it reads;
+     */
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    /**
+     * The number of bytes covered by the crc in the header, everything before the crc field;
+     */
+    private static final int CHECKED_HEADER_BYTES = 32;
+    private static final int FLAG_INCREMENTAL_RESIZE = 1;
+    private static final int FLAG_SHRINK_ON_REMOVE = 2;
+    private static final int NULL_LENGTH = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * The size of the regions of the file mapped at once while loading, a mapping can't exceed 2 GB;
+     */
+    private static final int WINDOW_SIZE = 1 << 28;
+
+    private MyHashMapSnapshot() {
+    }
+
+    /**
+     * Writes the map into the file. The nodes are streamed through a buffer of fixed size into a temporary file
+     * next to the target, which then replaces the target, so a crash during the write leaves the previous snapshot intact.
+     * The map must not be modified while it is written. A map with a hashing strategy can't be written,
+     * since the cached hashes of its nodes are valid for that strategy only;
+     *
+     * @param map             the map to write
+     * @param file            the target file
+     * @param keySerializer   serializer of the keys
+     * @param valueSerializer serializer of the values
+     * @throws IOException if the file can't be written
+     */
+    public static <K, V> void write(MyHashMap<K, V> map, Path file, Serializer<K> keySerializer,
+                                    Serializer<V> valueSerializer) throws IOException {
+        if (map.hashingStrategy() != null) {
+            throw new IllegalArgumentException("A map with a hashing strategy can't be snapshotted");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(channel);
+            for (MyMap.Entry<K, V> entry : map.entrySet()) {
+                MyHashMap.Node<K, V> node = (MyHashMap.Node<K, V>) entry;
+                writer.record(node.hash, node.key, node.value, keySerializer, valueSerializer);
+            }
+            writer.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(map.capacity())
+                    .putInt(map.size())
+                    .putFloat(map.loadFactor())
+                    .putInt((map.isIncrementalResize() ? FLAG_INCREMENTAL_RESIZE : 0)
+                            | (map.isShrinkOnRemove() ? FLAG_SHRINK_ON_REMOVE : 0))
+                    .putLong(writer.payloadLength);
+            CRC32 crc = writer.payloadCrc;
+            crc.update(header.array(), 0, CHECKED_HEADER_BYTES);
+            header.putLong(crc.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER_BYTES - header.remaining());
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a map written by write. The file is mapped into memory and checked against its crc first,
+     * then the nodes are placed into a table of the snapshotted capacity by their stored hashes;
+     *
+     * @param file            the snapshot
+     * @param keySerializer   serializer of the keys, the one the snapshot was written with
+     * @param valueSerializer serializer of the values, the one the snapshot was written with
+     * @return the loaded map
+     * @throws IOException if the file can't be read, is corrupt or has an unsupported version
+     */
+    public static <K, V> MyHashMap<K, V> read(Path file, Serializer<K> keySerializer,
+                                              Serializer<V> valueSerializer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw corrupt(file, "the file is too short");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw corrupt(file, "not a snapshot");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            int capacity = header.getInt();
+            int size = header.getInt();
+            float loadFactor = header.getFloat();
+            int flags = header.getInt();
+            long payloadLength = header.getLong();
+            long crc = header.getLong();
+            if (payloadLength != fileSize - HEADER_BYTES) {
+                throw corrupt(file, "the file is truncated");
+            }
+            CRC32 actual = new CRC32();
+            for (long position = HEADER_BYTES; position < fileSize; position += WINDOW_SIZE) {
+                actual.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_SIZE, fileSize - position)));
+            }
+            actual.update(header.duplicate().position(0).limit(CHECKED_HEADER_BYTES));
+            if (actual.getValue() != crc) {
+                throw corrupt(file, "checksum mismatch");
+            }
+            if (capacity < 0 || (capacity & (capacity - 1)) != 0 || size < 0
+                    || (capacity == 0 && size > 0) || !(loadFactor > 0)) {
+                throw corrupt(file, "illegal header");
+            }
+            MyHashMap<K, V> map = new MyHashMap<>(0, loadFactor, (flags & FLAG_INCREMENTAL_RESIZE) != 0, null,
+                    (flags & FLAG_SHRINK_ON_REMOVE) != 0);
+            map.restoreTable(capacity);
+            Reader reader = new Reader(file, channel, fileSize);
+            for (int i = 0; i < size; i++) {
+                int offset = reader.require(8);
+                int hash = reader.window.getInt(offset);
+                int keyLength = reader.window.getInt(offset + 4);
+                K key = null;
+                if (keyLength != NULL_LENGTH) {
+                    offset = reader.require(keyLength);
+                    key = keySerializer.read(reader.window, offset, keyLength);
+                }
+                offset = reader.require(4);
+                int valueLength = reader.window.getInt(offset);
+                V value = null;
+                if (valueLength != NULL_LENGTH) {
+                    offset = reader.require(valueLength);
+                    value = valueSerializer.read(reader.window, offset, valueLength);
+                }
+                map.restoreNode(hash, key, value);
+            }
+            if (reader.position != fileSize) {
+                throw corrupt(file, "unexpected bytes after the last record");
+            }
+            map.finishRestore();
+            return map;
+        }
+    }
+
+    private static IOException corrupt(Path file, String reason) {
+        return new IOException("Corrupt snapshot, " + reason + ": " + file);
+    }
+
+    /**
+     * Collects the records in a heap buffer and writes it out when it fills up, computing the crc of the written bytes;
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final CRC32 payloadCrc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long payloadLength;
+
+        Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_BYTES);
+        }
+
+        /**
+         * Appends the record to the buffer. If it doesn't fit, the buffer is written out and the record is retried,
+         * a record larger than the whole buffer gets a buffer twice as large;
+         */
+        <K, V> void record(int hash, K key, V value, Serializer<K> keySerializer,
+                           Serializer<V> valueSerializer) throws IOException {
+            while (true) {
+                int start = buffer.position();
+                try {
+                    buffer.putInt(hash);
+                    writeValue(key, keySerializer);
+                    writeValue(value, valueSerializer);
+                    return;
+                } catch (BufferOverflowException e) {
+                    buffer.position(start);
+                    if (start == 0) {
+                        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                    } else {
+                        flush();
+                    }
+                }
+            }
+        }
+
+        private <T> void writeValue(T value, Serializer<T> serializer) {
+            if (value == null) {
+                buffer.putInt(NULL_LENGTH);
+                return;
+            }
+            int lengthIndex = buffer.position();
+            buffer.putInt(0);
+            serializer.write(value, buffer);
+            buffer.putInt(lengthIndex, buffer.position() - lengthIndex - 4);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            payloadCrc.update(buffer.array(), 0, buffer.limit());
+            payloadLength += buffer.limit();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Reads the payload through mapped regions of the file, remapping from the current record
+     * when it crosses the end of the current region;
+     */
+    private static final class Reader {
+        private final Path file;
+        private final FileChannel channel;
+        private final long fileSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position = HEADER_BYTES;
+
+        Reader(Path file, FileChannel channel, long fileSize) {
+            this.file = file;
+            this.channel = channel;
+            this.fileSize = fileSize;
+        }
+
+        /**
+         * Makes the next n bytes of the file available in the window and consumes them.
+         * The window may be replaced, so it must be read after this call;
+         *
+         * @return the index of the first of the bytes in the window
+         */
+        int require(int n) throws IOException {
+            if (n < 0 || position + n > fileSize) {
+                throw corrupt(file, "illegal record");
+            }
+            if (window == null || position + n > windowStart + window.limit()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(fileSize - position, Math.max(WINDOW_SIZE, n)));
+            }
+            int offset = (int) (position - windowStart);
+            position += n;
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package ru.aston.myhashmap;
+
+import java.util.Arrays;
+
+/**
+ * This class is an immutable snapshot of the statistics of an InstrumentedMyHashMap: the shape of the table,
+ * the distribution of the bucket sizes, the probe lengths of get and put, the hits and misses and the resizes.
+ * A long average probe length with a low occupancy points to a poor hashCode() of the keys,
+ * a high occupancy to a load factor which is too large, and many costly resizes to a map which should be presized;
+ *
+ * @see InstrumentedMyHashMap#stats()
+ */
+public final class MyHashMapStats {
+    private final int size;
+    private final int capacity;
+    private final int threshold;
+    private final float loadFactor;
+    private final long[] bucketSizes;
+    private final int treeBinCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long getProbes;
+    private final int maxGetProbeLength;
+    private final long putCount;
+    private final long putProbes;
+    private final int maxPutProbeLength;
+    private final long resizeCount;
+    private final long resizeNanos;
+    private final long maxResizeNanos;
+
+    MyHashMapStats(int size, int capacity, int threshold, float loadFactor, long[] bucketSizes, int treeBinCount,
+                   long hitCount, long missCount, long getProbes, int maxGetProbeLength,
+                   long putCount, long putProbes, int maxPutProbeLength,
+                   long resizeCount, long resizeNanos, long maxResizeNanos) {
+        this.size = size;
+        this.capacity = capacity;
+        this.threshold = threshold;
+        this.loadFactor = loadFactor;
+        this.bucketSizes = bucketSizes;
+        this.treeBinCount = treeBinCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.getProbes = getProbes;
+        this.maxGetProbeLength = maxGetProbeLength;
+        this.putCount = putCount;
+        this.putProbes = putProbes;
+        this.maxPutProbeLength = maxPutProbeLength;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+        this.maxResizeNanos = maxResizeNanos;
+    }
+
+    /**
+     * Returns the number of entries;
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the table, 0 if it is not allocated yet;
+     *
+     * @return int
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the size at which the table is doubled;
+     *
+     * @return int
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns the load factor of the map;
+     *
+     * @return float
+     */
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Returns the ratio of the size to the threshold, the table is doubled when it exceeds 1.0;
+     *
+     * @return double
+     */
+    public double occupancy() {
+        return threshold == 0 ? 0.0 : (double) size / threshold;
+    }
+
+    /**
+     * Returns the distribution of the bucket sizes: the element i is the number of buckets holding i nodes;
+     *
+     * @return long[]
+     */
+    public long[] bucketSizes() {
+        return bucketSizes.clone();
+    }
+
+    /**
+     * Returns the number of buckets holding at least one node;
+     *
+     * @return long
+     */
+    public long occupiedBuckets() {
+        long count = 0;
+        for (int i = 1; i < bucketSizes.length; i++) {
+            count += bucketSizes[i];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of buckets holding two nodes or more, whose keys collide;
+     *
+     * @return long
+     */
+    public long collidingBuckets() {
+        return occupiedBuckets() - (bucketSizes.length > 1 ? bucketSizes[1] : 0);
+    }
+
+    /**
+     * Returns the number of nodes in the largest bucket;
+     *
+     * @return int
+     */
+    public int maxBucketSize() {
+        return bucketSizes.length - 1;
+    }
+
+    /**
+     * Returns the number of the buckets which are tree bins;
+     *
+     * @return int
+     */
+    public int treeBinCount() {
+        return treeBinCount;
+    }
+
+    /**
+     * Returns the number of lookups which found their key;
+     *
+     * @return long
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups which did not find their key;
+     *
+     * @return long
+     */
+    public long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, 1.0 if there have been no lookups;
+     *
+     * @return double
+     */
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Returns the average number of nodes a lookup compared with its key, 0.0 if there have been no lookups;
+     *
+     * @return double
+     */
+    public double averageGetProbeLength() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) getProbes / requests;
+    }
+
+    /**
+     * Returns the largest number of nodes a lookup compared with its key;
+     *
+     * @return int
+     */
+    public int maxGetProbeLength() {
+        return maxGetProbeLength;
+    }
+
+    /**
+     * Returns the number of puts;
+     *
+     * @return long
+     */
+    public long putCount() {
+        return putCount;
+    }
+
+    /**
+     * Returns the average number of nodes a put compared with its key, 0.0 if there have been no puts;
+     *
+     * @return double
+     */
+    public double averagePutProbeLength() {
+        return putCount == 0 ? 0.0 : (double) putProbes / putCount;
+    }
+
+    /**
+     * Returns the largest number of nodes a put compared with its key;
+     *
+     * @return int
+     */
+    public int maxPutProbeLength() {
+        return maxPutProbeLength;
+    }
+
+    /**
+     * Returns the number of times the table was allocated or doubled;
+     *
+     * @return long
+     */
+    public long resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total time spent allocating and doubling the table, in nanoseconds;
+     *
+     * @return long
+     */
+    public long resizeNanos() {
+        return resizeNanos;
+    }
+
+    /**
+     * Returns the longest time a single resize took, in nanoseconds;
+     *
+     * @return long
+     */
+    public long maxResizeNanos() {
+        return maxResizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "MyHashMapStats{" +
+                "size=" + size +
+                ", capacity=" + capacity +
+                ", threshold=" + threshold +
+                ", occupancy=" + occupancy() +
+                ", bucketSizes=" + Arrays.toString(bucketSizes) +
+                ", treeBinCount=" + treeBinCount +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", averageGetProbeLength=" + averageGetProbeLength() +
+                ", maxGetProbeLength=" + maxGetProbeLength +
+                ", putCount=" + putCount +
+                ", averagePutProbeLength=" + averagePutProbeLength() +
+                ", maxPutProbeLength=" + maxPutProbeLength +
+                ", resizeCount=" + resizeCount +
+                ", resizeNanos=" + resizeNanos +
+                ", maxResizeNanos=" + maxResizeNanos +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package ru.aston.myhashmap;
+
+/**
+ * This interface exposes the statistics of an InstrumentedMyHashMap as JMX attributes, so that monitoring tools
+ * can scrape them. Every read takes a fresh value from the map. The bucket attributes scan its table on the JMX thread,
+ * so they are best-effort: a scan racing with a write of the map may be inconsistent or report no buckets;
+ *
+ * @see InstrumentedMyHashMap#registerMBean(String)
+ * @see MyHashMapStats
+ */
+public interface MyHashMapStatsMXBean {
+    int getSize();
+
+    int getCapacity();
+
+    int getThreshold();
+
+    double getOccupancy();
+
+    long[] getBucketSizes();
+
+    long getCollidingBuckets();
+
+    int getMaxBucketSize();
+
+    int getTreeBinCount();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    double getAverageGetProbeLength();
+
+    int getMaxGetProbeLength();
+
+    long getPutCount();
+
+    double getAveragePutProbeLength();
+
+    int getMaxPutProbeLength();
+
+    long getResizeCount();
+
+    long getResizeNanos();
+
+    long getMaxResizeNanos();
+
+    /**
+     * Resets the counters of lookups, puts and resizes;
+     */
+    void resetStats();
+}
@@ -1,6 +1,17 @@
 package ru.aston.myhashmap;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface MyMap <K,V> {
     V get(Object obj);
@@ -14,6 +25,270 @@ public interface MyMap <K,V> {
     boolean containsValue(Object value);
     int size();
     Set<MyMap.Entry<K,V>> entrySet();
+
+    /**
+     * Returns a set of the keys. The default implementation walks entrySet and removes keys through remove(Object),
+     * implementations backed by a table return a live view instead;
+     */
+    default Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                Iterator<MyMap.Entry<K, V>> entries = entrySet().iterator();
+                return new Iterator<>() {
+                    private K current;
+                    private boolean removable;
+
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public K next() {
+                        current = entries.next().getKey();
+                        removable = true;
+                        return current;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!removable) {
+                            throw new IllegalStateException();
+                        }
+                        removable = false;
+                        MyMap.this.remove(current);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MyMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+        };
+    }
+
+    /**
+     * Returns a collection of the values. The default implementation walks entrySet,
+     * implementations backed by a table return a live view instead;
+     */
+    default Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<MyMap.Entry<K, V>> entries = entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MyMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object value) {
+                return containsValue(value);
+            }
+        };
+    }
+
+    /**
+     * Returns the value of the key, or defaultValue if there is no such key;
+     */
+    default V getOrDefault(Object key, V defaultValue) {
+        V value;
+        return ((value = get(key)) != null || containsKey(key)) ? value : defaultValue;
+    }
+
+    /**
+     * Puts the value if the key is absent or mapped to null and returns the current value, null if there was none;
+     */
+    default V putIfAbsent(K key, V value) {
+        V current = get(key);
+        if (current == null) {
+            current = put(key, value);
+        }
+        return current;
+    }
+
+    /**
+     * If the key is absent or mapped to null, puts the value computed by the function unless it is null;
+     * returns the current value of the key;
+     */
+    default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V current;
+        if ((current = get(key)) == null) {
+            V newValue;
+            if ((newValue = mappingFunction.apply(key)) != null) {
+                put(key, newValue);
+                return newValue;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * If the key is mapped to a non-null value, replaces it by the value computed by the function,
+     * or removes the key if the function returns null; returns the new value;
+     */
+    default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        V oldValue;
+        if ((oldValue = get(key)) != null) {
+            V newValue = remappingFunction.apply(key, oldValue);
+            if (newValue != null) {
+                put(key, newValue);
+            } else {
+                remove(key);
+            }
+            return newValue;
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the value of the key by the value computed from the key and its current value (null if absent),
+     * a null result removes the key; returns the new value;
+     */
+    default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        V oldValue = get(key);
+        V newValue = remappingFunction.apply(key, oldValue);
+        if (newValue == null) {
+            if (oldValue != null || containsKey(key)) {
+                remove(key);
+            }
+            return null;
+        }
+        put(key, newValue);
+        return newValue;
+    }
+
+    /**
+     * Puts the value if the key is absent or mapped to null, otherwise replaces the current value by the result
+     * of the function applied to it and the given value, a null result removes the key; returns the new value;
+     */
+    default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        Objects.requireNonNull(value);
+        V oldValue = get(key);
+        V newValue = (oldValue == null) ? value : remappingFunction.apply(oldValue, value);
+        if (newValue == null) {
+            remove(key);
+        } else {
+            put(key, newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Returns a sequential stream of the key-value pairs built on the spliterator of entrySet;
+     */
+    default Stream<MyMap.Entry<K, V>> stream() {
+        return StreamSupport.stream(entrySet().spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the key-value pairs built on the spliterator of entrySet,
+     * the map must not be modified while the stream runs;
+     */
+    default Stream<MyMap.Entry<K, V>> parallelStream() {
+        return StreamSupport.stream(entrySet().spliterator(), true);
+    }
+
+    /**
+     * Calls the action for every key-value pair;
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Replaces the value of every key by the result of the function applied to the key and the value;
+     */
+    default void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            entry.setValue(function.apply(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Puts every key-value pair of the given map into this map;
+     */
+    default void putAll(MyMap<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        for (MyMap.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Puts every key-value pair of the given java.util.Map into this map;
+     */
+    default void putAll(Map<? extends K, ? extends V> map) {
+        Objects.requireNonNull(map);
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns a new map of those of the given keys which are present in this map, with their values.
+     * Every implementation chooses the map it returns, see getAll(Iterable, MyMap);
+     */
+    MyMap<K, V> getAll(Iterable<? extends K> keys);
+
+    /**
+     * Puts those of the given keys which are present in this map, with their values, into the result and returns it;
+     */
+    default <M extends MyMap<? super K, ? super V>> M getAll(Iterable<? extends K> keys, M result) {
+        Objects.requireNonNull(keys);
+        Objects.requireNonNull(result);
+        for (K key : keys) {
+            V value = get(key);
+            if (value != null || containsKey(key)) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the given keys and returns the number of keys which were present;
+     */
+    default int removeAll(Iterable<?> keys) {
+        Objects.requireNonNull(keys);
+        int removed = 0;
+        for (Object key : keys) {
+            if (containsKey(key)) {
+                remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
     interface Entry<K,V>{
         K getKey();
         V getValue();
@@ -0,0 +1,340 @@
+package ru.aston.myhashmap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This class is a map which keeps a list of values for every key, in the order they were put. The values are kept
+ * in the node of the key rather than in a list mapped to it, so grouping neither wraps the values of a key
+ * nor looks the key up twice as get and then put of a {@code MyHashMap<K, List<V>>} do.
+ * The nodes live in a MyHashMap, whose hashing, tree bins and resizing the map reuses through the node hooks:
+ * <ul>
+ * <li>a key with a single value keeps it in the node itself, the array of the values is allocated when the second
+ * value arrives and grows by half when it is full, as ArrayList does, so a put allocates at most the node of a new key
+ * or a larger array;</li>
+ * <li>put finds or creates the node of the key in one walk of its bin;</li>
+ * <li>the values of a node in a tree bin, which only keys with colliding hashes reach, are kept in an array
+ * of the exact length, which is copied on every change, and move back into a growing array when the bin becomes
+ * a chain again.</li>
+ * </ul>
+ * A key is removed with its last value. Null keys and values are allowed. The map is not thread-safe;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of values
+ */
+public class MyMultiMap<K, V> {
+    /**
+     * This constant is a length of the array allocated for the second value of a key
+     */
+    private static final int INITIAL_VALUES = 8;
+
+    private final Values<K> table;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of keys before it is resized;
+     *
+     * @param initialCapacity
+     */
+    public MyMultiMap(int initialCapacity) {
+        this.table = new Values<>(initialCapacity);
+    }
+
+    /**
+     * This constructor creates a map with the default initial capacity;
+     */
+    public MyMultiMap() {
+        this(16);
+    }
+
+    /**
+     * This method adds the value to the end of the values of the key and returns their number after it;
+     *
+     * @param key
+     * @param value
+     * @return int
+     */
+    public int put(K key, V value) {
+        Values<K> t = table;
+        t.pending = value;
+        t.putVal(t.hashOf(key), key, null, true);
+        t.pending = null;
+        size++;
+        return t.result;
+    }
+
+    /**
+     * Returns an unmodifiable copy of the values of the key in the order they were put, an empty list
+     * if there is no such key;
+     *
+     * @param key
+     * @return List<V>
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> get(Object key) {
+        MyHashMap.Node<K, Object> node = table.getNode(key);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        int count = countOf(node);
+        Object[] copy = count == 1 && node instanceof ValuesNode
+                ? new Object[]{node.value}
+                : Arrays.copyOf((Object[]) node.value, count);
+        return (List<V>) Collections.unmodifiableList(Arrays.asList(copy));
+    }
+
+    /**
+     * Returns the number of values of the key, or zero if there is no such key;
+     *
+     * @param key
+     * @return int
+     */
+    public int valueCount(Object key) {
+        MyHashMap.Node<K, Object> node = table.getNode(key);
+        return node == null ? 0 : countOf(node);
+    }
+
+    public boolean containsKey(Object key) {
+        return table.getNode(key) != null;
+    }
+
+    /**
+     * Checks whether the value is one of the values of the key;
+     *
+     * @param key
+     * @param value
+     * @return boolean
+     */
+    public boolean containsEntry(Object key, Object value) {
+        MyHashMap.Node<K, Object> node = table.getNode(key);
+        return node != null && indexOf(node, value) >= 0;
+    }
+
+    /**
+     * This method removes the first occurrence of the value from the values of the key, and the key with its last value;
+     *
+     * @param key
+     * @param value
+     * @return true if the value was removed
+     */
+    public boolean remove(Object key, Object value) {
+        MyHashMap.Node<K, Object> node = table.getNode(key);
+        int index;
+        if (node == null || (index = indexOf(node, value)) < 0) {
+            return false;
+        }
+        int count = countOf(node);
+        if (count == 1) {
+            table.removeNode(node.hash, key, true);
+        } else if (node instanceof ValuesNode) {
+            ValuesNode<K> valuesNode = (ValuesNode<K>) node;
+            Object[] values = (Object[]) node.value;
+            if (count == 2) {
+                node.value = values[1 - index];
+            } else {
+                System.arraycopy(values, index + 1, values, index, count - index - 1);
+                values[count - 1] = null;
+            }
+            valuesNode.count--;
+        } else {
+            Object[] values = (Object[]) node.value;
+            Object[] shorter = Arrays.copyOf(values, count - 1);
+            System.arraycopy(values, index + 1, shorter, index, count - index - 1);
+            node.value = shorter;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * This method removes the key with all its values and returns them in the order they were put,
+     * or an empty list if there was no such key;
+     *
+     * @param key
+     * @return List<V>
+     */
+    public List<V> removeAll(Object key) {
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        List<V> values = get(key);
+        if (!values.isEmpty()) {
+            table.removeNode(table.hashOf(key), key, true);
+            size -= values.size();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of key-value pairs;
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of keys;
+     *
+     * @return int
+     */
+    public int keyCount() {
+        return table.size();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        table.clear();
+        size = 0;
+    }
+
+    /**
+     * Calls the action for every key-value pair, the values of a key in the order they were put;
+     *
+     * @param action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (MyMap.Entry<K, Object> entry : table.entrySet()) {
+            MyHashMap.Node<K, Object> node = (MyHashMap.Node<K, Object>) entry;
+            int count = countOf(node);
+            if (count == 1 && node instanceof ValuesNode) {
+                action.accept(node.key, (V) node.value);
+            } else {
+                Object[] values = (Object[]) node.value;
+                for (int i = 0; i < count; i++) {
+                    action.accept(node.key, (V) values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an unmodifiable live set of the keys;
+     *
+     * @return Set<K>
+     */
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(table.keySet());
+    }
+
+    private static int countOf(MyHashMap.Node<?, Object> node) {
+        return node instanceof ValuesNode ? ((ValuesNode<?>) node).count : ((Object[]) node.value).length;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the value among the values of the node, or -1 if there is none;
+     */
+    private static int indexOf(MyHashMap.Node<?, Object> node, Object value) {
+        int count = countOf(node);
+        if (count == 1 && node instanceof ValuesNode) {
+            return Objects.equals(value, node.value) ? 0 : -1;
+        }
+        Object[] values = (Object[]) node.value;
+        for (int i = 0; i < count; i++) {
+            if (Objects.equals(value, values[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MyMultiMap{");
+        forEach((key, value) -> sb.append("[Key:" + key + " /Value: " + value + "],"));
+        return sb.toString();
+    }
+
+    /**
+     * This is a node of a chain: its value is the only value of the key if count is 1, otherwise it is an array
+     * whose first count elements are the values;
+     */
+    private static final class ValuesNode<K> extends MyHashMap.Node<K, Object> {
+        int count;
+
+        ValuesNode(int hash, K key, Object value, int count, MyHashMap.Node<K, Object> next) {
+            super(hash, key, value, next);
+            this.count = count;
+        }
+    }
+
+    /**
+     * This is the table of the nodes. put passes the value in a field and puts a null value only if absent,
+     * so putVal never replaces the value of a node: a new key gets its node from newNode, and afterNodeAccess
+     * appends the value to the node of an existing key, both store the new number of values in result;
+     */
+    private static final class Values<K> extends MyHashMap<K, Object> {
+        Object pending;
+        int result;
+
+        Values(int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        @Override
+        Node<K, Object> newNode(int hash, K key, Object value, Node<K, Object> next) {
+            result = 1;
+            return new ValuesNode<>(hash, key, pending, 1, next);
+        }
+
+        @Override
+        Node<K, Object> replacementNode(Node<K, Object> p, Node<K, Object> next) {
+            Object[] values = (Object[]) p.value;
+            int count = values.length;
+            Object value = count == 1 ? values[0] : Arrays.copyOf(values, Math.max(count, INITIAL_VALUES));
+            return new ValuesNode<>(p.hash, p.key, value, count, next);
+        }
+
+        @Override
+        TreeNode<K, Object> newTreeNode(int hash, K key, Object value, Node<K, Object> next) {
+            result = 1;
+            return new TreeNode<>(hash, key, new Object[]{pending}, next);
+        }
+
+        @Override
+        TreeNode<K, Object> replacementTreeNode(Node<K, Object> p, Node<K, Object> next) {
+            ValuesNode<K> node = (ValuesNode<K>) p;
+            Object[] values = node.count == 1 ? new Object[]{p.value} : Arrays.copyOf((Object[]) p.value, node.count);
+            return new TreeNode<>(p.hash, p.key, values, next);
+        }
+
+        @Override
+        void afterNodeAccess(Node<K, Object> p) {
+            if (p instanceof ValuesNode) {
+                ValuesNode<K> node = (ValuesNode<K>) p;
+                int count = node.count;
+                if (count == 1) {
+                    Object[] values = new Object[INITIAL_VALUES];
+                    values[0] = p.value;
+                    p.value = values;
+                } else if (count == ((Object[]) p.value).length) {
+                    p.value = Arrays.copyOf((Object[]) p.value, count + (count >> 1));
+                }
+                ((Object[]) p.value)[count] = pending;
+                result = node.count = count + 1;
+            } else {
+                Object[] values = (Object[]) p.value;
+                Object[] longer = Arrays.copyOf(values, values.length + 1);
+                longer[values.length] = pending;
+                p.value = longer;
+                result = longer.length;
+            }
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package ru.aston.myhashmap;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is an implementation of hash table with open addressing: instead of chains of nodes it keeps
+ * keys, values and cached hashes in three parallel arrays and resolves collisions by linear probing,
+ * so no object is allocated per entry and a lookup reads neighbouring array cells instead of following links.
+ * Removal shifts the following entries of the probe sequence back instead of leaving tombstones;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public class MyOpenHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible capacity, the largest power of two an array can have
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This constant is a default load factor;
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * This object is stored in the keys array instead of the null key, since null marks a free slot;
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * These are the keys, null for a free slot;
+     */
+    private Object[] keys;
+    /**
+     * These are the values, stored at the same index as their keys;
+     */
+    private Object[] values;
+    /**
+     * These are the cached hashes of the keys, they make resizing and backward shifting free of hashCode() calls
+     * and let a probe skip most of the equals() calls;
+     */
+    private int[] hashes;
+    /**
+     * This is the capacity minus one, used to calculate the index;
+     */
+    private int mask;
+    /**
+     * The number of entries upon reaching which the capacity doubles, calculated as capacity * loadFactor;
+     */
+    private int threshold;
+    private final float loadFactor;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     * @param loadFactor      must be less than 1, since an open-addressed table always needs a free slot
+     */
+    public MyOpenHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " +
+                    loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * This constructor creates a map with the default load factor able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     */
+    public MyOpenHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor.
+     */
+    public MyOpenHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This method returns a value corresponding to the key or null if there is no such key;
+     *
+     * @param key
+     * @return
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * This method places the value corresponding to the key and returns the replaced value,
+     * or null if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Object k = maskNull(key);
+        int hash = MyHashMap.hash(key);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int slot = index(hash, m);
+        Object current;
+        /*
+         *walks the probe sequence until the key or a free slot is found
+         */
+        while ((current = ks[slot]) != null) {
+            if (hs[slot] == hash && (current == k || k.equals(current))) {
+                V oldValue = (V) values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & m;
+        }
+        ks[slot] = k;
+        values[slot] = value;
+        hs[slot] = hash;
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * This method deletes the value corresponding to the key and returns it;
+     *
+     * @param key
+     * @return removed value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = (V) values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    /**
+     * Clears the map, the capacity stays the same;
+     */
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        Object[] ks = this.keys;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new MyOpenHashMap of those of the given keys which are present in the map, with their values;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new MyOpenHashMap<>());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a set containing key-value pairs, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> entries = new HashSet<>();
+        Object[] ks = this.keys;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null) {
+                entries.add(new SimpleEntry((K) unmaskNull(ks[i]), (V) values[i]));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the slot of the key or -1 if there is no such key;
+     *
+     * @param key
+     * @return int
+     */
+    private int find(Object key) {
+        Object k = maskNull(key);
+        int hash = MyHashMap.hash(key);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int slot = index(hash, m);
+        Object current;
+        while ((current = ks[slot]) != null) {
+            if (hs[slot] == hash && (current == k || k.equals(current))) {
+                return slot;
+            }
+            slot = (slot + 1) & m;
+        }
+        return -1;
+    }
+
+    /**
+     * Frees the given slot by moving back every following entry of the same cluster which would otherwise become
+     * unreachable, i.e. whose home slot is not in the cyclic range (freed slot, its current slot];
+     *
+     * @param slot the slot of the removed entry
+     */
+    private void shiftBack(int slot) {
+        Object[] ks = this.keys;
+        Object[] vs = this.values;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int free = slot;
+        int current = (free + 1) & m;
+        Object key;
+        while ((key = ks[current]) != null) {
+            int home = index(hs[current], m);
+            /*
+             *the entry may move to the free slot only if its home slot is not between the free slot and itself
+             */
+            boolean movable = (free <= current)
+                    ? (home <= free || home > current)
+                    : (home <= free && home > current);
+            if (movable) {
+                ks[free] = key;
+                vs[free] = vs[current];
+                hs[free] = hs[current];
+                free = current;
+            }
+            current = (current + 1) & m;
+        }
+        ks[free] = null;
+        vs[free] = null;
+    }
+
+    /**
+     * Moves all entries into arrays of the given capacity;
+     *
+     * @param newCapacity a power of two
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("The map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        int[] oldHashes = this.hashes;
+        allocate(newCapacity);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int hash = oldHashes[i];
+                int slot = index(hash, m);
+                while (ks[slot] != null) {
+                    slot = (slot + 1) & m;
+                }
+                ks[slot] = key;
+                values[slot] = oldValues[i];
+                hs[slot] = hash;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    /**
+     * Returns the smallest power of two capacity able to hold the given number of entries under the load factor;
+     *
+     * @param expectedSize
+     * @param loadFactor
+     * @return int
+     */
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Calculates the home slot of the hash. The hash is multiplied by the golden ratio first, since linear probing
+     * needs the low bits to be well mixed, otherwise runs of sequential hashes would form long clusters;
+     *
+     * @param hash
+     * @param mask
+     * @return int
+     */
+    private static int index(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("MyOpenHashMap{");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                sb.append("[Key:" + unmaskNull(keys[i]) + " /Value: " + values[i] + "],");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet, a copy of a key-value pair which writes a new value through to the map;
+     */
+    private final class SimpleEntry implements MyMap.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        SimpleEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+    }
+}
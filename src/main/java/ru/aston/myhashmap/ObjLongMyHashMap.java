@@ -0,0 +1,409 @@
+package ru.aston.myhashmap;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a hash table specialized for long values: the values are kept in a plain long array next to the arrays
+ * of keys and their cached hashes, with open addressing (linear probing and backward-shift deletion, as in MyOpenHashMap),
+ * so the primitive methods getLong, putLong and removeLong neither box the value nor allocate.
+ * Absence of a key is reported by the "no value" sentinel given to the constructor. The methods of MyMap are supported as well;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @see MyOpenHashMap
+ */
+public class ObjLongMyHashMap<K> implements MyMap<K, Long> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible capacity
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    /**
+     * This constant is a default load factor;
+     */
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    /**
+     * This object is stored in the keys array instead of the null key, since null marks a free slot;
+     */
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * These are the keys, null for a free slot;
+     */
+    private Object[] keys;
+    /**
+     * These are the values, stored at the same index as their keys;
+     */
+    private long[] values;
+    /**
+     * These are the cached hashes of the keys;
+     */
+    private int[] hashes;
+    private int mask;
+    private int threshold;
+    private final float loadFactor;
+    /**
+     * This is the value returned by the primitive methods when there is no such key;
+     */
+    private final long noValue;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing.
+     *
+     * @param initialCapacity
+     * @param loadFactor      must be less than 1
+     * @param noValue         the value returned by getLong, putLong and removeLong for an absent key
+     */
+    public ObjLongMyHashMap(int initialCapacity, float loadFactor, long noValue) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " +
+                    loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.noValue = noValue;
+        allocate(capacityFor(initialCapacity, loadFactor));
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor and the given "no value" sentinel.
+     *
+     * @param noValue
+     */
+    public ObjLongMyHashMap(long noValue) {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, noValue);
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and load factor, 0 is returned for absent keys.
+     */
+    public ObjLongMyHashMap() {
+        this(0L);
+    }
+
+    /**
+     * Returns the "no value" sentinel of this map;
+     *
+     * @return long
+     */
+    public long noValue() {
+        return noValue;
+    }
+
+    /**
+     * Returns the value of the key or the "no value" sentinel if there is no such key;
+     *
+     * @param key
+     * @return long
+     */
+    public long getLong(Object key) {
+        int slot = find(key);
+        return slot < 0 ? noValue : values[slot];
+    }
+
+    /**
+     * Places the value of the key and returns the replaced value or the "no value" sentinel if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return long
+     */
+    public long putLong(K key, long value) {
+        Object k = maskNull(key);
+        int hash = MyHashMap.hash(key);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int slot = index(hash, m);
+        Object current;
+        while ((current = ks[slot]) != null) {
+            if (hs[slot] == hash && (current == k || k.equals(current))) {
+                long oldValue = values[slot];
+                values[slot] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & m;
+        }
+        ks[slot] = k;
+        values[slot] = value;
+        hs[slot] = hash;
+        if (++size > threshold) {
+            resize(keys.length * 2);
+        }
+        return noValue;
+    }
+
+    /**
+     * Deletes the key and returns its value or the "no value" sentinel if there was no such key;
+     *
+     * @param key
+     * @return long
+     */
+    public long removeLong(Object key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return noValue;
+        }
+        long oldValue = values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    @Override
+    public Long get(Object key) {
+        int slot = find(key);
+        return slot < 0 ? null : values[slot];
+    }
+
+    @Override
+    public Long put(K key, Long value) {
+        boolean existed = containsKey(key);
+        long oldValue = putLong(key, value);
+        return existed ? oldValue : null;
+    }
+
+    @Override
+    public Long remove(Object key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        long oldValue = values[slot];
+        size--;
+        shiftBack(slot);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (!(value instanceof Long)) {
+            return false;
+        }
+        long v = (Long) value;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && values[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new ObjLongMyHashMap with the same "no value" of those of the given keys which are present in the map;
+     */
+    @Override
+    public MyMap<K, Long> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new ObjLongMyHashMap<>(noValue));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a set of copies of the key-value pairs with boxed values, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<MyMap.Entry<K, Long>> entrySet() {
+        Set<MyMap.Entry<K, Long>> entries = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                entries.add(new BoxedEntry((K) unmaskNull(keys[i]), values[i]));
+            }
+        }
+        return entries;
+    }
+
+    private int find(Object key) {
+        Object k = maskNull(key);
+        int hash = MyHashMap.hash(key);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int slot = index(hash, m);
+        Object current;
+        while ((current = ks[slot]) != null) {
+            if (hs[slot] == hash && (current == k || k.equals(current))) {
+                return slot;
+            }
+            slot = (slot + 1) & m;
+        }
+        return -1;
+    }
+
+    /**
+     * Frees the given slot moving back the following entries of the cluster, see MyOpenHashMap;
+     *
+     * @param slot
+     */
+    private void shiftBack(int slot) {
+        Object[] ks = this.keys;
+        long[] vs = this.values;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        int free = slot;
+        int current = (free + 1) & m;
+        Object key;
+        while ((key = ks[current]) != null) {
+            int home = index(hs[current], m);
+            boolean movable = (free <= current)
+                    ? (home <= free || home > current)
+                    : (home <= free && home > current);
+            if (movable) {
+                ks[free] = key;
+                vs[free] = vs[current];
+                hs[free] = hs[current];
+                free = current;
+            }
+            current = (current + 1) & m;
+        }
+        ks[free] = null;
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("The map cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        Object[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        int[] oldHashes = this.hashes;
+        allocate(newCapacity);
+        Object[] ks = this.keys;
+        int[] hs = this.hashes;
+        int m = this.mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int hash = oldHashes[i];
+                int slot = index(hash, m);
+                while (ks[slot] != null) {
+                    slot = (slot + 1) & m;
+                }
+                ks[slot] = key;
+                values[slot] = oldValues[i];
+                hs[slot] = hash;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new long[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Calculates the home slot of the hash, mixing it by the golden ratio as MyOpenHashMap does;
+     */
+    private static int index(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ObjLongMyHashMap{");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                sb.append("[Key:" + unmaskNull(keys[i]) + " /Value: " + values[i] + "],");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet;
+     */
+    private final class BoxedEntry implements MyMap.Entry<K, Long> {
+        private final K key;
+        private long value;
+
+        BoxedEntry(K key, long value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public Long getValue() {
+            return value;
+        }
+
+        @Override
+        public Long setValue(Long newValue) {
+            long oldValue = value;
+            value = newValue;
+            putLong(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Long.hashCode(value);
+        }
+    }
+}
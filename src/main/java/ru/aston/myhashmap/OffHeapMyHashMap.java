@@ -0,0 +1,669 @@
+package ru.aston.myhashmap;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is a hash table which keeps its entries outside of the Java heap, so the garbage collector sees a handful
+ * of buffers instead of a node, a key and a value per entry:
+ * <ul>
+ * <li>the index is one direct buffer of slots, each slot holds the hash of the key, the length of the key and a reference
+ * to the record of the entry; collisions are resolved by linear probing with backward-shift deletion, as in MyOpenHashMap;</li>
+ * <li>the records, i.e. the serialized key followed by the serialized value, are appended to direct buffers of slabSize bytes.
+ * A value of the same length is overwritten in place, otherwise the record is appended anew and the old one becomes garbage,
+ * which is reclaimed by copying the live records into new slabs once there is more garbage than live data;</li>
+ * <li>keys are hashed and compared by their serialized bytes: a lookup serializes the key into a reusable heap buffer
+ * and compares it with the stored bytes in place, only the value is deserialized.</li>
+ * </ul>
+ * Keys and values are converted by the given serializers, neither may be null. The index holds at most MAXIMUM_CAPACITY slots.
+ * Like MyHashMap, this class is not thread-safe;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ * @see Serializer
+ */
+public class OffHeapMyHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a default initial capacity
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    /**
+     * This constant is a maximum possible number of slots, the largest power of two whose slots fit into one buffer
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 26;
+    /**
+     * This constant is a load factor of the index;
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+    /**
+     * This constant is a default size of a slab;
+     */
+    private static final int DEFAULT_SLAB_SIZE = 1 << 24;
+    /**
+     * A slot is the hash (int), the length of the key (int) and the reference to the record (long);
+     */
+    private static final int SLOT_BYTES = 16;
+    /**
+     * A record starts with the length of the key (int) and the length of the value (int);
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int slabSize;
+    /**
+     * These are the slots, a reference 0 marks a free slot;
+     */
+    private ByteBuffer index;
+    private int mask;
+    private int threshold;
+    /**
+     * These are the slabs holding the records, a reference to a record is (slab number + 1) << 32 | offset in the slab;
+     */
+    private ByteBuffer[] slabs;
+    private int slabCount;
+    /**
+     * This is the offset of the free space in the last slab;
+     */
+    private int slabPosition;
+    /**
+     * This is the buffer the keys and values are serialized into, the key is at 0 and the value follows it;
+     */
+    private ByteBuffer scratch;
+    /**
+     * This is the number of bytes of the records which are still referenced by the index;
+     */
+    private long liveBytes;
+    /**
+     * This is the number of bytes of the records which were replaced or removed;
+     */
+    private long garbageBytes;
+    /**
+     * It's just a number of key-value pairs
+     */
+    private int size;
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing its index.
+     *
+     * @param keySerializer
+     * @param valueSerializer
+     * @param initialCapacity
+     * @param slabSize        the number of bytes allocated for records at once, a larger record gets a slab of its own
+     */
+    public OffHeapMyHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int initialCapacity, int slabSize) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                    initialCapacity);
+        }
+        if (slabSize <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Illegal slab size: " +
+                    slabSize);
+        }
+        this.keySerializer = Objects.requireNonNull(keySerializer);
+        this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        this.slabSize = slabSize;
+        this.scratch = ByteBuffer.allocate(256).order(ByteOrder.nativeOrder());
+        allocateIndex(capacityFor(initialCapacity));
+        this.slabs = new ByteBuffer[4];
+    }
+
+    /**
+     * This constructor creates a map able to hold the given number of entries without resizing its index,
+     * the records are kept in slabs of the default size.
+     *
+     * @param keySerializer
+     * @param valueSerializer
+     * @param initialCapacity
+     */
+    public OffHeapMyHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int initialCapacity) {
+        this(keySerializer, valueSerializer, initialCapacity, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * This constructor creates a map with the default capacity and slab size.
+     *
+     * @param keySerializer
+     * @param valueSerializer
+     */
+    public OffHeapMyHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This method returns a value corresponding to the key or null if there is no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int keyLength = serializeLookupKey(key);
+        int slot = keyLength < 0 ? -1 : probe(hashScratch(keyLength), keyLength);
+        return slot < 0 ? null : readValue(index.getLong(slot * SLOT_BYTES + 8));
+    }
+
+    /**
+     * This method places the value corresponding to the key and returns the replaced value or null if there was no such key;
+     *
+     * @param key
+     * @param value
+     * @return V
+     */
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int keyLength = serializeKey(key);
+        int hash = hashScratch(keyLength);
+        int slot = probe(hash, keyLength);
+        int valueLength = serializeValue(value, keyLength);
+        if (slot >= 0) {
+            int base = slot * SLOT_BYTES;
+            long ref = index.getLong(base + 8);
+            V oldValue = readValue(ref);
+            ByteBuffer slab = slabs[slabOf(ref)];
+            int offset = offsetOf(ref);
+            int oldValueLength = slab.getInt(offset + 4);
+            if (oldValueLength == valueLength) {
+                slab.put(offset + RECORD_HEADER_BYTES + keyLength, scratch.array(), keyLength, valueLength);
+                return oldValue;
+            }
+            /*
+             *the slot still references the old record while appending, so a compaction keeps it
+             */
+            long newRef = append(keyLength, valueLength);
+            index.putLong(base + 8, newRef);
+            release(keyLength, oldValueLength);
+            return oldValue;
+        }
+        long ref = append(keyLength, valueLength);
+        int base = (-slot - 1) * SLOT_BYTES;
+        index.putInt(base, hash);
+        index.putInt(base + 4, keyLength);
+        index.putLong(base + 8, ref);
+        if (++size > threshold) {
+            resizeIndex((mask + 1) * 2);
+        }
+        return null;
+    }
+
+    /**
+     * This method deletes the value corresponding to the key and returns it;
+     *
+     * @param key
+     * @return removed value
+     */
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        int keyLength = serializeLookupKey(key);
+        if (keyLength < 0) {
+            return null;
+        }
+        int slot = probe(hashScratch(keyLength), keyLength);
+        if (slot < 0) {
+            return null;
+        }
+        long ref = index.getLong(slot * SLOT_BYTES + 8);
+        V oldValue = readValue(ref);
+        release(keyLength, slabs[slabOf(ref)].getInt(offsetOf(ref) + 4));
+        shiftBack(slot);
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes all entries and releases the slabs;
+     */
+    @Override
+    public void clear() {
+        allocateIndex(DEFAULT_CAPACITY);
+        slabs = new ByteBuffer[4];
+        slabCount = 0;
+        slabPosition = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (key == null) {
+            return false;
+        }
+        int keyLength = serializeLookupKey(key);
+        return keyLength >= 0 && probe(hashScratch(keyLength), keyLength) >= 0;
+    }
+
+    /**
+     * Checks whether the map contains the value, comparing its serialized bytes with the stored ones;
+     *
+     * @param value
+     * @return boolean
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsValue(Object value) {
+        if (value == null || size == 0) {
+            return false;
+        }
+        int valueLength;
+        try {
+            valueLength = serializeValue((V) value, 0);
+        } catch (ClassCastException e) {
+            return false;
+        }
+        for (int slot = 0; slot <= mask; slot++) {
+            long ref = index.getLong(slot * SLOT_BYTES + 8);
+            if (ref != 0) {
+                ByteBuffer slab = slabs[slabOf(ref)];
+                int offset = offsetOf(ref);
+                if (slab.getInt(offset + 4) == valueLength
+                        && bytesEqual(slab, offset + RECORD_HEADER_BYTES + slab.getInt(offset), 0, valueLength)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in the map, with their values
+     * deserialized onto the heap;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new MyHashMap<>());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a set of deserialized copies of the key-value pairs, setting a value of an entry puts it into the map;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> entries = new HashSet<>();
+        for (int slot = 0; slot <= mask; slot++) {
+            long ref = index.getLong(slot * SLOT_BYTES + 8);
+            if (ref != 0) {
+                ByteBuffer slab = slabs[slabOf(ref)];
+                int offset = offsetOf(ref);
+                int keyLength = slab.getInt(offset);
+                K key = keySerializer.read(slab, offset + RECORD_HEADER_BYTES, keyLength);
+                entries.add(new SimpleEntry(key, readValue(ref)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by the map: the index and all slabs;
+     *
+     * @return long
+     */
+    public long offHeapBytes() {
+        long bytes = index.capacity();
+        for (int i = 0; i < slabCount; i++) {
+            bytes += slabs[i].capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes of the records of the entries;
+     *
+     * @return long
+     */
+    public long liveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Returns the number of bytes of the records which were replaced or removed and wait for compaction;
+     *
+     * @return long
+     */
+    public long garbageBytes() {
+        return garbageBytes;
+    }
+
+    /**
+     * Returns the slot of the key serialized into the scratch buffer, or -(free slot + 1) if there is no such key;
+     */
+    private int probe(int hash, int keyLength) {
+        ByteBuffer idx = this.index;
+        int m = this.mask;
+        int slot = hash & m;
+        for (; ; ) {
+            int base = slot * SLOT_BYTES;
+            long ref = idx.getLong(base + 8);
+            if (ref == 0) {
+                return -slot - 1;
+            }
+            if (idx.getInt(base) == hash && idx.getInt(base + 4) == keyLength
+                    && bytesEqual(slabs[slabOf(ref)], offsetOf(ref) + RECORD_HEADER_BYTES, 0, keyLength)) {
+                return slot;
+            }
+            slot = (slot + 1) & m;
+        }
+    }
+
+    /**
+     * Compares the given bytes of the slab with the bytes of the scratch buffer starting at scratchOffset;
+     */
+    private boolean bytesEqual(ByteBuffer slab, int offset, int scratchOffset, int length) {
+        ByteBuffer s = this.scratch;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if (slab.getLong(offset + i) != s.getLong(scratchOffset + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (slab.get(offset + i) != s.get(scratchOffset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the serialized key, reading it eight bytes at a time and mixing the result so that the low bits,
+     * which select the slot, depend on all of them;
+     */
+    private int hashScratch(int length) {
+        ByteBuffer s = this.scratch;
+        long h = 0x9E3779B97F4A7C15L ^ length;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            h = (h ^ s.getLong(i)) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        for (; i < length; i++) {
+            h = (h ^ (s.get(i) & 0xff)) * 0x94D049BB133111EBL;
+        }
+        h ^= h >>> 32;
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    /**
+     * Serializes a key given to get, remove or containsKey, which may be of any type, and returns its length,
+     * or -1 if the key serializer does not accept it, since such a key can not be in the map;
+     */
+    @SuppressWarnings("unchecked")
+    private int serializeLookupKey(Object key) {
+        try {
+            return serializeKey((K) key);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+    }
+
+    private int serializeKey(K key) {
+        for (; ; ) {
+            try {
+                scratch.clear();
+                keySerializer.write(key, scratch);
+                return scratch.position();
+            } catch (BufferOverflowException e) {
+                growScratch();
+            }
+        }
+    }
+
+    /**
+     * Serializes the value into the scratch buffer after the key of the given length and returns the length of the value;
+     */
+    private int serializeValue(V value, int keyLength) {
+        for (; ; ) {
+            try {
+                scratch.clear().position(keyLength);
+                valueSerializer.write(value, scratch);
+                return scratch.position() - keyLength;
+            } catch (BufferOverflowException e) {
+                growScratch();
+            }
+        }
+    }
+
+    /**
+     * Doubles the scratch buffer keeping its contents, a serialized key is kept while the value is written after it;
+     */
+    private void growScratch() {
+        int capacity = scratch.capacity();
+        if (capacity >= Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("A key or value is too large to be serialized");
+        }
+        ByteBuffer larger = ByteBuffer.allocate(capacity * 2).order(ByteOrder.nativeOrder());
+        larger.put(0, scratch.array(), 0, capacity);
+        scratch = larger;
+    }
+
+    private V readValue(long ref) {
+        ByteBuffer slab = slabs[slabOf(ref)];
+        int offset = offsetOf(ref);
+        return valueSerializer.read(slab, offset + RECORD_HEADER_BYTES + slab.getInt(offset), slab.getInt(offset + 4));
+    }
+
+    /**
+     * Appends the record of the key and the value serialized into the scratch buffer and returns its reference;
+     */
+    private long append(int keyLength, int valueLength) {
+        int recordSize = RECORD_HEADER_BYTES + keyLength + valueLength;
+        if (garbageBytes > liveBytes && garbageBytes >= slabSize) {
+            compact();
+        }
+        if (slabCount == 0 || slabPosition + recordSize > slabs[slabCount - 1].capacity()) {
+            addSlab(Math.max(slabSize, recordSize));
+        }
+        ByteBuffer slab = slabs[slabCount - 1];
+        int offset = slabPosition;
+        slab.putInt(offset, keyLength);
+        slab.putInt(offset + 4, valueLength);
+        slab.put(offset + RECORD_HEADER_BYTES, scratch.array(), 0, keyLength + valueLength);
+        slabPosition = offset + recordSize;
+        liveBytes += recordSize;
+        return ((long) slabCount << 32) | offset;
+    }
+
+    private void addSlab(int capacity) {
+        if (slabCount == slabs.length) {
+            ByteBuffer[] larger = new ByteBuffer[slabCount * 2];
+            System.arraycopy(slabs, 0, larger, 0, slabCount);
+            slabs = larger;
+        }
+        slabs[slabCount++] = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        slabPosition = 0;
+    }
+
+    /**
+     * Accounts the record of the given lengths as garbage;
+     */
+    private void release(int keyLength, int valueLength) {
+        int recordSize = RECORD_HEADER_BYTES + keyLength + valueLength;
+        liveBytes -= recordSize;
+        garbageBytes += recordSize;
+    }
+
+    /**
+     * Copies the live records into new slabs, in the order of the slots, and updates their references.
+     * The old slabs are freed by the garbage collector together with their buffer objects;
+     */
+    private void compact() {
+        ByteBuffer[] oldSlabs = this.slabs;
+        this.slabs = new ByteBuffer[4];
+        this.slabCount = 0;
+        this.slabPosition = 0;
+        this.liveBytes = 0;
+        this.garbageBytes = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            int base = slot * SLOT_BYTES;
+            long ref = index.getLong(base + 8);
+            if (ref != 0) {
+                ByteBuffer oldSlab = oldSlabs[(int) (ref >>> 32) - 1];
+                int oldOffset = offsetOf(ref);
+                int recordSize = RECORD_HEADER_BYTES + oldSlab.getInt(oldOffset) + oldSlab.getInt(oldOffset + 4);
+                if (slabCount == 0 || slabPosition + recordSize > slabs[slabCount - 1].capacity()) {
+                    addSlab(Math.max(slabSize, recordSize));
+                }
+                ByteBuffer source = oldSlab.duplicate();
+                source.limit(oldOffset + recordSize).position(oldOffset);
+                slabs[slabCount - 1].duplicate().position(slabPosition).put(source);
+                index.putLong(base + 8, ((long) slabCount << 32) | slabPosition);
+                slabPosition += recordSize;
+                liveBytes += recordSize;
+            }
+        }
+    }
+
+    /**
+     * Frees the given slot moving back the following entries of the cluster, see MyOpenHashMap;
+     */
+    private void shiftBack(int slot) {
+        ByteBuffer idx = this.index;
+        int m = this.mask;
+        int free = slot;
+        int current = (free + 1) & m;
+        long ref;
+        while ((ref = idx.getLong(current * SLOT_BYTES + 8)) != 0) {
+            int hash = idx.getInt(current * SLOT_BYTES);
+            int home = hash & m;
+            boolean movable = (free <= current)
+                    ? (home <= free || home > current)
+                    : (home <= free && home > current);
+            if (movable) {
+                int base = free * SLOT_BYTES;
+                idx.putInt(base, hash);
+                idx.putInt(base + 4, idx.getInt(current * SLOT_BYTES + 4));
+                idx.putLong(base + 8, ref);
+                free = current;
+            }
+            current = (current + 1) & m;
+        }
+        idx.putLong(free * SLOT_BYTES + 8, 0L);
+    }
+
+    /**
+     * Moves the slots into a new index of the given capacity using the stored hashes, the records are not touched;
+     */
+    private void resizeIndex(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("The index cannot grow beyond " + MAXIMUM_CAPACITY + " slots");
+        }
+        ByteBuffer oldIndex = this.index;
+        int oldCapacity = mask + 1;
+        allocateIndex(newCapacity);
+        ByteBuffer idx = this.index;
+        int m = this.mask;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int oldBase = slot * SLOT_BYTES;
+            long ref = oldIndex.getLong(oldBase + 8);
+            if (ref != 0) {
+                int hash = oldIndex.getInt(oldBase);
+                int i = hash & m;
+                while (idx.getLong(i * SLOT_BYTES + 8) != 0) {
+                    i = (i + 1) & m;
+                }
+                int base = i * SLOT_BYTES;
+                idx.putInt(base, hash);
+                idx.putInt(base + 4, oldIndex.getInt(oldBase + 4));
+                idx.putLong(base + 8, ref);
+            }
+        }
+    }
+
+    private void allocateIndex(int capacity) {
+        this.index = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+        if (needed >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private static int slabOf(long ref) {
+        return (int) (ref >>> 32) - 1;
+    }
+
+    private static int offsetOf(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("OffHeapMyHashMap{");
+        for (MyMap.Entry<K, V> entry : entrySet()) {
+            sb.append("[Key:" + entry.getKey() + " /Value: " + entry.getValue() + "],");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * This is an entry of the set returned by entrySet, a copy of a key-value pair which writes a new value through to the map;
+     */
+    private final class SimpleEntry implements MyMap.Entry<K, V> {
+        private final K key;
+        private V value;
+
+        SimpleEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MyMap.Entry)) return false;
+            MyMap.Entry<?, ?> entry = (MyMap.Entry<?, ?>) o;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+    }
+}
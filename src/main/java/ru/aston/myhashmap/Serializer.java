@@ -0,0 +1,89 @@
+package ru.aston.myhashmap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This interface converts keys or values of OffHeapMyHashMap into bytes and back. Two objects are considered equal
+ * by the map if and only if their serialized bytes are equal, so a key serializer must write equal keys identically.
+ * It also converts the keys and values of snapshots written by MyHashMapSnapshot;
+ *
+ * @param <T> is the type of the serialized objects
+ * @see OffHeapMyHashMap
+ * @see MyHashMapSnapshot
+ */
+public interface Serializer<T> {
+    /**
+     * Serializes strings as UTF-8;
+     */
+    Serializer<String> STRING = new Serializer<>() {
+        @Override
+        public void write(String value, ByteBuffer target) {
+            target.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String read(ByteBuffer source, int offset, int length) {
+            byte[] bytes = new byte[length];
+            source.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+    /**
+     * Stores byte arrays as they are, so byte array keys are compared by their contents;
+     */
+    Serializer<byte[]> BYTE_ARRAY = new Serializer<>() {
+        @Override
+        public void write(byte[] value, ByteBuffer target) {
+            target.put(value);
+        }
+
+        @Override
+        public byte[] read(ByteBuffer source, int offset, int length) {
+            byte[] bytes = new byte[length];
+            source.get(offset, bytes);
+            return bytes;
+        }
+    };
+    Serializer<Integer> INTEGER = new Serializer<>() {
+        @Override
+        public void write(Integer value, ByteBuffer target) {
+            target.putInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer source, int offset, int length) {
+            return source.getInt(offset);
+        }
+    };
+    Serializer<Long> LONG = new Serializer<>() {
+        @Override
+        public void write(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer source, int offset, int length) {
+            return source.getLong(offset);
+        }
+    };
+
+    /**
+     * Writes the value at the position of the buffer, advancing the position.
+     * If the buffer is too small, BufferOverflowException may be thrown, the map then retries with a larger buffer;
+     *
+     * @param value  not null
+     * @param target a heap buffer
+     */
+    void write(T value, ByteBuffer target);
+
+    /**
+     * Reads a value from the given bytes of the buffer without changing its position;
+     *
+     * @param source the buffer holding the bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes written by write
+     * @return T
+     */
+    T read(ByteBuffer source, int offset, int length);
+}
@@ -0,0 +1,389 @@
+package ru.aston.myhashmap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * This class is a hash map split into independent MyHashMap shards, for maps which outgrow a single table:
+ * <ul>
+ * <li>a key is routed to its shard by the high bits of its hash multiplied by the golden ratio, while the shard itself
+ * indexes its table by the low bits, so the keys of one shard still spread over its whole table;</li>
+ * <li>each shard holds up to MAXIMUM_CAPACITY buckets and Integer.MAX_VALUE pairs, so the map as a whole can hold
+ * more than 2^31 pairs, mappingCount returns their number as a long;</li>
+ * <li>each shard resizes on its own when it crosses its threshold, so a resize moves the nodes of one shard only
+ * and no single array spans the whole map, which keeps the pauses short and the arrays small for the garbage collector;</li>
+ * <li>parallelStream, containsValue and replaceAll of a large map process the shards in parallel.</li>
+ * </ul>
+ * The hash is computed once per operation and passed to the shard. Null keys and values are allowed as in MyHashMap.
+ * The map is not thread-safe;
+ *
+ * @param <K> is the type of keys maintained by this map
+ * @param <V> is the type of mapped values
+ */
+public class ShardedMyHashMap<K, V> implements MyMap<K, V> {
+    /**
+     * This constant is a default number of shards
+     */
+    private static final int DEFAULT_SHARDS = 16;
+    /**
+     * This constant is a maximum number of shards
+     */
+    private static final int MAXIMUM_SHARDS = 1 << 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final MyHashMap<K, V>[] shards;
+    /**
+     * This is the view returned by entrySet, created on the first call;
+     */
+    private Set<MyMap.Entry<K, V>> entrySet;
+
+    /**
+     * This constructor creates a map of the given number of shards, each of which is created with the initial capacity
+     * for its share of the expected number of pairs, the load factor and whether it is resized incrementally;
+     *
+     * @param shardCount        the number of shards, from 1 to 65536
+     * @param expectedSize      the expected number of pairs of the whole map, may exceed Integer.MAX_VALUE
+     * @param loadFactor
+     * @param incrementalResize
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedMyHashMap(int shardCount, long expectedSize, float loadFactor, boolean incrementalResize) {
+        if (shardCount < 1 || shardCount > MAXIMUM_SHARDS) {
+            throw new IllegalArgumentException("Illegal number of shards: " + shardCount);
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        if (loadFactor <= 0 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        double perShard = Math.ceil((double) expectedSize / shardCount / loadFactor);
+        int initialCapacity = (int) Math.min(perShard, MyHashMap.MAXIMUM_CAPACITY);
+        this.shards = (MyHashMap<K, V>[]) new MyHashMap[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new MyHashMap<>(initialCapacity, loadFactor, incrementalResize);
+        }
+    }
+
+    /**
+     * This constructor creates a map of the given number of shards with the default load factor;
+     *
+     * @param shardCount the number of shards, from 1 to 65536
+     */
+    public ShardedMyHashMap(int shardCount) {
+        this(shardCount, 0L, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /**
+     * This constructor creates a map of 16 shards with the default load factor;
+     */
+    public ShardedMyHashMap() {
+        this(DEFAULT_SHARDS);
+    }
+
+    /**
+     * Returns the shard of the given hash: the 32 bits of hash * GOLDEN_RATIO scaled to the number of shards,
+     * which takes the best mixed high bits of the product and needs no power of two;
+     */
+    private MyHashMap<K, V> shardFor(int hash) {
+        return shards[(int) (((hash * GOLDEN_RATIO) & 0xffffffffL) * shards.length >>> 32)];
+    }
+
+    /**
+     * This method returns the value corresponding to the key or null if there is no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V get(Object key) {
+        int hash = MyHashMap.hash(key);
+        MyHashMap.Node<K, V> node = shardFor(hash).getNode(hash, key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int hash = MyHashMap.hash(key);
+        MyHashMap.Node<K, V> node = shardFor(hash).getNode(hash, key);
+        return node == null ? defaultValue : node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int hash = MyHashMap.hash(key);
+        return shardFor(hash).getNode(hash, key) != null;
+    }
+
+    /**
+     * This method puts the value of the key into its shard and returns the previous value, or null if there was none;
+     *
+     * @param key
+     * @param value
+     * @return V
+     */
+    @Override
+    public V put(K key, V value) {
+        int hash = MyHashMap.hash(key);
+        return shardFor(hash).putVal(hash, key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int hash = MyHashMap.hash(key);
+        return shardFor(hash).putVal(hash, key, value, true);
+    }
+
+    /**
+     * This method removes the key from its shard and returns its value, or null if there was no such key;
+     *
+     * @param key
+     * @return V
+     */
+    @Override
+    public V remove(Object key) {
+        int hash = MyHashMap.hash(key);
+        MyHashMap<K, V> shard = shardFor(hash);
+        if (shard.size() == 0) {
+            return null;
+        }
+        MyHashMap.Node<K, V> node = shard.removeNode(hash, key, true);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return shardFor(MyHashMap.hash(key)).computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return shardFor(MyHashMap.hash(key)).computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return shardFor(MyHashMap.hash(key)).compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return shardFor(MyHashMap.hash(key)).merge(key, value, remappingFunction);
+    }
+
+    /**
+     * Clears every shard, the shards keep their tables;
+     */
+    @Override
+    public void clear() {
+        for (MyHashMap<K, V> shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * Checks whether any shard contains the value, the shards of a map of at least PARALLEL_SCAN_THRESHOLD pairs
+     * are scanned in parallel, so it must not be modified during the call;
+     *
+     * @param value
+     * @return boolean
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Stream<MyHashMap<K, V>> stream = Arrays.stream(shards);
+        if (mappingCount() >= MyHashMap.PARALLEL_SCAN_THRESHOLD) {
+            stream = stream.parallel();
+        }
+        return stream.anyMatch(shard -> shard.containsValue(value));
+    }
+
+    /**
+     * Returns a new MyHashMap of those of the given keys which are present in the map, every key is looked up
+     * in its shard on its own;
+     */
+    @Override
+    public MyMap<K, V> getAll(Iterable<? extends K> keys) {
+        return getAll(keys, new MyHashMap<>());
+    }
+
+    /**
+     * Returns the number of key value pairs, or Integer.MAX_VALUE if there are more;
+     *
+     * @return number of key value pairs (int)
+     */
+    @Override
+    public int size() {
+        long n = mappingCount();
+        return n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    }
+
+    /**
+     * Returns the number of key value pairs as a long, which is exact also beyond Integer.MAX_VALUE;
+     *
+     * @return long
+     */
+    public long mappingCount() {
+        long n = 0;
+        for (MyHashMap<K, V> shard : shards) {
+            n += shard.size();
+        }
+        return n;
+    }
+
+    /**
+     * Returns a live set of the key-value pairs, which walks the shards one after another.
+     * Its size is that of size(), an entry removed through the iterator is removed from its shard;
+     *
+     * @return set
+     */
+    @Override
+    public Set<MyMap.Entry<K, V>> entrySet() {
+        Set<MyMap.Entry<K, V>> es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySet());
+    }
+
+    /**
+     * Returns a parallel stream of the key-value pairs, which splits the map by shards and walks every shard
+     * sequentially, the map must not be modified while the stream runs;
+     *
+     * @return Stream<MyMap.Entry<K, V>>
+     */
+    @Override
+    public Stream<MyMap.Entry<K, V>> parallelStream() {
+        return Arrays.stream(shards).parallel().flatMap(MyHashMap::stream);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (MyHashMap<K, V> shard : shards) {
+            shard.forEach(action);
+        }
+    }
+
+    /**
+     * Replaces the value of every key by the result of the function, the shards of a map of at least
+     * PARALLEL_SCAN_THRESHOLD pairs are processed in parallel, so the function must be thread-safe then;
+     *
+     * @param function
+     */
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        Stream<MyHashMap<K, V>> stream = Arrays.stream(shards);
+        if (mappingCount() >= MyHashMap.PARALLEL_SCAN_THRESHOLD) {
+            stream = stream.parallel();
+        }
+        stream.forEach(shard -> shard.replaceAll(function));
+    }
+
+    /**
+     * Returns the number of shards;
+     *
+     * @return int
+     */
+    int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the shard of the given index;
+     *
+     * @param index
+     * @return MyHashMap<K, V>
+     */
+    MyHashMap<K, V> shard(int index) {
+        return shards[index];
+    }
+
+    /**
+     * The overridden method returns a string describing the object of this class.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ShardedMyHashMap{");
+        forEach((key, value) -> sb.append("[Key:" + key + " /Value: " + value + "],"));
+        return sb.toString();
+    }
+
+    /**
+     * This is the set returned by entrySet;
+     */
+    private final class EntrySet extends AbstractSet<MyMap.Entry<K, V>> {
+        @Override
+        public int size() {
+            return ShardedMyHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof MyMap.Entry)) {
+                return false;
+            }
+            Object key = ((MyMap.Entry<?, ?>) o).getKey();
+            return shardFor(MyHashMap.hash(key)).entrySet().contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof MyMap.Entry)) {
+                return false;
+            }
+            Object key = ((MyMap.Entry<?, ?>) o).getKey();
+            return shardFor(MyHashMap.hash(key)).entrySet().remove(o);
+        }
+
+        @Override
+        public void clear() {
+            ShardedMyHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<MyMap.Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int nextShard;
+                private Iterator<MyMap.Entry<K, V>> current = Collections.emptyIterator();
+                private Iterator<MyMap.Entry<K, V>> last;
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (nextShard == shards.length) {
+                            return false;
+                        }
+                        current = shards[nextShard++].entrySet().iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public MyMap.Entry<K, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    last = current;
+                    return current.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    last.remove();
+                    last = null;
+                }
+            };
+        }
+    }
+}
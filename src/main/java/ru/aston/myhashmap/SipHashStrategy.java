@@ -0,0 +1,97 @@
+package ru.aston.myhashmap;
+
+import java.security.SecureRandom;
+
+/**
+ * This class is the seeded hashing strategy of strings: SipHash-2-4 of the UTF-16LE bytes of the string,
+ * which are read four chars per 64-bit word, folded to 32 bits;
+ *
+ * @see HashingStrategy#seededStrings()
+ */
+final class SipHashStrategy implements HashingStrategy<String> {
+    private final long k0;
+    private final long k1;
+
+    SipHashStrategy(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    /**
+     * Returns a strategy with a seed drawn from a SecureRandom;
+     */
+    static SipHashStrategy randomlySeeded() {
+        SecureRandom random = SeedHolder.RANDOM;
+        return new SipHashStrategy(random.nextLong(), random.nextLong());
+    }
+
+    @Override
+    public int hashCode(String key) {
+        long h = sipHash24(k0, k1, key);
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public boolean equals(String a, String b) {
+        return a.equals(b);
+    }
+
+    /**
+     * Returns the 64-bit SipHash-2-4 of the UTF-16LE bytes of the string with the key (k0, k1);
+     *
+     * @param k0 the first eight bytes of the key, little-endian
+     * @param k1 the last eight bytes of the key, little-endian
+     * @param s
+     * @return long
+     */
+    static long sipHash24(long k0, long k1, String s) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        int length = s.length();
+        int end = length & ~3;
+        for (int i = 0; i < end; i += 4) {
+            long m = s.charAt(i) | (long) s.charAt(i + 1) << 16 | (long) s.charAt(i + 2) << 32
+                    | (long) s.charAt(i + 3) << 48;
+            v3 ^= m;
+            for (int round = 0; round < 2; round++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        /*
+         *the last word holds the remaining chars and the length of the message in bytes modulo 256 in its top byte
+         */
+        long b = (long) (length << 1) << 56;
+        for (int i = end, shift = 0; i < length; i++, shift += 16) {
+            b |= (long) s.charAt(i) << shift;
+        }
+        v3 ^= b;
+        for (int round = 0; round < 2; round++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= b;
+        v2 ^= 0xff;
+        for (int round = 0; round < 4; round++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * Creates the SecureRandom on the first use of a seeded strategy;
+     */
+    private static final class SeedHolder {
+        static final SecureRandom RANDOM = new SecureRandom();
+    }
+}
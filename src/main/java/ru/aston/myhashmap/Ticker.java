@@ -0,0 +1,21 @@
+package ru.aston.myhashmap;
+
+/**
+ * This interface is the source of time of ExpiringMyHashMap, tests replace it by a clock they advance themselves;
+ *
+ * @see ExpiringMyHashMap
+ */
+@FunctionalInterface
+public interface Ticker {
+    /**
+     * Reads System.nanoTime();
+     */
+    Ticker SYSTEM = System::nanoTime;
+
+    /**
+     * Returns the current time in nanoseconds, only the differences between the readings are meaningful;
+     *
+     * @return long
+     */
+    long read();
+}
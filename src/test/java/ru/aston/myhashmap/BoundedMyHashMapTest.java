@@ -0,0 +1,241 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedMyHashMapTest {
+    private static Random random;
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        List<Integer> evicted = new ArrayList<>();
+        BoundedMyHashMap<Integer, String> map = new BoundedMyHashMap<>(3, (key, value) -> 1, false,
+                (key, value) -> evicted.add(key));
+        map.put(1, "one");
+        map.put(2, "two");
+        map.put(3, "three");
+        map.get(1);
+        map.put(4, "four");
+        map.put(3, "three again");
+        map.put(5, "five");
+        Assertions.assertAll(
+                () -> assertEquals(List.of(2, 1), evicted),
+                () -> assertEquals(3, map.size()),
+                () -> assertEquals("three again", map.get(3)),
+                () -> assertNull(map.get(1)),
+                () -> assertEquals(2, map.evictionCount())
+        );
+    }
+
+    @Test
+    void putAllOfALargeMapKeepsASmallTable() {
+        MyHashMap<Integer, Integer> source = new MyHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            source.put(i, i);
+        }
+        BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(10);
+        map.putAll(source);
+        Map<Integer, Integer> last = new LinkedHashMap<>();
+        last.put(1, 1);
+        last.put(0, 0);
+        map.putAll(last);
+        Assertions.assertAll(
+                () -> assertEquals(10, map.size()),
+                () -> assertEquals(16, map.capacity()),
+                () -> assertEquals(9_999, map.get(9_999)),
+                () -> assertEquals(1, map.get(1)),
+                () -> assertNull(map.get(9_990))
+        );
+    }
+
+    @Test
+    void lruMatchesAccessOrderedLinkedHashMap() {
+        int maximumSize = 20;
+        BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(maximumSize);
+        Map<Integer, Integer> expected = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(60);
+            int operation = random.nextInt(10);
+            if (operation < 5) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+            } else if (operation < 9) {
+                Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            Assertions.assertTrue(map.containsKey(entry.getKey()));
+        }
+    }
+
+    @Test
+    void weigherBoundsTheTotalWeight() {
+        BoundedMyHashMap<Integer, String> map = new BoundedMyHashMap<>(100, (key, value) -> value.length(), false, null);
+        for (int i = 0; i < 50; i++) {
+            map.put(i, "x".repeat(1 + random.nextInt(20)));
+            Assertions.assertTrue(map.weightedSize() <= 100);
+        }
+        map.put(-1, "x".repeat(60));
+        map.put(-2, "x".repeat(30));
+        Assertions.assertAll(
+                () -> assertTrue(map.weightedSize() <= 100),
+                () -> assertTrue(map.containsKey(-1)),
+                () -> assertTrue(map.containsKey(-2))
+        );
+        map.put(-2, "x".repeat(50));
+        Assertions.assertAll(
+                () -> assertFalse(map.containsKey(-1)),
+                () -> assertEquals(50, map.weightedSize())
+        );
+        map.put(-3, "x".repeat(101));
+        Assertions.assertAll(
+                () -> assertFalse(map.containsKey(-3)),
+                () -> assertEquals(0, map.weightedSize()),
+                () -> assertEquals(0, map.size())
+        );
+    }
+
+    @Test
+    void admissionFilterKeepsFrequentEntriesDuringAScan() {
+        int maximumSize = 100;
+        BoundedMyHashMap<Integer, Integer> lru = new BoundedMyHashMap<>(maximumSize, false);
+        BoundedMyHashMap<Integer, Integer> tinyLfu = new BoundedMyHashMap<>(maximumSize, true);
+        for (BoundedMyHashMap<Integer, Integer> map : List.of(lru, tinyLfu)) {
+            for (int round = 0; round < 10; round++) {
+                for (int key = 0; key < 50; key++) {
+                    if (map.get(key) == null) {
+                        map.put(key, key);
+                    }
+                }
+            }
+            for (int key = 1_000; key < 3_000; key++) {
+                map.put(key, key);
+            }
+        }
+        int lruHot = 0, tinyLfuHot = 0;
+        for (int key = 0; key < 50; key++) {
+            lruHot += lru.containsKey(key) ? 1 : 0;
+            tinyLfuHot += tinyLfu.containsKey(key) ? 1 : 0;
+        }
+        int finalLruHot = lruHot, finalTinyLfuHot = tinyLfuHot;
+        Assertions.assertAll(
+                () -> assertEquals(0, finalLruHot),
+                () -> assertTrue(finalTinyLfuHot >= 45, "kept " + finalTinyLfuHot),
+                () -> assertEquals(maximumSize, tinyLfu.size())
+        );
+    }
+
+    @Test
+    void randomOperationsKeepTheBound() {
+        BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(50, true);
+        for (int i = 0; i < 50_000; i++) {
+            int key = (int) Math.abs(random.nextGaussian() * 200);
+            switch (random.nextInt(6)) {
+                case 0:
+                    map.remove(key);
+                    break;
+                case 1:
+                    map.merge(key, 1, Integer::sum);
+                    break;
+                case 2:
+                    map.computeIfAbsent(key, k -> k);
+                    break;
+                default:
+                    if (map.get(key) == null) {
+                        map.put(key, key);
+                    }
+            }
+            Assertions.assertTrue(map.size() <= 50);
+        }
+        Assertions.assertEquals(map.size(), map.weightedSize());
+    }
+
+    @Test
+    void treeBinsStayLinked() {
+        List<String> keys = CollidingKeys.of(6);
+        BoundedMyHashMap<String, Integer> map = new BoundedMyHashMap<>(40);
+        for (int i = 0; i < 200; i++) {
+            map.put("other" + i, i);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        Assertions.assertEquals(40, map.size());
+        for (int i = keys.size() - 40; i < keys.size(); i++) {
+            Assertions.assertEquals(i, map.get(keys.get(i)));
+        }
+        for (int i = 0; i < 34; i++) {
+            map.put("again" + i, i);
+        }
+        Assertions.assertAll(
+                () -> assertEquals(40, map.size()),
+                () -> assertEquals(40, map.weightedSize()),
+                () -> assertEquals(keys.size() - 1, map.get(keys.get(keys.size() - 1)))
+        );
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(10);
+        map.put(1, 1);
+        map.get(1);
+        map.get(2);
+        map.getOrDefault(1, 0);
+        map.containsKey(3);
+        Assertions.assertAll(
+                () -> assertEquals(2, map.hitCount()),
+                () -> assertEquals(1, map.missCount()),
+                () -> assertEquals(2.0 / 3, map.hitRate(), 1e-9)
+        );
+        map.resetStats();
+        Assertions.assertEquals(0, map.hitCount());
+    }
+
+    @Test
+    void clearResetsTheWeight() {
+        BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(10, true);
+        for (int i = 0; i < 20; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        map.put(1, 1);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(1, map.weightedSize()),
+                () -> assertEquals(1, map.get(1))
+        );
+    }
+
+    @Nested
+    class BoundedMyHashMapTestIllegalParameters {
+        @Test
+        void createWithNegativeMaximum() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedMyHashMap<>(-1));
+        }
+
+        @Test
+        void negativeWeight() {
+            BoundedMyHashMap<Integer, Integer> map = new BoundedMyHashMap<>(10, (key, value) -> value, false, null);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1, -1));
+        }
+    }
+}
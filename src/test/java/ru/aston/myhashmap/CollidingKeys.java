@@ -0,0 +1,31 @@
+package ru.aston.myhashmap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class generates the keys the tests use to fill a single bucket: "Aa" and "BB" have the same String.hashCode(),
+ * so do all the strings of the same number of such blocks;
+ */
+final class CollidingKeys {
+    private CollidingKeys() {
+    }
+
+    /**
+     * Returns the 2^blocks strings of "Aa" or "BB" blocks, the bit i of the index of a string chooses its block i;
+     *
+     * @param blocks
+     * @return List<String>
+     */
+    static List<String> of(int blocks) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 1 << blocks; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int bit = 0; bit < blocks; bit++) {
+                key.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            keys.add(key.toString());
+        }
+        return keys;
+    }
+}
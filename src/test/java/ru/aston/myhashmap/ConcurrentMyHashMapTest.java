@@ -0,0 +1,187 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentMyHashMapTest {
+    private static final int NUMBER_OF_THREADS = 8;
+    private static final int KEYS_PER_THREAD = 20_000;
+    private ConcurrentMyHashMap<String, Integer> map;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void createMap() {
+        map = new ConcurrentMyHashMap<>();
+        executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS + 1);
+    }
+
+    @AfterEach
+    void destroy() throws InterruptedException {
+        executor.shutdownNow();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static String key(int thread, int i) {
+        return "key-" + thread + "-" + i;
+    }
+
+    @Test
+    void putGetRemove() {
+        Assertions.assertAll(
+                () -> assertNull(map.put("a", 1)),
+                () -> assertEquals(1, map.put("a", 2)),
+                () -> assertEquals(2, map.get("a")),
+                () -> assertTrue(map.containsKey("a")),
+                () -> assertTrue(map.containsValue(2)),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(2, map.remove("a")),
+                () -> assertNull(map.remove("a")),
+                () -> assertEquals(0, map.size())
+        );
+    }
+
+    @Test
+    void nullKeysAndValuesAreRejected() {
+        Assertions.assertAll(
+                () -> assertThrows(NullPointerException.class, () -> map.put(null, 1)),
+                () -> assertThrows(NullPointerException.class, () -> map.put("a", null))
+        );
+    }
+
+    @Test
+    void concurrentWritersDoNotLoseEntries() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                    assertNull(map.put(key(thread, i), i));
+                }
+                for (int i = 0; i < KEYS_PER_THREAD; i += 2) {
+                    assertEquals(i, map.remove(key(thread, i)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(NUMBER_OF_THREADS * KEYS_PER_THREAD / 2, map.size());
+        for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+            for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                Assertions.assertEquals(i % 2 == 0 ? null : (Integer) i, map.get(key(t, i)));
+            }
+        }
+        Set<String> actualKeys = new HashSet<>();
+        for (MyMap.Entry<String, Integer> entry : map.entrySet()) {
+            actualKeys.add(entry.getKey());
+        }
+        Assertions.assertEquals(map.size(), actualKeys.size());
+    }
+
+    @Test
+    void readersSeeConsistentValuesDuringResize() throws Exception {
+        for (int i = 0; i < KEYS_PER_THREAD; i++) {
+            map.put(key(0, i), i);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Future<?> reader = executor.submit(() -> {
+            while (writing.get()) {
+                for (int i = 0; i < KEYS_PER_THREAD; i += 97) {
+                    assertEquals(i, map.get(key(0, i)));
+                }
+            }
+            return null;
+        });
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 1; t < NUMBER_OF_THREADS; t++) {
+            int thread = t;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < KEYS_PER_THREAD; i++) {
+                    map.put(key(thread, i), i);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        reader.get(60, TimeUnit.SECONDS);
+        Assertions.assertEquals(NUMBER_OF_THREADS * KEYS_PER_THREAD, map.mappingCount());
+    }
+
+    @Test
+    void concurrentMergesAreAtomic() throws Exception {
+        int numberOfKeys = 1000;
+        int rounds = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = 0; i < numberOfKeys; i++) {
+                        map.merge(key(0, i), 1, Integer::sum);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        Assertions.assertEquals(numberOfKeys, map.size());
+        for (int i = 0; i < numberOfKeys; i++) {
+            Assertions.assertEquals(NUMBER_OF_THREADS * rounds, map.get(key(0, i)));
+        }
+    }
+
+    @Test
+    void computeMethods() {
+        Assertions.assertAll(
+                () -> assertNull(map.putIfAbsent("a", 1)),
+                () -> assertEquals(1, map.putIfAbsent("a", 2)),
+                () -> assertEquals(1, map.computeIfAbsent("a", key -> 3)),
+                () -> assertEquals(4, map.computeIfAbsent("b", key -> 4)),
+                () -> assertNull(map.computeIfAbsent("c", key -> null)),
+                () -> assertNull(map.computeIfPresent("c", (key, value) -> 5)),
+                () -> assertEquals(5, map.computeIfPresent("b", (key, value) -> value + 1)),
+                () -> assertNull(map.compute("b", (key, value) -> null)),
+                () -> assertEquals(7, map.compute("d", (key, value) -> value == null ? 7 : value)),
+                () -> assertNull(map.merge("d", 1, (oldValue, value) -> null)),
+                () -> assertEquals(-1, map.getOrDefault("d", -1)),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(1, map.entrySet().size())
+        );
+    }
+
+    @Test
+    void clearRemovesAllEntries() {
+        for (int i = 0; i < 1000; i++) {
+            map.put(key(0, i), i);
+        }
+        map.clear();
+        Assertions.assertAll(
+                () -> assertEquals(0, map.size()),
+                () -> assertNull(map.get(key(0, 1))),
+                () -> assertTrue(map.entrySet().isEmpty())
+        );
+    }
+}
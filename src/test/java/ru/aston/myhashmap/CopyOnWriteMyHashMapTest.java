@@ -0,0 +1,251 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyOnWriteMyHashMapTest {
+    private CopyOnWriteMyHashMap<String, Integer> map;
+
+    @BeforeEach
+    void createMap() {
+        map = new CopyOnWriteMyHashMap<>();
+    }
+
+    @Test
+    void putGetRemove() {
+        Assertions.assertAll(
+                () -> assertNull(map.put("a", 1)),
+                () -> assertEquals(1, map.put("a", 2)),
+                () -> assertEquals(2, map.get("a")),
+                () -> assertTrue(map.containsKey("a")),
+                () -> assertTrue(map.containsValue(2)),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(2, map.remove("a")),
+                () -> assertNull(map.remove("a")),
+                () -> assertEquals(0, map.size())
+        );
+    }
+
+    @Test
+    void nullKeysAndValues() {
+        map.put(null, 1);
+        map.put("a", null);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.get(null)),
+                () -> assertTrue(map.containsKey("a")),
+                () -> assertEquals(5, map.getOrDefault("b", 5)),
+                () -> assertNull(map.getOrDefault("a", 5)),
+                () -> assertEquals(1, map.remove(null)),
+                () -> assertFalse(map.containsKey(null))
+        );
+    }
+
+    @Test
+    void manyKeysThroughResizes() {
+        for (int i = 0; i < 10_000; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            Assertions.assertEquals(i, map.remove("key" + i));
+        }
+        Assertions.assertEquals(5_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(i % 2 == 0 ? null : i, map.get("key" + i));
+        }
+    }
+
+    @Test
+    void updateIsPublishedAtOnce() {
+        map.put("a", 1);
+        CopyOnWriteMyHashMap.Table<String, Integer> before = map.table();
+        map.update(batch -> {
+            batch.put("a", 2);
+            batch.put("b", 3);
+            batch.remove("a");
+            Assertions.assertAll(
+                    () -> assertEquals(1, map.get("a")),
+                    () -> assertFalse(map.containsKey("b")),
+                    () -> assertNull(batch.get("a")),
+                    () -> assertEquals(3, batch.get("b")),
+                    () -> assertEquals(1, batch.size())
+            );
+        });
+        Assertions.assertAll(
+                () -> assertNotSame(before, map.table()),
+                () -> assertFalse(map.containsKey("a")),
+                () -> assertEquals(3, map.get("b")),
+                () -> assertEquals(1, map.size())
+        );
+    }
+
+    @Test
+    void failedUpdateIsDiscarded() {
+        map.put("a", 1);
+        Assertions.assertThrows(IllegalStateException.class, () -> map.update(batch -> {
+            batch.put("b", 2);
+            throw new IllegalStateException();
+        }));
+        Assertions.assertAll(
+                () -> assertFalse(map.containsKey("b")),
+                () -> assertEquals(1, map.size())
+        );
+    }
+
+    @Test
+    void writesWithoutChangesPublishNothing() {
+        map.put("a", 1);
+        CopyOnWriteMyHashMap.Table<String, Integer> before = map.table();
+        map.put("a", 1);
+        map.remove("b");
+        map.update(batch -> batch.get("a"));
+        Assertions.assertSame(before, map.table());
+    }
+
+    @Test
+    void writeSharesTheUnchangedChunks() {
+        CopyOnWriteMyHashMap<Integer, Integer> large = new CopyOnWriteMyHashMap<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            large.put(i, i);
+        }
+        CopyOnWriteMyHashMap.Table<Integer, Integer> before = large.table();
+        large.put(-1, -1);
+        CopyOnWriteMyHashMap.Table<Integer, Integer> after = large.table();
+        int shared = 0;
+        for (int c = 0; c < before.chunks.length; c++) {
+            shared += before.chunks[c] == after.chunks[c] ? 1 : 0;
+        }
+        int chunks = before.chunks.length;
+        int sharedChunks = shared;
+        Assertions.assertAll(
+                () -> assertEquals(before.capacity(), after.capacity()),
+                () -> assertTrue(chunks > 1),
+                () -> assertEquals(chunks - 1, sharedChunks),
+                () -> assertEquals(100_000, before.size),
+                () -> assertEquals(100_001, after.size),
+                () -> assertNull(before.find(-1))
+        );
+    }
+
+    @Test
+    void entrySetIsASnapshot() {
+        map.put("a", 1);
+        map.put("b", 2);
+        Iterator<MyMap.Entry<String, Integer>> iterator = map.entrySet().iterator();
+        map.put("c", 3);
+        map.remove("a");
+        int count = 0;
+        while (iterator.hasNext()) {
+            MyMap.Entry<String, Integer> entry = iterator.next();
+            count++;
+            if (entry.getKey().equals("b")) {
+                iterator.remove();
+            }
+        }
+        int entries = count;
+        Assertions.assertAll(
+                () -> assertEquals(2, entries),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(3, map.get("c"))
+        );
+    }
+
+    @Test
+    void computeAndBatchOperations() {
+        map.putAll(java.util.Map.of("a", 1, "b", 2, "c", 3));
+        Assertions.assertAll(
+                () -> assertEquals(3, map.size()),
+                () -> assertEquals(11, map.merge("a", 10, Integer::sum)),
+                () -> assertEquals(4, map.computeIfAbsent("d", key -> 4)),
+                () -> assertNull(map.computeIfPresent("d", (key, value) -> null)),
+                () -> assertEquals(2, map.putIfAbsent("b", 5)),
+                () -> assertEquals(2, map.removeAll(List.of("b", "c", "x"))),
+                () -> assertEquals(1, map.size())
+        );
+        map.replaceAll((key, value) -> value * 2);
+        Assertions.assertEquals(22, map.get("a"));
+    }
+
+    @Test
+    void readersSeeWholeUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        map.update(batch -> {
+            batch.put("a", 0);
+            batch.put("b", 0);
+        });
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        MyMap<String, Integer> pair = map.getAll(List.of("a", "b"));
+                        assertEquals(pair.get("a"), pair.get("b"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (int i = 1; i <= 20_000; i++) {
+                int value = i;
+                map.update(batch -> {
+                    batch.put("a", value);
+                    batch.put("key" + (value % 1000), value);
+                    batch.put("b", value);
+                });
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(20_000, map.get("b"));
+    }
+
+    @Nested
+    class CopyOnWriteMyHashMapTestIllegalParameters {
+        @Test
+        void createWithNegativeCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new CopyOnWriteMyHashMap<String, Integer>(-1));
+        }
+
+        @Test
+        void nullUpdate() {
+            Assertions.assertThrows(NullPointerException.class, () -> map.update(null));
+        }
+
+        @Test
+        void batchUsedAfterUpdate() {
+            List<MyMap<String, Integer>> escaped = new ArrayList<>();
+            map.update(escaped::add);
+            Assertions.assertThrows(IllegalStateException.class, () -> escaped.get(0).put("a", 1));
+        }
+
+        @Test
+        void mapModifiedInsideUpdate() {
+            Assertions.assertThrows(IllegalStateException.class, () -> map.update(batch -> map.put("a", 1)));
+            Assertions.assertEquals(0, map.size());
+        }
+
+        @Test
+        void setValueOfAnEntry() {
+            map.put("a", 1);
+            MyMap.Entry<String, Integer> entry = map.entrySet().iterator().next();
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> entry.setValue(2));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingMyMapTest {
+    private CountingMyMap<String> counts;
+
+    @BeforeEach
+    void createMap() {
+        counts = new CountingMyMap<>();
+    }
+
+    @Test
+    void incrementAndCount() {
+        Assertions.assertAll(
+                () -> assertEquals(0, counts.count("a")),
+                () -> assertEquals(1, counts.increment("a")),
+                () -> assertEquals(2, counts.increment("a")),
+                () -> assertEquals(12, counts.increment("a", 10)),
+                () -> assertEquals(0, counts.increment("a", -12)),
+                () -> assertTrue(counts.containsKey("a")),
+                () -> assertEquals(-3, counts.increment(null, -3)),
+                () -> assertEquals(-3, counts.count(null)),
+                () -> assertEquals(2, counts.size()),
+                () -> assertEquals(-3, counts.remove(null)),
+                () -> assertEquals(0, counts.remove(null)),
+                () -> assertEquals(1, counts.size())
+        );
+    }
+
+    @Test
+    void countsMatchHashMap() {
+        Map<String, Long> oracle = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            String key = "key" + random.nextInt(5_000);
+            if (random.nextInt(20) == 0) {
+                Long removed = oracle.remove(key);
+                Assertions.assertEquals(removed == null ? 0 : removed, counts.remove(key));
+            } else {
+                long delta = random.nextInt(7) - 2;
+                Assertions.assertEquals(oracle.merge(key, delta, Long::sum), counts.increment(key, delta));
+            }
+        }
+        Map<String, Long> actual = new HashMap<>();
+        counts.forEach(actual::put);
+        Assertions.assertAll(
+                () -> assertEquals(oracle, actual),
+                () -> assertEquals(oracle.keySet(), counts.keySet())
+        );
+    }
+
+    @Test
+    void countsSurviveTreeBins() {
+        String[] keys = CollidingKeys.of(6).toArray(new String[0]);
+        for (int round = 1; round <= 3; round++) {
+            for (String key : keys) {
+                counts.increment(key, round);
+            }
+        }
+        for (String key : keys) {
+            Assertions.assertEquals(6, counts.count(key));
+        }
+        for (int i = 0; i < keys.length - 2; i++) {
+            Assertions.assertEquals(6, counts.remove(keys[i]));
+        }
+        Assertions.assertAll(
+                () -> assertEquals(7, counts.increment(keys[62])),
+                () -> assertEquals(6, counts.count(keys[63])),
+                () -> assertEquals(2, counts.size())
+        );
+    }
+
+    @Test
+    void clearAndToString() {
+        counts.increment("a", 5);
+        Assertions.assertEquals("CountingMyMap{[Key:a /Count: 5],", counts.toString());
+        counts.clear();
+        Assertions.assertAll(
+                () -> assertTrue(counts.isEmpty()),
+                () -> assertEquals(0, counts.count("a"))
+        );
+    }
+
+    @Nested
+    class CountingMyMapTestIllegalParameters {
+        @Test
+        void createWithNegativeCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new CountingMyMap<>(-1));
+        }
+
+        @Test
+        void forEachWithNull() {
+            Assertions.assertThrows(NullPointerException.class, () -> counts.forEach(null));
+        }
+
+        @Test
+        void modifyTheKeySet() {
+            counts.increment("a");
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> counts.keySet().remove("a"));
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableMyHashMapTest {
+    private static Random random;
+    @TempDir
+    Path directory;
+    /**
+     * These are the logs opened by the map of openFailing, the last one is the current log;
+     */
+    private final List<FailingChannel> channels = new ArrayList<>();
+
+    private DurableMyHashMap<Integer, String> open(DurableMyHashMap.FsyncPolicy policy, long compactionThreshold)
+            throws IOException {
+        return new DurableMyHashMap<>(directory, Serializer.INTEGER, Serializer.STRING, policy, 5, compactionThreshold);
+    }
+
+    private DurableMyHashMap<Integer, String> openFailing(DurableMyHashMap.FsyncPolicy policy) throws IOException {
+        return new DurableMyHashMap<>(directory, Serializer.INTEGER, Serializer.STRING, policy, 5,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD) {
+            @Override
+            FileChannel openLog(long generation) throws IOException {
+                FailingChannel channel = new FailingChannel(super.openLog(generation));
+                channels.add(channel);
+                return channel;
+            }
+        };
+    }
+
+    private FailingChannel currentLog() {
+        return channels.get(channels.size() - 1);
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @Test
+    void mutationsSurviveReopening() throws IOException {
+        Map<Integer, String> expected = new HashMap<>();
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            for (int i = 0; i < 2_000; i++) {
+                int key = random.nextInt(500);
+                if (random.nextInt(4) > 0) {
+                    String value = "value" + i;
+                    Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+        }
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertEquals(expected.size(), map.size());
+            for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+                Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    void recoveryWithoutClosing() throws IOException {
+        DurableMyHashMap<Integer, String> crashed = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD);
+        crashed.put(1, "one");
+        crashed.put(2, "two");
+        crashed.remove(1);
+        crashed.put(null, "null key");
+        /*
+         *the first map is abandoned as if the process had died, its records are already forced
+         */
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(2, map.size()),
+                    () -> assertFalse(map.containsKey(1)),
+                    () -> assertEquals("two", map.get(2)),
+                    () -> assertEquals("null key", map.getOrDefault(null, "absent"))
+            );
+        }
+    }
+
+    @Test
+    void clearIsLogged() throws IOException {
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            map.put(1, "one");
+            map.clear();
+            map.put(2, "two");
+        }
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(1, map.size()),
+                    () -> assertEquals("two", map.get(2))
+            );
+        }
+    }
+
+    @Test
+    void tornRecordIsDropped() throws IOException {
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            map.put(1, "one");
+            map.put(2, "two");
+        }
+        Path log = directory.resolve("wal-0.log");
+        long size = Files.size(log);
+        Files.write(log, new byte[]{0, 0, 0, 20, 1, 2, 3}, StandardOpenOption.APPEND);
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(2, map.size()),
+                    () -> assertEquals(size, Files.size(log))
+            );
+            map.put(3, "three");
+        }
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertEquals("three", map.get(3));
+        }
+    }
+
+    @Test
+    void checkpointReplacesTheLog() throws IOException {
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "value" + i);
+            }
+            map.checkpoint();
+            map.put(100, "after checkpoint");
+            Assertions.assertAll(
+                    () -> assertTrue(Files.exists(directory.resolve("checkpoint-1.snapshot"))),
+                    () -> assertFalse(Files.exists(directory.resolve("wal-0.log"))),
+                    () -> assertEquals(1, countFiles("wal-"))
+            );
+        }
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(101, map.size()),
+                    () -> assertEquals("value50", map.get(50)),
+                    () -> assertEquals("after checkpoint", map.get(100))
+            );
+        }
+    }
+
+    @Test
+    void logIsCompactedInTheBackground() throws IOException {
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS, 4_096)) {
+            for (int i = 0; i < 5_000; i++) {
+                map.put(i % 10, "value" + i);
+            }
+        }
+        Assertions.assertTrue(countFiles("checkpoint-") > 0);
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS, 4_096)) {
+            Assertions.assertAll(
+                    () -> assertEquals(10, map.size()),
+                    () -> assertEquals("value4999", map.get(9)),
+                    () -> assertTrue(map.logSize() < 5_000 * 20)
+            );
+        }
+    }
+
+    @Test
+    void concurrentWritersShareTheCommits() throws Exception {
+        int threads = 4;
+        int perThread = 300;
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Thread[] writers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int offset = t * perThread;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        map.put(offset + i, "value" + (offset + i));
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(threads * perThread, map.size()),
+                    () -> assertEquals("value777", map.get(777))
+            );
+        }
+    }
+
+    @Test
+    void intervalPolicyWritesOnSync() throws IOException {
+        DurableMyHashMap<Integer, String> crashed = open(DurableMyHashMap.FsyncPolicy.INTERVAL,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD);
+        for (int i = 0; i < 1_000; i++) {
+            crashed.put(i, "value" + i);
+        }
+        crashed.sync();
+        try (DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.INTERVAL,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(1_000, map.size()),
+                    () -> assertEquals("value999", map.get(999))
+            );
+        }
+    }
+
+    @Test
+    void closedMapRejectsMutations() throws IOException {
+        DurableMyHashMap<Integer, String> map = open(DurableMyHashMap.FsyncPolicy.NEVER,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD);
+        map.put(1, "one");
+        map.close();
+        Assertions.assertAll(
+                () -> assertThrows(IllegalStateException.class, () -> map.put(2, "two")),
+                () -> assertEquals("one", map.get(1))
+        );
+    }
+
+    @Test
+    void failedSerializationLeavesTheMapAndTheLogIntact() throws IOException {
+        boolean[] rejecting = {false};
+        Serializer<String> serializer = new Serializer<>() {
+            @Override
+            public void write(String value, ByteBuffer target) {
+                Serializer.STRING.write(value, target);
+                if (rejecting[0] && value.startsWith("bad")) {
+                    throw new IllegalArgumentException("Illegal value: " + value);
+                }
+            }
+
+            @Override
+            public String read(ByteBuffer source, int offset, int length) {
+                return Serializer.STRING.read(source, offset, length);
+            }
+        };
+        try (DurableMyHashMap<String, String> map = new DurableMyHashMap<>(directory, serializer, serializer)) {
+            map.put("k1", "one");
+            map.put("k2", "two");
+            map.put("bad key", "three");
+            rejecting[0] = true;
+            Assertions.assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> map.put("k2", "bad")),
+                    () -> assertThrows(IllegalArgumentException.class, () -> map.remove("bad key")),
+                    () -> assertEquals("two", map.get("k2")),
+                    () -> assertEquals("three", map.get("bad key"))
+            );
+            map.put("k4", "four");
+            map.remove("k2");
+        }
+        try (DurableMyHashMap<String, String> map = new DurableMyHashMap<>(directory, Serializer.STRING,
+                Serializer.STRING)) {
+            Assertions.assertAll(
+                    () -> assertEquals(3, map.size()),
+                    () -> assertEquals("one", map.get("k1")),
+                    () -> assertEquals("three", map.get("bad key")),
+                    () -> assertEquals("four", map.get("k4"))
+            );
+        }
+    }
+
+    @Test
+    void failedWriteStopsTheMutations() throws IOException {
+        DurableMyHashMap<Integer, String> map = openFailing(DurableMyHashMap.FsyncPolicy.ALWAYS);
+        map.put(1, "one");
+        currentLog().failing = true;
+        Assertions.assertAll(
+                () -> assertThrows(UncheckedIOException.class, () -> map.put(2, "two")),
+                () -> assertThrows(UncheckedIOException.class, () -> map.put(3, "three")),
+                () -> assertThrows(UncheckedIOException.class, () -> map.remove(1)),
+                () -> assertThrows(UncheckedIOException.class, map::clear),
+                () -> assertThrows(IOException.class, map::sync),
+                () -> assertThrows(IOException.class, map::checkpoint),
+                () -> assertEquals("one", map.get(1)),
+                () -> assertFalse(currentLog().isOpen())
+        );
+        Assertions.assertThrows(IOException.class, map::close);
+        try (DurableMyHashMap<Integer, String> recovered = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals(1, recovered.size()),
+                    () -> assertEquals("one", recovered.get(1)),
+                    () -> assertNull(recovered.put(4, "four"))
+            );
+        }
+    }
+
+    @Test
+    void failedBackgroundWriteIsReported() throws IOException {
+        DurableMyHashMap<Integer, String> map = openFailing(DurableMyHashMap.FsyncPolicy.INTERVAL);
+        map.put(1, "one");
+        map.sync();
+        currentLog().failing = true;
+        map.put(2, "two");
+        Assertions.assertThrows(IOException.class, map::sync);
+        Assertions.assertAll(
+                () -> assertThrows(UncheckedIOException.class, () -> map.put(3, "three")),
+                () -> assertThrows(IOException.class, map::close)
+        );
+        try (DurableMyHashMap<Integer, String> recovered = open(DurableMyHashMap.FsyncPolicy.ALWAYS,
+                DurableMyHashMap.DEFAULT_COMPACTION_THRESHOLD)) {
+            Assertions.assertAll(
+                    () -> assertEquals("one", recovered.get(1)),
+                    () -> assertFalse(recovered.containsKey(3))
+            );
+        }
+    }
+
+    @Nested
+    class DurableMyHashMapTestConstructorsWithIllegalParameters {
+        @Test
+        void createWithNegativeInterval() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new DurableMyHashMap<>(directory,
+                    Serializer.STRING, Serializer.STRING, DurableMyHashMap.FsyncPolicy.INTERVAL, -1, 1_000));
+        }
+
+        @Test
+        void createWithZeroCompactionThreshold() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new DurableMyHashMap<>(directory,
+                    Serializer.STRING, Serializer.STRING, DurableMyHashMap.FsyncPolicy.ALWAYS, 10, 0));
+        }
+    }
+
+    /**
+     * This channel passes everything to the real log, except that once failing is set a write stores the first
+     * few bytes of the buffer and throws, as a disk which fills up or fails in the middle of a record does;
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel channel;
+        volatile boolean failing;
+
+        FailingChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failing) {
+                ByteBuffer torn = src.duplicate();
+                torn.limit(Math.min(torn.limit(), torn.position() + 5));
+                channel.write(torn);
+                throw new IOException("Injected write failure");
+            }
+            return channel.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failing) {
+                throw new IOException("Injected force failure");
+            }
+            channel.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return channel.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            channel.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return channel.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringMyHashMapTest {
+    private static Random random;
+    private FakeTicker ticker;
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @BeforeEach
+    void createTicker() {
+        ticker = new FakeTicker();
+    }
+
+    @Test
+    void entryExpiresAfterWrite() {
+        ExpiringMyHashMap<String, String> map = new ExpiringMyHashMap<>(1, TimeUnit.MINUTES, false, ticker);
+        map.put("token", "session");
+        ticker.advance(59, TimeUnit.SECONDS);
+        Assertions.assertEquals("session", map.get("token"));
+        ticker.advance(2, TimeUnit.SECONDS);
+        Assertions.assertAll(
+                () -> assertNull(map.get("token")),
+                () -> assertFalse(map.containsKey("token")),
+                () -> assertEquals(0, map.size()),
+                () -> assertEquals(1, map.expirationCount())
+        );
+    }
+
+    @Test
+    void writeRestartsTheTimeToLive() {
+        ExpiringMyHashMap<String, String> map = new ExpiringMyHashMap<>(1, TimeUnit.MINUTES, false, ticker);
+        map.put("token", "first");
+        ticker.advance(50, TimeUnit.SECONDS);
+        Assertions.assertEquals("first", map.put("token", "second"));
+        ticker.advance(50, TimeUnit.SECONDS);
+        Assertions.assertEquals("second", map.get("token"));
+        ticker.advance(50, TimeUnit.SECONDS);
+        Assertions.assertNull(map.get("token"));
+    }
+
+    @Test
+    void putAllStartsTheTimeToLiveNow() {
+        ExpiringMyHashMap<String, Integer> map = new ExpiringMyHashMap<>(10, TimeUnit.MINUTES, false, ticker);
+        map.put("x", 0);
+        ticker.advance(30, TimeUnit.MINUTES);
+        map.putAll(Map.of("a", 1, "b", 2));
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        source.put("c", 3);
+        map.putAll(source);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.get("a")),
+                () -> assertEquals(3, map.get("c")),
+                () -> assertNull(map.get("x")),
+                () -> assertEquals(3, map.size())
+        );
+        ticker.advance(11, TimeUnit.MINUTES);
+        Assertions.assertNull(map.get("b"));
+    }
+
+    @Test
+    void removeAllCountsOnlyLiveKeys() {
+        ExpiringMyHashMap<String, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.MINUTES, false, ticker);
+        map.put("old", 1);
+        ticker.advance(50, TimeUnit.SECONDS);
+        map.put("new", 2);
+        ticker.advance(20, TimeUnit.SECONDS);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.removeAll(List.of("old", "new", "absent"))),
+                () -> assertEquals(0, map.size()),
+                () -> assertEquals(1, map.expirationCount())
+        );
+    }
+
+    @Test
+    void readRestartsTheTimeToLiveAfterAccess() {
+        ExpiringMyHashMap<String, String> map = new ExpiringMyHashMap<>(1, TimeUnit.MINUTES, true, ticker);
+        map.put("token", "session");
+        for (int i = 0; i < 10; i++) {
+            ticker.advance(50, TimeUnit.SECONDS);
+            Assertions.assertEquals("session", map.get("token"));
+        }
+        ticker.advance(61, TimeUnit.SECONDS);
+        Assertions.assertNull(map.get("token"));
+    }
+
+    @Test
+    void perEntryTimeToLive() {
+        ExpiringMyHashMap<String, String> map = new ExpiringMyHashMap<>(1, TimeUnit.HOURS, false, ticker);
+        map.put("short", "a", 10, TimeUnit.SECONDS);
+        map.put("long", "b");
+        ticker.advance(11, TimeUnit.SECONDS);
+        Assertions.assertAll(
+                () -> assertNull(map.get("short")),
+                () -> assertEquals("b", map.get("long"))
+        );
+    }
+
+    @Test
+    void expiredValuesAreNotReturnedByWrites() {
+        ExpiringMyHashMap<String, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.SECONDS, false, ticker);
+        map.put("a", 1);
+        map.put("b", 1);
+        map.put("c", 1);
+        map.put("d", 1);
+        ticker.advance(2, TimeUnit.SECONDS);
+        Assertions.assertAll(
+                () -> assertNull(map.put("a", 2)),
+                () -> assertNull(map.putIfAbsent("b", 2)),
+                () -> assertEquals(5, map.merge("c", 5, Integer::sum)),
+                () -> assertNull(map.remove("d")),
+                () -> assertEquals(3, map.size())
+        );
+    }
+
+    @Test
+    void cleanUpRemovesEntriesWithoutLookups() {
+        ExpiringMyHashMap<Integer, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.MINUTES, false, ticker);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        map.put(-1, -1, 1, TimeUnit.DAYS);
+        ticker.advance(2, TimeUnit.MINUTES);
+        map.cleanUp();
+        Assertions.assertAll(
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(1_000, map.expirationCount()),
+                () -> assertEquals(-1, map.get(-1))
+        );
+    }
+
+    @Test
+    void randomTimesToLiveMatchDeadlines() {
+        ExpiringMyHashMap<Integer, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.HOURS, false, ticker);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        long[] durations = {TimeUnit.SECONDS.toNanos(1), TimeUnit.MINUTES.toNanos(1), TimeUnit.HOURS.toNanos(1),
+                TimeUnit.DAYS.toNanos(1), TimeUnit.DAYS.toNanos(10)};
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            long duration = 1 + (long) (random.nextDouble() * durations[random.nextInt(durations.length)]);
+            map.put(key, i, duration, TimeUnit.NANOSECONDS);
+            deadlines.put(key, ticker.nanos + duration);
+            ticker.advance((long) (random.nextDouble() * TimeUnit.MINUTES.toNanos(30)), TimeUnit.NANOSECONDS);
+            if (i % 100 == 0) {
+                map.cleanUp();
+                long live = 0, recentlyExpired = 0;
+                for (long deadline : deadlines.values()) {
+                    if (deadline - ticker.nanos > 0) {
+                        live++;
+                    } else if (ticker.nanos - deadline < (1L << 31)) {
+                        recentlyExpired++;
+                    }
+                }
+                Assertions.assertTrue(map.size() >= live && map.size() <= live + recentlyExpired);
+            }
+        }
+        for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+            Assertions.assertEquals(entry.getValue() - ticker.nanos > 0, map.containsKey(entry.getKey()));
+        }
+    }
+
+    @Test
+    void treeBinsExpire() {
+        ExpiringMyHashMap<String, Integer> map = new ExpiringMyHashMap<>(20, TimeUnit.SECONDS, false, ticker);
+        for (int i = 0; i < 200; i++) {
+            map.put("other" + i, i);
+        }
+        List<String> keys = CollidingKeys.of(6);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i, 10, TimeUnit.SECONDS);
+        }
+        ticker.advance(15, TimeUnit.SECONDS);
+        map.cleanUp();
+        Assertions.assertAll(
+                () -> assertEquals(200, map.size()),
+                () -> assertEquals(64, map.expirationCount()),
+                () -> assertEquals(7, map.get("other7"))
+        );
+        ticker.advance(10, TimeUnit.SECONDS);
+        map.cleanUp();
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    void clearEmptiesTheWheel() {
+        ExpiringMyHashMap<Integer, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.SECONDS, false, ticker);
+        map.put(1, 1);
+        map.clear();
+        map.put(2, 2);
+        ticker.advance(2, TimeUnit.SECONDS);
+        map.cleanUp();
+        Assertions.assertAll(
+                () -> assertEquals(0, map.size()),
+                () -> assertEquals(1, map.expirationCount())
+        );
+    }
+
+    @Nested
+    class ExpiringMyHashMapTestIllegalParameters {
+        @Test
+        void createWithZeroDuration() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new ExpiringMyHashMap<>(0, TimeUnit.SECONDS));
+        }
+
+        @Test
+        void putWithNegativeDuration() {
+            ExpiringMyHashMap<Integer, Integer> map = new ExpiringMyHashMap<>(1, TimeUnit.SECONDS);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1, 1, -1, TimeUnit.SECONDS));
+        }
+    }
+
+    static final class FakeTicker implements Ticker {
+        long nanos = 1L << 40;
+
+        void advance(long duration, TimeUnit unit) {
+            nanos += unit.toNanos(duration);
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrozenMyHashMapTest {
+
+    @Test
+    void freezeKeepsAllPairs() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put("key" + i, i);
+        }
+        FrozenMyHashMap<String, Integer> frozen = map.freeze();
+        Assertions.assertEquals(10_000, frozen.size());
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertEquals(i, frozen.get("key" + i));
+        }
+        Assertions.assertAll(
+                () -> assertNull(frozen.get("key10000")),
+                () -> assertFalse(frozen.containsKey("absent")),
+                () -> assertTrue(frozen.containsValue(9_999)),
+                () -> assertFalse(frozen.containsValue(10_000)),
+                () -> assertEquals(-1, frozen.getOrDefault("absent", -1)),
+                () -> assertEquals(16384, frozen.bucketCount())
+        );
+    }
+
+    @Test
+    void theFrozenCopyDoesNotFollowTheMap() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.put("a", 1);
+        FrozenMyHashMap<String, Integer> frozen = map.freeze();
+        map.put("a", 2);
+        map.put("b", 3);
+        Assertions.assertAll(
+                () -> assertEquals(1, frozen.get("a")),
+                () -> assertFalse(frozen.containsKey("b")),
+                () -> assertEquals(1, frozen.size())
+        );
+    }
+
+    @Test
+    void nullKeysAndValues() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        map.put(null, 1);
+        map.put("a", null);
+        FrozenMyHashMap<String, Integer> frozen = map.freeze();
+        Assertions.assertAll(
+                () -> assertEquals(1, frozen.get(null)),
+                () -> assertTrue(frozen.containsKey(null)),
+                () -> assertTrue(frozen.containsKey("a")),
+                () -> assertNull(frozen.getOrDefault("a", 5)),
+                () -> assertTrue(frozen.containsValue(null))
+        );
+    }
+
+    @Test
+    void collidingKeysAndTreeBins() {
+        MyHashMap<String, Integer> map = new MyHashMap<>();
+        List<String> keys = CollidingKeys.of(8);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        Assertions.assertTrue(map.treeBinCount() > 0);
+        FrozenMyHashMap<String, Integer> frozen = map.freeze();
+        for (MyMap.Entry<String, Integer> entry : map.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), frozen.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void freezeKeepsTheHashingStrategy() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(HashingStrategy.caseInsensitive());
+        map.put("Content-Type", 1);
+        FrozenMyHashMap<String, Integer> frozen = map.freeze();
+        Assertions.assertAll(
+                () -> assertEquals(1, frozen.get("content-type")),
+                () -> assertTrue(frozen.containsKey("CONTENT-TYPE"))
+        );
+    }
+
+    @Test
+    void copyOfOtherMaps() {
+        ConcurrentMyHashMap<String, Integer> concurrent = new ConcurrentMyHashMap<>();
+        concurrent.put("a", 1);
+        concurrent.put("b", 2);
+        FrozenMyHashMap<String, Integer> frozen = FrozenMyHashMap.copyOf(concurrent);
+        FrozenMyHashMap<String, Integer> empty = FrozenMyHashMap.copyOf(new MyHashMap<>());
+        Assertions.assertAll(
+                () -> assertEquals(2, frozen.size()),
+                () -> assertEquals(2, frozen.get("b")),
+                () -> assertSame(frozen, FrozenMyHashMap.copyOf(frozen)),
+                () -> assertEquals(0, empty.size()),
+                () -> assertNull(empty.get("a")),
+                () -> assertFalse(empty.entrySet().iterator().hasNext())
+        );
+    }
+
+    @Test
+    void iteration() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i * i);
+        }
+        FrozenMyHashMap<Integer, Integer> frozen = map.freeze();
+        Map<Integer, Integer> seen = new HashMap<>();
+        for (MyMap.Entry<Integer, Integer> entry : frozen.entrySet()) {
+            seen.put(entry.getKey(), entry.getValue());
+        }
+        Map<Integer, Integer> forEach = new HashMap<>();
+        frozen.forEach(forEach::put);
+        Assertions.assertAll(
+                () -> assertEquals(100, seen.size()),
+                () -> assertEquals(seen, forEach),
+                () -> assertEquals(81, seen.get(9)),
+                () -> assertEquals(100, frozen.keySet().size()),
+                () -> assertTrue(frozen.values().contains(81)),
+                () -> assertEquals(2, frozen.getAll(List.of(2, 3, 1000)).size()),
+                () -> assertTrue(frozen.entrySet().contains(map.entrySet().iterator().next()))
+        );
+    }
+
+    @Nested
+    class FrozenMyHashMapTestIllegalParameters {
+        private final FrozenMyHashMap<String, Integer> frozen = FrozenMyHashMap.copyOf(new MyHashMap<>());
+
+        @Test
+        void copyOfNull() {
+            Assertions.assertThrows(NullPointerException.class, () -> FrozenMyHashMap.copyOf(null));
+        }
+
+        @Test
+        void modifications() {
+            Assertions.assertAll(
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.put("a", 1)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.remove("a")),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.clear()),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.merge("a", 1, Integer::sum)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.computeIfAbsent("a", k -> 1)),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.removeAll(List.of("a"))),
+                    () -> assertThrows(UnsupportedOperationException.class, () -> frozen.putAll(Map.of("a", 1)))
+            );
+        }
+
+        @Test
+        void setValueOfAnEntry() {
+            MyHashMap<String, Integer> map = new MyHashMap<>();
+            map.put("a", 1);
+            MyMap.Entry<String, Integer> entry = map.freeze().entrySet().iterator().next();
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> entry.setValue(2));
+        }
+    }
+}
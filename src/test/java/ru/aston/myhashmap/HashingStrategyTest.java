@@ -0,0 +1,204 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingStrategyTest {
+
+    /**
+     * Returns the string of the chars packed little-endian from the bytes 0, 1, ..., 2 * length - 1,
+     * whose UTF-16LE bytes are the messages of the SipHash reference vectors;
+     */
+    private static String referenceMessage(int length) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            message.append((char) ((2 * i) | ((2 * i + 1) << 8)));
+        }
+        return message.toString();
+    }
+
+    @Test
+    void sipHashMatchesTheReferenceVectors() {
+        long k0 = 0x0706050403020100L, k1 = 0x0f0e0d0c0b0a0908L;
+        Assertions.assertAll(
+                () -> assertEquals(0x726fdb47dd0e0e31L, SipHashStrategy.sipHash24(k0, k1, referenceMessage(0))),
+                () -> assertEquals(0x0d6c8009d9a94f5aL, SipHashStrategy.sipHash24(k0, k1, referenceMessage(1))),
+                () -> assertEquals(0x93f5f5799a932462L, SipHashStrategy.sipHash24(k0, k1, referenceMessage(4))),
+                () -> assertEquals(0x7a5dbbc594ddb9f3L, SipHashStrategy.sipHash24(k0, k1, referenceMessage(5)))
+        );
+    }
+
+    @Test
+    void seededStringsSpreadCollidingKeys() {
+        List<String> keys = CollidingKeys.of(14);
+        MyHashMap<String, Integer> plain = new MyHashMap<>();
+        MyHashMap<String, Integer> seeded = new MyHashMap<>(HashingStrategy.seededStrings());
+        for (int i = 0; i < keys.size(); i++) {
+            plain.put(keys.get(i), i);
+            seeded.put(keys.get(i), i);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            Assertions.assertEquals(i, seeded.get(keys.get(i)));
+        }
+        Assertions.assertAll(
+                () -> assertEquals(keys.size(), plain.bucketSizeHistogram().length - 1),
+                () -> assertTrue(seeded.bucketSizeHistogram().length - 1 < MyHashMap.TREEIFY_THRESHOLD),
+                () -> assertEquals(0, seeded.treeBinCount()),
+                () -> assertEquals(keys.size(), seeded.size()),
+                () -> assertEquals(0, seeded.remove(keys.get(0))),
+                () -> assertFalse(seeded.containsKey(keys.get(0)))
+        );
+    }
+
+    @Test
+    void everySeededStrategyHasItsOwnSeed() {
+        HashingStrategy<String> first = HashingStrategy.seededStrings();
+        HashingStrategy<String> second = HashingStrategy.seededStrings();
+        int differences = 0;
+        for (int i = 0; i < 10; i++) {
+            differences += first.hashCode("key" + i) != second.hashCode("key" + i) ? 1 : 0;
+        }
+        Assertions.assertTrue(differences > 0);
+        Assertions.assertEquals(HashingStrategy.seededStrings(1, 2).hashCode("key"),
+                HashingStrategy.seededStrings(1, 2).hashCode("key"));
+    }
+
+    @Test
+    void identityKeys() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(HashingStrategy.identity());
+        String first = new String("key");
+        String second = new String("key");
+        map.put(first, 1);
+        map.put(second, 2);
+        Assertions.assertAll(
+                () -> assertEquals(2, map.size()),
+                () -> assertEquals(1, map.get(first)),
+                () -> assertEquals(2, map.get(second)),
+                () -> assertNull(map.get("key"))
+        );
+    }
+
+    @Test
+    void caseInsensitiveKeys() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(HashingStrategy.caseInsensitive());
+        map.put("Content-Type", 1);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.put("CONTENT-TYPE", 2)),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(2, map.get("content-type")),
+                () -> assertEquals(3, map.merge("Content-type", 1, Integer::sum)),
+                () -> assertEquals(3, map.remove("content-TYPE")),
+                () -> assertEquals(0, map.size())
+        );
+    }
+
+    @Test
+    void caseInsensitiveKeysWithSurrogatePairs() {
+        HashingStrategy<String> strategy = HashingStrategy.caseInsensitive();
+        String upper = "x" + new String(Character.toChars(0x10400));
+        String lower = "X" + new String(Character.toChars(0x10428));
+        MyHashMap<String, Integer> map = new MyHashMap<>(strategy);
+        map.put(upper, 1);
+        Assertions.assertAll(
+                () -> assertTrue(strategy.equals(upper, lower)),
+                () -> assertEquals(strategy.hashCode(upper), strategy.hashCode(lower)),
+                () -> assertEquals(1, map.get(lower)),
+                () -> assertEquals(1, map.put(lower, 2)),
+                () -> assertEquals(1, map.size())
+        );
+    }
+
+    @Test
+    void treeBinsUseTheEqualityOfTheStrategy() {
+        HashingStrategy<String> sameHash = new HashingStrategy<>() {
+            @Override
+            public int hashCode(String key) {
+                return 42;
+            }
+
+            @Override
+            public boolean equals(String a, String b) {
+                return a.equalsIgnoreCase(b);
+            }
+        };
+        MyHashMap<String, Integer> map = new MyHashMap<>(64, 0.75f, false, sameHash);
+        for (int i = 0; i < 200; i++) {
+            map.put("key" + i, i);
+        }
+        Assertions.assertEquals(1, map.treeBinCount());
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(i, map.get("KEY" + i));
+            Assertions.assertEquals(i, map.put("Key" + i, -i));
+        }
+        Assertions.assertEquals(200, map.size());
+        for (int i = 0; i < 200; i += 2) {
+            Assertions.assertEquals(-i, map.remove("kEY" + i));
+        }
+        Assertions.assertAll(
+                () -> assertEquals(100, map.size()),
+                () -> assertEquals(-1, map.get("key1")),
+                () -> assertNull(map.get("key2"))
+        );
+    }
+
+    @Test
+    void arrayKeysByContent() {
+        MyHashMap<byte[], String> bytes = new MyHashMap<>(HashingStrategy.byteArrays());
+        MyHashMap<char[], String> chars = new MyHashMap<>(HashingStrategy.charArrays());
+        bytes.put(new byte[]{1, 2, 3}, "bytes");
+        chars.put("chars".toCharArray(), "chars");
+        bytes.put(null, "null");
+        Assertions.assertAll(
+                () -> assertEquals("bytes", bytes.get(new byte[]{1, 2, 3})),
+                () -> assertNull(bytes.get(new byte[]{1, 2})),
+                () -> assertTrue(bytes.containsKey(null)),
+                () -> assertEquals("chars", chars.get("chars".toCharArray())),
+                () -> assertTrue(chars.containsKey("chars".toCharArray()))
+        );
+    }
+
+    @Test
+    void putAllRehashesKeysOfAnotherStrategy() {
+        MyHashMap<String, Integer> source = new MyHashMap<>();
+        source.put("a", 1);
+        source.put("A", 2);
+        source.put("b", 3);
+        MyHashMap<String, Integer> map = new MyHashMap<>(HashingStrategy.caseInsensitive());
+        map.putAll(source);
+        Assertions.assertAll(
+                () -> assertEquals(2, map.size()),
+                () -> assertNotNull(map.get("A")),
+                () -> assertEquals(3, map.get("B"))
+        );
+    }
+
+    @Test
+    void resizeKeepsTheStrategy() {
+        MyHashMap<String, Integer> map = new MyHashMap<>(16, 0.75f, true, HashingStrategy.caseInsensitive());
+        for (int i = 0; i < 5_000; i++) {
+            map.put("key" + i, i);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            Assertions.assertEquals(i, map.get("KEY" + i));
+        }
+    }
+
+    @Nested
+    class HashingStrategyTestIllegalParameters {
+        @Test
+        void createWithNullStrategy() {
+            Assertions.assertThrows(NullPointerException.class, () -> new MyHashMap<String, Integer>(null));
+        }
+
+        @Test
+        void snapshotOfAMapWithStrategy() {
+            MyHashMap<String, String> map = new MyHashMap<>(HashingStrategy.caseInsensitive());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> MyHashMapSnapshot.write(map,
+                    Path.of("unused.snapshot"), Serializer.STRING, Serializer.STRING));
+        }
+    }
+}
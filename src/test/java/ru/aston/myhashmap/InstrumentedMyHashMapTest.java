@@ -0,0 +1,188 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedMyHashMapTest {
+
+    /**
+     * Returns a map of 16 buckets whose keys 0, 16, 32 and 48 are chained in the first bucket in this order;
+     */
+    private static InstrumentedMyHashMap<Integer, Integer> chainedMap() {
+        InstrumentedMyHashMap<Integer, Integer> map = new InstrumentedMyHashMap<>(16);
+        for (int key = 0; key < 64; key += 16) {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    @Test
+    void probeLengthsOfAChain() {
+        InstrumentedMyHashMap<Integer, Integer> map = chainedMap();
+        map.get(0);
+        map.get(48);
+        map.get(64);
+        map.containsKey(32);
+        MyHashMapStats stats = map.stats();
+        Assertions.assertAll(
+                () -> assertEquals(4, stats.putCount()),
+                () -> assertEquals(1.5, stats.averagePutProbeLength(), 1e-9),
+                () -> assertEquals(3, stats.maxPutProbeLength()),
+                () -> assertEquals(3, stats.hitCount()),
+                () -> assertEquals(1, stats.missCount()),
+                () -> assertEquals(0.75, stats.hitRate(), 1e-9),
+                () -> assertEquals((1 + 4 + 4 + 3) / 4.0, stats.averageGetProbeLength(), 1e-9),
+                () -> assertEquals(4, stats.maxGetProbeLength())
+        );
+    }
+
+    @Test
+    void putAllIsCounted() {
+        InstrumentedMyHashMap<Integer, Integer> map = chainedMap();
+        map.putAll(Map.of(64, 64, 1, 1));
+        MyHashMap<Integer, Integer> source = new MyHashMap<>();
+        source.put(2, 2);
+        map.putAll(source);
+        MyHashMapStats stats = map.stats();
+        Assertions.assertAll(
+                () -> assertEquals(7, stats.putCount()),
+                () -> assertEquals(4, stats.maxPutProbeLength()),
+                () -> assertEquals(7, stats.size())
+        );
+    }
+
+    @Test
+    void bucketSizesAndOccupancy() {
+        MyHashMapStats stats = chainedMap().stats();
+        Assertions.assertAll(
+                () -> assertArrayEquals(new long[]{15, 0, 0, 0, 1}, stats.bucketSizes()),
+                () -> assertEquals(1, stats.occupiedBuckets()),
+                () -> assertEquals(1, stats.collidingBuckets()),
+                () -> assertEquals(4, stats.maxBucketSize()),
+                () -> assertEquals(16, stats.capacity()),
+                () -> assertEquals(12, stats.threshold()),
+                () -> assertEquals(4.0 / 12, stats.occupancy(), 1e-9)
+        );
+    }
+
+    @Test
+    void bucketSizesDuringAnIncrementalResize() {
+        InstrumentedMyHashMap<Integer, Integer> incremental = new InstrumentedMyHashMap<>(64, 0.75f, true);
+        InstrumentedMyHashMap<Integer, Integer> eager = new InstrumentedMyHashMap<>(64, 0.75f, false);
+        /*
+         *36 and 100 share a bucket of the old table and are split by the resize, the 49th key starts it
+         */
+        List<Integer> keys = new ArrayList<>();
+        for (int key = 0; key < 47; key++) {
+            keys.add(key);
+        }
+        keys.add(100);
+        keys.add(47);
+        for (Integer key : keys) {
+            incremental.put(key, key);
+            eager.put(key, key);
+        }
+        Assertions.assertAll(
+                () -> assertEquals(128, incremental.capacity()),
+                () -> assertArrayEquals(new long[]{79, 49}, eager.stats().bucketSizes()),
+                () -> assertArrayEquals(eager.stats().bucketSizes(), incremental.stats().bucketSizes())
+        );
+    }
+
+    @Test
+    void resizesAreCountedAndTimed() {
+        InstrumentedMyHashMap<Integer, Integer> map = new InstrumentedMyHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        MyHashMapStats stats = map.stats();
+        /*
+         *the table is allocated with 16 buckets and doubled at the 13th, 25th, 49th and 97th key
+         */
+        Assertions.assertAll(
+                () -> assertEquals(5, stats.resizeCount()),
+                () -> assertTrue(stats.resizeNanos() >= stats.maxResizeNanos()),
+                () -> assertTrue(stats.maxResizeNanos() > 0),
+                () -> assertEquals(256, stats.capacity()),
+                () -> assertEquals(100, stats.occupiedBuckets())
+        );
+    }
+
+    @Test
+    void treeBinsAreReported() {
+        InstrumentedMyHashMap<String, Integer> map = new InstrumentedMyHashMap<>(64);
+        List<String> keys = CollidingKeys.of(6);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        for (String key : keys) {
+            Assertions.assertNotNull(map.get(key));
+        }
+        map.get("absent");
+        MyHashMapStats stats = map.stats();
+        Assertions.assertAll(
+                () -> assertEquals(1, stats.treeBinCount()),
+                () -> assertEquals(64, stats.maxBucketSize()),
+                () -> assertTrue(stats.maxGetProbeLength() <= 12, "probes " + stats.maxGetProbeLength()),
+                () -> assertTrue(stats.averageGetProbeLength() < 8)
+        );
+    }
+
+    @Test
+    void resetStatsKeepsTheTable() {
+        InstrumentedMyHashMap<Integer, Integer> map = chainedMap();
+        map.get(0);
+        map.resetStats();
+        MyHashMapStats stats = map.stats();
+        Assertions.assertAll(
+                () -> assertEquals(0, stats.hitCount()),
+                () -> assertEquals(0, stats.putCount()),
+                () -> assertEquals(0, stats.resizeCount()),
+                () -> assertEquals(4, stats.size()),
+                () -> assertEquals(4, stats.maxBucketSize())
+        );
+    }
+
+    @Test
+    void statsAreReadableThroughJmx() throws Exception {
+        InstrumentedMyHashMap<Integer, Integer> map = chainedMap();
+        map.get(16);
+        map.get(17);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = map.registerMBean("probe-test");
+        try {
+            Assertions.assertAll(
+                    () -> assertEquals(1L, server.getAttribute(name, "HitCount")),
+                    () -> assertEquals(1L, server.getAttribute(name, "MissCount")),
+                    () -> assertEquals(4, server.getAttribute(name, "Size")),
+                    () -> assertArrayEquals(new long[]{15, 0, 0, 0, 1}, (long[]) server.getAttribute(name, "BucketSizes")),
+                    () -> assertEquals(1L, server.getAttribute(name, "CollidingBuckets")),
+                    () -> assertEquals(4, server.getAttribute(name, "MaxBucketSize")),
+                    () -> assertEquals(0, server.getAttribute(name, "TreeBinCount"))
+            );
+            server.invoke(name, "resetStats", null, null);
+            Assertions.assertEquals(0L, server.getAttribute(name, "HitCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void plainMapIsNotInstrumented() {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>();
+        map.put(1, 1);
+        Assertions.assertAll(
+                () -> assertEquals(0L, map.beforeResize()),
+                () -> assertEquals(1, map.probeLength(1)),
+                () -> assertEquals(0, map.probeLength(null))
+        );
+    }
+}
@@ -0,0 +1,269 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyHashMapSnapshotTest {
+    private static Random random;
+    @TempDir
+    Path directory;
+    private Path file;
+
+    private String generateRandomLine(int length) {
+        char[] array = new char[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = (char) (65 + random.nextInt(25));
+        }
+        return String.valueOf(array);
+    }
+
+    private static <K, V> void assertSameContents(MyHashMap<K, V> expected, MyHashMap<K, V> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (MyMap.Entry<K, V> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), actual.getOrDefault(entry.getKey(), null));
+            Assertions.assertTrue(actual.containsKey(entry.getKey()));
+        }
+    }
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @BeforeEach
+    void createFile() {
+        file = directory.resolve("map.snapshot");
+    }
+
+    @Test
+    void writeAndReadBack() throws IOException {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(generateRandomLine(1 + random.nextInt(30)), generateRandomLine(random.nextInt(100)));
+        }
+        MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.STRING);
+        MyHashMap<String, String> loaded = MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.STRING);
+        Assertions.assertAll(
+                () -> assertSameContents(map, loaded),
+                () -> assertEquals(map.capacity(), loaded.capacity()),
+                () -> assertFalse(Files.exists(directory.resolve("map.snapshot.tmp")))
+        );
+    }
+
+    @Test
+    void nullKeysAndValuesAreKept() throws IOException {
+        MyHashMap<String, String> map = new MyHashMap<>();
+        map.put(null, "null key");
+        map.put("null value", null);
+        map.put("a", "b");
+        MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.STRING);
+        MyHashMap<String, String> loaded = MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.STRING);
+        Assertions.assertAll(
+                () -> assertEquals(3, loaded.size()),
+                () -> assertEquals("null key", loaded.getOrDefault(null, "absent")),
+                () -> assertTrue(loaded.containsKey("null value")),
+                () -> assertNull(loaded.getOrDefault("null value", "absent")),
+                () -> assertEquals("b", loaded.get("a"))
+        );
+    }
+
+    @Test
+    void emptyMap() throws IOException {
+        MyHashMapSnapshot.write(new MyHashMap<>(), file, Serializer.STRING, Serializer.STRING);
+        MyHashMap<String, String> loaded = MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.STRING);
+        loaded.put("a", "b");
+        Assertions.assertAll(
+                () -> assertEquals(1, loaded.size()),
+                () -> assertEquals("b", loaded.get("a"))
+        );
+    }
+
+    @Test
+    void treeBinsAreRestored() throws IOException {
+        MyHashMap<String, Integer> map = new MyHashMap<>(128);
+        List<String> keys = CollidingKeys.of(6);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        for (int i = 0; i < 200; i++) {
+            map.put(generateRandomLine(5), i);
+        }
+        MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.INTEGER);
+        MyHashMap<String, Integer> loaded = MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.INTEGER);
+        assertSameContents(map, loaded);
+        loaded.remove("AaAaAaAaAaAa");
+        Assertions.assertAll(
+                () -> assertFalse(loaded.containsKey("AaAaAaAaAaAa")),
+                () -> assertEquals(63, loaded.getOrDefault("BBBBBBBBBBBB", -1)),
+                () -> assertEquals(map.size() - 1, loaded.size())
+        );
+    }
+
+    @Test
+    void mapInTheMiddleOfIncrementalResize() throws IOException {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(16, 0.75f, true);
+        for (int i = 0; i < 780; i++) {
+            map.put(i, -i);
+        }
+        MyHashMapSnapshot.write(map, file, Serializer.INTEGER, Serializer.INTEGER);
+        MyHashMap<Integer, Integer> loaded = MyHashMapSnapshot.read(file, Serializer.INTEGER, Serializer.INTEGER);
+        for (int i = 780; i < 5_000; i++) {
+            loaded.put(i, -i);
+        }
+        Assertions.assertAll(
+                () -> assertTrue(loaded.isIncrementalResize()),
+                () -> assertEquals(5_000, loaded.size()),
+                () -> assertEquals(-779, loaded.get(779)),
+                () -> assertEquals(-4_999, loaded.get(4_999))
+        );
+    }
+
+    @Test
+    void shrinkOnRemoveIsKept() throws IOException {
+        MyHashMap<Integer, Integer> map = new MyHashMap<>(16, 0.75f, false, null, true);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        MyHashMapSnapshot.write(map, file, Serializer.INTEGER, Serializer.INTEGER);
+        MyHashMap<Integer, Integer> loaded = MyHashMapSnapshot.read(file, Serializer.INTEGER, Serializer.INTEGER);
+        for (int i = 0; i < 1_000; i++) {
+            loaded.remove(i);
+        }
+        Assertions.assertAll(
+                () -> assertTrue(loaded.isShrinkOnRemove()),
+                () -> assertEquals(16, loaded.capacity())
+        );
+    }
+
+    @Test
+    void loadingDoesNotHashTheKeys() throws IOException {
+        MyHashMap<CountingKey, Integer> map = new MyHashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            map.put(new CountingKey(i), i);
+        }
+        MyHashMapSnapshot.write(map, file, CountingKey.SERIALIZER, Serializer.INTEGER);
+        CountingKey.hashCodeCalls = 0;
+        MyHashMap<CountingKey, Integer> loaded = MyHashMapSnapshot.read(file, CountingKey.SERIALIZER, Serializer.INTEGER);
+        Assertions.assertAll(
+                () -> assertEquals(0, CountingKey.hashCodeCalls),
+                () -> assertEquals(1_000, loaded.size()),
+                () -> assertEquals(500, loaded.get(new CountingKey(500)))
+        );
+    }
+
+    @Test
+    void largeRecords() throws IOException {
+        MyHashMap<String, byte[]> map = new MyHashMap<>();
+        byte[] large = new byte[200_000];
+        random.nextBytes(large);
+        map.put("large", large);
+        map.put("small", new byte[]{1});
+        MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.BYTE_ARRAY);
+        MyHashMap<String, byte[]> loaded = MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.BYTE_ARRAY);
+        Assertions.assertAll(
+                () -> assertArrayEquals(large, loaded.get("large")),
+                () -> assertArrayEquals(new byte[]{1}, loaded.get("small"))
+        );
+    }
+
+    @Nested
+    class MyHashMapSnapshotTestCorruptFiles {
+        @BeforeEach
+        void writeSnapshot() throws IOException {
+            Map<String, String> source = new HashMap<>();
+            MyHashMap<String, String> map = new MyHashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                String key = generateRandomLine(10);
+                source.put(key, key);
+                map.put(key, key);
+            }
+            MyHashMapSnapshot.write(map, file, Serializer.STRING, Serializer.STRING);
+        }
+
+        private void readBack() throws IOException {
+            MyHashMapSnapshot.read(file, Serializer.STRING, Serializer.STRING);
+        }
+
+        @Test
+        void flippedByte() throws IOException {
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[MyHashMapSnapshot.HEADER_BYTES + random.nextInt(bytes.length - MyHashMapSnapshot.HEADER_BYTES)] ^= 1;
+            Files.write(file, bytes);
+            IOException e = Assertions.assertThrows(IOException.class, this::readBack);
+            Assertions.assertTrue(e.getMessage().contains("checksum"));
+        }
+
+        @Test
+        void changedHeader() throws IOException {
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(12, 999);
+            Files.write(file, bytes);
+            Assertions.assertThrows(IOException.class, this::readBack);
+        }
+
+        @Test
+        void truncatedFile() throws IOException {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 7));
+            Assertions.assertThrows(IOException.class, this::readBack);
+        }
+
+        @Test
+        void unsupportedVersion() throws IOException {
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer.wrap(bytes).putInt(4, MyHashMapSnapshot.VERSION + 1);
+            Files.write(file, bytes);
+            IOException e = Assertions.assertThrows(IOException.class, this::readBack);
+            Assertions.assertTrue(e.getMessage().contains("version"));
+        }
+
+        @Test
+        void notASnapshot() throws IOException {
+            Files.write(file, new byte[100]);
+            Assertions.assertThrows(IOException.class, this::readBack);
+        }
+    }
+
+    static final class CountingKey {
+        static final Serializer<CountingKey> SERIALIZER = new Serializer<>() {
+            @Override
+            public void write(CountingKey value, ByteBuffer target) {
+                target.putInt(value.id);
+            }
+
+            @Override
+            public CountingKey read(ByteBuffer source, int offset, int length) {
+                return new CountingKey(source.getInt(offset));
+            }
+        };
+        static int hashCodeCalls;
+        private final int id;
+
+        CountingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CountingKey && ((CountingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return Integer.hashCode(id) * 31;
+        }
+    }
+}
@@ -2,10 +2,21 @@ package ru.aston.myhashmap;
 
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -192,6 +203,16 @@ class MyHashMapTest {
         Assertions.assertFalse(myHashMap.containsKey(key));
     }
 
+    @Test
+    void containsKeyIfKeyIsNull() {
+        Assertions.assertFalse(myHashMap.containsKey(null));
+        myHashMap.put(null, 1);
+        Assertions.assertAll(
+                () -> assertTrue(myHashMap.containsKey(null)),
+                () -> assertFalse(new MyHashMap<String, Integer>().containsKey(null))
+        );
+    }
+
     @Test
     void containsValueIfValueIsNotExist() {
         int number = random.nextInt(keys.size());
@@ -270,6 +291,968 @@ class MyHashMapTest {
         }
 
     }
+    @Nested
+    class MyHashMapTestResize {
+        private static final int NUMBER_OF_KEYS = 1000;
+
+        private void putAndCheckAll(MyHashMap<String, Integer> hashMap) {
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertNull(hashMap.put("key" + i, i));
+                for (int j = 0; j <= i; j++) {
+                    Assertions.assertEquals(j, hashMap.get("key" + j));
+                }
+            }
+            Assertions.assertEquals(NUMBER_OF_KEYS, hashMap.size());
+        }
+
+        @Test
+        void resizeKeepsChainedEntries() {
+            putAndCheckAll(new MyHashMap<>(2));
+        }
+
+        @Test
+        void incrementalResizeKeepsAllEntriesReachable() {
+            putAndCheckAll(new MyHashMap<>(2, 0.75f, true));
+        }
+
+        @Test
+        void incrementalResizeKeepsAllEntriesVisible() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>(16, 0.75f, true);
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                hashMap.put("key" + i, i);
+            }
+            Set<String> actualKeys = new HashSet<>();
+            for (MyMap.Entry<String, Integer> item : hashMap.entrySet()) {
+                actualKeys.add(item.getKey());
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(NUMBER_OF_KEYS, actualKeys.size()),
+                    () -> assertTrue(hashMap.containsKey("key0")),
+                    () -> assertTrue(hashMap.containsValue(NUMBER_OF_KEYS - 1))
+            );
+        }
+
+        @Test
+        void replacingValuesDuringAnIncrementalResizeKeepsTheIterators() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(64, 0.75f, true);
+            /*
+             *the 49th key starts the resize, the buckets are then migrated by 16 a time
+             */
+            for (int i = 0; i < 49; i++) {
+                hashMap.put(i, i);
+            }
+            for (MyMap.Entry<Integer, Integer> entry : hashMap.entrySet()) {
+                hashMap.put(entry.getKey(), 7);
+                hashMap.remove(-1);
+            }
+            hashMap.putAll(hashMap);
+            Assertions.assertAll(
+                    () -> assertEquals(49, hashMap.size()),
+                    () -> assertEquals(7, hashMap.get(48)),
+                    () -> assertThrows(ConcurrentModificationException.class, () -> {
+                        for (MyMap.Entry<Integer, Integer> entry : hashMap.entrySet()) {
+                            hashMap.put(entry.getKey() + 100, 0);
+                        }
+                    })
+            );
+        }
+    }
+    @Nested
+    class MyHashMapTestTreeBins {
+        private static final int NUMBER_OF_KEYS = 500;
+
+        private <K> void putGetRemove(MyHashMap<K, Integer> hashMap, IntFunction<K> keyFactory) {
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertNull(hashMap.put(keyFactory.apply(i), i));
+            }
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertEquals(i, hashMap.put(keyFactory.apply(i), i + 1));
+            }
+            Assertions.assertEquals(NUMBER_OF_KEYS, hashMap.size());
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertTrue(hashMap.containsKey(keyFactory.apply(i)));
+            }
+            Assertions.assertFalse(hashMap.containsKey(keyFactory.apply(NUMBER_OF_KEYS)));
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertEquals(i + 1, hashMap.remove(keyFactory.apply(i)));
+                Assertions.assertNull(hashMap.get(keyFactory.apply(i)));
+                for (int j = i + 1; j < NUMBER_OF_KEYS; j += 7) {
+                    Assertions.assertEquals(j + 1, hashMap.get(keyFactory.apply(j)));
+                }
+            }
+            Assertions.assertEquals(0, hashMap.size());
+        }
+
+        @Test
+        void comparableKeysWithTheSameHash() {
+            putGetRemove(new MyHashMap<>(), id -> new ComparableKey(id, 1));
+        }
+
+        @Test
+        void notComparableKeysWithTheSameHash() {
+            putGetRemove(new MyHashMap<>(), id -> new Key(id, 1));
+        }
+
+        @Test
+        void treeBinsAreSplitOnResize() {
+            putGetRemove(new MyHashMap<>(64), id -> new ComparableKey(id, (id % 8) * 64));
+        }
+
+        @Test
+        void treeBinsAreSplitOnIncrementalResize() {
+            putGetRemove(new MyHashMap<>(64, 0.75f, true), id -> new Key(id, (id % 8) * 64));
+        }
+    }
+    @Nested
+    class MyHashMapTestCompute {
+        private static final int NUMBER_OF_KEYS = 1000;
+
+        private <K> void countOccurrences(MyHashMap<K, Integer> hashMap, IntFunction<K> keyFactory) {
+            for (int round = 1; round <= 3; round++) {
+                for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                    Assertions.assertEquals(round, hashMap.merge(keyFactory.apply(i), 1, Integer::sum));
+                }
+            }
+            Assertions.assertEquals(NUMBER_OF_KEYS, hashMap.size());
+            for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+                Assertions.assertEquals(3, hashMap.get(keyFactory.apply(i)));
+            }
+        }
+
+        @Test
+        void mergeCountsKeys() {
+            countOccurrences(new MyHashMap<>(), id -> "key" + id);
+        }
+
+        @Test
+        void mergeCountsKeysDuringIncrementalResize() {
+            countOccurrences(new MyHashMap<>(2, 0.75f, true), id -> "key" + id);
+        }
+
+        @Test
+        void mergeCountsKeysInTreeBins() {
+            countOccurrences(new MyHashMap<>(), id -> new ComparableKey(id, (id % 4) * 64));
+        }
+
+        @Test
+        void putIfAbsentKeepsExistingValue() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            Assertions.assertAll(
+                    () -> assertNull(hashMap.putIfAbsent("a", 1)),
+                    () -> assertEquals(1, hashMap.putIfAbsent("a", 2)),
+                    () -> assertEquals(1, hashMap.get("a")),
+                    () -> assertNull(hashMap.put("b", null)),
+                    () -> assertNull(hashMap.putIfAbsent("b", 3)),
+                    () -> assertEquals(3, hashMap.get("b")),
+                    () -> assertEquals(2, hashMap.size())
+            );
+        }
+
+        @Test
+        void computeIfAbsentCallsFunctionOnlyForAbsentKey() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            int[] calls = new int[1];
+            Assertions.assertAll(
+                    () -> assertEquals(3, hashMap.computeIfAbsent("abc", key -> ++calls[0] * key.length())),
+                    () -> assertEquals(3, hashMap.computeIfAbsent("abc", key -> ++calls[0])),
+                    () -> assertEquals(1, calls[0]),
+                    () -> assertNull(hashMap.computeIfAbsent("d", key -> null)),
+                    () -> assertFalse(hashMap.containsKey("d")),
+                    () -> assertEquals(1, hashMap.size())
+            );
+        }
+
+        @Test
+        void computeIfPresentReplacesOrRemoves() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            Assertions.assertAll(
+                    () -> assertNull(hashMap.computeIfPresent("a", (key, value) -> 1)),
+                    () -> assertFalse(hashMap.containsKey("a")),
+                    () -> assertNull(hashMap.put("a", 1)),
+                    () -> assertEquals(2, hashMap.computeIfPresent("a", (key, value) -> value + 1)),
+                    () -> assertNull(hashMap.computeIfPresent("a", (key, value) -> null)),
+                    () -> assertEquals(0, hashMap.size())
+            );
+        }
+
+        @Test
+        void computeAndMergeHandleNullKeyAndRemoval() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            Assertions.assertAll(
+                    () -> assertEquals(1, hashMap.compute(null, (key, value) -> value == null ? 1 : value + 1)),
+                    () -> assertEquals(2, hashMap.compute(null, (key, value) -> value == null ? 1 : value + 1)),
+                    () -> assertEquals(2, hashMap.getOrDefault(null, -1)),
+                    () -> assertNull(hashMap.compute(null, (key, value) -> null)),
+                    () -> assertFalse(hashMap.containsKey("a")),
+                    () -> assertEquals(5, hashMap.merge("a", 5, Integer::sum)),
+                    () -> assertNull(hashMap.merge("a", 5, (oldValue, value) -> null)),
+                    () -> assertEquals(0, hashMap.size())
+            );
+        }
+
+        @Test
+        void getOrDefault() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            Assertions.assertEquals(-1, hashMap.getOrDefault("a", -1));
+            hashMap.put("a", 1);
+            hashMap.put("b", null);
+            Assertions.assertAll(
+                    () -> assertEquals(1, hashMap.getOrDefault("a", -1)),
+                    () -> assertNull(hashMap.getOrDefault("b", -1)),
+                    () -> assertEquals(-1, hashMap.getOrDefault("c", -1))
+            );
+        }
+    }
+    @Nested
+    class MyHashMapTestViews {
+        private static final int NUMBER_OF_KEYS = 1000;
+
+        private <K> void removeEvenThroughIterator(MyHashMap<K, Integer> hashMap, int numberOfKeys,
+                                                   IntFunction<K> keyFactory) {
+            for (int i = 0; i < numberOfKeys; i++) {
+                hashMap.put(keyFactory.apply(i), i);
+            }
+            Set<Integer> seen = new HashSet<>();
+            Iterator<MyMap.Entry<K, Integer>> iterator = hashMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                MyMap.Entry<K, Integer> entry = iterator.next();
+                Assertions.assertTrue(seen.add(entry.getValue()));
+                if (entry.getValue() % 2 == 0) {
+                    iterator.remove();
+                }
+            }
+            Assertions.assertEquals(numberOfKeys, seen.size());
+            Assertions.assertEquals(numberOfKeys / 2, hashMap.size());
+            for (int i = 0; i < numberOfKeys; i++) {
+                Assertions.assertEquals(i % 2 == 0 ? null : (Integer) i, hashMap.get(keyFactory.apply(i)));
+            }
+        }
+
+        @Test
+        void iteratorRemovesFromChains() {
+            removeEvenThroughIterator(new MyHashMap<>(), NUMBER_OF_KEYS, id -> "key" + id);
+        }
+
+        @Test
+        void iteratorRemovesDuringIncrementalResize() {
+            /*
+             *the table grows from 1024 to 2048 buckets at the 769th key, so the old table is still being migrated
+             */
+            removeEvenThroughIterator(new MyHashMap<>(16, 0.75f, true), 780, id -> "key" + id);
+        }
+
+        @Test
+        void iteratorRemovesFromTreeBins() {
+            removeEvenThroughIterator(new MyHashMap<>(), NUMBER_OF_KEYS, id -> new ComparableKey(id, (id % 4) * 64));
+        }
+
+        @Test
+        void viewsAreLive() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            Set<String> keySet = hashMap.keySet();
+            Collection<Integer> values = hashMap.values();
+            Set<MyMap.Entry<String, Integer>> entrySet = hashMap.entrySet();
+            hashMap.put("a", 1);
+            hashMap.put("b", 2);
+            Assertions.assertAll(
+                    () -> assertEquals(Set.of("a", "b"), new HashSet<>(keySet)),
+                    () -> assertEquals(Set.of(1, 2), new HashSet<>(values)),
+                    () -> assertEquals(2, entrySet.size()),
+                    () -> assertTrue(keySet.contains("a")),
+                    () -> assertTrue(values.contains(2)),
+                    () -> assertTrue(keySet.remove("a")),
+                    () -> assertFalse(hashMap.containsKey("a")),
+                    () -> assertEquals(1, hashMap.size())
+            );
+        }
+
+        @Test
+        void entriesWriteThrough() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            hashMap.put("a", 1);
+            MyMap.Entry<String, Integer> entry = hashMap.entrySet().iterator().next();
+            Assertions.assertEquals(1, entry.setValue(5));
+            Assertions.assertEquals(5, hashMap.get("a"));
+            MyHashMap<String, Integer> other = new MyHashMap<>();
+            other.put("a", 5);
+            MyMap.Entry<String, Integer> equalEntry = other.entrySet().iterator().next();
+            Assertions.assertAll(
+                    () -> assertTrue(hashMap.entrySet().contains(equalEntry)),
+                    () -> assertEquals(equalEntry.hashCode(), entry.hashCode()),
+                    () -> assertTrue(hashMap.entrySet().remove(equalEntry)),
+                    () -> assertEquals(0, hashMap.size())
+            );
+        }
+
+        @Test
+        void mapsWithCollidingKeysAreComparedByEveryPair() {
+            MyHashMap<String, Integer> first = new MyHashMap<>();
+            first.put("Aa", 1);
+            first.put("BB", 2);
+            MyHashMap<String, Integer> second = new MyHashMap<>();
+            second.put("Aa", 1);
+            second.put("BB", 99);
+            MyHashMap<String, Integer> reordered = new MyHashMap<>(64, 0.5f);
+            reordered.put("BB", 2);
+            reordered.put("Aa", 1);
+            Assertions.assertAll(
+                    () -> assertEquals("Aa".hashCode(), "BB".hashCode()),
+                    () -> assertNotEquals(first, second),
+                    () -> assertNotEquals(second, first),
+                    () -> assertEquals(first, reordered),
+                    () -> assertEquals(first.hashCode(), reordered.hashCode())
+            );
+        }
+
+        @Test
+        void mapsWithNullValuesAndMissingKeys() {
+            MyHashMap<String, Integer> first = new MyHashMap<>();
+            first.put("a", null);
+            MyHashMap<String, Integer> second = new MyHashMap<>();
+            second.put("b", null);
+            MyHashMap<String, Integer> incremental = new MyHashMap<>(16, 0.75f, true);
+            MyHashMap<String, Integer> plain = new MyHashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                incremental.put("key" + i, i);
+                plain.put("key" + i, i);
+            }
+            Assertions.assertAll(
+                    () -> assertNotEquals(first, second),
+                    () -> assertEquals(incremental, plain),
+                    () -> assertEquals(plain.hashCode(), incremental.hashCode()),
+                    () -> assertEquals(new MyHashMap<>(), new MyHashMap<>(64))
+            );
+        }
+
+        @Test
+        void iteratorFailsFastOnModification() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            hashMap.put("a", 1);
+            hashMap.put("b", 2);
+            Iterator<String> iterator = hashMap.keySet().iterator();
+            iterator.next();
+            hashMap.put("c", 3);
+            Assertions.assertThrows(ConcurrentModificationException.class, iterator::next);
+        }
+
+        @Test
+        void iteratorRemoveNeedsNext() {
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>();
+            hashMap.put("a", 1);
+            Iterator<Integer> iterator = hashMap.values().iterator();
+            Assertions.assertThrows(IllegalStateException.class, iterator::remove);
+            iterator.next();
+            iterator.remove();
+            Assertions.assertAll(
+                    () -> assertThrows(IllegalStateException.class, iterator::remove),
+                    () -> assertThrows(NoSuchElementException.class, iterator::next),
+                    () -> assertEquals(0, hashMap.size())
+            );
+        }
+    }
+    @Nested
+    class MyHashMapTestBulkOperations {
+        private MyHashMap<Integer, Integer> filledMap(MyHashMap<Integer, Integer> hashMap, int numberOfKeys) {
+            for (int i = 0; i < numberOfKeys; i++) {
+                hashMap.put(i, i);
+            }
+            return hashMap;
+        }
+
+        private void collectSplits(Spliterator<MyMap.Entry<Integer, Integer>> spliterator, Set<Integer> keys) {
+            Spliterator<MyMap.Entry<Integer, Integer>> prefix = spliterator.trySplit();
+            if (prefix != null) {
+                collectSplits(prefix, keys);
+                collectSplits(spliterator, keys);
+            } else {
+                spliterator.forEachRemaining(entry -> assertTrue(keys.add(entry.getKey())));
+            }
+        }
+
+        @Test
+        void splitsCoverEveryEntryOnce() {
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(), 10_000);
+            Spliterator<MyMap.Entry<Integer, Integer>> spliterator = hashMap.entrySet().spliterator();
+            Assertions.assertAll(
+                    () -> assertEquals(10_000, spliterator.estimateSize()),
+                    () -> assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED))
+            );
+            Set<Integer> keys = new HashSet<>();
+            collectSplits(spliterator, keys);
+            Assertions.assertEquals(10_000, keys.size());
+        }
+
+        @Test
+        void splitsCoverEveryEntryDuringIncrementalResize() {
+            /*
+             *the table grows from 1024 to 2048 buckets at the 769th key, so the old table is still being migrated
+             */
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(16, 0.75f, true), 780);
+            Set<Integer> keys = new HashSet<>();
+            collectSplits(hashMap.entrySet().spliterator(), keys);
+            Assertions.assertAll(
+                    () -> assertEquals(780, keys.size()),
+                    () -> assertEquals(780, hashMap.stream().count()),
+                    () -> assertEquals(780L * 779 / 2,
+                            hashMap.keySet().parallelStream().mapToLong(Integer::longValue).sum())
+            );
+        }
+
+        @Test
+        void parallelStreamSumsAllValues() {
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(), 100_000);
+            Assertions.assertAll(
+                    () -> assertEquals(100_000L * 99_999 / 2,
+                            hashMap.parallelStream().mapToLong(MyMap.Entry::getValue).sum()),
+                    () -> assertEquals(100_000, hashMap.values().parallelStream().distinct().count())
+            );
+        }
+
+        @Test
+        void containsValueOfLargeMap() {
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(), MyHashMap.PARALLEL_SCAN_THRESHOLD);
+            hashMap.put(-1, null);
+            Assertions.assertAll(
+                    () -> assertTrue(hashMap.containsValue(MyHashMap.PARALLEL_SCAN_THRESHOLD - 1)),
+                    () -> assertTrue(hashMap.containsValue(null)),
+                    () -> assertFalse(hashMap.containsValue(-1))
+            );
+        }
+
+        @Test
+        void forEachAndReplaceAll() {
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(), 1000);
+            hashMap.replaceAll((key, value) -> value * 2);
+            long[] sum = new long[1];
+            hashMap.forEach((key, value) -> {
+                assertEquals(key * 2, value);
+                sum[0] += value;
+            });
+            Assertions.assertEquals(1000L * 999, sum[0]);
+        }
+
+        @Test
+        void forEachFailsFastOnModification() {
+            MyHashMap<Integer, Integer> hashMap = filledMap(new MyHashMap<>(), 10);
+            Assertions.assertThrows(ConcurrentModificationException.class,
+                    () -> hashMap.forEach((key, value) -> hashMap.remove(key)));
+        }
+    }
+
+    @Nested
+    class MyHashMapTestBatchOperations {
+        @Test
+        void tableSizeForIsThePowerOfTwoCeiling() {
+            for (int capacity = 0; capacity <= 5000; capacity++) {
+                int expected = 2;
+                while (expected < capacity) {
+                    expected *= 2;
+                }
+                Assertions.assertEquals(expected, MyHashMap.tableSizeFor(capacity));
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(1 << 30, MyHashMap.tableSizeFor((1 << 30) - 1)),
+                    () -> assertEquals(1 << 30, MyHashMap.tableSizeFor(Integer.MAX_VALUE))
+            );
+        }
+
+        @Test
+        void putAllPresizesAnEmptyMap() {
+            Map<Integer, Integer> source = new HashMap<>();
+            for (int i = 0; i < 100_000; i++) {
+                source.put(random.nextInt(), i);
+            }
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>();
+            hashMap.putAll(source);
+            Assertions.assertEquals(source.size(), hashMap.size());
+            Assertions.assertEquals(MyHashMap.tableSizeFor((int) (source.size() / 0.75f) + 1), hashMap.capacity());
+            for (Map.Entry<Integer, Integer> entry : source.entrySet()) {
+                Assertions.assertEquals(entry.getValue(), hashMap.get(entry.getKey()));
+            }
+        }
+
+        @Test
+        void putAllReplacesAndAddsDuringIncrementalResize() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, true);
+            MyHashMap<Integer, Integer> source = new MyHashMap<>();
+            for (int i = 0; i < 5_000; i++) {
+                hashMap.put(i, i);
+                source.put(i + 2_500, -i);
+            }
+            source.put(null, null);
+            hashMap.putAll(source);
+            Assertions.assertAll(
+                    () -> assertEquals(7_501, hashMap.size()),
+                    () -> assertEquals(2_499, hashMap.get(2_499)),
+                    () -> assertEquals(0, hashMap.get(2_500)),
+                    () -> assertEquals(-4_999, hashMap.get(7_499)),
+                    () -> assertTrue(hashMap.containsKey(null))
+            );
+        }
+
+        @Test
+        void putAllKeepsTheBoundOfABoundedMap() {
+            MyHashMap<Integer, Integer> source = new MyHashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                source.put(i, i);
+            }
+            BoundedMyHashMap<Integer, Integer> bounded = new BoundedMyHashMap<>(100);
+            bounded.putAll(source);
+            Assertions.assertAll(
+                    () -> assertEquals(100, bounded.size()),
+                    () -> assertEquals(100, bounded.weightedSize())
+            );
+        }
+
+        @Test
+        void getAllAndRemoveAll() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>();
+            for (int i = 0; i < 100; i++) {
+                hashMap.put(i, i);
+            }
+            hashMap.put(-1, null);
+            MyMap<Integer, Integer> found = hashMap.getAll(List.of(1, 2, 200, -1));
+            Assertions.assertAll(
+                    () -> assertEquals(3, found.size()),
+                    () -> assertEquals(2, found.get(2)),
+                    () -> assertTrue(found.containsKey(-1)),
+                    () -> assertFalse(found.containsKey(200))
+            );
+            MyOpenHashMap<Integer, Integer> into = hashMap.getAll(List.of(3, 200), new MyOpenHashMap<>());
+            Assertions.assertAll(
+                    () -> assertEquals(1, into.size()),
+                    () -> assertEquals(3, into.get(3)),
+                    () -> assertEquals(3, hashMap.removeAll(List.of(1, 2, 200, -1, 1))),
+                    () -> assertEquals(98, hashMap.size()),
+                    () -> assertFalse(hashMap.containsKey(-1))
+            );
+        }
+
+        @Test
+        void putAllOfNullMap() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>();
+            Assertions.assertThrows(NullPointerException.class, () -> hashMap.putAll((MyMap<Integer, Integer>) null));
+        }
+    }
+
+    @Nested
+    class MyHashMapTestRemoval {
+        private MyHashMap<Key, Integer> collidedMap(int numberOfKeys) {
+            MyHashMap<Key, Integer> hashMap = new MyHashMap<>();
+            for (int i = 0; i < numberOfKeys; i++) {
+                hashMap.put(new Key(i, 1), i);
+            }
+            return hashMap;
+        }
+
+        @Test
+        void removeOfTheHeadKeepsTheRestOfTheChain() {
+            MyHashMap<Key, Integer> hashMap = collidedMap(5);
+            Assertions.assertEquals(0, hashMap.remove(new Key(0, 1)));
+            Assertions.assertAll(
+                    () -> assertEquals(4, hashMap.size()),
+                    () -> assertNull(hashMap.get(new Key(0, 1))),
+                    () -> assertEquals(1, hashMap.get(new Key(1, 1))),
+                    () -> assertEquals(4, hashMap.get(new Key(4, 1)))
+            );
+        }
+
+        @Test
+        void removeFromTheMiddleAndTheTailOfTheChain() {
+            MyHashMap<Key, Integer> hashMap = collidedMap(5);
+            Assertions.assertEquals(2, hashMap.remove(new Key(2, 1)));
+            Assertions.assertEquals(4, hashMap.remove(new Key(4, 1)));
+            Assertions.assertAll(
+                    () -> assertEquals(3, hashMap.size()),
+                    () -> assertEquals(0, hashMap.get(new Key(0, 1))),
+                    () -> assertEquals(1, hashMap.get(new Key(1, 1))),
+                    () -> assertEquals(3, hashMap.get(new Key(3, 1))),
+                    () -> assertFalse(hashMap.containsKey(new Key(4, 1)))
+            );
+        }
+
+        @Test
+        void removeOfAMissingKeyFromACollidedBucketReturns() {
+            MyHashMap<Key, Integer> hashMap = collidedMap(5);
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertNull(hashMap.remove(new Key(5, 1)));
+                assertNull(hashMap.remove(new Key(6, 17)));
+            });
+            Assertions.assertEquals(5, hashMap.size());
+        }
+
+        @Test
+        void churnKeepsTheSizeAndTheContents() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            Map<Integer, Integer> expected = new HashMap<>();
+            Random churn = new Random(42);
+            for (int i = 0; i < 200_000; i++) {
+                int key = churn.nextInt(i < 100_000 ? 50_000 : 500);
+                if (churn.nextInt(3) == 0) {
+                    Assertions.assertEquals(expected.put(key, i), hashMap.put(key, i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), hashMap.remove(key));
+                }
+            }
+            Assertions.assertEquals(expected.size(), hashMap.size());
+            for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+                Assertions.assertEquals(entry.getValue(), hashMap.get(entry.getKey()));
+            }
+        }
+
+        @Test
+        void drainedMapShrinksItsTable() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            for (int i = 0; i < 100_000; i++) {
+                hashMap.put(i, i);
+            }
+            int peakCapacity = hashMap.capacity();
+            for (int i = 10; i < 100_000; i++) {
+                hashMap.remove(i);
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(262_144, peakCapacity),
+                    () -> assertEquals(32, hashMap.capacity()),
+                    () -> assertEquals(10, hashMap.size()),
+                    () -> assertEquals(9, hashMap.get(9)),
+                    () -> assertNull(hashMap.get(10))
+            );
+        }
+
+        @Test
+        void shrinkNeverGoesBelowTheInitialCapacity() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(1_000, 0.75f, false, null, true);
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.put(i, i);
+            }
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.remove(i);
+            }
+            Assertions.assertEquals(1_024, hashMap.capacity());
+            hashMap.put(1, 1);
+            hashMap.clear();
+            Assertions.assertEquals(1_024, hashMap.capacity());
+        }
+
+        @Test
+        void mapWithoutThePolicyKeepsItsTable() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.put(i, i);
+            }
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.remove(i);
+            }
+            Assertions.assertEquals(16_384, hashMap.capacity());
+        }
+
+        @Test
+        void shrinkMergesTreeBins() {
+            MyHashMap<Key, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            for (int i = 0; i < 4_000; i++) {
+                hashMap.put(new Key(i, i < 20 ? 64 * (i % 2) : i), i);
+            }
+            Assertions.assertEquals(2, hashMap.treeBinCount());
+            for (int i = 20; i < 4_000; i++) {
+                hashMap.remove(new Key(i, i));
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(64, hashMap.capacity()),
+                    () -> assertEquals(20, hashMap.size()),
+                    () -> assertEquals(1, hashMap.treeBinCount())
+            );
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(i, hashMap.get(new Key(i, 64 * (i % 2))));
+            }
+        }
+
+        @Test
+        void iteratorRemoveDoesNotShrink() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.put(i, i);
+            }
+            int removed = 0;
+            for (Iterator<MyMap.Entry<Integer, Integer>> iterator = hashMap.entrySet().iterator(); iterator.hasNext(); ) {
+                iterator.next();
+                iterator.remove();
+                removed++;
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(0, hashMap.size()),
+                    () -> assertEquals(16_384, hashMap.capacity())
+            );
+            Assertions.assertEquals(10_000, removed);
+        }
+
+        @Test
+        void clearReleasesTheTableOfAShrinkingMap() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.put(i, i);
+            }
+            hashMap.clear();
+            Assertions.assertEquals(0, hashMap.capacity());
+            hashMap.put(1, 1);
+            Assertions.assertAll(
+                    () -> assertEquals(16, hashMap.capacity()),
+                    () -> assertEquals(1, hashMap.get(1))
+            );
+        }
+
+        @Test
+        void clearedShrinkingMapWithoutATable() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, false, null, true);
+            for (int i = 0; i < 100; i++) {
+                hashMap.put(i, i);
+            }
+            hashMap.clear();
+            Assertions.assertAll(
+                    () -> assertEquals("MyHashMap{", hashMap.toString()),
+                    () -> assertFalse(hashMap.containsValue(1)),
+                    () -> assertFalse(hashMap.entrySet().iterator().hasNext()),
+                    () -> assertEquals(new MyHashMap<Integer, Integer>(), hashMap),
+                    () -> assertEquals(0, hashMap.hashCode())
+            );
+        }
+
+        @Test
+        void trimToSizeFitsTheTableToTheSize() {
+            MyHashMap<Integer, Integer> hashMap = new MyHashMap<>(16, 0.75f, true);
+            for (int i = 0; i < 10_000; i++) {
+                hashMap.put(i, i);
+            }
+            hashMap.removeAll(IntStream.range(100, 10_000).boxed().collect(Collectors.toList()));
+            hashMap.trimToSize();
+            Assertions.assertAll(
+                    () -> assertEquals(256, hashMap.capacity()),
+                    () -> assertEquals(192, hashMap.threshold()),
+                    () -> assertEquals(100, hashMap.size())
+            );
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals(i, hashMap.get(i));
+            }
+            hashMap.clear();
+            hashMap.trimToSize();
+            Assertions.assertEquals(2, hashMap.capacity());
+        }
+    }
+
+    @Nested
+    class MyHashMapTestEmptyMaps {
+        private void assertEmptyLookups(MyHashMap<String, Integer> hashMap) {
+            Assertions.assertAll(
+                    () -> assertNull(hashMap.get("a")),
+                    () -> assertNull(hashMap.get(null)),
+                    () -> assertFalse(hashMap.containsKey("a")),
+                    () -> assertFalse(hashMap.containsKey(null)),
+                    () -> assertEquals(-1, hashMap.getOrDefault("a", -1)),
+                    () -> assertNull(hashMap.remove("a")),
+                    () -> assertNull(hashMap.remove(null)),
+                    () -> assertEquals(0, hashMap.size())
+            );
+        }
+
+        @Test
+        void lookupsOnMapsWithoutATable() {
+            MyHashMap<String, Integer> defaultMap = new MyHashMap<>();
+            assertEmptyLookups(defaultMap);
+            assertEmptyLookups(new MyHashMap<>(100));
+            assertEmptyLookups(new MyHashMap<>(0, 0.5f, true));
+            assertEmptyLookups(new MyHashMap<>(HashingStrategy.caseInsensitive()));
+            Assertions.assertEquals(0, defaultMap.capacity());
+        }
+
+        @Test
+        void lookupsOnDrainedMaps() {
+            MyHashMap<String, Integer> drained = new MyHashMap<>();
+            drained.put("a", 1);
+            drained.remove("a");
+            assertEmptyLookups(drained);
+            MyHashMap<String, Integer> cleared = new MyHashMap<>(16, 0.75f, false, null, true);
+            cleared.put("a", 1);
+            cleared.clear();
+            assertEmptyLookups(cleared);
+        }
+
+        @Test
+        void lookupsHashTheKeyOnce() {
+            int[] calls = new int[1];
+            HashingStrategy<String> counting = new HashingStrategy<>() {
+                @Override
+                public int hashCode(String key) {
+                    calls[0]++;
+                    return key.hashCode();
+                }
+
+                @Override
+                public boolean equals(String key, String other) {
+                    return key.equals(other);
+                }
+            };
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>(counting);
+            hashMap.get("a");
+            hashMap.remove("a");
+            Assertions.assertEquals(0, calls[0]);
+            hashMap.put("a", 1);
+            calls[0] = 0;
+            hashMap.get("a");
+            hashMap.containsKey("b");
+            hashMap.getOrDefault("c", 0);
+            hashMap.remove("a");
+            Assertions.assertEquals(4, calls[0]);
+        }
+    }
+
+    @Nested
+    class MyHashMapTestAgainstHashMap {
+        private static final int NUMBER_OF_OPERATIONS = 20_000;
+
+        /**
+         * Applies the same random operations to the map and to a java.util.HashMap, comparing every result,
+         * and compares the contents and the size after every thousand operations; the key of number 0 is null;
+         */
+        private <K> void runAgainstHashMap(MyHashMap<K, Integer> hashMap, IntFunction<K> keyFactory, int numberOfKeys,
+                                           long seed) {
+            Map<K, Integer> oracle = new HashMap<>();
+            Random operations = new Random(seed);
+            for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                int id = operations.nextInt(numberOfKeys);
+                K key = id == 0 ? null : keyFactory.apply(id);
+                Integer value = operations.nextInt(10) == 0 ? null : i;
+                int operation = operations.nextInt(10);
+                switch (operation) {
+                    case 0:
+                    case 1:
+                        Assertions.assertEquals(oracle.put(key, value), hashMap.put(key, value));
+                        break;
+                    case 2:
+                        Assertions.assertEquals(oracle.putIfAbsent(key, value), hashMap.putIfAbsent(key, value));
+                        break;
+                    case 3:
+                        Assertions.assertEquals(oracle.remove(key), hashMap.remove(key));
+                        break;
+                    case 4:
+                        Assertions.assertEquals(oracle.merge(key, i, Integer::sum), hashMap.merge(key, i, Integer::sum));
+                        break;
+                    case 5:
+                        Assertions.assertEquals(oracle.computeIfAbsent(key, k -> value),
+                                hashMap.computeIfAbsent(key, k -> value));
+                        break;
+                    case 6:
+                        Assertions.assertEquals(oracle.computeIfPresent(key, (k, v) -> value),
+                                hashMap.computeIfPresent(key, (k, v) -> value));
+                        break;
+                    case 7:
+                        Assertions.assertEquals(oracle.compute(key, (k, v) -> v == null ? value : null),
+                                hashMap.compute(key, (k, v) -> v == null ? value : null));
+                        break;
+                    case 8:
+                        Assertions.assertEquals(oracle.containsKey(key), hashMap.containsKey(key));
+                        Assertions.assertEquals(oracle.getOrDefault(key, -1), hashMap.getOrDefault(key, -1));
+                        break;
+                    default:
+                        Assertions.assertEquals(oracle.get(key), hashMap.get(key));
+                }
+                if (i % 1_000 == 0) {
+                    assertSameContents(oracle, hashMap);
+                }
+            }
+            assertSameContents(oracle, hashMap);
+        }
+
+        private <K> void assertSameContents(Map<K, Integer> oracle, MyHashMap<K, Integer> hashMap) {
+            Map<K, Integer> actual = new HashMap<>();
+            int entries = 0;
+            for (MyMap.Entry<K, Integer> entry : hashMap.entrySet()) {
+                actual.put(entry.getKey(), entry.getValue());
+                entries++;
+            }
+            int visited = entries;
+            Assertions.assertAll(
+                    () -> assertEquals(oracle.size(), hashMap.size()),
+                    () -> assertEquals(oracle.size(), visited),
+                    () -> assertEquals(oracle, actual),
+                    () -> assertTrue(hashMap.size() <= hashMap.threshold())
+            );
+        }
+
+        @RepeatedTest(5)
+        void stringKeys(RepetitionInfo repetition) {
+            runAgainstHashMap(new MyHashMap<>(), id -> "key" + id, 2_000, repetition.getCurrentRepetition());
+        }
+
+        @RepeatedTest(5)
+        void keysInFourBuckets(RepetitionInfo repetition) {
+            runAgainstHashMap(new MyHashMap<>(), id -> new Key(id, id % 4), 100, repetition.getCurrentRepetition());
+        }
+
+        @RepeatedTest(5)
+        void comparableKeysInTreeBins(RepetitionInfo repetition) {
+            runAgainstHashMap(new MyHashMap<>(64), id -> new ComparableKey(id, id % 2), 200,
+                    repetition.getCurrentRepetition());
+        }
+
+        @RepeatedTest(5)
+        void incrementalResize(RepetitionInfo repetition) {
+            runAgainstHashMap(new MyHashMap<>(2, 0.75f, true), id -> new Key(id, id % 64), 5_000,
+                    repetition.getCurrentRepetition());
+        }
+
+        @RepeatedTest(5)
+        void shrinkingMap(RepetitionInfo repetition) {
+            runAgainstHashMap(new MyHashMap<>(16, 0.75f, false, null, true), Integer::valueOf, 3_000,
+                    repetition.getCurrentRepetition());
+        }
+
+        @RepeatedTest(5)
+        void caseInsensitiveStrategy(RepetitionInfo repetition) {
+            Random cases = new Random(repetition.getCurrentRepetition());
+            MyHashMap<String, Integer> hashMap = new MyHashMap<>(HashingStrategy.caseInsensitive());
+            Map<String, Integer> oracle = new HashMap<>();
+            for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                String key = "Key" + cases.nextInt(500);
+                String spelling = cases.nextBoolean() ? key.toUpperCase() : key.toLowerCase();
+                if (cases.nextInt(3) == 0) {
+                    Assertions.assertEquals(oracle.remove(key), hashMap.remove(spelling));
+                } else {
+                    Assertions.assertEquals(oracle.put(key, i), hashMap.put(spelling, i));
+                }
+            }
+            Assertions.assertEquals(oracle.size(), hashMap.size());
+        }
+
+        @Test
+        void rePutOfAChainedKeyReplacesItsValue() {
+            MyHashMap<Key, Integer> hashMap = new MyHashMap<>();
+            for (int i = 0; i < 5; i++) {
+                hashMap.put(new Key(i, 7), i);
+            }
+            for (int i = 4; i >= 0; i--) {
+                Assertions.assertEquals(i, hashMap.put(new Key(i, 7), -i));
+            }
+            hashMap.put(null, 1);
+            Assertions.assertAll(
+                    () -> assertEquals(1, hashMap.put(null, 2)),
+                    () -> assertEquals(6, hashMap.size()),
+                    () -> assertEquals(-1, hashMap.get(new Key(1, 7))),
+                    () -> assertEquals(2, hashMap.get(null))
+            );
+        }
+
+        @Test
+        void putsIntoChainsGrowTheTable() {
+            MyHashMap<Key, Integer> hashMap = new MyHashMap<>(16);
+            for (int i = 0; i < 13; i++) {
+                hashMap.put(new Key(i, i % 4), i);
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(32, hashMap.capacity()),
+                    () -> assertEquals(13, hashMap.size())
+            );
+        }
+    }
+
 //    @Nested
 //    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 //    class MyHashMapTestCreationWithMaximumCapacity{
@@ -304,5 +1287,39 @@ class MyHashMapTest {
 //        }
 //    }
 
+    /**
+     * A key with a given hashcode, used to fill one bucket with many different keys;
+     */
+    private static class Key {
+        private final int id;
+        private final int hash;
+
+        Key(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
 
-}
\ No newline at end of file
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return id == ((Key) o).id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class ComparableKey extends Key implements Comparable<ComparableKey> {
+        ComparableKey(int id, int hash) {
+            super(id, hash);
+        }
+
+        @Override
+        public int compareTo(ComparableKey other) {
+            return Integer.compare(((Key) this).id, ((Key) other).id);
+        }
+    }
+}
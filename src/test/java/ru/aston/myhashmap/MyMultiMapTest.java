@@ -0,0 +1,166 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyMultiMapTest {
+    private MyMultiMap<String, Integer> multi;
+
+    @BeforeEach
+    void createMap() {
+        multi = new MyMultiMap<>();
+    }
+
+    @Test
+    void putAndGet() {
+        Assertions.assertAll(
+                () -> assertEquals(List.of(), multi.get("a")),
+                () -> assertEquals(1, multi.put("a", 1)),
+                () -> assertEquals(List.of(1), multi.get("a")),
+                () -> assertEquals(2, multi.put("a", 2)),
+                () -> assertEquals(3, multi.put("a", 1)),
+                () -> assertEquals(List.of(1, 2, 1), multi.get("a")),
+                () -> assertEquals(1, multi.put(null, null)),
+                () -> assertEquals(Collections.singletonList(null), multi.get(null)),
+                () -> assertTrue(multi.containsEntry(null, null)),
+                () -> assertTrue(multi.containsEntry("a", 2)),
+                () -> assertFalse(multi.containsEntry("a", 3)),
+                () -> assertEquals(3, multi.valueCount("a")),
+                () -> assertEquals(4, multi.size()),
+                () -> assertEquals(2, multi.keyCount())
+        );
+    }
+
+    @Test
+    void valuesGrowBeyondTheFirstArray() {
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(i + 1, multi.put("a", i));
+        }
+        List<Integer> values = multi.get("a");
+        Assertions.assertAll(
+                () -> assertEquals(100, values.size()),
+                () -> assertEquals(99, values.get(99)),
+                () -> assertThrows(UnsupportedOperationException.class, () -> values.add(1))
+        );
+    }
+
+    @Test
+    void removeValues() {
+        multi.put("a", 1);
+        multi.put("a", 2);
+        multi.put("a", 3);
+        multi.put("b", 4);
+        Assertions.assertAll(
+                () -> assertFalse(multi.remove("a", 4)),
+                () -> assertTrue(multi.remove("a", 2)),
+                () -> assertEquals(List.of(1, 3), multi.get("a")),
+                () -> assertTrue(multi.remove("a", 1)),
+                () -> assertEquals(List.of(3), multi.get("a")),
+                () -> assertEquals(2, multi.put("a", 5)),
+                () -> assertEquals(List.of(3, 5), multi.get("a")),
+                () -> assertTrue(multi.remove("b", 4)),
+                () -> assertFalse(multi.containsKey("b")),
+                () -> assertEquals(List.of(3, 5), multi.removeAll("a")),
+                () -> assertEquals(List.of(), multi.removeAll("a")),
+                () -> assertTrue(multi.isEmpty()),
+                () -> assertEquals(0, multi.keyCount())
+        );
+    }
+
+    @Test
+    void randomOperationsMatchHashMapOfLists() {
+        MyMultiMap<Integer, Integer> actual = new MyMultiMap<>();
+        Map<Integer, List<Integer>> oracle = new HashMap<>();
+        Random random = new Random(42);
+        int size = 0;
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(1_000);
+            int value = random.nextInt(4);
+            switch (random.nextInt(6)) {
+                case 0:
+                    List<Integer> values = oracle.get(key);
+                    boolean removed = values != null && values.remove((Integer) value);
+                    if (removed) {
+                        size--;
+                        if (values.isEmpty()) {
+                            oracle.remove(key);
+                        }
+                    }
+                    Assertions.assertEquals(removed, actual.remove(key, value));
+                    break;
+                case 1:
+                    List<Integer> all = oracle.remove(key);
+                    size -= all == null ? 0 : all.size();
+                    Assertions.assertEquals(all == null ? List.of() : all, actual.removeAll(key));
+                    break;
+                default:
+                    List<Integer> list = oracle.computeIfAbsent(key, k -> new ArrayList<>());
+                    list.add(value);
+                    size++;
+                    Assertions.assertEquals(list.size(), actual.put(key, value));
+            }
+        }
+        Map<Integer, List<Integer>> seen = new HashMap<>();
+        actual.forEach((key, value) -> seen.computeIfAbsent(key, k -> new ArrayList<>()).add(value));
+        int expectedSize = size;
+        Assertions.assertAll(
+                () -> assertEquals(oracle, seen),
+                () -> assertEquals(expectedSize, actual.size()),
+                () -> assertEquals(oracle.size(), actual.keyCount())
+        );
+    }
+
+    @Test
+    void valuesSurviveTreeBins() {
+        String[] keys = CollidingKeys.of(6).toArray(new String[0]);
+        for (int round = 0; round < 3; round++) {
+            for (String key : keys) {
+                multi.put(key, round);
+            }
+        }
+        Assertions.assertTrue(multi.remove(keys[0], 1));
+        Assertions.assertEquals(List.of(0, 2), multi.get(keys[0]));
+        for (int i = 2; i < keys.length; i++) {
+            Assertions.assertEquals(List.of(0, 1, 2), multi.removeAll(keys[i]));
+        }
+        Assertions.assertAll(
+                () -> assertEquals(List.of(0, 2), multi.get(keys[0])),
+                () -> assertEquals(4, multi.put(keys[1], 3)),
+                () -> assertEquals(List.of(0, 1, 2, 3), multi.get(keys[1])),
+                () -> assertEquals(6, multi.size())
+        );
+    }
+
+    @Test
+    void clearAndToString() {
+        multi.put("a", 1);
+        multi.put("a", 2);
+        Assertions.assertEquals("MyMultiMap{[Key:a /Value: 1],[Key:a /Value: 2],", multi.toString());
+        multi.clear();
+        Assertions.assertAll(
+                () -> assertEquals(0, multi.size()),
+                () -> assertFalse(multi.containsKey("a"))
+        );
+    }
+
+    @Nested
+    class MyMultiMapTestIllegalParameters {
+        @Test
+        void createWithNegativeCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new MyMultiMap<>(-1));
+        }
+
+        @Test
+        void forEachWithNull() {
+            Assertions.assertThrows(NullPointerException.class, () -> multi.forEach(null));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyOpenHashMapTest {
+    private static Random random;
+    private MyOpenHashMap<String, Integer> myOpenHashMap;
+    private Set<String> keys;
+
+    private String generateRandomLine(int length) {
+        char[] array = new char[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = (char) (65 + random.nextInt(25));
+        }
+        return String.valueOf(array);
+    }
+
+    private int calculateValue(String line) {
+        return line.length() * line.charAt(0);
+    }
+
+    private String anyKey() {
+        return (String) keys.toArray()[random.nextInt(keys.size())];
+    }
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @BeforeEach
+    void createFullHashMap() {
+        myOpenHashMap = new MyOpenHashMap<>();
+        keys = new HashSet<>();
+        while (keys.size() < 100) {
+            keys.add(generateRandomLine(3 + random.nextInt(4)));
+        }
+        for (String key : keys) {
+            myOpenHashMap.put(key, calculateValue(key));
+        }
+    }
+
+    @Test
+    void getValueIfThisValueIsExist() {
+        String key = anyKey();
+        Assertions.assertEquals(calculateValue(key), myOpenHashMap.get(key));
+    }
+
+    @Test
+    void getValueIfKeyIsNotExist() {
+        Assertions.assertNull(myOpenHashMap.get(generateRandomLine(8)));
+    }
+
+    @Test
+    void size() {
+        Assertions.assertEquals(keys.size(), myOpenHashMap.size());
+    }
+
+    @Test
+    void clearAllMap() {
+        myOpenHashMap.clear();
+        Assertions.assertAll(
+                () -> assertEquals(0, myOpenHashMap.size()),
+                () -> assertNull(myOpenHashMap.get(anyKey()))
+        );
+    }
+
+    @Test
+    void putIfKeyIsExist() {
+        String key = anyKey();
+        Assertions.assertAll(
+                () -> assertEquals(calculateValue(key), myOpenHashMap.put(key, -1)),
+                () -> assertEquals(-1, myOpenHashMap.get(key)),
+                () -> assertEquals(keys.size(), myOpenHashMap.size())
+        );
+    }
+
+    @Test
+    void putAndRemoveNullKey() {
+        Assertions.assertAll(
+                () -> assertNull(myOpenHashMap.put(null, 1)),
+                () -> assertEquals(1, myOpenHashMap.put(null, 2)),
+                () -> assertTrue(myOpenHashMap.containsKey(null)),
+                () -> assertEquals(2, myOpenHashMap.remove(null)),
+                () -> assertFalse(myOpenHashMap.containsKey(null))
+        );
+    }
+
+    @Test
+    void removeIfKeyIsExist() {
+        String key = anyKey();
+        Assertions.assertAll(
+                () -> assertEquals(calculateValue(key), myOpenHashMap.remove(key)),
+                () -> assertNull(myOpenHashMap.get(key)),
+                () -> assertEquals(keys.size() - 1, myOpenHashMap.size())
+        );
+    }
+
+    @Test
+    void removeIfKeyIsNotExist() {
+        Assertions.assertNull(myOpenHashMap.remove(generateRandomLine(8)));
+    }
+
+    @Test
+    void containsKeyAndValue() {
+        String key = anyKey();
+        Assertions.assertAll(
+                () -> assertTrue(myOpenHashMap.containsKey(key)),
+                () -> assertTrue(myOpenHashMap.containsValue(calculateValue(key))),
+                () -> assertFalse(myOpenHashMap.containsKey(generateRandomLine(8))),
+                () -> assertFalse(myOpenHashMap.containsValue(-1))
+        );
+    }
+
+    @Test
+    void entrySetIfAllAreExist() {
+        Set<String> actualKeys = new HashSet<>();
+        for (MyMap.Entry<String, Integer> item : myOpenHashMap.entrySet()) {
+            actualKeys.add(item.getKey());
+            Assertions.assertEquals(calculateValue(item.getKey()), item.getValue());
+        }
+        Assertions.assertEquals(keys, actualKeys);
+    }
+
+    @Test
+    void removalKeepsCollidedKeysReachable() {
+        MyOpenHashMap<Integer, Integer> map = new MyOpenHashMap<>(8);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Nested
+    class MyOpenHashMapTestConstructorsWithIllegalParameters {
+        @Test
+        void createWithNegativeCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new MyOpenHashMap<String, Integer>(-5));
+        }
+
+        @Test
+        void createWithFullLoadFactor() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new MyOpenHashMap<String, Integer>(15, 1f));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapMyHashMapTest {
+    private static Random random;
+    private OffHeapMyHashMap<String, byte[]> offHeapMap;
+    private Set<String> keys;
+
+    private String generateRandomLine(int length) {
+        char[] array = new char[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = (char) (65 + random.nextInt(25));
+        }
+        return String.valueOf(array);
+    }
+
+    private byte[] calculateValue(String line) {
+        return (line + line.length()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String anyKey() {
+        return (String) keys.toArray()[random.nextInt(keys.size())];
+    }
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @BeforeEach
+    void createFullMap() {
+        offHeapMap = new OffHeapMyHashMap<>(Serializer.STRING, Serializer.BYTE_ARRAY);
+        keys = new HashSet<>();
+        while (keys.size() < 100) {
+            keys.add(generateRandomLine(3 + random.nextInt(20)));
+        }
+        for (String key : keys) {
+            offHeapMap.put(key, calculateValue(key));
+        }
+    }
+
+    @Test
+    void getValueIfThisValueIsExist() {
+        String key = anyKey();
+        Assertions.assertArrayEquals(calculateValue(key), offHeapMap.get(key));
+    }
+
+    @Test
+    void getValueIfKeyIsNotExist() {
+        Assertions.assertAll(
+                () -> assertNull(offHeapMap.get(generateRandomLine(30))),
+                () -> assertNull(offHeapMap.get(null))
+        );
+    }
+
+    @Test
+    void keysAndValuesOfAnotherTypeAreAbsent() {
+        int size = offHeapMap.size();
+        Assertions.assertAll(
+                () -> assertNull(offHeapMap.get(42)),
+                () -> assertFalse(offHeapMap.containsKey(42L)),
+                () -> assertNull(offHeapMap.remove(new Object())),
+                () -> assertFalse(offHeapMap.containsValue("value")),
+                () -> assertEquals(size, offHeapMap.size())
+        );
+    }
+
+    @Test
+    void size() {
+        Assertions.assertEquals(keys.size(), offHeapMap.size());
+    }
+
+    @Test
+    void putValuesOfOtherLength() {
+        String key = anyKey();
+        byte[] oldValue = calculateValue(key);
+        byte[] sameLength = new byte[oldValue.length];
+        byte[] longer = new byte[oldValue.length + 100];
+        Arrays.fill(longer, (byte) 7);
+        Assertions.assertAll(
+                () -> assertArrayEquals(oldValue, offHeapMap.put(key, sameLength)),
+                () -> assertArrayEquals(sameLength, offHeapMap.get(key)),
+                () -> assertArrayEquals(sameLength, offHeapMap.put(key, longer)),
+                () -> assertArrayEquals(longer, offHeapMap.get(key)),
+                () -> assertEquals(keys.size(), offHeapMap.size()),
+                () -> assertTrue(offHeapMap.garbageBytes() > 0)
+        );
+    }
+
+    @Test
+    void removeIfKeyIsExist() {
+        String key = anyKey();
+        Assertions.assertAll(
+                () -> assertArrayEquals(calculateValue(key), offHeapMap.remove(key)),
+                () -> assertNull(offHeapMap.get(key)),
+                () -> assertFalse(offHeapMap.containsKey(key)),
+                () -> assertNull(offHeapMap.remove(key)),
+                () -> assertEquals(keys.size() - 1, offHeapMap.size())
+        );
+    }
+
+    @Test
+    void containsKeyAndValue() {
+        String key = anyKey();
+        Assertions.assertAll(
+                () -> assertTrue(offHeapMap.containsKey(key)),
+                () -> assertTrue(offHeapMap.containsValue(calculateValue(key))),
+                () -> assertFalse(offHeapMap.containsKey(generateRandomLine(30))),
+                () -> assertFalse(offHeapMap.containsValue(new byte[]{1}))
+        );
+    }
+
+    @Test
+    void entrySetIfAllAreExist() {
+        Set<String> actualKeys = new HashSet<>();
+        for (MyMap.Entry<String, byte[]> item : offHeapMap.entrySet()) {
+            actualKeys.add(item.getKey());
+            Assertions.assertArrayEquals(calculateValue(item.getKey()), item.getValue());
+        }
+        Assertions.assertEquals(keys, actualKeys);
+    }
+
+    @Test
+    void clearAllMap() {
+        offHeapMap.clear();
+        Assertions.assertAll(
+                () -> assertEquals(0, offHeapMap.size()),
+                () -> assertNull(offHeapMap.get(anyKey())),
+                () -> assertEquals(0, offHeapMap.liveBytes())
+        );
+    }
+
+    @Test
+    void nullKeysAndValuesAreRejected() {
+        Assertions.assertAll(
+                () -> assertThrows(NullPointerException.class, () -> offHeapMap.put(null, new byte[0])),
+                () -> assertThrows(NullPointerException.class, () -> offHeapMap.put("a", null))
+        );
+    }
+
+    @Test
+    void byteArrayKeysAreComparedByContents() {
+        OffHeapMyHashMap<byte[], Integer> map = new OffHeapMyHashMap<>(Serializer.BYTE_ARRAY, Serializer.INTEGER);
+        map.put(new byte[]{1, 2, 3}, 1);
+        Assertions.assertAll(
+                () -> assertEquals(1, map.put(new byte[]{1, 2, 3}, 2)),
+                () -> assertEquals(2, map.get(new byte[]{1, 2, 3})),
+                () -> assertEquals(1, map.size())
+        );
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        OffHeapMyHashMap<Long, String> map = new OffHeapMyHashMap<>(Serializer.LONG, Serializer.STRING, 8, 1024);
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) > 0) {
+                String value = generateRandomLine(1 + random.nextInt(40));
+                Assertions.assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        /*
+         *the slabs are compacted, so the garbage never exceeds the live data by more than a slab
+         */
+        Assertions.assertTrue(map.garbageBytes() <= map.liveBytes() + 1024 + 64);
+    }
+
+    @Test
+    void largeRecordsGetSlabsOfTheirOwn() {
+        OffHeapMyHashMap<String, byte[]> map = new OffHeapMyHashMap<>(Serializer.STRING, Serializer.BYTE_ARRAY, 16, 64);
+        byte[] large = new byte[10_000];
+        large[9_999] = 1;
+        map.put("large", large);
+        Assertions.assertAll(
+                () -> assertArrayEquals(large, map.get("large")),
+                () -> assertTrue(map.offHeapBytes() >= 10_000)
+        );
+    }
+
+    @Nested
+    class OffHeapMyHashMapTestConstructorsWithIllegalParameters {
+        @Test
+        void createWithNegativeCapacity() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new OffHeapMyHashMap<>(Serializer.STRING, Serializer.STRING, -5));
+        }
+
+        @Test
+        void createWithTooSmallSlab() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new OffHeapMyHashMap<>(Serializer.STRING, Serializer.STRING, 16, 8));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveMyHashMapsTest {
+    private static final int NUMBER_OF_OPERATIONS = 20_000;
+    private static final int KEY_RANGE = 2_000;
+    private static Random random;
+
+    @BeforeAll
+    static void init() {
+        random = new Random();
+    }
+
+    @Nested
+    class IntIntMyHashMapTest {
+        private IntIntMyHashMap map;
+
+        @BeforeEach
+        void createMap() {
+            map = new IntIntMyHashMap(4, 0.75f, -1);
+        }
+
+        @Test
+        void absentKeyReturnsNoValue() {
+            Assertions.assertAll(
+                    () -> assertEquals(-1, map.get(42)),
+                    () -> assertEquals(-1, map.put(42, 7)),
+                    () -> assertEquals(7, map.get(42)),
+                    () -> assertEquals(7, map.remove(42)),
+                    () -> assertEquals(-1, map.remove(42)),
+                    () -> assertNull(map.get((Object) 42))
+            );
+        }
+
+        @Test
+        void zeroKeyIsAnOrdinaryKey() {
+            Assertions.assertAll(
+                    () -> assertFalse(map.containsKey(0)),
+                    () -> assertEquals(-1, map.put(0, 5)),
+                    () -> assertTrue(map.containsKey(0)),
+                    () -> assertEquals(5, map.get(0)),
+                    () -> assertEquals(1, map.size()),
+                    () -> assertEquals(5, map.remove(0)),
+                    () -> assertEquals(0, map.size())
+            );
+        }
+
+        @Test
+        void randomOperationsMatchHashMap() {
+            Map<Integer, Integer> expected = new HashMap<>();
+            for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                int key = random.nextInt(KEY_RANGE) - KEY_RANGE / 2;
+                if (random.nextBoolean()) {
+                    Assertions.assertEquals(expected.put(key, i), map.put((Integer) key, (Integer) i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove((Object) key));
+                }
+            }
+            Set<Integer> actualKeys = new HashSet<>();
+            for (MyMap.Entry<Integer, Integer> entry : map.entrySet()) {
+                actualKeys.add(entry.getKey());
+                Assertions.assertEquals(expected.get(entry.getKey()), entry.getValue());
+            }
+            Assertions.assertAll(
+                    () -> assertEquals(expected.size(), map.size()),
+                    () -> assertEquals(expected.keySet(), actualKeys)
+            );
+        }
+    }
+
+    @Nested
+    class LongObjMyHashMapTest {
+        private LongObjMyHashMap<String> map;
+
+        @BeforeEach
+        void createMap() {
+            map = new LongObjMyHashMap<>(4, 0.75f);
+        }
+
+        @Test
+        void putGetRemove() {
+            long key = Long.MAX_VALUE - 1;
+            Assertions.assertAll(
+                    () -> assertNull(map.put(key, "a")),
+                    () -> assertEquals("a", map.put(key, "b")),
+                    () -> assertEquals("b", map.get(key)),
+                    () -> assertTrue(map.containsKey((Object) key)),
+                    () -> assertEquals("b", map.remove(key)),
+                    () -> assertFalse(map.containsKey(key)),
+                    () -> assertNull(map.put(0L, "zero")),
+                    () -> assertEquals("zero", map.get(0L)),
+                    () -> assertEquals(1, map.size())
+            );
+        }
+
+        @Test
+        void randomOperationsMatchHashMap() {
+            Map<Long, String> expected = new HashMap<>();
+            for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                long key = ((long) random.nextInt(KEY_RANGE)) << 32;
+                if (random.nextBoolean()) {
+                    Assertions.assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            for (Map.Entry<Long, String> entry : expected.entrySet()) {
+                Assertions.assertEquals(entry.getValue(), map.get(entry.getKey().longValue()));
+            }
+        }
+    }
+
+    @Nested
+    class ObjLongMyHashMapTest {
+        private ObjLongMyHashMap<String> map;
+
+        @BeforeEach
+        void createMap() {
+            map = new ObjLongMyHashMap<>(4, 0.75f, Long.MIN_VALUE);
+        }
+
+        @Test
+        void absentKeyReturnsNoValue() {
+            Assertions.assertAll(
+                    () -> assertEquals(Long.MIN_VALUE, map.getLong("key")),
+                    () -> assertEquals(Long.MIN_VALUE, map.putLong("key", 3L)),
+                    () -> assertEquals(3L, map.getLong("key")),
+                    () -> assertEquals(3L, map.get("key")),
+                    () -> assertEquals(3L, map.removeLong("key")),
+                    () -> assertNull(map.get("key")),
+                    () -> assertEquals(Long.MIN_VALUE, map.putLong(null, 1L)),
+                    () -> assertEquals(1L, map.getLong(null))
+            );
+        }
+
+        @Test
+        void randomOperationsMatchHashMap() {
+            Map<String, Long> expected = new HashMap<>();
+            for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+                String key = "key" + random.nextInt(KEY_RANGE);
+                if (random.nextBoolean()) {
+                    Assertions.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                } else {
+                    Assertions.assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+            for (Map.Entry<String, Long> entry : expected.entrySet()) {
+                Assertions.assertEquals(entry.getValue(), map.getLong(entry.getKey()));
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package ru.aston.myhashmap;
+
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedMyHashMapTest {
+    private ShardedMyHashMap<Integer, Integer> map;
+
+    @BeforeEach
+    void createMap() {
+        map = new ShardedMyHashMap<>();
+    }
+
+    @Test
+    void putGetRemove() {
+        Assertions.assertAll(
+                () -> assertNull(map.get(1)),
+                () -> assertNull(map.remove(1)),
+                () -> assertNull(map.put(1, 1)),
+                () -> assertEquals(1, map.put(1, 2)),
+                () -> assertEquals(2, map.get(1)),
+                () -> assertTrue(map.containsKey(1)),
+                () -> assertTrue(map.containsValue(2)),
+                () -> assertEquals(-1, map.getOrDefault(3, -1)),
+                () -> assertEquals(1, map.size()),
+                () -> assertEquals(2, map.remove(1)),
+                () -> assertNull(map.remove(1)),
+                () -> assertEquals(0, map.mappingCount())
+        );
+    }
+
+    @Test
+    void nullKeysAndValues() {
+        ShardedMyHashMap<String, Integer> nullable = new ShardedMyHashMap<>(3);
+        nullable.put(null, 1);
+        nullable.put("a", null);
+        Assertions.assertAll(
+                () -> assertEquals(1, nullable.get(null)),
+                () -> assertTrue(nullable.containsKey("a")),
+                () -> assertEquals(5, nullable.getOrDefault("b", 5)),
+                () -> assertNull(nullable.getOrDefault("a", 5)),
+                () -> assertTrue(nullable.containsValue(null)),
+                () -> assertEquals(1, nullable.remove(null)),
+                () -> assertEquals(1, nullable.size())
+        );
+    }
+
+    @Test
+    void sequentialKeysAreSpreadOverTheShards() {
+        for (int i = 0; i < 160_000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < map.shardCount(); i++) {
+            int shardSize = map.shard(i).size();
+            Assertions.assertTrue(shardSize > 9_000 && shardSize < 11_000, "shard " + i + " holds " + shardSize);
+        }
+        for (int i = 0; i < 160_000; i++) {
+            Assertions.assertEquals(i, map.get(i));
+        }
+        Assertions.assertEquals(160_000, map.mappingCount());
+    }
+
+    @Test
+    void shardsResizeIndependently() {
+        ShardedMyHashMap<Integer, Integer> sharded = new ShardedMyHashMap<>(4);
+        int key = 0;
+        while (sharded.shard(0).capacity() < 1_024) {
+            sharded.put(key, key);
+            key++;
+        }
+        int grown = 0;
+        for (int i = 0; i < sharded.shardCount(); i++) {
+            if (sharded.shard(i).capacity() >= 1_024) {
+                grown++;
+            }
+        }
+        Assertions.assertEquals(1, grown);
+    }
+
+    @Test
+    void expectedSizePresizesTheShards() {
+        ShardedMyHashMap<Integer, Integer> sharded = new ShardedMyHashMap<>(8, 80_000, 0.75f, true);
+        Assertions.assertAll(
+                () -> assertEquals(0, sharded.shard(0).capacity()),
+                () -> assertEquals(16_384, sharded.shard(0).threshold()),
+                () -> assertTrue(sharded.shard(7).isIncrementalResize())
+        );
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        ShardedMyHashMap<Integer, Integer> sharded = new ShardedMyHashMap<>(5);
+        Map<Integer, Integer> oracle = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(3_000);
+            switch (random.nextInt(5)) {
+                case 0:
+                    Assertions.assertEquals(oracle.put(key, i), sharded.put(key, i));
+                    break;
+                case 1:
+                    Assertions.assertEquals(oracle.remove(key), sharded.remove(key));
+                    break;
+                case 2:
+                    Assertions.assertEquals(oracle.merge(key, 1, Integer::sum), sharded.merge(key, 1, Integer::sum));
+                    break;
+                case 3:
+                    Assertions.assertEquals(oracle.putIfAbsent(key, i), sharded.putIfAbsent(key, i));
+                    break;
+                default:
+                    Assertions.assertEquals(oracle.get(key), sharded.get(key));
+            }
+        }
+        Map<Integer, Integer> actual = new HashMap<>();
+        for (MyMap.Entry<Integer, Integer> entry : sharded.entrySet()) {
+            actual.put(entry.getKey(), entry.getValue());
+        }
+        Assertions.assertAll(
+                () -> assertEquals(oracle, actual),
+                () -> assertEquals(oracle.size(), sharded.size())
+        );
+    }
+
+    @Test
+    void iterationAndBulkOperations() {
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, i);
+        }
+        long sum = map.parallelStream().mapToLong(MyMap.Entry::getValue).sum();
+        map.replaceAll((key, value) -> value * 2);
+        int removed = 0;
+        for (Iterator<MyMap.Entry<Integer, Integer>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getKey() % 2 == 0) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        int removedEntries = removed;
+        Assertions.assertAll(
+                () -> assertEquals(4_999_950_000L, sum),
+                () -> assertEquals(50_000, removedEntries),
+                () -> assertEquals(50_000, map.size()),
+                () -> assertEquals(2, map.get(1)),
+                () -> assertNull(map.get(2)),
+                () -> assertTrue(map.containsValue(199_998)),
+                () -> assertEquals(50_000, map.keySet().size()),
+                () -> assertEquals(2, map.getAll(List.of(1, 2, 3)).size())
+        );
+        map.clear();
+        Assertions.assertAll(
+                () -> assertEquals(0, map.size()),
+                () -> assertFalse(map.entrySet().iterator().hasNext())
+        );
+    }
+
+    @Test
+    void tableSizeIsCappedAtAPowerOfTwo() {
+        Assertions.assertAll(
+                () -> assertEquals(1 << 30, MyHashMap.MAXIMUM_CAPACITY),
+                () -> assertEquals(MyHashMap.MAXIMUM_CAPACITY, MyHashMap.tableSizeFor(Integer.MAX_VALUE)),
+                () -> assertEquals(MyHashMap.MAXIMUM_CAPACITY, MyHashMap.tableSizeFor(MyHashMap.MAXIMUM_CAPACITY + 1))
+        );
+    }
+
+    @Nested
+    class ShardedMyHashMapTestIllegalParameters {
+        @Test
+        void createWithIllegalShardCount() {
+            Assertions.assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> new ShardedMyHashMap<>(0)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> new ShardedMyHashMap<>((1 << 16) + 1))
+            );
+        }
+
+        @Test
+        void createWithIllegalSizeOrLoadFactor() {
+            Assertions.assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> new ShardedMyHashMap<>(4, -1, 0.75f, false)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> new ShardedMyHashMap<>(4, 0, 0f, false)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> new ShardedMyHashMap<>(4, 0, Float.NaN, false))
+            );
+        }
+
+        @Test
+        void iteratorRemoveNeedsNext() {
+            Assertions.assertThrows(IllegalStateException.class, () -> map.entrySet().iterator().remove());
+        }
+    }
+}